@@ -0,0 +1,1268 @@
+package inkball;
+
+import processing.core.PApplet;
+import processing.core.PGraphics;
+import processing.core.PImage;
+import processing.event.KeyEvent;
+import processing.event.MouseEvent;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The {@code App} class is the main entry point for the Inkball game.
+ * It extends the {@code PApplet} class to manage the game window,
+ * handle input events, load resources, and control the game loop.
+ */
+
+public class App extends PApplet {
+
+    // Game  constants
+    public static final int CELLSIZE = Engine.CELLSIZE;
+    public static final int CELLHEIGHT = 32;
+    public static final int CELLAVG = 32;
+    public static final int TOPBAR = Engine.TOPBAR;
+    public static int WIDTH = Engine.WIDTH;
+    public static int HEIGHT = Engine.HEIGHT;
+    public static final int BOARD_WIDTH = Engine.BOARD_WIDTH;
+    public static final int BOARD_HEIGHT = Engine.BOARD_HEIGHT;
+    public static final int INITIAL_PARACHUTES = 1;
+    public static final int FPS = Engine.FPS;
+    public static final int EXPORT_FRAME_RATE = 1000; // Frame rate cap while exporting, so export runs faster than real time
+    public static final int SCROLL_STEP = CELLSIZE * 2; // Distance the camera moves for each arrow key press
+    public static final int MAX_CATCH_UP_TICKS = 5; // Most ticks run in one frame when the game falls behind
+    public static final int MAX_SKIPPED_FRAMES = 4; // Most frames skipped in a row to let the ticks catch up
+    public static final int FAST_FORWARD_MAX = 0; // Fast-forward speed running as many ticks as fit in each frame
+    public static final int SCRUB_BAR_HEIGHT = 12; // Height of the bar along the bottom of the window that seeks a replay
+    public static final int[] FAST_FORWARD_SPEEDS = {1, 2, 4, 16, FAST_FORWARD_MAX}; // Speeds cycled through with F
+
+    // Game state variables
+    public String configPath;
+    public long seed; // Seed of the session's randomness, from --seed or drawn at launch
+    public Game game;
+
+    public HashMap<String, PImage> sprites = new HashMap<>(); // Decoded sprites by file name, looked up by the renderer
+    public SpriteCache spriteCache = new SpriteCache(); // Pre-scaled sprites shared by every level
+    public AssetLoader assetLoader; // Loader decoding the sprites in the background
+    public SketchRenderer renderer = new SketchRenderer(null, sprites::get, spriteCache); // Draws the levels onto whichever graphics the game is drawn on
+    public GetConfig config;
+    public ConfigRepository configRepository; // Parsed levels, reloaded when the files change
+    public LevelSource levelSource; // Where levels are read from: the config repository or a level pack
+    public LevelPrefetcher prefetcher; // Builder of the next level in the background
+    public LaunchOptions options = new LaunchOptions(); // Options the game was started with
+    public PixelCompositor compositor; // Software backend drawing the board, or null to draw through image()
+    public SimulationThread simulationThread; // Thread running the simulation in threaded mode, or null
+    public ConcurrentLinkedQueue<InputEvent> pendingInputs = new ConcurrentLinkedQueue<>(); // Inputs waiting for the simulation thread
+    public AtomicReference<GameSnapshot> latestSnapshot = new AtomicReference<>(); // Latest state published by the simulation thread
+    public FrameExporter frameExporter; // Writer of exported frames in export mode, or null
+    public PGraphics exportCanvas; // Offscreen graphics the exported frames are drawn on
+    public LevelEditor editor; // Editor painting on the current level while editor mode is on, or null
+    public LevelEditor idleEditor; // Editor of the current level kept while editor mode is off, so its layout survives, or null
+    public TickClock clock = new TickClock(FPS, MAX_CATCH_UP_TICKS, MAX_SKIPPED_FRAMES); // Paces the ticks in real time
+    public int speed = 1; // Fast-forward speed: ticks run per tick of the clock, or FAST_FORWARD_MAX
+    public long renderNanos = 0; // Time the last frame took to draw, left free when fast-forwarding at full speed
+
+    //  Game state flags
+    public boolean isPaused = false;
+    public long pausedTicks = 0; // Ticks run while paused on this level, counted by the tick clock rather than by frames drawn
+    public float elapsedTime = 0;
+    public int levelIndex = 0;
+    public boolean levelCompleted = false;
+    public boolean levelFailed = false;
+
+    // Score tracking
+    public Scoreboard scoreboard = new Scoreboard(); // Score of the game, shared with the level being played
+    public float previousLevelScore = 0;
+    public byte[] quickSave; // State saved with K and restored with L, or null before the first save
+    public long tick = 0; // Number of simulation ticks run this session
+    public InputLog recording; // Inputs applied so far, written on exit with --record, or null
+    public Replay replay; // Log being played back with --replay, or null
+    public RolloutPlayer player; // Draws the ink in place of the mouse with --bot, or null
+    public KeyframeIndex keyframes; // Keyframes of the session being recorded or played back, or null
+    public volatile long seekTarget = -1; // Tick the scrub bar asked the replay to seek to, or -1
+
+    /**
+     * Constructs the {@code App} class and sets the path to the configuration file.
+     */
+    public App() {
+        this.configPath = "config.json";
+    }
+
+    /**
+     * Initialise the setting of the window size, and start loading the sprites while the window opens.
+     */
+    @Override
+    public void settings() {
+        size(WIDTH, HEIGHT);
+        options = LaunchOptions.parse(args);
+        startLoadingAssets();
+    }
+
+    /**
+     * Starts decoding every sprite on the asset loader's worker threads.
+     */
+    public void startLoadingAssets() {
+        if (assetLoader == null) {
+            File cacheDirectory = options.assetCacheDirectory == null ? null : new File(options.assetCacheDirectory);
+            assetLoader = new AssetLoader(cacheDirectory, options.assetThreads);
+            assetLoader.preload(AssetLoader.SPRITES);
+        }
+    }
+
+    /**
+     * Load all resources such as images. Initialise the elements such as the player and map elements.
+     */
+    @Override
+    public void setup() {
+        frameRate(FPS);
+        if (options.softwareCompositor && compositor == null) {
+            compositor = new PixelCompositor(options.compositorThreads);
+        }
+        if (options.exportDirectory != null && frameExporter == null) {
+            frameExporter = new FrameExporter(new File(options.exportDirectory), WIDTH, HEIGHT, options.exportThreads, options.exportThreads * 2);
+            exportCanvas = createGraphics(WIDTH, HEIGHT);
+            frameRate(EXPORT_FRAME_RATE);
+        }
+        startLoadingAssets();
+
+        for (String name : AssetLoader.SPRITES) {
+            sprites.put(name, assetLoader.get(name));
+        }
+        assetLoader.shutdown();
+
+        if (options.warmUp) {
+            warmUp();
+        }
+        startSession();
+
+        if (options.threaded && frameExporter == null && simulationThread == null) {
+            simulationThread = new SimulationThread(this, FPS);
+            simulationThread.start();
+        }
+
+    }
+
+    /**
+     * Opens the levels and builds the first one, seeded from the launch options. With {@code --replay}
+     * the seed and first level come from the log played back, with {@code --record} the inputs
+     * start being recorded, and with {@code --bot} a player is set up to draw the ink.
+     *
+     * @throws UncheckedIOException if the log to play back cannot be read
+     */
+    public void startSession() {
+        openLevelSource();
+        if (prefetcher == null) {
+            prefetcher = new LevelPrefetcher(this::prepareLevel);
+        }
+        if (options.startLevel > 0) {
+            levelIndex = Math.min(options.startLevel, levelSource.levelCount() - 1);
+        }
+        speed = options.speed;
+        seed = options.seed != null ? options.seed : new SplittableRandom().nextLong();
+        if (options.replayPath != null) {
+            try {
+                replay = new Replay(InputLog.read(new File(options.replayPath)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read input log " + options.replayPath, e);
+            }
+            seed = replay.log.seed;
+            levelIndex = Math.min(replay.log.startLevel, levelSource.levelCount() - 1);
+        }
+        if (options.recordPath != null) {
+            recording = new InputLog(seed, levelIndex);
+        }
+        if (options.bot && replay == null && player == null) {
+            player = new RolloutPlayer(Runtime.getRuntime().availableProcessors(), options.botBudgetMillis * 1_000_000);
+        }
+        config = new GetConfig(configPath);
+
+
+        game = new Game(BOARD_WIDTH, BOARD_HEIGHT, CELLSIZE, TOPBAR);
+        game.currentLevel.scoreboard = scoreboard;
+        game.currentLevel.seed(levelSeed(levelIndex));
+
+        config.loadConfig(levelSource.level(levelIndex));
+        hashLevel();
+        if (recording != null || replay != null) {
+            loadLevelLayout();
+            openKeyframes();
+        }
+    }
+
+    /**
+     * Opens the keyframes stored beside the log being played back or recorded, and stores the
+     * first one if it is missing. Without keyframes a replay can still play, but not seek back.
+     */
+    public void openKeyframes() {
+        String path = (replay != null ? options.replayPath : options.recordPath) + ".keys";
+        long logId = replay != null ? replay.log.id : recording.id;
+        try {
+            keyframes = new KeyframeIndex(new File(path), logId, KeyframeIndex.DEFAULT_INTERVAL_TICKS);
+            captureKeyframe();
+        } catch (IOException e) {
+            System.err.println("Could not open keyframes " + path + ": " + e.getMessage());
+            keyframes = null;
+        }
+    }
+
+    /**
+     * Stores a keyframe if one is due at the current tick and has not been stored before.
+     * No keyframe is stored while the level is being edited.
+     */
+    public void captureKeyframe() {
+        if (keyframes == null || !keyframes.isDue(tick) || game.currentLevel.template == null) {
+            return;
+        }
+        int inputIndex = replay != null ? replay.next : recording.entries.size();
+        try {
+            keyframes.append(tick, inputIndex, GameState.save(this));
+        } catch (IOException e) {
+            System.err.println("Could not store keyframe: " + e.getMessage());
+            closeKeyframes();
+        }
+    }
+
+    /**
+     * Closes the keyframes, if open.
+     */
+    public void closeKeyframes() {
+        if (keyframes == null) {
+            return;
+        }
+        try {
+            keyframes.close();
+        } catch (IOException e) {
+            System.err.println("Could not close keyframes: " + e.getMessage());
+        }
+        keyframes = null;
+    }
+
+    /**
+     * Moves the replay to a tick: the nearest keyframe at or before it is restored, unless the
+     * replay is already between the two, and the ticks after it are simulated. Ticks beyond the
+     * keyframes stored so far are simulated from wherever the replay is, storing keyframes as it goes.
+     *
+     * @param targetTick the tick to move to, clamped to the length of the log
+     */
+    public void seek(long targetTick) {
+        if (replay == null) {
+            return;
+        }
+        long target = Math.max(0, Math.min(targetTick, replay.log.finalTick));
+        if (keyframes != null && (target < tick || target - tick > keyframes.interval)) {
+            try {
+                KeyframeIndex.Keyframe keyframe = keyframes.floor(target);
+                if (keyframe != null && (target < tick || keyframe.tick > tick)) {
+                    GameState.restore(this, keyframe.state);
+                    tick = keyframe.tick;
+                    replay.next = keyframe.inputIndex;
+                }
+            } catch (IOException e) {
+                System.err.println("Could not seek: " + e.getMessage());
+            }
+        }
+        while (tick < target && replay != null) {
+            stepSimulation();
+        }
+    }
+
+    /**
+     * Seeks to the tick last asked for from the scrub bar, if any.
+     */
+    public void applySeek() {
+        long target = seekTarget;
+        if (target >= 0) {
+            seekTarget = -1;
+            seek(target);
+        }
+    }
+
+    /**
+     * Plays the warm-up board offscreen, so the first level starts with its hot paths compiled
+     * and the sprites it draws already scaled.
+     */
+    public void warmUp() {
+        Level level = new Level(BOARD_WIDTH, BOARD_HEIGHT, CELLSIZE, TOPBAR);
+        WarmUp.run(level, options.warmUpTicks, new SketchRenderer(createGraphics(WIDTH, HEIGHT), sprites::get, spriteCache));
+    }
+
+    /**
+     * Opens the level pack given on the command line, or otherwise parses the config file and
+     * its layouts and starts watching them so that edits are picked up the next time a level starts.
+     */
+    public void openLevelSource() {
+        if (levelSource != null) {
+            return;
+        }
+        if (options.packPath != null) {
+            try {
+                levelSource = LevelPack.open(new File(options.packPath), LevelPack.DEFAULT_CACHED_LEVELS);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open level pack " + options.packPath, e);
+            }
+            return;
+        }
+        try {
+            configRepository = new ConfigRepository(configPath);
+            configRepository.startWatching();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load " + configPath, e);
+        }
+        levelSource = configRepository;
+    }
+
+    /**
+     * Returns whether the current level is the last one.
+     *
+     * @return {@code true} if there is no level after the current one
+     */
+    public boolean isLastLevel() {
+        return levelIndex >= levelSource.levelCount() - 1;
+    }
+
+    /**
+     * Receive key pressed signal from the keyboard to pause the game or restart the game or level.
+     */
+    @Override
+    public void keyPressed(KeyEvent event){
+        handleInput(InputEvent.keyPressed(key, keyCode));
+    }
+
+    /**
+     * Receive key released signal from the keyboard.
+     */
+    @Override
+    public void keyReleased(){
+
+    }
+
+    /**
+     * Receive mouse press signals from the keyboard to draw lines or remove lines.
+     *
+     * @param e
+     */
+    @Override
+    public void mousePressed(MouseEvent e) {
+        handleInput(InputEvent.mousePressed(mouseX, mouseY, mouseButton, keyPressed && keyCode == CONTROL));
+    }
+
+    /**
+     * Receive mouse drag signals from the keyboard to draw lines.
+     *
+     * @param e
+     */
+    @Override
+    public void mouseDragged(MouseEvent e) {
+        handleInput(InputEvent.mouseDragged(mouseX, mouseY, mouseButton));
+    }
+
+    /**
+     * Receive mouse release signals.
+     *
+     * @param e
+     */
+    @Override
+    public void mouseReleased(MouseEvent e) {
+
+    }
+
+    /**
+     * Applies an input straight away, or queues it for the simulation thread when one is running.
+     * Inputs from the window are ignored while a log is played back, apart from presses and
+     * drags on the scrub bar, which seek the replay.
+     *
+     * @param input the input received by the window
+     */
+    public void handleInput(InputEvent input) {
+        Replay playing = replay;
+        if (playing != null) {
+            if (input.type != InputEvent.Type.KEY_PRESSED && input.y >= HEIGHT - SCRUB_BAR_HEIGHT) {
+                seekTarget = Math.round(Math.max(0, Math.min(1, input.x / WIDTH)) * playing.log.finalTick);
+            }
+            return;
+        }
+        if (simulationThread != null) {
+            pendingInputs.add(input);
+        } else {
+            applyInput(input);
+        }
+    }
+
+    /**
+     * Applies an input to the game state, recording it with the current tick when recording.
+     *
+     * @param input the input to apply
+     */
+    public void applyInput(InputEvent input) {
+        if (recording != null) {
+            recording.add(tick, input);
+        }
+        switch (input.type) {
+            case KEY_PRESSED:
+                pressKey(input.key, input.keyCode);
+                break;
+
+            case MOUSE_PRESSED:
+                pressMouse(toBoardX(input.x), toBoardY(input.y), input.button, input.control);
+                break;
+
+            case MOUSE_DRAGGED:
+                dragMouse(toBoardX(input.x), toBoardY(input.y), input.button);
+                break;
+        }
+    }
+
+    /**
+     * Converts a horizontal window position to a position on the scrolled board.
+     *
+     * @param x the x-coordinate in the window
+     * @return the x-coordinate on the board
+     */
+    public float toBoardX(float x) {
+        return x + game.currentLevel.camera.x;
+    }
+
+    /**
+     * Converts a vertical window position to a position on the scrolled board.
+     * Positions over the top bar are left as they are, so they stay off the board.
+     *
+     * @param y the y-coordinate in the window
+     * @return the y-coordinate on the board
+     */
+    public float toBoardY(float y) {
+        return y <= TOPBAR ? y : y + game.currentLevel.camera.y;
+    }
+
+    /**
+     * Pauses or resumes the game on space, restarts the level or the game on {@code R},
+     * scrolls boards larger than the window with the arrow keys, turns editor mode on or off on {@code E},
+     * changes the fast-forward speed on {@code F}, saves the game on {@code K} and restores it on {@code L},
+     * and moves to the previous or next level on {@code [} and {@code ]}.
+     *
+     * @param pressedKey     the key that was pressed
+     * @param pressedKeyCode the key code of the key that was pressed
+     */
+    public void pressKey(char pressedKey, int pressedKeyCode) {
+        if (pressedKey == 'f' || pressedKey == 'F') {
+            cycleSpeed();
+            return;
+        }
+        if (pressedKey == 'e' || pressedKey == 'E') {
+            toggleEditor();
+            return;
+        }
+        if (editor != null && pressEditorKey(pressedKey, pressedKeyCode)) {
+            return;
+        }
+        if (pressedKey == 'k' || pressedKey == 'K') {
+            quickSave();
+            return;
+        }
+        if (pressedKey == 'l' || pressedKey == 'L') {
+            quickLoad();
+            return;
+        }
+        if (pressedKey == '[' || pressedKey == ']') {
+            int index = levelIndex + (pressedKey == ']' ? 1 : -1);
+            if (index >= 0 && index < levelSource.levelCount()) {
+                selectLevel(index);
+            }
+            return;
+        }
+
+        if ((pressedKey == ' ' || pressedKeyCode == 32) && !levelFailed) {
+            isPaused = !isPaused;
+        }
+
+        if (pressedKey == 'r' || pressedKey == 'R') {
+            if (isLastLevel() && levelCompleted) {
+                restartGame();
+            } else {
+                restartLevel();
+            }
+        }
+
+        if (pressedKey == CODED) {
+            Camera camera = game.currentLevel.camera;
+            switch (pressedKeyCode) {
+                case LEFT:
+                    camera.scroll(-SCROLL_STEP, 0);
+                    break;
+                case RIGHT:
+                    camera.scroll(SCROLL_STEP, 0);
+                    break;
+                case UP:
+                    camera.scroll(0, -SCROLL_STEP);
+                    break;
+                case DOWN:
+                    camera.scroll(0, SCROLL_STEP);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Saves the state of the game in memory. A level changed in editor mode cannot be saved.
+     */
+    public void quickSave() {
+        if (game.currentLevel.template == null) {
+            System.err.println("Could not save: the level has been edited");
+            return;
+        }
+        quickSave = GameState.save(this);
+    }
+
+    /**
+     * Puts the game back to the state last saved in memory, if any.
+     */
+    public void quickLoad() {
+        if (quickSave == null) {
+            return;
+        }
+        try {
+            GameState.restore(this, quickSave);
+        } catch (IOException e) {
+            System.err.println("Could not restore the saved game: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Handles the keys of editor mode: {@code W}, {@code H}, {@code S}, {@code B} and {@code X} choose
+     * the brush, the digits choose its colour and enter saves the edited layout.
+     *
+     * @param pressedKey     the key that was pressed
+     * @param pressedKeyCode the key code of the key that was pressed
+     * @return {@code true} if the key was used by the editor
+     */
+    public boolean pressEditorKey(char pressedKey, int pressedKeyCode) {
+        switch (Character.toLowerCase(pressedKey)) {
+            case 'w':
+                editor.brush = LevelEditor.Brush.WALL;
+                return true;
+            case 'h':
+                editor.brush = LevelEditor.Brush.HOLE;
+                return true;
+            case 's':
+                editor.brush = LevelEditor.Brush.SPAWNER;
+                return true;
+            case 'b':
+                editor.brush = LevelEditor.Brush.BALL;
+                return true;
+            case 'x':
+                editor.brush = LevelEditor.Brush.ERASE;
+                return true;
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+                editor.colour = pressedKey - '0';
+                return true;
+            case ENTER:
+            case RETURN:
+                saveEditedLayout();
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Saves the layout being edited over the current level's layout file. The layout of a compiled
+     * level is saved next to it as a text file. The config watcher then picks up the new layout.
+     */
+    public void saveEditedLayout() {
+        String path = config.layoutPath;
+        if (CompiledLevel.isCompiled(path)) {
+            path = path.substring(0, path.lastIndexOf('.')) + ".txt";
+        }
+        try {
+            editor.save(new File(path));
+            System.out.println("Saved layout to " + path);
+        } catch (IOException e) {
+            System.err.println("Could not save " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts a new line with the left button, or removes the line under the mouse with the right button.
+     * In editor mode the left button paints with the editor's brush and the right button erases.
+     *
+     * @param x       the x-coordinate of the mouse on the board
+     * @param y       the y-coordinate of the mouse on the board
+     * @param button  the mouse button that was pressed
+     * @param control whether the control key was held
+     */
+    public void pressMouse(float x, float y, int button, boolean control) {
+
+        if (editor != null) {
+            editor.lift();
+            editor.paintAt(x, y, button == RIGHT ? LevelEditor.Brush.ERASE : editor.brush);
+            return;
+        }
+
+        if (game.currentLevel.islevelFailed || levelFailed) {
+            return;
+        }
+
+        if (button == LEFT) {
+            PlayerLine newLine = new PlayerLine();
+            newLine.addPoint(x, y, game.currentLevel.balls);
+            game.currentLevel.playerLines.add(newLine);
+        } else if ((button == RIGHT) || (button == LEFT && control)) {
+            Iterator<PlayerLine> lineIterator = game.currentLevel.playerLines.iterator();
+            while (lineIterator.hasNext()) {
+                PlayerLine line = lineIterator.next();
+                if (line.isPointOnLine(x, y)) {
+                    lineIterator.remove();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Extends the line being drawn while the left button is held, or paints in editor mode.
+     *
+     * @param x      the x-coordinate of the mouse on the board
+     * @param y      the y-coordinate of the mouse on the board
+     * @param button the mouse button that is held
+     */
+    public void dragMouse(float x, float y, int button) {
+
+        if (editor != null) {
+            editor.paintAt(x, y, button == RIGHT ? LevelEditor.Brush.ERASE : editor.brush);
+            return;
+        }
+
+        if (game.currentLevel.islevelFailed || levelFailed) {
+            return;
+        }
+
+        if (button == LEFT && !game.currentLevel.playerLines.isEmpty()) {
+            PlayerLine currentLine = game.currentLevel.playerLines.get(game.currentLevel.playerLines.size() - 1);
+            currentLine.addPoint(x, y, game.currentLevel.balls);
+        }
+    }
+
+    /**
+     * Draw all elements in the game by current frame.
+     *
+     * <p>In threaded mode only the latest snapshot published by the simulation
+     * thread is drawn; otherwise the game is stepped and drawn here. The tick clock decides
+     * how many ticks are due, so game time follows real time: when the game falls behind,
+     * missed ticks are caught up and frames are skipped rather than ticks. Exporting runs
+     * exactly one tick per frame.</p>
+     */
+    @Override
+    public void draw() {
+
+        if (simulationThread != null) {
+            background(200);
+            GameSnapshot snapshot = latestSnapshot.get();
+            if (snapshot != null) {
+                snapshot.display(this);
+            }
+            displayScrubBar(g);
+            return;
+        }
+
+        if (frameExporter != null) {
+            background(200);
+            stepSimulation();
+            exportFrame();
+            return;
+        }
+
+        applySeek();
+        int due = clock.ticksDue();
+        if (speed == FAST_FORWARD_MAX) {
+            due = Math.min(due, 1);
+        }
+        for (int i = 0; i < due; i++) {
+            fastForwardTick();
+            clock.tick();
+        }
+        if (!clock.beginFrame()) {
+            return;
+        }
+        long renderStart = System.nanoTime();
+        background(200);
+        displayGame();
+        renderNanos = System.nanoTime() - renderStart;
+    }
+
+    /**
+     * Runs the simulation ticks for one tick of the clock at the fast-forward speed: one tick
+     * normally, several at 2x, 4x or 16x, and at full speed as many as fit in the time a frame
+     * leaves once it has been drawn. Only the state after the last one is drawn. While the game
+     * is paused a single tick is run.
+     *
+     * @return the number of simulation ticks run
+     */
+    public int fastForwardTick() {
+        if (isPaused || speed == 1) {
+            stepSimulation();
+            return 1;
+        }
+        if (speed == FAST_FORWARD_MAX) {
+            long deadline = System.nanoTime() + Math.max(clock.tickNanos / 4, clock.tickNanos - renderNanos);
+            int ticks = 0;
+            do {
+                stepSimulation();
+                ticks++;
+            } while (System.nanoTime() < deadline);
+            return ticks;
+        }
+        for (int i = 0; i < speed; i++) {
+            stepSimulation();
+        }
+        return speed;
+    }
+
+    /**
+     * Moves on to the next fast-forward speed, back to normal speed after the fastest.
+     */
+    public void cycleSpeed() {
+        int next = 0;
+        for (int i = 0; i < FAST_FORWARD_SPEEDS.length; i++) {
+            if (FAST_FORWARD_SPEEDS[i] == speed) {
+                next = (i + 1) % FAST_FORWARD_SPEEDS.length;
+            }
+        }
+        speed = FAST_FORWARD_SPEEDS[next];
+    }
+
+    /**
+     * Shows the fast-forward speed in the top bar while the game is sped up.
+     *
+     * @param target the graphics to draw on
+     */
+    public void displaySpeed(PGraphics target) {
+        if (speed == 1) {
+            return;
+        }
+        target.fill(0);
+        target.textSize(12);
+        target.text(speed == FAST_FORWARD_MAX ? ">> MAX" : ">> " + speed + "x", 240, 60);
+    }
+
+    /**
+     * Draws the scrub bar along the bottom of the window while a log is played back: how far
+     * the replay has got, and the time played and the length of the log.
+     *
+     * @param target the graphics to draw on
+     */
+    public void displayScrubBar(PGraphics target) {
+        Replay playing = replay;
+        if (playing == null) {
+            return;
+        }
+        long length = Math.max(1, playing.log.finalTick);
+        float top = HEIGHT - SCRUB_BAR_HEIGHT;
+        target.pushStyle();
+        target.noStroke();
+        target.fill(60);
+        target.rect(0, top, WIDTH, SCRUB_BAR_HEIGHT);
+        target.fill(230, 140, 0);
+        target.rect(0, top, WIDTH * Math.min(1, tick / (float) length), SCRUB_BAR_HEIGHT);
+        target.fill(0);
+        target.textSize(12);
+        target.text(formatTicks(tick) + " / " + formatTicks(length), WIDTH - 100, top - 4);
+        target.popStyle();
+    }
+
+    /**
+     * Formats a number of ticks as minutes and seconds.
+     */
+    private static String formatTicks(long ticks) {
+        long seconds = ticks / FPS;
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+
+    /**
+     * Draws the current frame offscreen and hands it to the frame exporter. Once the
+     * requested number of frames has been captured, or the game can go no further,
+     * waits for the encoders and closes the sketch.
+     */
+    public void exportFrame() {
+        exportCanvas.beginDraw();
+        exportCanvas.background(200);
+        displayGame(exportCanvas);
+        exportCanvas.endDraw();
+        frameExporter.capture(exportCanvas);
+
+        fill(0);
+        textSize(24);
+        text("Exporting frame " + frameExporter.framesCaptured, 20, 40);
+
+        boolean enoughFrames = options.exportFrames > 0 && frameExporter.framesCaptured >= options.exportFrames;
+        boolean gameOver = levelFailed || (levelCompleted && isLastLevel());
+        if (enoughFrames || gameOver) {
+            try {
+                frameExporter.finish();
+            } catch (IOException e) {
+                System.err.println("Could not export frames: " + e.getMessage());
+            }
+            frameExporter = null;
+            exit();
+        }
+    }
+
+    /**
+     * Runs one tick of the simulation: advances the clock, updates the balls, advances the level's
+     * timers, which spawn balls and end the level on time, and moves on to the next level or marks
+     * the level as failed. While the game is paused the timers are not advanced. While a log is
+     * played back, the inputs recorded before this tick are applied first; with {@code --bot},
+     * the player draws its stroke first.
+     */
+    public void stepSimulation() {
+        if (replay != null) {
+            replay.applyDue(this);
+            if (replay.isFinished(this)) {
+                replay.verify(this);
+                System.out.println(replay.result);
+                replay = null;
+                closeKeyframes();
+            }
+        }
+        if (player != null) {
+            playBot();
+        }
+        loadLevelLayout();
+        if (prefetcher != null && !isLastLevel()) {
+            prefetcher.prefetch(levelIndex + 1);
+        }
+        game.currentLevel.updateTopBar(config.realTopBarBalls);
+
+        if (game.currentLevel.islevelFailed && !game.currentLevel.isLevelCompleted(config.realTopBarBalls)) {
+            levelFailed = true;
+        }
+
+        if (game.currentLevel.isLevelCompleted(config.realTopBarBalls) && game.currentLevel.countdownTime <= 0.1) {
+            levelCompleted = true;
+            goToNextLevel();
+        }
+
+        if (!isPaused && !levelCompleted && !levelFailed && !game.currentLevel.islevelFailed) {
+            game.currentLevel.updateBalls(config.scoreIncreaseFromHoleCapture, config.scoreDecreaseFromWrongHole, config.scoreIncreaseModifier, config.scoreDecreaseModifier, config.realTopBarBalls);
+            game.currentLevel.tick();
+            elapsedTime = game.currentLevel.clockTicks / (float) FPS;
+        }
+
+        if (game.currentLevel.isLevelComplete && game.currentLevel.countdownTime == 0) {
+            levelCompleted = true;
+            goToNextLevel();
+        }
+
+        if (game.currentLevel.islevelFailed) {
+            levelFailed = true;
+        }
+
+        if (!game.currentLevel.playerLines.isEmpty()) {
+            for (Ball ball : game.currentLevel.balls) {
+                if (ball.isColliding) {
+                    ball.isColliding = false;
+                }
+            }
+        }
+        if (isPaused) {
+            pausedTicks++;
+        }
+        tick++;
+        captureKeyframe();
+    }
+
+    /**
+     * Draws the stroke chosen by the player on every {@link RolloutPlayer#DECISION_TICKS}th tick, if
+     * one is found that helps, by pressing and dragging the mouse along it. Nothing is drawn while the
+     * game is paused, between levels, in editor mode or when the stroke would leave the visible board.
+     */
+    public void playBot() {
+        Level level = game.currentLevel;
+        if (tick % RolloutPlayer.DECISION_TICKS != 0 || isPaused || levelCompleted || levelFailed
+                || editor != null || !level.isLevelInitialized || !level.timersStarted) {
+            return;
+        }
+        RolloutPlayer.Stroke stroke = player.decide(level, config.realTopBarBalls, config.level);
+        if (stroke == null) {
+            return;
+        }
+        float x1 = stroke.x1 - level.camera.x;
+        float y1 = stroke.y1 - level.camera.y;
+        float x2 = stroke.x2 - level.camera.x;
+        float y2 = stroke.y2 - level.camera.y;
+        if (Math.min(y1, y2) <= TOPBAR || Math.max(y1, y2) >= HEIGHT
+                || Math.min(x1, x2) < 0 || Math.max(x1, x2) >= WIDTH) {
+            return;
+        }
+        int steps = (int) (InkPolicy.STROKE_LENGTH / InkPolicy.POINT_SPACING);
+        applyInput(InputEvent.mousePressed(x1, y1, LEFT, false));
+        for (int step = 1; step <= steps; step++) {
+            float t = (float) step / steps;
+            applyInput(InputEvent.mouseDragged(Math.round(x1 + (x2 - x1) * t), Math.round(y1 + (y2 - y1) * t), LEFT));
+        }
+    }
+
+    /**
+     * Draws the top bar, the board, the balls and the player lines of the current level.
+     */
+    public void displayGame() {
+        displayGame(g);
+    }
+
+    /**
+     * Draws the board, the balls and the player lines of the current level as seen by its camera,
+     * then the top bar over them, onto the given graphics.
+     * The software compositor is only used when drawing onto the sketch itself.
+     *
+     * @param target the graphics to draw on
+     */
+    public void displayGame(PGraphics target) {
+        Level level = game.currentLevel;
+        renderer.g = target;
+        if (compositor != null && target == g) {
+            compositor.render(this, level, renderer.assets, spriteCache);
+        } else {
+            target.pushMatrix();
+            target.translate(-level.camera.x, -level.camera.y);
+            level.displayTiles(renderer);
+            level.displayBalls(renderer);
+            for (PlayerLine line : level.playerLines) {
+                line.display(renderer);
+            }
+            target.popMatrix();
+        }
+
+        level.drawTopBar(renderer, config.realTopBarBalls, isPaused);
+
+        if (editor != null) {
+            target.fill(0);
+            target.textSize(12);
+            target.text("EDIT " + editor.brush + " " + editor.colour, 240, 20);
+        }
+        displaySpeed(target);
+        displayScrubBar(target);
+
+        if (levelCompleted && isLastLevel()) {
+            target.fill(0);
+            target.textSize(15);
+            target.text("=== ENDED ===", 240, 50);
+        }
+
+        if (levelFailed && levelIndex > 0) {
+            target.fill(0);
+            target.textSize(15);
+            target.text("=== TIME'S UP ===", 240, 50);
+        }
+    }
+
+    /**
+     * Runs one tick on the simulation thread: seeks the replay if asked to, applies the queued inputs, steps the
+     * simulation as many times as the fast-forward speed asks and publishes a snapshot
+     * of the last step for the animation thread to draw.
+     */
+    public void runSimulationTick() {
+        applySeek();
+        InputEvent input;
+        while ((input = pendingInputs.poll()) != null) {
+            applyInput(input);
+        }
+        fastForwardTick();
+        latestSnapshot.set(GameSnapshot.capture(game.currentLevel, config.realTopBarBalls, scoreboard.total,
+                isPaused, levelFailed, levelCompleted, levelIndex, isLastLevel(), latestSnapshot.get()));
+    }
+
+    /**
+     * Stops the simulation thread and the config watcher, and writes the recorded inputs, when the sketch is closed.
+     * The simulation thread is waited for first, so the recording ends on the last tick it ran.
+     */
+    @Override
+    public void dispose() {
+        if (simulationThread != null) {
+            simulationThread.shutdown();
+        }
+        if (configRepository != null) {
+            configRepository.stopWatching();
+        }
+        if (prefetcher != null) {
+            prefetcher.shutdown();
+        }
+        if (compositor != null) {
+            compositor.shutdown();
+        }
+        finishRecording();
+        closeKeyframes();
+        if (player != null) {
+            player.shutdown();
+        }
+        super.dispose();
+    }
+
+    /**
+     * Ends the recording of inputs, if any, with the final tick, score and state hash, and writes it
+     * to the file given with {@code --record}. A session ending on an edited level has no state to
+     * hash, and its playback cannot be verified.
+     */
+    public void finishRecording() {
+        if (recording == null) {
+            return;
+        }
+        recording.finish(tick, scoreboard.total, game.currentLevel.template != null ? GameState.hash(this) : 0);
+        try {
+            recording.write(new File(options.recordPath));
+            System.out.println("Recorded " + recording.entries.size() + " inputs to " + options.recordPath);
+        } catch (IOException e) {
+            System.err.println("Could not write " + options.recordPath + ": " + e.getMessage());
+        }
+        recording = null;
+    }
+
+    /**
+     * Initializes the next level.
+     */
+    public void goToNextLevel() {
+        if (!isLastLevel()) {
+            previousLevelScore = scoreboard.total;
+            levelIndex++;
+            initializeLevel();
+        } else {
+            levelCompleted = true;
+        }
+    }
+
+    /**
+     * Restarts the current level.
+     */
+    public void restartLevel() {
+        if (levelIndex == 0) {
+            scoreboard.total = 0;
+        } else {
+            scoreboard.total = previousLevelScore;
+        }
+
+        startLevel();
+    }
+
+    /**
+     * Starts a level picked with {@code [} or {@code ]}, with the score reset. Only the picked
+     * level is read from the level source, so a level pack parses no other level on the way.
+     *
+     * @param index the index of the level
+     */
+    public void selectLevel(int index) {
+        if (index < 0 || index >= levelSource.levelCount()) {
+            throw new IndexOutOfBoundsException("Level " + index + " of " + levelSource.levelCount());
+        }
+        cancelPrefetch();
+        levelIndex = index;
+        scoreboard.total = 0;
+        previousLevelScore = 0;
+        startLevel();
+    }
+
+    /**
+     * Restarts the entire game from the first level.
+     */
+    public void restartGame() {
+        cancelPrefetch();
+        levelIndex = 0;
+        scoreboard.total = 0;
+        startLevel();
+    }
+
+    /**
+     * Starts the current level again. When the level is the one already loaded and its
+     * configuration has not been reloaded since, it is reset in place instead of being rebuilt.
+     */
+    public void startLevel() {
+        if (config != null && game != null && game.currentLevel.template != null
+                && config.level == levelSource.level(levelIndex)) {
+            resetLevelState();
+            config.resetTopBar();
+            game.currentLevel.reset();
+            game.currentLevel.startTimers(config.time, config.spawnInterval, config.realTopBarBalls);
+            game.currentLevel.updateTopBar(config.realTopBarBalls);
+        } else {
+            initializeLevel();
+        }
+    }
+
+    /**
+     * Turns editor mode on or off. The editor is kept while editor mode is off, so once the level
+     * has been edited and no longer matches its template, turning editor mode back on carries on
+     * with the edited layout.
+     */
+    public void toggleEditor() {
+        if (editor != null) {
+            idleEditor = editor;
+            editor = null;
+            return;
+        }
+        editor = idleEditor != null && idleEditor.level == game.currentLevel
+                ? idleEditor : new LevelEditor(game.currentLevel);
+        idleEditor = null;
+    }
+
+    /**
+     * Clears the pause, the clocks and the completion flags of the current level, and leaves editor mode.
+     */
+    public void resetLevelState() {
+        editor = null;
+        idleEditor = null;
+        isPaused = false;
+        pausedTicks = 0;
+        elapsedTime = 0;
+        levelFailed = false;
+        levelCompleted = false;
+    }
+
+    /**
+     * Initializes the level with default values, from the latest version of the parsed configuration.
+     * A level already built in the background is swapped in; otherwise it is built now.
+     */
+    public void initializeLevel() {
+        resetLevelState();
+
+        LevelPrefetcher.PreparedLevel prepared = prefetcher == null ? null
+                : prefetcher.take(levelIndex, levelSource.level(levelIndex));
+        if (prepared == null) {
+            prepared = prepareLevel(levelIndex);
+        }
+        config = prepared.config;
+        game = prepared.game;
+
+        game.currentLevel.startTimers(config.time, config.spawnInterval, config.realTopBarBalls);
+        game.currentLevel.updateTopBar(config.realTopBarBalls);
+        hashLevel();
+    }
+
+    /**
+     * Records the hash of the current level in the log being recorded, or checks it against the
+     * log being played back, the first time the session enters the level. Only the levels a
+     * session plays are hashed, as it reaches them.
+     *
+     * @throws UncheckedIOException if the level's layout file cannot be read
+     */
+    public void hashLevel() {
+        if (recording != null) {
+            recording.addLevel(levelIndex, config.level);
+        }
+        if (replay != null && !replay.checkLevel(levelIndex, config.level)) {
+            System.err.println("Level " + levelIndex + " has changed since " + options.replayPath + " was recorded");
+        }
+    }
+
+    /**
+     * Builds a level: loads its configuration and queued balls, and builds its tiles from the
+     * layout. Only the level's own objects are touched, so this may run on the prefetch thread.
+     *
+     * @param index the index of the level
+     * @return the level, ready to be swapped in
+     * @throws UncheckedIOException if the layout cannot be read
+     */
+    public LevelPrefetcher.PreparedLevel prepareLevel(int index) {
+        LevelConfig level = levelSource.level(index);
+        GetConfig levelConfig = new GetConfig(configPath);
+        levelConfig.loadConfig(level);
+        Game levelGame = new Game(BOARD_WIDTH, BOARD_HEIGHT, CELLSIZE, TOPBAR);
+        levelGame.currentLevel.scoreboard = scoreboard;
+        levelGame.currentLevel.seed(levelSeed(index));
+        try {
+            levelGame.currentLevel.load(LevelTemplate.of(level, CELLSIZE, TOPBAR));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read layout " + level.layoutPath, e);
+        }
+        return new LevelPrefetcher.PreparedLevel(level, levelConfig, levelGame);
+    }
+
+    /**
+     * Returns the seed of a level of this session. It depends only on the session's seed and the
+     * level's index, so a level plays the same whether it was built ahead on the prefetch thread or not.
+     *
+     * @param index the index of the level
+     * @return the seed of the level's randomness
+     */
+    public long levelSeed(int index) {
+        return new SplittableRandom(seed + index).nextLong();
+    }
+
+    /**
+     * Drops the level being built in the background, as the game is moving elsewhere.
+     */
+    public void cancelPrefetch() {
+        if (prefetcher != null) {
+            prefetcher.cancel();
+        }
+    }
+
+    /**
+     * Starts the timers of the current level if they are not running, and loads its layout
+     * unless it is already loaded. The layout's template
+     * is built once per level configuration and shared by every later start of the level.
+     * Compiled levels are memory-mapped, and text layouts too large to read at once are streamed
+     * from their file row by row.
+     */
+    public void loadLevelLayout() {
+        Level level = game.currentLevel;
+        if (!level.timersStarted) {
+            level.startTimers(config.time, config.spawnInterval, config.realTopBarBalls);
+        }
+        if (level.isLevelInitialized) {
+            return;
+        }
+        try {
+            level.load(LevelTemplate.of(config.level, CELLSIZE, TOPBAR));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read layout " + config.layoutPath, e);
+        }
+    }
+
+
+    /**
+     * Main entry point for the Inkball game.
+     *
+     * <p>Pass {@code --compositor} to draw the board with the software compositor
+     * instead of Processing's {@code image()} calls, or {@code --threaded} to run
+     * the simulation on its own thread. {@code --export <dir>} writes every frame to
+     * numbered PNG files instead, optionally limited with {@code --export-frames <n>}.
+     * The arrow keys scroll levels larger than the window. Decoded sprites are cached under
+     * {@code --asset-cache <dir>}, or not at all with {@code --no-asset-cache}.
+     * {@code --pack <file>} plays the levels of a level pack instead of the config file,
+     * and {@code --level <n>} starts on the given level. {@code --warm-up} plays a short offscreen
+     * simulation before the first level so its code is already compiled, optionally sized with
+     * {@code --warm-up-ticks <n>}. {@code --speed <n>} starts fast-forwarded, running n ticks per frame,
+     * and {@code --speed max} as many as fit in each frame; {@code F} cycles through the speeds in game.
+     * {@code --seed <n>} seeds the game's randomness, so the same inputs play out the same way.
+     * {@code --record <file>} writes the inputs applied to a log on exit, and {@code --replay <file>}
+     * plays such a log back instead of taking input, checking the score and state at its end.
+     * Keyframes are stored beside the log as it is recorded or first played back, and clicking or
+     * dragging along the scrub bar at the bottom of the window seeks the replay. {@code --bot} lets a
+     * {@link RolloutPlayer} draw the ink, taking up to {@code --bot-budget <ms>} to choose each stroke.</p>
+     *
+     * <p>{@code simulate} followed by the options of {@link BatchSimulator} plays a level many
+     * times without a window instead, such as {@code simulate --level 2 --runs 10000},
+     * {@code tune} followed by the options of {@link LevelTuner} suggests config values for a level,
+     * and {@code replay <file>} plays an input log back without a window as fast as possible.</p>
+     *
+     * @param args command-line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("simulate")) {
+            BatchSimulator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("tune")) {
+            LevelTuner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("replay")) {
+            Replay.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        PApplet.main("inkball.App", args);
+    }
+}
@@ -0,0 +1,275 @@
+package inkball;
+import processing.core.PConstants;
+import processing.core.PImage;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * The {@code AssetLoader} class loads the game's sprites from the classpath on a pool of
+ * worker threads, so decoding overlaps with the window opening and works from any directory.
+ *
+ * <p>Decoded pixels are written to a cache directory under the SHA-256 hash of the PNG bytes.
+ * On later launches a sprite whose bytes are unchanged is read straight from its cache file,
+ * skipping PNG decoding; a changed sprite hashes differently and is decoded again.</p>
+ */
+
+public class AssetLoader implements AssetSource<PImage> {
+
+    public static final String RESOURCE_ROOT = "/inkball/"; // Classpath folder holding the sprites
+    public static final int CACHE_MAGIC = 0x494B5331; // "IKS1", first word of every cache file
+    public static final String[] SPRITES = {
+            "ball0.png", "ball1.png", "ball2.png", "ball3.png", "ball4.png",
+            "entrypoint.png",
+            "hole0.png", "hole1.png", "hole2.png", "hole3.png", "hole4.png",
+            "inkball_spritesheet.png",
+            "tile.png",
+            "wall0.png", "wall1.png", "wall2.png", "wall3.png", "wall4.png",
+            "damagedwall0.png", "damagedwall1.png", "damagedwall2.png", "damagedwall3.png", "damagedwall4.png"
+    }; // Every sprite used by the game
+
+    public File cacheDirectory; // Directory of decoded sprites, or null to always decode
+    public ExecutorService workers; // Threads reading and decoding sprites
+    public HashMap<String, Future<PImage>> pending; // Sprites requested so far, by file name
+
+    /**
+     * Constructs a new {@code AssetLoader}.
+     *
+     * @param cacheDirectory the directory decoded sprites are cached in, or {@code null} to disable the cache
+     * @param threads        the number of worker threads
+     */
+    public AssetLoader(File cacheDirectory, int threads) {
+        this.cacheDirectory = cacheDirectory;
+        this.pending = new HashMap<>();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "inkball-asset-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the cache directory used when none is given on the command line.
+     *
+     * @return the directory under the user's home folder
+     */
+    public static File defaultCacheDirectory() {
+        return new File(System.getProperty("user.home"), ".inkball" + File.separator + "sprite-cache");
+    }
+
+    /**
+     * Starts loading the given sprites in the background.
+     *
+     * @param names the file names of the sprites in {@link #RESOURCE_ROOT}
+     */
+    public void preload(String... names) {
+        for (String name : names) {
+            request(name);
+        }
+    }
+
+    /**
+     * Returns a sprite, waiting for it to finish loading if needed.
+     *
+     * @param name the file name of the sprite in {@link #RESOURCE_ROOT}
+     * @return the loaded sprite
+     * @throws UncheckedIOException if the sprite cannot be found or decoded
+     */
+    @Override
+    public PImage get(String name) {
+        try {
+            return request(name).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted while loading " + name));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw new UncheckedIOException("Could not load sprite " + name,
+                    cause instanceof IOException ? (IOException) cause : new IOException(cause));
+        }
+    }
+
+    /**
+     * Stops the worker threads once the queued sprites are loaded.
+     */
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * Returns the pending load of a sprite, starting it if it has not been requested yet.
+     */
+    private synchronized Future<PImage> request(String name) {
+        Future<PImage> future = pending.get(name);
+        if (future == null) {
+            future = workers.submit(() -> load(name));
+            pending.put(name, future);
+        }
+        return future;
+    }
+
+    /**
+     * Reads a sprite from the classpath and decodes it, or reads its pixels from the cache.
+     *
+     * @param name the file name of the sprite in {@link #RESOURCE_ROOT}
+     * @return the decoded sprite
+     * @throws IOException if the sprite cannot be found or decoded
+     */
+    public PImage load(String name) throws IOException {
+        byte[] png;
+        try (InputStream in = AssetLoader.class.getResourceAsStream(RESOURCE_ROOT + name)) {
+            if (in == null) {
+                throw new FileNotFoundException(RESOURCE_ROOT + name + " is not on the classpath");
+            }
+            png = readAll(in);
+        }
+
+        File cacheFile = cacheDirectory == null ? null : new File(cacheDirectory, hash(png) + ".argb");
+        if (cacheFile != null && cacheFile.isFile()) {
+            PImage cached = readCache(cacheFile);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        PImage image = decode(png);
+        if (cacheFile != null) {
+            try {
+                writeCache(cacheFile, image);
+            } catch (IOException e) {
+                System.err.println("Could not cache sprite " + name + ": " + e.getMessage());
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Decodes PNG bytes into an image, marking it opaque when no pixel is transparent.
+     *
+     * @param png the PNG file contents
+     * @return the decoded image
+     * @throws IOException if the bytes are not a readable image
+     */
+    public static PImage decode(byte[] png) throws IOException {
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(png));
+        if (decoded == null) {
+            throw new IOException("Unsupported image format");
+        }
+        int width = decoded.getWidth();
+        int height = decoded.getHeight();
+        int[] pixels = decoded.getRGB(0, 0, width, height, null, 0, width);
+        return createImage(width, height, hasAlpha(pixels) ? PConstants.ARGB : PConstants.RGB, pixels);
+    }
+
+    /**
+     * Reads a cached sprite.
+     *
+     * @param file the cache file
+     * @return the sprite, or {@code null} if the file is not a complete cache file
+     */
+    public static PImage readCache(File file) {
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            if (bytes.remaining() < 16 || bytes.getInt() != CACHE_MAGIC) {
+                return null;
+            }
+            int width = bytes.getInt();
+            int height = bytes.getInt();
+            int format = bytes.getInt();
+            if (width <= 0 || height <= 0 || bytes.remaining() != width * height * 4) {
+                return null;
+            }
+            int[] pixels = new int[width * height];
+            bytes.asIntBuffer().get(pixels);
+            return createImage(width, height, format, pixels);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a sprite to a cache file. The file is written under a temporary name and
+     * moved into place, so other launches never see a partly written file.
+     *
+     * @param file  the cache file
+     * @param image the sprite to cache
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeCache(File file, PImage image) throws IOException {
+        File directory = file.getParentFile();
+        directory.mkdirs();
+
+        ByteBuffer bytes = ByteBuffer.allocate(16 + image.pixels.length * 4);
+        bytes.putInt(CACHE_MAGIC).putInt(image.width).putInt(image.height).putInt(image.format);
+        IntBuffer ints = bytes.asIntBuffer();
+        ints.put(image.pixels);
+
+        File temp = File.createTempFile("sprite", ".tmp", directory);
+        try {
+            Files.write(temp.toPath(), bytes.array());
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            temp.delete();
+        }
+    }
+
+    /**
+     * Returns the SHA-256 hash of some bytes as hexadecimal.
+     *
+     * @param bytes the bytes to hash
+     * @return the hash
+     */
+    public static String hash(byte[] bytes) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates an image around the given pixels.
+     */
+    private static PImage createImage(int width, int height, int format, int[] pixels) {
+        PImage image = new PImage(width, height, format);
+        image.pixels = pixels;
+        return image;
+    }
+
+    /**
+     * Returns whether any pixel is not fully opaque.
+     */
+    private static boolean hasAlpha(int[] pixels) {
+        for (int pixel : pixels) {
+            if ((pixel >>> 24) != 0xFF) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads a stream to its end.
+     */
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,143 @@
+package inkball;
+import processing.core.PGraphics;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code FrameExporter} class writes rendered frames to disk as numbered PNG files.
+ * Frames are copied into one of a fixed set of pixel buffers and encoded by a pool of
+ * worker threads. When every buffer is waiting to be encoded, the next capture blocks
+ * until an encoder frees one, so a slow disk slows the game down instead of piling up frames.
+ */
+
+public class FrameExporter {
+
+    public File directory; // Directory the frames are written to
+    public int width; // Width of each frame in pixels
+    public int height; // Height of each frame in pixels
+    public ExecutorService encoders; // Threads encoding and writing the frames
+    public ArrayBlockingQueue<int[]> freeBuffers; // Pixel buffers not currently waiting to be encoded
+    public int framesCaptured = 0; // Number of frames handed to the encoders
+    public AtomicInteger framesWritten = new AtomicInteger(); // Number of frames written to disk
+    public volatile IOException failure; // First error raised while writing a frame
+
+    /**
+     * Constructs a new {@code FrameExporter} writing into the given directory.
+     *
+     * @param directory      the directory to write the frames to, created if missing
+     * @param width          the width of each frame in pixels
+     * @param height         the height of each frame in pixels
+     * @param encoderThreads the number of threads encoding frames
+     * @param queuedFrames   the number of frames that may wait for an encoder before captures block
+     */
+    public FrameExporter(File directory, int width, int height, int encoderThreads, int queuedFrames) {
+        this.directory = directory;
+        this.width = width;
+        this.height = height;
+        directory.mkdirs();
+
+        int threads = Math.max(1, encoderThreads);
+        this.encoders = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "inkball-frame-encoder");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        int buffers = threads + Math.max(0, queuedFrames);
+        this.freeBuffers = new ArrayBlockingQueue<>(buffers);
+        for (int i = 0; i < buffers; i++) {
+            freeBuffers.add(new int[width * height]);
+        }
+    }
+
+    /**
+     * Copies the pixels of the given graphics and queues them to be written as the next frame.
+     *
+     * @param canvas the graphics holding a finished frame
+     * @return {@code true} if the frame was queued, {@code false} if the thread was interrupted while waiting
+     */
+    public boolean capture(PGraphics canvas) {
+        canvas.loadPixels();
+        return submit(canvas.pixels);
+    }
+
+    /**
+     * Copies the given pixels and queues them to be written as the next frame,
+     * waiting for a free buffer if the encoders have fallen behind.
+     *
+     * @param pixels the ARGB pixels of the frame, {@code width * height} long
+     * @return {@code true} if the frame was queued, {@code false} if the thread was interrupted while waiting
+     */
+    public boolean submit(int[] pixels) {
+        int[] buffer;
+        try {
+            buffer = freeBuffers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        System.arraycopy(pixels, 0, buffer, 0, buffer.length);
+
+        File file = new File(directory, frameName(framesCaptured++));
+        encoders.execute(() -> {
+            try {
+                writePng(file, buffer, width, height);
+                framesWritten.incrementAndGet();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            } finally {
+                freeBuffers.add(buffer);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Waits for every queued frame to be written and stops the encoders.
+     *
+     * @throws IOException if a frame could not be written
+     */
+    public void finish() throws IOException {
+        encoders.shutdown();
+        try {
+            encoders.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Returns the file name of a frame.
+     *
+     * @param frameNumber the zero-based number of the frame
+     * @return the file name
+     */
+    public static String frameName(int frameNumber) {
+        return String.format("frame-%06d.png", frameNumber);
+    }
+
+    /**
+     * Encodes pixels as an opaque PNG file.
+     *
+     * @param file   the file to write
+     * @param pixels the ARGB pixels, row by row
+     * @param width  the width of the image in pixels
+     * @param height the height of the image in pixels
+     * @throws IOException if the file could not be written
+     */
+    public static void writePng(File file, int[] pixels, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, width, height, pixels, 0, width);
+        ImageIO.write(image, "png", file);
+    }
+}
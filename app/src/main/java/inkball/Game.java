@@ -0,0 +1,58 @@
+package inkball;
+import java.util.*;
+
+
+/**
+ * The {@code Game} class manages the overall game logic, including the current
+ * level and the game board. It also interacts with the {@code Level} class to
+ * handle level-specific operations.
+ */
+public class Game {
+    public int boardWidth; // Width of the game board
+    public int boardHeight; // Height of the game board
+    public int cellsize; // Size of each cell in pixels
+    public int topbar; // Height of the top bar areas
+    public Tile[][] board; // 2D array representing the game board
+    public Level currentLevel; // Current level
+    public Renderer renderer; // Renderer the top bar is drawn through by getBoard, or null to draw nothing
+
+    /**
+     * Constructs a new {@code Game} object with the specified parameters.
+     *
+     * @param boardWidth  the width of the game board in tiles
+     * @param boardHeight the height of the game board in tiles
+     * @param cellsize    the size of each tile in pixels
+     * @param topbar      the height of the top bar in pixels
+     */
+    public Game(int boardWidth, int boardHeight, int cellsize, int topbar) {
+        this.boardHeight = boardHeight;
+        this.boardWidth = boardWidth;
+        this.cellsize = cellsize;
+        this.topbar = topbar;
+        this.board = new Tile[boardWidth][boardHeight];
+        this.currentLevel = new Level(boardWidth, boardHeight, cellsize, topbar);
+    }
+
+    /**
+     * Initializes and renders the current game board based on the provided parameters.
+     *
+     * <p>This method loads the level layout and draws the top bar containing
+     * information such as the game timer and the balls in the top bar.</p>
+     *
+     * @param levelLayOut   the array representing the layout of the level
+     * @param time          the total time allocated for the level
+     * @param spawnInterval the interval at which new balls are spawned
+     * @param topBarBalls   the balls queued in the top bar
+     * @param isPaused      indicates whether the game is currently paused
+     */
+    public void getBoard(String[] levelLayOut, int time, int spawnInterval, BallQueue topBarBalls, boolean isPaused) {
+        currentLevel.getLevel(levelLayOut);
+        if (!currentLevel.timersStarted) {
+            currentLevel.startTimers(time, spawnInterval, topBarBalls);
+        }
+        currentLevel.updateTopBar(topBarBalls);
+        if (renderer != null) {
+            currentLevel.drawTopBar(renderer, topBarBalls, isPaused);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package inkball;
+import java.util.*;
+
+/**
+ * The {@code GameSnapshot} class is an immutable copy of everything needed to draw
+ * one frame: tile sprites and damage, ball positions, the top-bar queue, the ink and
+ * the values shown in the top bar. The simulation thread publishes a new snapshot
+ * after every tick and the animation thread only ever draws published snapshots.
+ */
+
+public class GameSnapshot {
+
+    public final Object levelIdentity; // The level captured, used only to tell when tile geometry can be shared
+    public final long boardVersion; // Version of the level's tiles captured, used with the level to tell when tile geometry can be shared
+    public final int cellsize; // Size of each tile in pixels
+    public final int topbar; // Height of the top bar
+    public final int width; // Width of the board and its top bar in pixels
+
+    public final float cameraX; // Horizontal scroll offset of the level's camera
+    public final float cameraY; // Vertical scroll offset of the level's camera
+
+    // Visible tiles; the geometry arrays are shared between snapshots of the same level and view
+    public final int[] tileX;
+    public final int[] tileY;
+    public final int[] tileSize;
+    public final String[] tileSprites;
+
+    // Yellow tiles shown once the level is complete
+    public final boolean showYellowTiles;
+    public final int yellowTopLeftX, yellowTopLeftY, yellowBottomRightX, yellowBottomRightY;
+
+    // Balls on the board
+    public final float[] ballX;
+    public final float[] ballY;
+    public final float[] ballDiameter;
+    public final int[] ballColors;
+
+    // Visible balls waiting in the top bar
+    public final float[] queueX;
+    public final float[] queueY;
+    public final float[] queueDiameter;
+    public final int[] queueColors;
+
+    public final float[][] lines; // Points of each player line as x, y pairs
+
+    // Top bar values and flags
+    public final float totalScore;
+    public final float countdownTime;
+    public final float spawnCountdown;
+    public final boolean isPaused;
+    public final boolean islevelFailed;
+    public final boolean levelFailed;
+    public final boolean levelCompleted;
+    public final int levelIndex;
+    public final boolean lastLevel; // Whether the current level is the last one
+
+    /**
+     * Captures the state of a level into a new snapshot.
+     *
+     * @param level          the level to capture
+     * @param topBarBalls    the balls waiting in the top bar
+     * @param totalScore     the total score of the game
+     * @param isPaused       whether the game is paused
+     * @param levelFailed    whether the game has registered the level as failed
+     * @param levelCompleted whether the game has registered the level as completed
+     * @param levelIndex     the index of the current level
+     * @param lastLevel      whether the current level is the last one
+     * @param previous       the previously published snapshot whose tile geometry may be reused, or {@code null}
+     * @return the new snapshot
+     */
+    public static GameSnapshot capture(Level level, BallQueue topBarBalls, float totalScore, boolean isPaused,
+                                       boolean levelFailed, boolean levelCompleted, int levelIndex, boolean lastLevel, GameSnapshot previous) {
+        return new GameSnapshot(level, topBarBalls, totalScore, isPaused, levelFailed, levelCompleted, levelIndex, lastLevel, previous);
+    }
+
+    private GameSnapshot(Level level, BallQueue topBarBalls, float totalScore, boolean isPaused,
+                         boolean levelFailed, boolean levelCompleted, int levelIndex, boolean lastLevel, GameSnapshot previous) {
+        this.levelIdentity = level;
+        this.boardVersion = level.boardVersion;
+        this.cellsize = level.cellsize;
+        this.topbar = level.topbar;
+        this.width = level.boardWidth * level.cellsize;
+
+        this.cameraX = level.camera.x;
+        this.cameraY = level.camera.y;
+
+        ArrayList<Tile> visibleTiles = level.collectVisibleTiles();
+        int tileCount = visibleTiles.size();
+        boolean sameGeometry = previous != null && previous.levelIdentity == level && previous.boardVersion == boardVersion
+                && previous.tileX.length == tileCount && previous.cameraX == cameraX && previous.cameraY == cameraY;
+        this.tileX = sameGeometry ? previous.tileX : new int[tileCount];
+        this.tileY = sameGeometry ? previous.tileY : new int[tileCount];
+        this.tileSize = sameGeometry ? previous.tileSize : new int[tileCount];
+        this.tileSprites = new String[tileCount];
+        for (int i = 0; i < tileCount; i++) {
+            Tile tile = visibleTiles.get(i);
+            if (!sameGeometry) {
+                tileX[i] = tile.x;
+                tileY[i] = tile.y;
+                tileSize[i] = tile.size;
+            }
+            tileSprites[i] = tile.getCurrentSprite();
+        }
+
+        this.showYellowTiles = level.isLevelComplete;
+        this.yellowTopLeftX = level.yellowTileTopLeftX;
+        this.yellowTopLeftY = level.yellowTileTopLeftY;
+        this.yellowBottomRightX = level.yellowTileBottomRightX;
+        this.yellowBottomRightY = level.yellowTileBottomRightY;
+
+        int ballCount = level.balls.size();
+        this.ballX = new float[ballCount];
+        this.ballY = new float[ballCount];
+        this.ballDiameter = new float[ballCount];
+        this.ballColors = new int[ballCount];
+        for (int i = 0; i < ballCount; i++) {
+            Ball ball = level.balls.get(i);
+            ballX[i] = ball.x;
+            ballY[i] = ball.y;
+            ballDiameter[i] = ball.diameter;
+            ballColors[i] = ball.colorIndex;
+        }
+
+        int queueCount = Math.min(topBarBalls.size(), 5);
+        this.queueX = new float[queueCount];
+        this.queueY = new float[queueCount];
+        this.queueDiameter = new float[queueCount];
+        this.queueColors = new int[queueCount];
+        for (int i = 0; i < queueCount; i++) {
+            Ball ball = topBarBalls.get(i);
+            queueX[i] = ball.x;
+            queueY[i] = ball.y;
+            queueDiameter[i] = ball.diameter;
+            queueColors[i] = ball.colorIndex;
+        }
+
+        this.lines = new float[level.playerLines.size()][];
+        for (int i = 0; i < lines.length; i++) {
+            ArrayList<float[]> points = level.playerLines.get(i).points;
+            float[] line = new float[points.size() * 2];
+            for (int j = 0; j < points.size(); j++) {
+                line[j * 2] = points.get(j)[0];
+                line[j * 2 + 1] = points.get(j)[1];
+            }
+            lines[i] = line;
+        }
+
+        this.totalScore = totalScore;
+        this.countdownTime = level.countdownTime;
+        this.spawnCountdown = level.spawnCountdown;
+        this.isPaused = isPaused;
+        this.islevelFailed = level.islevelFailed;
+        this.levelFailed = levelFailed;
+        this.levelCompleted = levelCompleted;
+        this.levelIndex = levelIndex;
+        this.lastLevel = lastLevel;
+    }
+
+    /**
+     * Draws the snapshot the same way {@code App.displayGame} draws a live level.
+     *
+     * @param app the sketch to draw on, providing the renderer
+     */
+    public void display(App app) {
+        SketchRenderer renderer = app.renderer;
+        renderer.g = app.g;
+        app.pushMatrix();
+        app.translate(-cameraX, -cameraY);
+
+        for (int i = 0; i < tileSprites.length; i++) {
+            renderer.sprite(tileSprites[i], tileX[i], tileY[i], tileSize[i], tileSize[i]);
+        }
+
+        if (showYellowTiles) {
+            String yellowWall = Tile.WALL_SPRITES[4];
+            renderer.sprite(yellowWall, yellowTopLeftX * cellsize, yellowTopLeftY * cellsize + topbar, cellsize, cellsize);
+            renderer.sprite(yellowWall, yellowBottomRightX * cellsize, yellowBottomRightY * cellsize + topbar, cellsize, cellsize);
+        }
+
+        for (int i = 0; i < ballX.length; i++) {
+            renderer.sprite(Ball.SPRITES[ballColors[i]], ballX[i], ballY[i], ballDiameter[i], ballDiameter[i]);
+        }
+
+        for (float[] line : lines) {
+            for (int i = 0; i + 3 < line.length; i += 2) {
+                renderer.line(line[i], line[i + 1], line[i + 2], line[i + 3], PlayerLine.WEIGHT);
+            }
+        }
+        app.popMatrix();
+
+        drawTopBar(renderer);
+
+        if (levelCompleted && lastLevel) {
+            renderer.text("=== ENDED ===", 240, 50, 15);
+        }
+
+        if (levelFailed && levelIndex > 0) {
+            renderer.text("=== TIME'S UP ===", 240, 50, 15);
+        }
+    }
+
+    /**
+     * Draws the top bar the same way {@code Level.drawTopBar} does.
+     */
+    private void drawTopBar(Renderer renderer) {
+        renderer.rect(220, 0, 0, width, topbar);
+        renderer.rect(0, 15, 15, 160, 32);
+
+        if (islevelFailed) {
+            renderer.text("=== TIME'S UP ===", 240, 50, 15);
+        } else {
+            for (int i = 0; i < queueX.length; i++) {
+                renderer.sprite(Ball.SPRITES[queueColors[i]], queueX[i], queueY[i], queueDiameter[i], queueDiameter[i]);
+                renderer.rect(220, 175, 15, width - 175, topbar - 30);
+            }
+        }
+
+        Level.drawTopBarText(renderer, width, totalScore, countdownTime, spawnCountdown, isPaused);
+    }
+}
@@ -0,0 +1,94 @@
+package inkball;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * The {@code GameState} class writes the state of the game played in the window and puts it back,
+ * for quick saves, keyframes and the hash checked at the end of a replay. The level and its queued
+ * balls are written by {@link SaveState}; around them go the level index, flags, score and pause
+ * time kept by the {@link App}, behind a {@link SaveState#KIND_GAME} header.
+ */
+
+public class GameState {
+
+    /**
+     * Writes the state of the game being played in a window.
+     *
+     * @param app the game
+     * @return the state
+     * @throws IllegalStateException if the level has been edited since it was loaded
+     */
+    public static byte[] save(App app) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+            DataOutputStream out = new DataOutputStream(bytes);
+            SaveState.writeHeader(out, SaveState.KIND_GAME);
+            out.writeInt(app.levelIndex);
+            out.writeByte(SaveState.flags(app.isPaused, app.levelCompleted, app.levelFailed));
+            out.writeFloat(app.scoreboard.total);
+            out.writeFloat(app.previousLevelScore);
+            out.writeLong(app.pausedTicks);
+            SaveState.writeLevel(out, app.game.currentLevel, app.config.realTopBarBalls);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write to memory", e);
+        }
+    }
+
+    /**
+     * Returns a hash of the state of the game being played in a window. Everything in the state,
+     * the time spent paused included, follows the ticks run and the inputs applied, so the hash of
+     * a game played back from its inputs matches the hash of the game they were recorded from.
+     *
+     * @param app the game
+     * @return the hash
+     * @throws IllegalStateException if the level has been edited since it was loaded
+     */
+    public static long hash(App app) {
+        CRC32 crc = new CRC32();
+        crc.update(save(app));
+        return crc.getValue();
+    }
+
+    /**
+     * Puts a game back to a saved state. The saved level is started, reusing it if it is already
+     * loaded, and then brought to where it was.
+     *
+     * @param app   the game
+     * @param state the state written by {@link #save(App)}
+     * @throws IOException if the state is not a game state of this version or does not fit the level
+     */
+    public static void restore(App app, byte[] state) throws IOException {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(state);
+            SaveState.readHeader(in, SaveState.KIND_GAME);
+            int levelIndex = in.getInt();
+            if (levelIndex < 0 || levelIndex >= app.levelSource.levelCount()) {
+                throw new IOException("Level " + levelIndex + " of " + app.levelSource.levelCount());
+            }
+            byte flags = in.get();
+            float total = in.getFloat();
+            float previousLevelScore = in.getFloat();
+            long pausedTicks = in.getLong();
+
+            app.cancelPrefetch();
+            app.levelIndex = levelIndex;
+            app.startLevel();
+            SaveState.readLevel(in, app.game.currentLevel, app.config.realTopBarBalls);
+            app.isPaused = (flags & 1) != 0;
+            app.levelCompleted = (flags & 2) != 0;
+            app.levelFailed = (flags & 4) != 0;
+            app.scoreboard.total = total;
+            app.previousLevelScore = previousLevelScore;
+            app.pausedTicks = pausedTicks;
+            app.elapsedTime = app.game.currentLevel.clockTicks / (float) App.FPS;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Save state is truncated", e);
+        }
+    }
+}
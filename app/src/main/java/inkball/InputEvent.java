@@ -0,0 +1,84 @@
+package inkball;
+
+/**
+ * The {@code InputEvent} class is an immutable record of a mouse or key input
+ * received by the game window. Events are queued when the simulation runs on
+ * its own thread and applied there at the start of the next tick.
+ */
+
+public class InputEvent {
+
+    /**
+     * Enum representing the kinds of input the game reacts to.
+     */
+    public enum Type {
+        MOUSE_PRESSED,
+        MOUSE_DRAGGED,
+        KEY_PRESSED;
+    }
+
+    public final Type type; // The kind of input
+    public final float x; // The x-coordinate of the mouse
+    public final float y; // The y-coordinate of the mouse
+    public final int button; // The mouse button
+    public final boolean control; // Whether the control key was held during a mouse press
+    public final char key; // The key that was pressed
+    public final int keyCode; // The key code of the key that was pressed
+
+    /**
+     * Constructs a new {@code InputEvent} with the specified values.
+     *
+     * @param type    the kind of input
+     * @param x       the x-coordinate of the mouse
+     * @param y       the y-coordinate of the mouse
+     * @param button  the mouse button
+     * @param control whether the control key was held
+     * @param key     the key that was pressed
+     * @param keyCode the key code of the key that was pressed
+     */
+    public InputEvent(Type type, float x, float y, int button, boolean control, char key, int keyCode) {
+        this.type = type;
+        this.x = x;
+        this.y = y;
+        this.button = button;
+        this.control = control;
+        this.key = key;
+        this.keyCode = keyCode;
+    }
+
+    /**
+     * Creates a mouse press event.
+     *
+     * @param x       the x-coordinate of the mouse
+     * @param y       the y-coordinate of the mouse
+     * @param button  the mouse button
+     * @param control whether the control key was held
+     * @return the new event
+     */
+    public static InputEvent mousePressed(float x, float y, int button, boolean control) {
+        return new InputEvent(Type.MOUSE_PRESSED, x, y, button, control, (char) 0, 0);
+    }
+
+    /**
+     * Creates a mouse drag event.
+     *
+     * @param x      the x-coordinate of the mouse
+     * @param y      the y-coordinate of the mouse
+     * @param button the mouse button
+     * @return the new event
+     */
+    public static InputEvent mouseDragged(float x, float y, int button) {
+        return new InputEvent(Type.MOUSE_DRAGGED, x, y, button, false, (char) 0, 0);
+    }
+
+    /**
+     * Creates a key press event.
+     *
+     * @param key     the key that was pressed
+     * @param keyCode the key code of the key that was pressed
+     * @return the new event
+     */
+    public static InputEvent keyPressed(char key, int keyCode) {
+        return new InputEvent(Type.KEY_PRESSED, 0, 0, 0, false, key, keyCode);
+    }
+}
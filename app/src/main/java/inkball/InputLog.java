@@ -0,0 +1,354 @@
+package inkball;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * The {@code InputLog} class records the inputs a game applies, each stamped with the number of
+ * simulation ticks run before it, along with what is needed to play them back: the seed of the
+ * session, the level it started on and a hash of each level it entered, taken as the level was
+ * entered. When the game ends the final tick, score and state hash are added, so a playback can
+ * check it came out the same.
+ *
+ * <p>The log is written compactly: each input stores the ticks since the previous one and the
+ * change in mouse position since the previous mouse input as variable-length integers, so a
+ * long drag takes a few bytes per point. Mouse positions are the whole pixels the window reports.</p>
+ */
+
+public class InputLog {
+
+    public static final int MAGIC = 0x494B524C; // "IKRL", the first bytes of every log
+    public static final int VERSION = 3; // Version of the format written and read
+
+    public long id; // Identifies the recording, so keyframes stored beside it are not used with another
+    public long seed; // Seed of the session's randomness
+    public int startLevel; // Index of the level the session started on
+    public TreeMap<Integer, Long> levelHashes = new TreeMap<>(); // Hash of each level the session entered, by level index
+    public ArrayList<Entry> entries = new ArrayList<>(); // Inputs applied, in order
+    public long finalTick = -1; // Ticks run when the session ended, or -1 while it is still recording
+    public float finalScore; // Total score when the session ended
+    public long stateHash; // Hash of the game state when the session ended, or 0 if it ended on an edited level
+
+    /**
+     * The {@code Entry} class is one input and the tick it was applied on.
+     */
+    public static final class Entry {
+        public final long tick; // Number of simulation ticks run before the input was applied
+        public final InputEvent event; // The input
+
+        /**
+         * Constructs a new {@code Entry}.
+         *
+         * @param tick  the number of ticks run before the input
+         * @param event the input
+         */
+        public Entry(long tick, InputEvent event) {
+            this.tick = tick;
+            this.event = event;
+        }
+    }
+
+    /**
+     * Constructs a new, empty {@code InputLog} for a session.
+     *
+     * @param seed       the seed of the session's randomness
+     * @param startLevel the index of the level the session starts on
+     */
+    public InputLog(long seed, int startLevel) {
+        this.id = new SplittableRandom().nextLong();
+        this.seed = seed;
+        this.startLevel = startLevel;
+    }
+
+    /**
+     * Records an input.
+     *
+     * @param tick  the number of ticks run before the input was applied
+     * @param event the input
+     */
+    public void add(long tick, InputEvent event) {
+        entries.add(new Entry(tick, event));
+    }
+
+    /**
+     * Records how the session ended.
+     *
+     * @param tick      the number of ticks run
+     * @param score     the total score
+     * @param stateHash the hash of the game state
+     */
+    public void finish(long tick, float score, long stateHash) {
+        this.finalTick = tick;
+        this.finalScore = score;
+        this.stateHash = stateHash;
+    }
+
+    /**
+     * Records the hash of a level the session has entered, unless it was entered before.
+     *
+     * @param index the index of the level
+     * @param level the level
+     * @throws UncheckedIOException if the level's layout file cannot be read
+     */
+    public void addLevel(int index, LevelConfig level) {
+        if (!levelHashes.containsKey(index)) {
+            levelHashes.put(index, hashLevel(level));
+        }
+    }
+
+    /**
+     * Returns a hash of a level: its layout, timings, queued balls and scores. The layout is
+     * hashed by content, whether it is held as rows, carried compiled or read from its file, so
+     * a layout edited in place no longer hashes the same.
+     *
+     * @param level the level
+     * @return the hash
+     * @throws UncheckedIOException if the level's layout file cannot be read
+     */
+    public static long hashLevel(LevelConfig level) {
+        long hash = 17;
+        hash = 31 * hash + hashLayout(level);
+        hash = 31 * hash + level.time;
+        hash = 31 * hash + level.spawnInterval;
+        hash = 31 * hash + Float.floatToIntBits(level.scoreIncreaseModifier);
+        hash = 31 * hash + Float.floatToIntBits(level.scoreDecreaseModifier);
+        hash = 31 * hash + level.balls.hashCode();
+        hash = 31 * hash + new TreeMap<>(level.scoreIncreaseFromHoleCapture).hashCode();
+        hash = 31 * hash + new TreeMap<>(level.scoreDecreaseFromWrongHole).hashCode();
+        return hash;
+    }
+
+    /**
+     * Returns a hash of the content of a level's layout: its rows, its compiled bytes, or the
+     * bytes of its file.
+     */
+    private static long hashLayout(LevelConfig level) {
+        if (level.layout != null) {
+            return level.layout.hashCode();
+        }
+        CRC32 crc = new CRC32();
+        if (level.compiledLayout != null) {
+            ByteBuffer compiled = level.compiledLayout.buffer.duplicate();
+            compiled.position(0);
+            crc.update(compiled);
+            return crc.getValue();
+        }
+        try (InputStream in = new FileInputStream(level.layoutPath)) {
+            byte[] buffer = new byte[8192];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                crc.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read layout " + level.layoutPath, e);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Writes the log to bytes.
+     *
+     * @return the encoded log
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + entries.size() * 4);
+        writeInt(out, MAGIC);
+        out.write(VERSION);
+        writeInt(out, (int) (id >>> 32));
+        writeInt(out, (int) id);
+        writeVarLong(out, zigZag(seed));
+        writeVarLong(out, startLevel);
+        writeVarLong(out, levelHashes.size());
+        for (Map.Entry<Integer, Long> level : levelHashes.entrySet()) {
+            writeVarLong(out, level.getKey());
+            writeVarLong(out, zigZag(level.getValue()));
+        }
+        writeVarLong(out, zigZag(finalTick));
+        writeInt(out, Float.floatToIntBits(finalScore));
+        writeVarLong(out, zigZag(stateHash));
+        writeVarLong(out, entries.size());
+
+        long tick = 0;
+        int mouseX = 0;
+        int mouseY = 0;
+        for (Entry entry : entries) {
+            InputEvent event = entry.event;
+            writeVarLong(out, entry.tick - tick);
+            tick = entry.tick;
+            out.write(event.type.ordinal());
+            if (event.type == InputEvent.Type.KEY_PRESSED) {
+                writeVarLong(out, event.key);
+                writeVarLong(out, zigZag(event.keyCode));
+            } else {
+                int x = Math.round(event.x);
+                int y = Math.round(event.y);
+                writeVarLong(out, zigZag(x - mouseX));
+                writeVarLong(out, zigZag(y - mouseY));
+                mouseX = x;
+                mouseY = y;
+                writeVarLong(out, (long) event.button << 1 | (event.control ? 1 : 0));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads a log from bytes.
+     *
+     * @param bytes the encoded log
+     * @return the log
+     * @throws IOException if the bytes are not a log of this version
+     */
+    public static InputLog fromBytes(byte[] bytes) throws IOException {
+        Reader in = new Reader(bytes);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an input log");
+        }
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Input log version " + version + ", expected " + VERSION);
+        }
+        long id = (long) in.readInt() << 32 | (in.readInt() & 0xFFFFFFFFL);
+        InputLog log = new InputLog(unZigZag(in.readVarLong()), (int) in.readVarLong());
+        log.id = id;
+        long levels = in.readVarLong();
+        if (levels > bytes.length) {
+            throw new IOException("Bad level count " + levels);
+        }
+        for (long n = 0; n < levels; n++) {
+            log.levelHashes.put((int) in.readVarLong(), unZigZag(in.readVarLong()));
+        }
+        log.finalTick = unZigZag(in.readVarLong());
+        log.finalScore = Float.intBitsToFloat(in.readInt());
+        log.stateHash = unZigZag(in.readVarLong());
+        long count = in.readVarLong();
+        if (count > bytes.length) {
+            throw new IOException("Bad input count " + count);
+        }
+
+        InputEvent.Type[] types = InputEvent.Type.values();
+        long tick = 0;
+        int mouseX = 0;
+        int mouseY = 0;
+        for (long n = 0; n < count; n++) {
+            tick += in.readVarLong();
+            int type = in.readByte();
+            if (type >= types.length) {
+                throw new IOException("Bad input type " + type);
+            }
+            if (types[type] == InputEvent.Type.KEY_PRESSED) {
+                char key = (char) in.readVarLong();
+                int keyCode = (int) unZigZag(in.readVarLong());
+                log.add(tick, InputEvent.keyPressed(key, keyCode));
+            } else {
+                mouseX += (int) unZigZag(in.readVarLong());
+                mouseY += (int) unZigZag(in.readVarLong());
+                long button = in.readVarLong();
+                log.add(tick, types[type] == InputEvent.Type.MOUSE_PRESSED
+                        ? InputEvent.mousePressed(mouseX, mouseY, (int) (button >> 1), (button & 1) != 0)
+                        : InputEvent.mouseDragged(mouseX, mouseY, (int) (button >> 1)));
+            }
+        }
+        return log;
+    }
+
+    /**
+     * Writes the log to a file.
+     *
+     * @param file the file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(File file) throws IOException {
+        Files.write(file.toPath(), toBytes());
+    }
+
+    /**
+     * Reads a log from a file.
+     *
+     * @param file the file
+     * @return the log
+     * @throws IOException if the file cannot be read or is not a log of this version
+     */
+    public static InputLog read(File file) throws IOException {
+        return fromBytes(Files.readAllBytes(file.toPath()));
+    }
+
+    /**
+     * Maps a signed value to an unsigned one, so small negative values stay short as variable-length integers.
+     */
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Undoes {@link #zigZag(long)}.
+     */
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Writes a fixed-length big-endian integer.
+     */
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    /**
+     * Writes an unsigned variable-length integer, seven bits to a byte.
+     */
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * The {@code Reader} class reads the integers of an encoded log.
+     */
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position = 0;
+
+        private Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private int readByte() throws IOException {
+            if (position >= bytes.length) {
+                throw new IOException("Input log is truncated");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        private int readInt() throws IOException {
+            return readByte() << 24 | readByte() << 16 | readByte() << 8 | readByte();
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Bad variable-length integer");
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package inkball;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The {@code KeyframeIndex} class stores full save states of a recorded session every so many
+ * ticks, so a replay can seek by restoring the nearest earlier keyframe and simulating only the
+ * ticks after it. Keyframes are appended to a file beside the input log as the session is
+ * recorded or first played back, and the tick and file offset of each is kept in memory, so
+ * finding and reading a keyframe is a binary search and a single read.
+ *
+ * <p>The file starts with a header naming the log the keyframes belong to. Each keyframe is its
+ * tick, the number of inputs applied before it and its save state, prefixed with its length.
+ * A keyframe cut short, as when the game was killed while writing it, is dropped on opening.</p>
+ */
+
+public class KeyframeIndex {
+
+    public static final int MAGIC = 0x494B4B46; // "IKKF", the first bytes of every keyframe file
+    public static final int VERSION = 2; // Version of the format written; keyframes of older versions hold states that no longer restore
+    public static final int DEFAULT_INTERVAL_TICKS = 5 * App.FPS; // Ticks between keyframes
+    public static final int HEADER_BYTES = 4 + 2 + 4 + 8; // Magic, version, interval and log id
+    public static final int RECORD_HEADER_BYTES = 8 + 4 + 4; // Tick, input index and state length
+
+    public final File file; // The file the keyframes are stored in
+    public final int interval; // Ticks between keyframes
+    public long[] ticks = new long[64]; // Tick of each keyframe, in ascending order
+    public long[] offsets = new long[64]; // Offset of each keyframe in the file
+    public int count = 0; // Number of keyframes stored
+    private final RandomAccessFile data; // The open file
+
+    /**
+     * The {@code Keyframe} class is a saved state and where in the session it was saved.
+     */
+    public static final class Keyframe {
+        public final long tick; // Number of ticks run before the state was saved
+        public final int inputIndex; // Number of inputs applied before the state was saved
+        public final byte[] state; // The state, written by SaveState
+
+        /**
+         * Constructs a new {@code Keyframe}.
+         *
+         * @param tick       the number of ticks run
+         * @param inputIndex the number of inputs applied
+         * @param state      the saved state
+         */
+        public Keyframe(long tick, int inputIndex, byte[] state) {
+            this.tick = tick;
+            this.inputIndex = inputIndex;
+            this.state = state;
+        }
+    }
+
+    /**
+     * Opens the keyframes of a log, keeping those already stored if they belong to the same log
+     * and were taken at the same interval, and starting the file over otherwise.
+     *
+     * @param file     the file the keyframes are stored in
+     * @param logId    the id of the input log
+     * @param interval the ticks between keyframes
+     * @throws IOException if the file cannot be opened
+     */
+    public KeyframeIndex(File file, long logId, int interval) throws IOException {
+        this.file = file;
+        this.interval = interval;
+        this.data = new RandomAccessFile(file, "rw");
+        if (!readIndex(logId)) {
+            data.setLength(0);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putShort((short) VERSION).putInt(interval).putLong(logId);
+            data.write(header.array());
+            count = 0;
+        }
+    }
+
+    /**
+     * Reads the header and the position of every whole keyframe, and drops any partial keyframe at the end.
+     *
+     * @return {@code false} if the file is empty or holds the keyframes of another log or interval
+     */
+    private boolean readIndex(long logId) throws IOException {
+        long length = data.length();
+        if (length < HEADER_BYTES) {
+            return false;
+        }
+        data.seek(0);
+        if (data.readInt() != MAGIC || data.readShort() != VERSION || data.readInt() != interval
+                || data.readLong() != logId) {
+            return false;
+        }
+        long offset = HEADER_BYTES;
+        while (offset + RECORD_HEADER_BYTES <= length) {
+            data.seek(offset);
+            long tick = data.readLong();
+            data.readInt();
+            int size = data.readInt();
+            long end = offset + RECORD_HEADER_BYTES + size;
+            if (size < 0 || end > length || (count > 0 && tick <= ticks[count - 1])) {
+                break;
+            }
+            addToIndex(tick, offset);
+            offset = end;
+        }
+        data.setLength(offset);
+        return true;
+    }
+
+    /**
+     * Returns the tick of the last keyframe stored.
+     *
+     * @return the tick, or -1 if there is none
+     */
+    public long lastTick() {
+        return count == 0 ? -1 : ticks[count - 1];
+    }
+
+    /**
+     * Returns whether a keyframe is due at a tick: one falls on every interval, after the last one stored.
+     *
+     * @param tick the number of ticks run
+     * @return {@code true} if a keyframe should be stored
+     */
+    public boolean isDue(long tick) {
+        return tick % interval == 0 && tick > lastTick();
+    }
+
+    /**
+     * Appends a keyframe after the last one.
+     *
+     * @param tick       the number of ticks run
+     * @param inputIndex the number of inputs applied
+     * @param state      the saved state
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the keyframe is not after the last one
+     */
+    public void append(long tick, int inputIndex, byte[] state) throws IOException {
+        if (tick <= lastTick()) {
+            throw new IllegalArgumentException("Keyframe at tick " + tick + " is not after tick " + lastTick());
+        }
+        long offset = data.length();
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + state.length);
+        record.putLong(tick).putInt(inputIndex).putInt(state.length).put(state);
+        data.seek(offset);
+        data.write(record.array());
+        addToIndex(tick, offset);
+    }
+
+    /**
+     * Reads the last keyframe at or before a tick.
+     *
+     * @param tick the tick to seek to
+     * @return the keyframe, or {@code null} if there is none that early
+     * @throws IOException if the file cannot be read
+     */
+    public Keyframe floor(long tick) throws IOException {
+        int index = Arrays.binarySearch(ticks, 0, count, tick);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        if (index < 0) {
+            return null;
+        }
+        data.seek(offsets[index]);
+        long keyframeTick = data.readLong();
+        int inputIndex = data.readInt();
+        byte[] state = new byte[data.readInt()];
+        data.readFully(state);
+        return new Keyframe(keyframeTick, inputIndex, state);
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    public void close() throws IOException {
+        data.close();
+    }
+
+    /**
+     * Adds the tick and offset of a keyframe to the index, growing it as needed.
+     */
+    private void addToIndex(long tick, long offset) {
+        if (count == ticks.length) {
+            ticks = Arrays.copyOf(ticks, count * 2);
+            offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        ticks[count] = tick;
+        offsets[count] = offset;
+        count++;
+    }
+}
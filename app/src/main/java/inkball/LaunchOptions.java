@@ -0,0 +1,153 @@
+package inkball;
+
+/**
+ * The {@code LaunchOptions} class holds the options the game was started with.
+ * Options are read from the command-line arguments passed to {@code App.main}.
+ */
+
+public class LaunchOptions {
+
+    public boolean softwareCompositor = false; // Whether the board is composited straight into the pixel buffer
+    public int compositorThreads = Runtime.getRuntime().availableProcessors(); // Number of compositor workers
+    public boolean threaded = false; // Whether the simulation runs on its own thread
+    public String exportDirectory = null; // Directory frames are exported to, or null to play normally
+    public int exportFrames = 0; // Number of frames to export, or 0 to export until the game ends
+    public int exportThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1); // Number of PNG encoders
+    public String assetCacheDirectory = AssetLoader.defaultCacheDirectory().getPath(); // Directory of decoded sprites, or null to always decode
+    public int assetThreads = Runtime.getRuntime().availableProcessors(); // Number of sprite decoders
+    public String packPath = null; // Level pack to play, or null to play the levels of the config file
+    public int startLevel = 0; // Index of the level to start on
+    public boolean warmUp = false; // Whether a warm-up simulation runs before the first level is shown
+    public int warmUpTicks = WarmUp.DEFAULT_TICKS; // Number of ticks the warm-up simulates
+    public int speed = 1; // Fast-forward speed: ticks run per tick of the clock, or App.FAST_FORWARD_MAX
+    public Long seed = null; // Seed of the game's randomness, or null to draw one at launch
+    public String recordPath = null; // File the inputs are recorded to on exit, or null
+    public String replayPath = null; // Input log played back instead of taking input, or null
+    public boolean bot = false; // Whether a RolloutPlayer draws the ink in place of the mouse
+    public long botBudgetMillis = RolloutPlayer.DEFAULT_BUDGET_MILLIS; // Time each of the player's decisions may take
+
+    /**
+     * Parses the given command-line arguments. Unknown arguments are ignored.
+     *
+     * @param args the command-line arguments, may be {@code null}
+     * @return the parsed options
+     */
+    public static LaunchOptions parse(String[] args) {
+        LaunchOptions options = new LaunchOptions();
+        if (args == null) {
+            return options;
+        }
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--compositor":
+                    options.softwareCompositor = true;
+                    break;
+
+                case "--threaded":
+                    options.threaded = true;
+                    break;
+
+                case "--export":
+                    if (i + 1 < args.length) {
+                        options.exportDirectory = args[++i];
+                    }
+                    break;
+
+                case "--export-frames":
+                    if (i + 1 < args.length) {
+                        options.exportFrames = Math.max(0, Integer.parseInt(args[++i]));
+                    }
+                    break;
+
+                case "--export-threads":
+                    if (i + 1 < args.length) {
+                        options.exportThreads = Math.max(1, Integer.parseInt(args[++i]));
+                    }
+                    break;
+
+                case "--asset-cache":
+                    if (i + 1 < args.length) {
+                        options.assetCacheDirectory = args[++i];
+                    }
+                    break;
+
+                case "--no-asset-cache":
+                    options.assetCacheDirectory = null;
+                    break;
+
+                case "--asset-threads":
+                    if (i + 1 < args.length) {
+                        options.assetThreads = Math.max(1, Integer.parseInt(args[++i]));
+                    }
+                    break;
+
+                case "--pack":
+                    if (i + 1 < args.length) {
+                        options.packPath = args[++i];
+                    }
+                    break;
+
+                case "--level":
+                    if (i + 1 < args.length) {
+                        options.startLevel = Math.max(0, Integer.parseInt(args[++i]));
+                    }
+                    break;
+
+                case "--warm-up":
+                    options.warmUp = true;
+                    break;
+
+                case "--warm-up-ticks":
+                    if (i + 1 < args.length) {
+                        options.warmUp = true;
+                        options.warmUpTicks = Math.max(0, Integer.parseInt(args[++i]));
+                    }
+                    break;
+
+                case "--speed":
+                    if (i + 1 < args.length) {
+                        String speed = args[++i];
+                        options.speed = speed.equalsIgnoreCase("max") ? App.FAST_FORWARD_MAX : Math.max(1, Integer.parseInt(speed));
+                    }
+                    break;
+
+                case "--seed":
+                    if (i + 1 < args.length) {
+                        options.seed = Long.parseLong(args[++i]);
+                    }
+                    break;
+
+                case "--record":
+                    if (i + 1 < args.length) {
+                        options.recordPath = args[++i];
+                    }
+                    break;
+
+                case "--replay":
+                    if (i + 1 < args.length) {
+                        options.replayPath = args[++i];
+                    }
+                    break;
+
+                case "--bot":
+                    options.bot = true;
+                    break;
+
+                case "--bot-budget":
+                    if (i + 1 < args.length) {
+                        options.bot = true;
+                        options.botBudgetMillis = Math.max(1, Long.parseLong(args[++i]));
+                    }
+                    break;
+
+                case "--compositor-threads":
+                    if (i + 1 < args.length) {
+                        options.compositorThreads = Math.max(1, Integer.parseInt(args[++i]));
+                    }
+                    break;
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,313 @@
+package inkball;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * The {@code LevelEditor} class paints walls, holes, spawners and balls onto a level while
+ * it is being played. Each edit patches only the cells it touches: their tiles, hit boxes,
+ * holes and hole coverage are replaced on the board, and the balls already moving carry on.
+ * A tile is replaced in its place in the level's list of tiles, so an edit takes the same time
+ * however large the board is, and the other tiles keep their positions.
+ * The editor keeps the text layout in step with the board so it can be saved at any time.
+ */
+
+public class LevelEditor {
+
+    /**
+     * Enum representing what a click in the editor paints.
+     */
+    public enum Brush {
+        WALL,
+        HOLE,
+        SPAWNER,
+        BALL,
+        ERASE;
+    }
+
+    public Level level; // The level being edited
+    public ArrayList<StringBuilder> layout; // Rows of the text layout, kept in step with the board
+    public Brush brush = Brush.WALL; // What the next click paints
+    public int colour = 0; // Colour index of the walls, holes and balls painted
+    public int edits = 0; // Number of edits made so far
+    public int lastColumn = -1; // Column of the last cell painted by the current stroke, or -1
+    public int lastRow = -1; // Row of the last cell painted by the current stroke, or -1
+
+    /**
+     * Constructs a new {@code LevelEditor} for a loaded level, starting from the layout it was loaded from.
+     *
+     * @param level the level to edit
+     * @throws IllegalStateException if the level has not been loaded
+     */
+    public LevelEditor(Level level) {
+        LevelTemplate template = level.template;
+        if (template == null) {
+            throw new IllegalStateException("The level has not been loaded");
+        }
+        this.level = level;
+        this.layout = new ArrayList<>(level.rows);
+        for (int row = 0; row < level.rows; row++) {
+            StringBuilder line = new StringBuilder(level.columns);
+            for (int column = 0; column < level.columns; column++) {
+                line.append(' ');
+            }
+            layout.add(line);
+        }
+
+        for (LevelTemplate.Cell cell : template.tiles) {
+            switch (cell.type) {
+                case WALL:
+                    setChar(cell.column, cell.row, wallChar(cell.colorIndex));
+                    break;
+                case HOLE:
+                    setChar(cell.column, cell.row, 'H');
+                    setChar(cell.column + 1, cell.row, digit(cell.colorIndex));
+                    break;
+                case ENTRYPOINT:
+                    setChar(cell.column, cell.row, 'S');
+                    break;
+            }
+        }
+        for (LevelTemplate.Cell cell : template.balls) {
+            setChar(cell.column, cell.row, 'B');
+            setChar(cell.column + 1, cell.row, digit(cell.colorIndex));
+        }
+    }
+
+    /**
+     * Paints the cell under a position on the board with the current brush. A stroke paints each
+     * cell once, so dragging over a cell already painted does nothing.
+     *
+     * @param x     the x-coordinate on the board
+     * @param y     the y-coordinate on the board, including the top bar
+     * @param brush what to paint
+     * @return {@code true} if the board was changed
+     */
+    public boolean paintAt(float x, float y, Brush brush) {
+        if (y < level.topbar) {
+            return false;
+        }
+        int column = (int) Math.floor(x / level.cellsize);
+        int row = (int) Math.floor((y - level.topbar) / level.cellsize);
+        if (column == lastColumn && row == lastRow) {
+            return false;
+        }
+        lastColumn = column;
+        lastRow = row;
+        return paint(column, row, brush);
+    }
+
+    /**
+     * Ends the current stroke, so the next one may paint the same cells again.
+     */
+    public void lift() {
+        lastColumn = -1;
+        lastRow = -1;
+    }
+
+    /**
+     * Paints a cell. Holes take the cell and the three to its right and below, and balls the cell
+     * and the one to its right, as in the text layout. Whatever was in those cells is removed first,
+     * including the whole of any hole or starting ball overlapping them. A ball also starts moving at once.
+     *
+     * @param column the column of the cell
+     * @param row    the row of the cell
+     * @param brush  what to paint
+     * @return {@code true} if the board was changed, {@code false} if the brush does not fit on the board there
+     */
+    public boolean paint(int column, int row, Brush brush) {
+        int width = brush == Brush.HOLE || brush == Brush.BALL ? 2 : 1;
+        int height = brush == Brush.HOLE ? 2 : 1;
+        if (column < 0 || row < 0 || column + width > level.columns || row + height > level.rows) {
+            return false;
+        }
+
+        // The level no longer matches its template, so restarting it must rebuild it
+        level.template = null;
+        int x = column * level.cellsize;
+        int y = row * level.cellsize + level.topbar;
+
+        switch (brush) {
+            case WALL:
+                vacate(column, row, new Tile(x, y, level.cellsize, Tile.TileType.WALL, colour));
+                setChar(column, row, wallChar(colour));
+                break;
+
+            case SPAWNER:
+                vacate(column, row, new Tile(x, y, level.cellsize, Tile.TileType.ENTRYPOINT, 0));
+                level.spawner.add(new Tile(x, y, level.cellsize, Tile.TileType.ENTRYPOINT, 0));
+                setChar(column, row, 'S');
+                break;
+
+            case HOLE:
+                vacate(column + 1, row, null);
+                vacate(column, row + 1, null);
+                vacate(column + 1, row + 1, null);
+                Tile hole = new Tile(x, y, level.cellsize * 2, Tile.TileType.HOLE, colour);
+                vacate(column, row, hole);
+                level.holes.add(hole);
+                level.board.setCoveredByHole(column + 1, row, true);
+                level.board.setCoveredByHole(column, row + 1, true);
+                level.board.setCoveredByHole(column + 1, row + 1, true);
+                setChar(column, row, 'H');
+                setChar(column + 1, row, digit(colour));
+                break;
+
+            case BALL:
+                vacate(column, row, blankTile(column, row));
+                vacate(column + 1, row, blankTile(column + 1, row));
+                setChar(column, row, 'B');
+                setChar(column + 1, row, digit(colour));
+                Ball ball = new Ball(x, y, colour, level.nextBallSeed());
+                level.fitBallToBoard(ball);
+                level.addBall(ball);
+                break;
+
+            case ERASE:
+                vacate(column, row, blankTile(column, row));
+                break;
+        }
+        edits++;
+        level.boardVersion++;
+        return true;
+    }
+
+    /**
+     * Removes whatever occupies a cell and puts a tile in its place, in the same position in the
+     * level's list of tiles. A hole or starting ball reaching into the cell is removed whole, and
+     * the other cells it took are left blank.
+     */
+    private void vacate(int column, int row, Tile replacement) {
+        Tile hole = holeCovering(column, row);
+        if (hole != null) {
+            removeHole(hole);
+        }
+
+        if (charAt(column, row) == 'B') {
+            setChar(column + 1, row, ' ');
+        } else if (charAt(column - 1, row) == 'B') {
+            setChar(column - 1, row, ' ');
+        }
+
+        Tile tile = level.board.get(column, row);
+        if (tile != null && tile.type == Tile.TileType.ENTRYPOINT) {
+            level.spawner.removeIf(spawner -> spawner.x == tile.x && spawner.y == tile.y);
+        }
+        level.setTile(column, row, replacement);
+        setChar(column, row, ' ');
+    }
+
+    /**
+     * Returns the hole placed in or covering a cell, or {@code null} if there is none.
+     */
+    private Tile holeCovering(int column, int row) {
+        Tile tile = level.board.get(column, row);
+        if (tile != null && tile.type == Tile.TileType.HOLE) {
+            return tile;
+        }
+        if (!level.board.isCoveredByHole(column, row)) {
+            return null;
+        }
+        for (int[] offset : new int[][]{{-1, 0}, {0, -1}, {-1, -1}}) {
+            Tile anchor = level.board.get(column + offset[0], row + offset[1]);
+            if (anchor != null && anchor.type == Tile.TileType.HOLE) {
+                return anchor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes a hole off the board and leaves its four cells blank.
+     */
+    private void removeHole(Tile hole) {
+        int column = hole.x / level.cellsize;
+        int row = (hole.y - level.topbar) / level.cellsize;
+        level.holes.remove(hole);
+        level.board.setCoveredByHole(column + 1, row, false);
+        level.board.setCoveredByHole(column, row + 1, false);
+        level.board.setCoveredByHole(column + 1, row + 1, false);
+        for (int[] offset : new int[][]{{0, 0}, {1, 0}, {0, 1}, {1, 1}}) {
+            setChar(column + offset[0], row + offset[1], ' ');
+            level.setTile(column + offset[0], row + offset[1], blankTile(column + offset[0], row + offset[1]));
+        }
+    }
+
+    /**
+     * Returns a new blank tile for a cell, or {@code null} if the level draws blank cells on the fly.
+     */
+    private Tile blankTile(int column, int row) {
+        if (level.implicitBlankTiles) {
+            return null;
+        }
+        return new Tile(column * level.cellsize, row * level.cellsize + level.topbar,
+                level.cellsize, Tile.TileType.TILE, 0);
+    }
+
+    /**
+     * Returns the rows of the edited layout in the text format read by {@link LevelTemplate#fromLayout}.
+     *
+     * @return the rows of the layout
+     */
+    public List<String> toLayout() {
+        ArrayList<String> rows = new ArrayList<>(layout.size());
+        for (StringBuilder line : layout) {
+            rows.add(line.toString());
+        }
+        return rows;
+    }
+
+    /**
+     * Saves the edited layout as a text layout. The file is written under a temporary name and
+     * moved into place, so a watcher reloading the level never reads it half written.
+     *
+     * @param file the layout file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(File file) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        File temp = File.createTempFile("layout", ".tmp", directory);
+        try {
+            Files.write(temp.toPath(), toLayout(), StandardCharsets.UTF_8);
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            temp.delete();
+        }
+    }
+
+    /**
+     * Returns the character of a cell in the layout, or a blank outside it.
+     */
+    private char charAt(int column, int row) {
+        if (row < 0 || row >= layout.size() || column < 0 || column >= layout.get(row).length()) {
+            return ' ';
+        }
+        return layout.get(row).charAt(column);
+    }
+
+    /**
+     * Sets the character of a cell in the layout, ignoring cells outside it.
+     */
+    private void setChar(int column, int row, char c) {
+        if (row >= 0 && row < layout.size() && column >= 0 && column < layout.get(row).length()) {
+            layout.get(row).setCharAt(column, c);
+        }
+    }
+
+    /**
+     * Returns the layout character of a wall of the given colour.
+     */
+    private static char wallChar(int colour) {
+        return colour == 0 ? 'X' : digit(colour);
+    }
+
+    /**
+     * Returns the digit of a colour index.
+     */
+    private static char digit(int colour) {
+        return (char) ('0' + colour);
+    }
+}
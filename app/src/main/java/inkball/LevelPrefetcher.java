@@ -0,0 +1,114 @@
+package inkball;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+
+/**
+ * The {@code LevelPrefetcher} class builds the next level on a background thread while the
+ * current one is played: its configuration, layout and tiles. When the level is reached it is
+ * swapped in whole if it is ready; otherwise the caller builds it as before.
+ */
+
+public class LevelPrefetcher {
+
+    public IntFunction<PreparedLevel> loader; // Builds a level by index; runs on the worker thread
+    public ExecutorService worker; // Thread building the prefetched level
+    public Future<PreparedLevel> pending; // The level being or already built, or null
+    public int pendingIndex = -1; // Index of the pending level, or -1 when none
+
+    /**
+     * The {@code PreparedLevel} class is a level built ahead of time and ready to be played.
+     */
+    public static class PreparedLevel {
+        public final LevelConfig level; // The configuration the level was built from
+        public final GetConfig config; // The loaded configuration, with its queued balls
+        public final Game game; // The game holding the loaded level
+
+        /**
+         * Constructs a new {@code PreparedLevel}.
+         *
+         * @param level  the configuration the level was built from
+         * @param config the loaded configuration
+         * @param game   the game holding the loaded level
+         */
+        public PreparedLevel(LevelConfig level, GetConfig config, Game game) {
+            this.level = level;
+            this.config = config;
+            this.game = game;
+        }
+    }
+
+    /**
+     * Constructs a new {@code LevelPrefetcher}.
+     *
+     * @param loader the function building a level by index
+     */
+    public LevelPrefetcher(IntFunction<PreparedLevel> loader) {
+        this.loader = loader;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inkball-level-prefetcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts building a level in the background, unless it is already being built.
+     * A level being built for another index is cancelled.
+     *
+     * @param levelIndex the index of the level to build
+     */
+    public synchronized void prefetch(int levelIndex) {
+        if (pendingIndex == levelIndex) {
+            return;
+        }
+        cancel();
+        pendingIndex = levelIndex;
+        pending = worker.submit(() -> loader.apply(levelIndex));
+    }
+
+    /**
+     * Takes the prefetched level if it is the one asked for and has finished building.
+     * The prefetch is used up either way, and an unfinished one is cancelled.
+     *
+     * @param levelIndex the index of the level being started
+     * @param level      the current configuration of that level; a level built from an older one is discarded
+     * @return the prepared level, or {@code null} if the caller must build it
+     */
+    public synchronized PreparedLevel take(int levelIndex, LevelConfig level) {
+        if (pendingIndex != levelIndex || !pending.isDone()) {
+            cancel();
+            return null;
+        }
+        Future<PreparedLevel> done = pending;
+        pending = null;
+        pendingIndex = -1;
+        try {
+            PreparedLevel prepared = done.get();
+            return prepared.level == level ? prepared : null;
+        } catch (InterruptedException | CancellationException e) {
+            return null;
+        } catch (ExecutionException e) {
+            System.err.println("Could not prefetch level " + levelIndex + ": " + e.getCause());
+            return null;
+        }
+    }
+
+    /**
+     * Cancels the pending prefetch, if any, such as when the game is restarted.
+     */
+    public synchronized void cancel() {
+        if (pending != null) {
+            pending.cancel(true);
+        }
+        pending = null;
+        pendingIndex = -1;
+    }
+
+    /**
+     * Cancels the pending prefetch and stops the worker thread.
+     */
+    public void shutdown() {
+        cancel();
+        worker.shutdownNow();
+    }
+}
@@ -0,0 +1,310 @@
+package inkball;
+import processing.core.PApplet;
+import processing.core.PConstants;
+import processing.core.PImage;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The {@code PixelCompositor} class is a software rendering backend for the board.
+ * Instead of issuing one {@code image()} call per tile and ball, it collects the
+ * sprites and ink of a frame into a draw list, composites them straight into the
+ * pixel buffer in horizontal bands on a fork-join pool and updates the pixels once.
+ */
+
+public class PixelCompositor {
+
+    public static final int MIN_BAND_HEIGHT = 16; // Smallest number of rows handled by one worker
+    public static final float INK_RADIUS = 5; // Half of the stroke weight used for player lines
+
+    public ForkJoinPool pool; // Pool running the band workers
+    public int bandHeight; // Number of rows composited by one worker
+
+    // Draw list of the current frame, composited in insertion order
+    public ArrayList<SpriteCommand> sprites;
+    public int spriteCount;
+    public float[] inkSegments; // Ink segments stored as x1, y1, x2, y2
+    public int inkSegmentCount;
+
+    /**
+     * A sprite placed at a pixel position in the current frame.
+     */
+    public static class SpriteCommand {
+        public int[] pixels; // ARGB pixels of the sprite
+        public int width; // Width of the sprite in pixels
+        public int height; // Height of the sprite in pixels
+        public int x; // x-coordinate of the top-left corner
+        public int y; // y-coordinate of the top-left corner
+        public boolean opaque; // Whether the sprite has no alpha channel
+    }
+
+    /**
+     * Constructs a new {@code PixelCompositor} that uses the given number of worker threads.
+     *
+     * @param threads the number of workers compositing bands in parallel
+     */
+    public PixelCompositor(int threads) {
+        this.pool = new ForkJoinPool(Math.max(1, threads));
+        this.bandHeight = MIN_BAND_HEIGHT;
+        this.sprites = new ArrayList<>();
+        this.inkSegments = new float[64];
+    }
+
+    /**
+     * Composites the tiles, balls and player lines of the level into the pixel buffer of the sketch.
+     * Everything above the top bar is left untouched.
+     *
+     * @param p           the PApplet whose pixels are written
+     * @param level       the level to render
+     * @param assets      the sprites by file name
+     * @param spriteCache the pre-scaled copies of the sprites
+     */
+    public void render(PApplet p, Level level, AssetSource<PImage> assets, SpriteCache spriteCache) {
+        p.loadPixels();
+        clear();
+        collect(level, assets, spriteCache);
+
+        int rows = p.pixels.length / p.width;
+        bandHeight = Math.max(MIN_BAND_HEIGHT, (rows - level.topbar) / (pool.getParallelism() * 4));
+        composite(p.pixels, p.width, level.topbar, rows);
+        p.updatePixels();
+    }
+
+    /**
+     * Fills the draw list with the visible tiles, yellow tiles, balls and ink of the level in drawing order,
+     * moved into window coordinates by the level's camera.
+     *
+     * @param level       the level to collect
+     * @param assets      the sprites by file name
+     * @param spriteCache the pre-scaled copies of the sprites
+     */
+    public void collect(Level level, AssetSource<PImage> assets, SpriteCache spriteCache) {
+        int offsetX = Math.round(level.camera.x);
+        int offsetY = Math.round(level.camera.y);
+        for (Tile tile : level.collectVisibleTiles()) {
+            addSprite(spriteCache.get(assets.get(tile.getCurrentSprite()), tile.size, tile.size), tile.x - offsetX, tile.y - offsetY);
+        }
+
+        if (level.isLevelComplete) {
+            PImage yellowWall = spriteCache.get(assets.get(Tile.WALL_SPRITES[4]), level.cellsize, level.cellsize);
+            addSprite(yellowWall, level.yellowTileTopLeftX * level.cellsize - offsetX, level.yellowTileTopLeftY * level.cellsize + level.topbar - offsetY);
+            addSprite(yellowWall, level.yellowTileBottomRightX * level.cellsize - offsetX, level.yellowTileBottomRightY * level.cellsize + level.topbar - offsetY);
+        }
+
+        for (Ball ball : level.balls) {
+            if (level.camera.isVisible(ball.x, ball.y - level.topbar, ball.diameter, ball.diameter)) {
+                addSprite(spriteCache.get(assets.get(Ball.SPRITES[ball.colorIndex]), ball.diameter, ball.diameter),
+                        Math.round(ball.x) - offsetX, Math.round(ball.y) - offsetY);
+            }
+        }
+
+        for (PlayerLine line : level.playerLines) {
+            for (int i = 0; i < line.points.size() - 1; i++) {
+                float[] from = line.points.get(i);
+                float[] to = line.points.get(i + 1);
+                addInkSegment(from[0] - offsetX, from[1] - offsetY, to[0] - offsetX, to[1] - offsetY);
+            }
+        }
+    }
+
+    /**
+     * Appends a sprite to the draw list.
+     *
+     * @param image the image to draw at its natural size
+     * @param x     the x-coordinate of the top-left corner
+     * @param y     the y-coordinate of the top-left corner
+     */
+    public void addSprite(PImage image, int x, int y) {
+        if (image == null) {
+            return;
+        }
+        image.loadPixels();
+
+        if (spriteCount == sprites.size()) {
+            sprites.add(new SpriteCommand());
+        }
+        SpriteCommand sprite = sprites.get(spriteCount++);
+        sprite.pixels = image.pixels;
+        sprite.width = image.width;
+        sprite.height = image.height;
+        sprite.x = x;
+        sprite.y = y;
+        sprite.opaque = image.format == PConstants.RGB;
+    }
+
+    /**
+     * Appends an ink segment to the draw list.
+     *
+     * @param x1 the x-coordinate of the first endpoint
+     * @param y1 the y-coordinate of the first endpoint
+     * @param x2 the x-coordinate of the second endpoint
+     * @param y2 the y-coordinate of the second endpoint
+     */
+    public void addInkSegment(float x1, float y1, float x2, float y2) {
+        if ((inkSegmentCount + 1) * 4 > inkSegments.length) {
+            inkSegments = Arrays.copyOf(inkSegments, inkSegments.length * 2);
+        }
+        int offset = inkSegmentCount++ * 4;
+        inkSegments[offset] = x1;
+        inkSegments[offset + 1] = y1;
+        inkSegments[offset + 2] = x2;
+        inkSegments[offset + 3] = y2;
+    }
+
+    /**
+     * Empties the draw list.
+     */
+    public void clear() {
+        for (int i = 0; i < spriteCount; i++) {
+            sprites.get(i).pixels = null;
+        }
+        spriteCount = 0;
+        inkSegmentCount = 0;
+    }
+
+    /**
+     * Composites the draw list into the given rows of a pixel buffer, splitting the rows into bands
+     * that are drawn in parallel.
+     *
+     * @param pixels the destination ARGB pixels
+     * @param width  the width of the destination in pixels
+     * @param top    the first row to draw, inclusive
+     * @param bottom the last row to draw, exclusive
+     */
+    public void composite(int[] pixels, int width, int top, int bottom) {
+        if (top < bottom) {
+            pool.invoke(new BandTask(pixels, width, top, bottom));
+        }
+    }
+
+    /**
+     * Composites the draw list into one band of rows.
+     *
+     * @param pixels the destination ARGB pixels
+     * @param width  the width of the destination in pixels
+     * @param top    the first row of the band, inclusive
+     * @param bottom the last row of the band, exclusive
+     */
+    public void compositeBand(int[] pixels, int width, int top, int bottom) {
+        for (int i = 0; i < spriteCount; i++) {
+            drawSprite(sprites.get(i), pixels, width, top, bottom);
+        }
+        for (int i = 0; i < inkSegmentCount; i++) {
+            int offset = i * 4;
+            drawInk(inkSegments[offset], inkSegments[offset + 1], inkSegments[offset + 2], inkSegments[offset + 3], pixels, width, top, bottom);
+        }
+    }
+
+    /**
+     * Draws the part of a sprite that falls inside the band, blending it over the destination.
+     */
+    private void drawSprite(SpriteCommand sprite, int[] pixels, int width, int top, int bottom) {
+        int rowStart = Math.max(top, sprite.y);
+        int rowEnd = Math.min(bottom, sprite.y + sprite.height);
+        int colStart = Math.max(0, sprite.x);
+        int colEnd = Math.min(width, sprite.x + sprite.width);
+
+        for (int row = rowStart; row < rowEnd; row++) {
+            int src = (row - sprite.y) * sprite.width + (colStart - sprite.x);
+            int dst = row * width + colStart;
+            if (sprite.opaque) {
+                for (int col = colStart; col < colEnd; col++) {
+                    pixels[dst++] = sprite.pixels[src++] | 0xff000000;
+                }
+            } else {
+                for (int col = colStart; col < colEnd; col++) {
+                    pixels[dst] = blend(sprite.pixels[src++], pixels[dst]);
+                    dst++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws the part of a round-capped ink segment that falls inside the band.
+     */
+    private void drawInk(float x1, float y1, float x2, float y2, int[] pixels, int width, int top, int bottom) {
+        int rowStart = Math.max(top, (int) Math.floor(Math.min(y1, y2) - INK_RADIUS));
+        int rowEnd = Math.min(bottom, (int) Math.ceil(Math.max(y1, y2) + INK_RADIUS) + 1);
+        int colStart = Math.max(0, (int) Math.floor(Math.min(x1, x2) - INK_RADIUS));
+        int colEnd = Math.min(width, (int) Math.ceil(Math.max(x1, x2) + INK_RADIUS) + 1);
+
+        float dx = x2 - x1;
+        float dy = y2 - y1;
+        float lengthSquared = dx * dx + dy * dy;
+        float radiusSquared = INK_RADIUS * INK_RADIUS;
+
+        for (int row = rowStart; row < rowEnd; row++) {
+            float py = row + 0.5f;
+            for (int col = colStart; col < colEnd; col++) {
+                float px = col + 0.5f;
+                float t = lengthSquared == 0 ? 0 : ((px - x1) * dx + (py - y1) * dy) / lengthSquared;
+                t = Math.max(0, Math.min(1, t));
+                float ex = px - (x1 + t * dx);
+                float ey = py - (y1 + t * dy);
+                if (ex * ex + ey * ey <= radiusSquared) {
+                    pixels[row * width + col] = 0xff000000;
+                }
+            }
+        }
+    }
+
+    /**
+     * Blends a source pixel over an opaque destination pixel.
+     *
+     * @param src the ARGB source pixel
+     * @param dst the ARGB destination pixel
+     * @return the blended opaque pixel
+     */
+    public static int blend(int src, int dst) {
+        int alpha = src >>> 24;
+        if (alpha == 255) {
+            return src;
+        }
+        if (alpha == 0) {
+            return dst;
+        }
+        int inverse = 255 - alpha;
+        int r = (((src >> 16) & 0xff) * alpha + ((dst >> 16) & 0xff) * inverse) / 255;
+        int g = (((src >> 8) & 0xff) * alpha + ((dst >> 8) & 0xff) * inverse) / 255;
+        int b = ((src & 0xff) * alpha + (dst & 0xff) * inverse) / 255;
+        return 0xff000000 | (r << 16) | (g << 8) | b;
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Splits a range of rows in half until it is no taller than one band, then composites it.
+     */
+    private class BandTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] pixels;
+        private final int width;
+        private final int top;
+        private final int bottom;
+
+        BandTask(int[] pixels, int width, int top, int bottom) {
+            this.pixels = pixels;
+            this.width = width;
+            this.top = top;
+            this.bottom = bottom;
+        }
+
+        @Override
+        protected void compute() {
+            if (bottom - top <= bandHeight) {
+                compositeBand(pixels, width, top, bottom);
+                return;
+            }
+            int middle = (top + bottom) >>> 1;
+            invokeAll(new BandTask(pixels, width, top, middle), new BandTask(pixels, width, middle, bottom));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package inkball;
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * The {@code Replay} class plays back an {@link InputLog}: each recorded input is handed to
+ * {@link App#applyInput(InputEvent)} just before the tick it was recorded before, so it goes
+ * through the same code as when it was played. Once the recorded number of ticks has run, the
+ * score and the state hash are checked against the ones recorded. Each level is checked against
+ * the hash recorded for it the first time the playback enters it.
+ *
+ * <p>A log plays back in the window with {@code --replay <file>}, in real time or at any
+ * fast-forward speed, or without a window as fast as the CPU allows with {@code inkball replay <file>}.</p>
+ */
+
+public class Replay {
+
+    public final InputLog log; // The log being played back
+    public int next = 0; // Index of the next input to apply
+    public boolean matched = false; // Whether the end of the log matched the game, once checked
+    public String result; // What the check found, or null before the end of the log is reached
+    public HashSet<Integer> checkedLevels = new HashSet<>(); // Indices of the levels checked against their recorded hashes
+
+    /**
+     * Constructs a new {@code Replay} from the start of a log.
+     *
+     * @param log the log to play back
+     */
+    public Replay(InputLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Checks a level the playback has entered against the hash recorded for it, unless it was
+     * checked before or the recording never entered it.
+     *
+     * @param index the index of the level
+     * @param level the level
+     * @return {@code false} if the level has changed since the log was recorded
+     * @throws java.io.UncheckedIOException if the level's layout file cannot be read
+     */
+    public boolean checkLevel(int index, LevelConfig level) {
+        Long recorded = log.levelHashes.get(index);
+        if (recorded == null || !checkedLevels.add(index)) {
+            return true;
+        }
+        return recorded == InputLog.hashLevel(level);
+    }
+
+    /**
+     * Applies every input recorded before the tick about to run.
+     *
+     * @param app the game being played back
+     */
+    public void applyDue(App app) {
+        while (next < log.entries.size() && log.entries.get(next).tick <= app.tick) {
+            app.applyInput(log.entries.get(next).event);
+            next++;
+        }
+    }
+
+    /**
+     * Returns whether as many ticks have run as were recorded.
+     *
+     * @param app the game being played back
+     * @return {@code true} once the end of the log is reached
+     */
+    public boolean isFinished(App app) {
+        return app.tick >= log.finalTick;
+    }
+
+    /**
+     * Checks the score and the state of the game against the end of the log. A game that ends on
+     * an edited level does not match its template, so its state cannot be checked and it fails.
+     *
+     * @param app the game, at the end of the log
+     * @return {@code true} if both match
+     */
+    public boolean verify(App app) {
+        if (app.game.currentLevel.template == null) {
+            matched = false;
+            result = String.format("Replay UNVERIFIED after %d ticks: the level was edited, so its state cannot be checked",
+                    app.tick);
+            return false;
+        }
+        long hash = GameState.hash(app);
+        matched = app.scoreboard.total == log.finalScore && hash == log.stateHash;
+        result = String.format("Replay %s after %d ticks: score %.0f (recorded %.0f), state %08x (recorded %08x)",
+                matched ? "matched" : "DIVERGED", app.tick, app.scoreboard.total, log.finalScore, hash, log.stateHash);
+        return matched;
+    }
+
+    /**
+     * Sets up a game to run without a window or sprites, with the levels of the config file
+     * or the level pack in the options. When the options name a log to play back, the game takes
+     * its seed and start level from the log.
+     *
+     * @param options the launch options
+     * @return the game, ready to step
+     * @throws java.io.UncheckedIOException if the levels or the log cannot be read
+     */
+    public static App startHeadless(LaunchOptions options) {
+        App app = new App();
+        app.options = options;
+        app.startSession();
+        return app;
+    }
+
+    /**
+     * Plays a log back without a window, as fast as possible, and prints whether it matched.
+     * Exits with status 1 if it did not.
+     *
+     * @param args the log file, followed by launch options such as {@code --pack <file>}
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: inkball replay <file> [--pack <file>]");
+            System.exit(2);
+        }
+        LaunchOptions options = LaunchOptions.parse(Arrays.copyOfRange(args, 1, args.length));
+        options.replayPath = args[0];
+        App app = startHeadless(options);
+        Replay replay = app.replay;
+        long start = System.nanoTime();
+        while (app.replay != null) {
+            app.stepSimulation();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println(replay.result);
+        System.out.printf("%d ticks in %d ms: %.0f ticks/s%n", app.tick, elapsed / 1_000_000, app.tick * 1e9 / elapsed);
+        System.exit(replay.matched ? 0 : 1);
+    }
+}
@@ -0,0 +1,75 @@
+package inkball;
+
+/**
+ * The {@code SimulationThread} class runs the game simulation on its own thread in
+ * threaded mode, so that slow frames and slow ticks no longer hold each other up.
+ * Each tick applies the queued inputs, steps the game and publishes a snapshot.
+ */
+
+public class SimulationThread extends Thread {
+
+    public final App app; // The game being simulated
+    public final TickClock clock; // Paces the ticks in real time
+    public volatile boolean running = true; // Whether the thread should keep ticking
+    public volatile long ticks = 0; // Number of ticks run so far
+
+    /**
+     * Constructs a new {@code SimulationThread} for the given game.
+     *
+     * @param app            the game to simulate
+     * @param ticksPerSecond the number of ticks to run per second
+     */
+    public SimulationThread(App app, int ticksPerSecond) {
+        super("inkball-simulation");
+        this.app = app;
+        this.clock = new TickClock(ticksPerSecond, App.MAX_CATCH_UP_TICKS, 0);
+        setDaemon(true);
+    }
+
+    /**
+     * Runs the ticks due on the clock, catching up on missed ones, until the thread is shut down.
+     */
+    @Override
+    public void run() {
+        while (running) {
+            int due = clock.ticksDue();
+            for (int i = 0; i < due && running; i++) {
+                app.runSimulationTick();
+                clock.tick();
+                ticks++;
+            }
+
+            long sleepNanos = clock.nanosUntilNextTick();
+            if (sleepNanos > 0) {
+                try {
+                    Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the thread after the current tick and waits for it to finish, so that the game
+     * can be read from the calling thread once this returns.
+     */
+    public void shutdown() {
+        running = false;
+        interrupt();
+        if (Thread.currentThread() == this) {
+            return;
+        }
+        boolean interrupted = false;
+        while (isAlive()) {
+            try {
+                join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package inkball;
+import processing.core.PGraphics;
+import processing.core.PImage;
+
+/**
+ * The {@code SketchRenderer} class draws the engine's levels, balls and lines with Processing.
+ * Sprites are looked up by file name in an {@link AssetSource} and blitted pre-scaled from a
+ * {@link SpriteCache}, so the renderer never rescales a source image while drawing a frame.
+ */
+
+public class SketchRenderer implements Renderer {
+
+    public PGraphics g; // Graphics drawn on, such as the window or an offscreen canvas
+    public AssetSource<PImage> assets; // Sprites by file name
+    public SpriteCache spriteCache; // Pre-scaled copies of the sprites
+
+    /**
+     * Constructs a new {@code SketchRenderer}.
+     *
+     * @param g           the graphics to draw on
+     * @param assets      the sprites by file name
+     * @param spriteCache the pre-scaled copies of the sprites
+     */
+    public SketchRenderer(PGraphics g, AssetSource<PImage> assets, SpriteCache spriteCache) {
+        this.g = g;
+        this.assets = assets;
+        this.spriteCache = spriteCache;
+    }
+
+    /**
+     * Draws a sprite at its cached size, or nothing if the sprite is missing.
+     */
+    @Override
+    public void sprite(String name, float x, float y, float width, float height) {
+        PImage image = spriteCache.get(assets.get(name), width, height);
+        if (image != null) {
+            g.image(image, x, y);
+        }
+    }
+
+    /**
+     * Draws a black line.
+     */
+    @Override
+    public void line(float x1, float y1, float x2, float y2, float weight) {
+        g.stroke(0);
+        g.strokeWeight(weight);
+        g.line(x1, y1, x2, y2);
+    }
+
+    /**
+     * Fills a rectangle with a shade of grey, without an outline.
+     */
+    @Override
+    public void rect(int grey, float x, float y, float width, float height) {
+        g.fill(grey);
+        g.noStroke();
+        g.rect(x, y, width, height);
+    }
+
+    /**
+     * Writes black text.
+     */
+    @Override
+    public void text(String text, float x, float y, float size) {
+        g.fill(0);
+        g.textSize(size);
+        g.text(text, x, y);
+    }
+}
@@ -0,0 +1,107 @@
+package inkball;
+import processing.core.PImage;
+import java.util.*;
+
+/**
+ * The {@code SpriteCache} class keeps pre-scaled copies of sprite images so that
+ * draw calls can blit each sprite at its natural size instead of asking the
+ * renderer to rescale the source image every frame.
+ */
+
+public class SpriteCache {
+
+    public static final int DEFAULT_MAX_SIZES_PER_IMAGE = 16; // Sizes kept per source image before eviction
+
+    public int maxSizesPerImage; // Maximum number of scaled copies kept for a single source image
+    public IdentityHashMap<PImage, LinkedHashMap<Long, PImage>> scaledImages; // Scaled copies grouped by source image
+
+    /**
+     * Constructs a new {@code SpriteCache} with the default bound on sizes per image.
+     */
+    public SpriteCache() {
+        this(DEFAULT_MAX_SIZES_PER_IMAGE);
+    }
+
+    /**
+     * Constructs a new {@code SpriteCache} with the given bound on sizes per image.
+     *
+     * <p>Tiles, walls and holes are only ever requested at one size, so the bound
+     * only comes into play for balls shrinking into a hole, whose least recently
+     * drawn sizes are evicted first.</p>
+     *
+     * @param maxSizesPerImage the maximum number of scaled copies kept per source image
+     */
+    public SpriteCache(int maxSizesPerImage) {
+        this.maxSizesPerImage = Math.max(1, maxSizesPerImage);
+        this.scaledImages = new IdentityHashMap<>();
+    }
+
+    /**
+     * Returns a copy of the image scaled to the given size, creating and caching it on first use.
+     * The size is rounded to whole pixels; the source image is returned as-is when it already
+     * has the requested size.
+     *
+     * @param source the source image
+     * @param width  the requested width in pixels
+     * @param height the requested height in pixels
+     * @return the scaled image, or {@code null} if the source image is {@code null}
+     */
+    public PImage get(PImage source, float width, float height) {
+        if (source == null) {
+            return null;
+        }
+
+        int w = Math.max(1, Math.round(width));
+        int h = Math.max(1, Math.round(height));
+        if (source.width == w && source.height == h) {
+            return source;
+        }
+
+        LinkedHashMap<Long, PImage> sizes = scaledImages.get(source);
+        if (sizes == null) {
+            sizes = createSizeMap();
+            scaledImages.put(source, sizes);
+        }
+
+        long key = ((long) w << 32) | h;
+        PImage scaled = sizes.get(key);
+        if (scaled == null) {
+            scaled = source.copy();
+            scaled.resize(w, h);
+            sizes.put(key, scaled);
+        }
+        return scaled;
+    }
+
+    /**
+     * Returns the number of scaled copies currently cached for the given image.
+     *
+     * @param source the source image
+     * @return the number of cached sizes
+     */
+    public int sizeCount(PImage source) {
+        LinkedHashMap<Long, PImage> sizes = scaledImages.get(source);
+        return sizes == null ? 0 : sizes.size();
+    }
+
+    /**
+     * Removes every cached copy.
+     */
+    public void clear() {
+        scaledImages.clear();
+    }
+
+    /**
+     * Creates an access-ordered map that evicts its least recently used size once it grows past the bound.
+     *
+     * @return the new size map
+     */
+    private LinkedHashMap<Long, PImage> createSizeMap() {
+        return new LinkedHashMap<Long, PImage>(8, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, PImage> eldest) {
+                return size() > maxSizesPerImage;
+            }
+        };
+    }
+}
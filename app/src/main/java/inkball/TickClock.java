@@ -0,0 +1,100 @@
+package inkball;
+import java.util.function.LongSupplier;
+
+/**
+ * The {@code TickClock} class paces the simulation with {@link System#nanoTime}: it counts whole
+ * ticks of fixed length, so game time never drifts, and tells the caller how many ticks are due
+ * each frame. When rendering falls behind, the missed ticks are caught up, up to a cap, and render
+ * frames are skipped instead, so game time keeps up with real time under load.
+ */
+
+public class TickClock {
+
+    public final long tickNanos; // Duration of one tick in nanoseconds
+    public final int maxCatchUpTicks; // Most ticks run in one frame; older ticks are dropped
+    public final int maxSkippedFrames; // Most frames skipped in a row while behind
+    public LongSupplier time = System::nanoTime; // Source of the current time in nanoseconds
+    public boolean started = false; // Whether the first tick has been timed
+    public long nextTickTime; // The time the next tick is due
+
+    public long ticks = 0; // Number of ticks run
+    public long frames = 0; // Number of frames rendered
+    public long droppedFrames = 0; // Number of frames skipped to catch up
+    public long droppedTicks = 0; // Number of ticks given up because more than the cap were due
+    public int skippedInARow = 0; // Number of frames skipped since the last one rendered
+
+    /**
+     * Constructs a new {@code TickClock}.
+     *
+     * @param ticksPerSecond   the number of ticks per second
+     * @param maxCatchUpTicks  the most ticks to run in one frame when behind
+     * @param maxSkippedFrames the most frames to skip in a row when behind
+     * @throws IllegalArgumentException if a rate or cap is not positive
+     */
+    public TickClock(int ticksPerSecond, int maxCatchUpTicks, int maxSkippedFrames) {
+        if (ticksPerSecond <= 0 || maxCatchUpTicks <= 0 || maxSkippedFrames < 0) {
+            throw new IllegalArgumentException("Invalid clock rate or cap");
+        }
+        this.tickNanos = 1_000_000_000L / ticksPerSecond;
+        this.maxCatchUpTicks = maxCatchUpTicks;
+        this.maxSkippedFrames = maxSkippedFrames;
+    }
+
+    /**
+     * Returns the number of ticks due now, at most the catch-up cap. The first call starts the
+     * clock with one tick due. Ticks beyond the cap are dropped, slowing game time down only then.
+     *
+     * @return the number of ticks to run before the next frame
+     */
+    public int ticksDue() {
+        long now = time.getAsLong();
+        if (!started) {
+            started = true;
+            nextTickTime = now;
+        }
+        if (now < nextTickTime) {
+            return 0;
+        }
+        long due = (now - nextTickTime) / tickNanos + 1;
+        if (due > maxCatchUpTicks) {
+            droppedTicks += due - maxCatchUpTicks;
+            nextTickTime += (due - maxCatchUpTicks) * tickNanos;
+            due = maxCatchUpTicks;
+        }
+        return (int) due;
+    }
+
+    /**
+     * Records that a tick has been run.
+     */
+    public void tick() {
+        ticks++;
+        nextTickTime += tickNanos;
+    }
+
+    /**
+     * Decides whether the frame about to be drawn should be rendered. A frame is skipped while
+     * the next tick is already due, up to the cap of frames skipped in a row.
+     *
+     * @return {@code true} to render the frame, {@code false} to skip it
+     */
+    public boolean beginFrame() {
+        if (started && time.getAsLong() >= nextTickTime && skippedInARow < maxSkippedFrames) {
+            skippedInARow++;
+            droppedFrames++;
+            return false;
+        }
+        skippedInARow = 0;
+        frames++;
+        return true;
+    }
+
+    /**
+     * Returns the time left before the next tick is due.
+     *
+     * @return the nanoseconds left, or 0 if a tick is due
+     */
+    public long nanosUntilNextTick() {
+        return started ? Math.max(0, nextTickTime - time.getAsLong()) : 0;
+    }
+}
@@ -0,0 +1,153 @@
+package inkball;
+import processing.awt.PGraphicsJava2D;
+import processing.core.PApplet;
+import processing.core.PGraphics;
+
+import java.awt.GraphicsEnvironment;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * The {@code WarmUp} class plays a short simulation on a built-in board before the first
+ * level is shown, so the JIT has compiled ball movement, collisions and drawing by the time
+ * the player starts. Nothing it does is visible: frames go to an offscreen canvas and the
+ * score is put back afterwards.
+ *
+ * <p>Run as {@code java inkball.WarmUp config.json} it is also the headless training run
+ * used by {@code gradle cdsArchive} to record which classes go into the class-data-sharing
+ * archive.</p>
+ */
+
+public class WarmUp {
+
+    public static final int DEFAULT_TICKS = 2000; // Ticks simulated when no count is given
+    public static final int SPAWN_INTERVAL = 1; // Seconds between spawns on the warm-up board
+    public static final String[] LAYOUT = {
+            "XXXXXXXXXXXXXXXXXX",
+            "X S            S X",
+            "X  B1   22   B2  X",
+            "X                X",
+            "X  H1        H2  X",
+            "X                X",
+            "X     1    3     X",
+            "X     1    3     X",
+            "X  B3        B4  X",
+            "X      H0        X",
+            "X                X",
+            "X   44      44   X",
+            "X                X",
+            "X  H3        H4  X",
+            "X                X",
+            "X      B0        X",
+            "X                X",
+            "XXXXXXXXXXXXXXXXXX"
+    }; // The board played during warm-up, with every colour of ball, wall and hole
+
+    /**
+     * Plays the warm-up board for a number of ticks, restarting it whenever it ends.
+     * A line of ink is kept across the board so line collisions are exercised too.
+     *
+     * @param level    an empty level to play the board on
+     * @param ticks    the number of ticks to simulate
+     * @param renderer the renderer drawing every tick onto an offscreen canvas, or {@code null} to skip drawing
+     * @return the number of times the board was restarted
+     */
+    public static int run(Level level, int ticks, SketchRenderer renderer) {
+        float savedScore = level.scoreboard.total;
+        try {
+            level.load(LevelTemplate.fromLayout(Arrays.asList(LAYOUT), level.cellsize, level.topbar));
+
+            HashMap<String, Integer> scores = new HashMap<>();
+            for (String colour : new String[]{"grey", "orange", "blue", "green", "yellow"}) {
+                scores.put(colour, 10);
+            }
+            BallQueue queue = new BallQueue();
+            int time = ticks / App.FPS + 1;
+            int restarts = 0;
+            level.startTimers(time, SPAWN_INTERVAL, queue);
+
+            for (int tick = 0; tick < ticks; tick++) {
+                if (level.playerLines.isEmpty()) {
+                    level.playerLines.add(inkLine(level));
+                }
+
+                level.updateTopBar(queue);
+                level.updateBalls(scores, scores, 1, 1, queue);
+                level.tick();
+
+                if (renderer != null) {
+                    renderer.g.beginDraw();
+                    renderer.g.background(200);
+                    level.displayTiles(renderer);
+                    level.displayBalls(renderer);
+                    for (PlayerLine line : level.playerLines) {
+                        line.display(renderer);
+                    }
+                    level.drawTopBar(renderer, queue, false);
+                    renderer.g.endDraw();
+                }
+
+                if (level.balls.isEmpty() || level.islevelFailed) {
+                    queue.clear();
+                    level.reset();
+                    level.startTimers(time, SPAWN_INTERVAL, queue);
+                    restarts++;
+                }
+            }
+            return restarts;
+        } finally {
+            level.scoreboard.total = savedScore;
+        }
+    }
+
+    /**
+     * Draws a line of ink across the middle of the warm-up board.
+     */
+    private static PlayerLine inkLine(Level level) {
+        PlayerLine line = new PlayerLine();
+        float y = level.topbar + level.cellsize * 10.5f;
+        for (float x = level.cellsize * 2; x < level.cellsize * 16; x += 8) {
+            line.addPoint(x, y, level.balls);
+        }
+        return line;
+    }
+
+    /**
+     * Runs the warm-up without a window: loads the sprites and every level of a config file,
+     * then plays the warm-up board onto an offscreen canvas. The sketch is never started, so the
+     * canvas is set up the way {@code createGraphics} would. Without a display, drawing is skipped.
+     *
+     * @param args the path of the config file, and optionally the number of ticks
+     */
+    public static void main(String[] args) {
+        String configPath = args.length > 0 ? args[0] : "config.json";
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TICKS;
+
+        AssetLoader assets = new AssetLoader(null, Runtime.getRuntime().availableProcessors());
+        assets.preload(AssetLoader.SPRITES);
+        try {
+            ConfigRepository repository = new ConfigRepository(configPath);
+            for (int i = 0; i < repository.levelCount(); i++) {
+                LevelTemplate.of(repository.level(i), App.CELLSIZE, App.TOPBAR);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not load " + configPath + ": " + e.getMessage());
+        }
+
+        Level level = new Level(App.BOARD_WIDTH, App.BOARD_HEIGHT, App.CELLSIZE, App.TOPBAR);
+        assets.shutdown();
+
+        SketchRenderer renderer = null;
+        if (!GraphicsEnvironment.isHeadless()) {
+            PGraphics canvas = new PGraphicsJava2D();
+            canvas.setParent(new PApplet());
+            canvas.setPrimary(false);
+            canvas.setSize(App.WIDTH, App.HEIGHT);
+            renderer = new SketchRenderer(canvas, assets, new SpriteCache());
+        }
+
+        long start = System.nanoTime();
+        int restarts = run(level, ticks, renderer);
+        System.out.printf("Warmed up %d ticks (%d restarts) in %d ms%n", ticks, restarts, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -4,7 +4,6 @@ import org.junit.jupiter.api.Test;
 import processing.core.PApplet;
 import java.util.*;
 
-import processing.core.PImage;
 import processing.event.MouseEvent;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,7 +24,7 @@ public class AppTest {
         config = app.config;
         app.levelFailed = false;
         app.isPaused = false;
-        app.pausedTime = 0;
+        app.pausedTicks = 0;
         app.frameCount = 0;
         app.levelIndex = 1;
         app.levelCompleted = false;
@@ -87,9 +86,8 @@ public class AppTest {
     public void testInitializeLevel() {
         app.initializeLevel();
         assertFalse(app.isPaused);
-        assertEquals(0, app.pausedTime);
+        assertEquals(0, app.pausedTicks);
         assertEquals(0, app.elapsedTime);
-        assertEquals(0, app.lastPauseFrame);
         assertFalse(app.levelFailed);
         assertFalse(app.levelCompleted);
     }
@@ -101,7 +99,7 @@ public class AppTest {
     public void testRestartGame() {
         app.restartGame();
         assertEquals(0, app.levelIndex);
-        assertEquals(0, App.totalScore);
+        assertEquals(0, app.scoreboard.total);
     }
 
     /**
@@ -111,22 +109,20 @@ public class AppTest {
     public void testRestartLevel() {
         app.levelIndex = 0;
         app.restartLevel();
-        assertEquals(0, App.totalScore);
+        assertEquals(0, app.scoreboard.total);
         assertFalse(app.isPaused);
-        assertEquals(0, app.pausedTime);
+        assertEquals(0, app.pausedTicks);
         assertEquals(0, app.elapsedTime);
-        assertEquals(0, app.lastPauseFrame);
         assertFalse(app.levelFailed);
         assertFalse(app.levelCompleted);
 
         app.levelIndex = 1;
         app.previousLevelScore = 200;
         app.restartLevel();
-        assertEquals(app.previousLevelScore, App.totalScore);
+        assertEquals(app.previousLevelScore, app.scoreboard.total);
         assertFalse(app.isPaused);
-        assertEquals(0, app.pausedTime);
+        assertEquals(0, app.pausedTicks);
         assertEquals(0, app.elapsedTime);
-        assertEquals(0, app.lastPauseFrame);
         assertFalse(app.levelFailed);
         assertFalse(app.levelCompleted);
     }
@@ -137,17 +133,17 @@ public class AppTest {
     @Test
     public void testGoToNextLevel() {
         app.levelIndex = 0;
-        App.totalScore = 200;
+        app.scoreboard.total = 200;
         app.previousLevelScore = 100;
         app.goToNextLevel();
-        assertEquals(100, App.totalScore);
+        assertEquals(100, app.scoreboard.total);
         assertEquals(1, app.levelIndex);
 
         app.levelIndex = 1;
-        App.totalScore = 200;
+        app.scoreboard.total = 200;
         app.previousLevelScore = 100;
         app.goToNextLevel();
-        assertEquals(100, App.totalScore);
+        assertEquals(100, app.scoreboard.total);
         assertEquals(2, app.levelIndex);
 
         app.levelIndex = 2;
@@ -169,10 +165,15 @@ public class AppTest {
         app.levelCompleted = false;
         app.levelFailed = false;
         app.elapsedTime = 0;
+        long[] now = {0};
+        app.clock = new TickClock(App.FPS, 1, 0);
+        app.clock.time = () -> now[0] += app.clock.tickNanos;
+        long clockTicks = app.game.currentLevel.clockTicks;
 
         app.draw();
 
-        assertEquals(1.0f / App.FPS, app.elapsedTime, 0.01f);
+        assertEquals(1, app.clock.ticks);
+        assertEquals((clockTicks + 1) / (float) App.FPS, app.elapsedTime, 0.01f);
         assertFalse(app.levelCompleted);
 
         app.levelCompleted = true;
@@ -237,7 +238,7 @@ public class AppTest {
         app.delay(1000);
         app.loop();
 
-        app.game.currentLevel = new Level(p, 576, 640, 32, 64, new PImage[]{}, new PImage[]{}, new PImage[]{}, new PImage[]{}, new PImage[]{}, new PImage[]{}, new PImage[]{});
+        app.game.currentLevel = new Level(576, 640, 32, 64);
         app.game.currentLevel.playerLines = new ArrayList<>();
         app.game.currentLevel.balls = new ArrayList<>();
 
@@ -334,10 +335,13 @@ public class AppTest {
         app.keyPressed(null);
         assertTrue(app.isPaused);
 
+        for (int t = 0; t < 2 * App.FPS; t++) {
+            app.stepSimulation();
+        }
         app.frameCount += 120;
         app.keyPressed(null);
         assertFalse(app.isPaused);
-        assertEquals(2.0f, app.pausedTime, 0.01f);
+        assertEquals(2 * App.FPS, app.pausedTicks);
     }
 
     /**
@@ -388,4 +392,49 @@ public class AppTest {
         assertFalse(app.levelCompleted);
     }
 
+    /**
+     * Test for the bracket keys moving to the previous and next level with the score reset.
+     */
+    @Test
+    public void testKeyPressedSelectLevel() {
+        app.levelIndex = 0;
+        app.startLevel();
+        app.scoreboard.total = 50;
+        app.key = ']';
+        app.keyCode = ']';
+        app.keyPressed(null);
+        assertEquals(1, app.levelIndex);
+        assertEquals(0, app.scoreboard.total);
+        assertSame(app.levelSource.level(1), app.config.level);
+
+        app.key = '[';
+        app.keyCode = '[';
+        app.keyPressed(null);
+        app.keyPressed(null);
+        assertEquals(0, app.levelIndex);
+        assertSame(app.levelSource.level(0), app.config.level);
+    }
+
+    /**
+     * Test for the fast-forward key cycling through the speeds and running several ticks per frame.
+     */
+    @Test
+    public void testFastForward() {
+        app.key = 'f';
+        app.keyCode = 'F';
+        app.keyPressed(null);
+        assertEquals(2, app.speed);
+        long clockTicks = app.game.currentLevel.clockTicks;
+        assertEquals(2, app.fastForwardTick());
+        assertEquals(clockTicks + 2, app.game.currentLevel.clockTicks);
+
+        app.keyPressed(null);
+        app.keyPressed(null);
+        app.keyPressed(null);
+        assertEquals(App.FAST_FORWARD_MAX, app.speed);
+        assertTrue(app.fastForwardTick() >= 1);
+        app.keyPressed(null);
+        assertEquals(1, app.speed);
+    }
+
 }
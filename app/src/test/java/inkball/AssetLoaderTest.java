@@ -0,0 +1,68 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import processing.core.PConstants;
+import processing.core.PImage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AssetLoaderTest {
+
+    @TempDir
+    File directory;
+
+    /**
+     * Test for loading every sprite from the classpath.
+     */
+    @Test
+    public void testLoadSprites() {
+        AssetLoader loader = new AssetLoader(null, 4);
+        loader.preload(AssetLoader.SPRITES);
+        for (String name : AssetLoader.SPRITES) {
+            PImage image = loader.get(name);
+            assertTrue(image.width > 0);
+            assertEquals(image.width * image.height, image.pixels.length);
+        }
+        assertSame(loader.get("ball0.png"), loader.get("ball0.png"));
+        assertThrows(UncheckedIOException.class, () -> loader.get("missing.png"));
+        loader.shutdown();
+    }
+
+    /**
+     * Test for later loads reading decoded pixels from the cache.
+     */
+    @Test
+    public void testCache() throws IOException {
+        PImage decoded = new AssetLoader(directory, 1).load("wall0.png");
+        File[] cacheFiles = directory.listFiles((dir, name) -> name.endsWith(".argb"));
+        assertEquals(1, cacheFiles.length);
+
+        PImage cached = AssetLoader.readCache(cacheFiles[0]);
+        assertNotNull(cached);
+        assertEquals(decoded.width, cached.width);
+        assertEquals(decoded.format, cached.format);
+        assertArrayEquals(decoded.pixels, cached.pixels);
+
+        Files.write(cacheFiles[0].toPath(), new byte[]{1, 2, 3});
+        assertNull(AssetLoader.readCache(cacheFiles[0]));
+        assertArrayEquals(decoded.pixels, new AssetLoader(directory, 1).load("wall0.png").pixels);
+    }
+
+    /**
+     * Test for opaque sprites being marked as RGB.
+     */
+    @Test
+    public void testFormat() throws IOException {
+        PImage image = new PImage(2, 1, PConstants.ARGB);
+        image.pixels = new int[]{0xff102030, 0xff405060};
+        File file = new File(directory, "opaque.argb");
+        AssetLoader.writeCache(file, image);
+        assertEquals(PConstants.ARGB, AssetLoader.readCache(file).format);
+        assertEquals(64, AssetLoader.hash(new byte[]{1}).length());
+    }
+}
@@ -0,0 +1,49 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameExporterTest {
+
+    @TempDir
+    File directory;
+
+    /**
+     * Test for writing numbered frames with more frames than buffers.
+     */
+    @Test
+    public void testSubmit() throws IOException {
+        FrameExporter exporter = new FrameExporter(directory, 4, 3, 2, 1);
+        int[] pixels = new int[12];
+        for (int frame = 0; frame < 10; frame++) {
+            Arrays.fill(pixels, 0xff000000 | frame);
+            assertTrue(exporter.submit(pixels));
+        }
+        exporter.finish();
+
+        assertEquals(10, exporter.framesWritten.get());
+        assertEquals(3, exporter.freeBuffers.size());
+        for (int frame = 0; frame < 10; frame++) {
+            BufferedImage image = ImageIO.read(new File(directory, FrameExporter.frameName(frame)));
+            assertEquals(4, image.getWidth());
+            assertEquals(3, image.getHeight());
+            assertEquals(0xff000000 | frame, image.getRGB(3, 2));
+        }
+    }
+
+    /**
+     * Test for frame file names.
+     */
+    @Test
+    public void testFrameName() {
+        assertEquals("frame-000000.png", FrameExporter.frameName(0));
+        assertEquals("frame-000123.png", FrameExporter.frameName(123));
+    }
+}
@@ -0,0 +1,87 @@
+package inkball;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameSnapshotTest {
+    private Level level;
+
+    /**
+     * Set up before testing.
+     */
+    @BeforeEach
+    public void setup() {
+        level = new Level(4, 4, 32, 64);
+        level.getLevel(new String[]{"X1  ", "    ", "B2  "});
+    }
+
+    /**
+     * Test for capturing tiles, balls, ink and top bar values.
+     */
+    @Test
+    public void testCapture() {
+        PlayerLine line = new PlayerLine();
+        line.points.add(new float[]{100, 100});
+        line.points.add(new float[]{120, 130});
+        level.playerLines.add(line);
+        level.countdownTime = 42;
+        level.tiles.get(1).hit(1);
+
+        GameSnapshot snapshot = GameSnapshot.capture(level, new BallQueue(), 150, true, false, false, 1, false, null);
+
+        assertEquals(level.tiles.size(), snapshot.tileSprites.length);
+        assertEquals(Tile.WALL_SPRITES[0], snapshot.tileSprites[0]);
+        assertEquals(Tile.DAMAGED_WALL_SPRITES[1], snapshot.tileSprites[1]);
+        assertEquals(1, snapshot.ballX.length);
+        assertEquals(2, snapshot.ballColors[0]);
+        assertArrayEquals(new float[]{100, 100, 120, 130}, snapshot.lines[0]);
+        assertEquals(150, snapshot.totalScore);
+        assertEquals(42, snapshot.countdownTime);
+        assertTrue(snapshot.isPaused);
+        assertEquals(1, snapshot.levelIndex);
+    }
+
+    /**
+     * Test for snapshots staying unchanged while the level moves on.
+     */
+    @Test
+    public void testImmutable() {
+        GameSnapshot first = GameSnapshot.capture(level, new BallQueue(), 0, false, false, false, 0, false, null);
+        float x = first.ballX[0];
+        level.balls.get(0).x += 10;
+        level.tiles.get(0).hit(0);
+
+        GameSnapshot second = GameSnapshot.capture(level, new BallQueue(), 0, false, false, false, 0, false, first);
+        assertEquals(x, first.ballX[0]);
+        assertEquals(x + 10, second.ballX[0]);
+        assertEquals(Tile.WALL_SPRITES[0], first.tileSprites[0]);
+        assertEquals(Tile.DAMAGED_WALL_SPRITES[0], second.tileSprites[0]);
+        assertSame(first.tileX, second.tileX);
+    }
+
+    /**
+     * Test for tile geometry being shared while the board is unchanged, and captured again after an edit or a reset.
+     */
+    @Test
+    public void testGeometryAfterEdit() {
+        BallQueue queue = new BallQueue();
+        GameSnapshot first = GameSnapshot.capture(level, queue, 0, false, false, false, 0, false, null);
+        GameSnapshot second = GameSnapshot.capture(level, queue, 0, false, false, false, 0, false, first);
+        assertSame(first.tileX, second.tileX);
+
+        LevelEditor editor = new LevelEditor(level);
+        assertTrue(editor.paint(3, 0, LevelEditor.Brush.SPAWNER));
+        GameSnapshot edited = GameSnapshot.capture(level, queue, 0, false, false, false, 0, false, second);
+        assertEquals(second.tileX.length, edited.tileX.length);
+        assertNotSame(second.tileX, edited.tileX);
+
+        Level fresh = new Level(4, 4, 32, 64);
+        fresh.getLevel(new String[]{"X1  ", "    ", "B2  "});
+        GameSnapshot before = GameSnapshot.capture(fresh, queue, 0, false, false, false, 0, false, null);
+        fresh.reset();
+        GameSnapshot after = GameSnapshot.capture(fresh, queue, 0, false, false, false, 0, false, before);
+        assertNotSame(before.tileX, after.tileX);
+        assertArrayEquals(before.tileX, after.tileX);
+    }
+}
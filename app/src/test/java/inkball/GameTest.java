@@ -4,8 +4,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import processing.core.PApplet;
 
-import java.util.ArrayList;
-
 import static org.junit.jupiter.api.Assertions.*;
 
 public class GameTest {
@@ -33,7 +31,7 @@ public class GameTest {
                 "    ",
                 "    "
         };
-        newGame.getBoard(layout, 100, 10, new ArrayList<>(), false, 0, 0);
+        newGame.getBoard(layout, 100, 10, new BallQueue(), false);
 
         assertEquals(12, newGame.currentLevel.tiles.size());
         assertTrue(newGame.currentLevel.balls.isEmpty());
@@ -0,0 +1,127 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import processing.core.PConstants;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InputLogTest {
+
+    @TempDir
+    File directory;
+
+    /**
+     * Test for a log reading back as it was written, with a drag taking a few bytes per point.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        InputLog log = new InputLog(-7, 1);
+        log.levelHashes.put(1, 123456789L);
+        log.levelHashes.put(2, -5L);
+        log.add(0, InputEvent.keyPressed(' ', 32));
+        log.add(40, InputEvent.mousePressed(100, 300, PConstants.LEFT, false));
+        for (int i = 1; i <= 100; i++) {
+            log.add(40 + i, InputEvent.mouseDragged(100 + i * 3, 300 - i, PConstants.LEFT));
+        }
+        log.add(200, InputEvent.mousePressed(90, 420, PConstants.RIGHT, true));
+        log.add(200, InputEvent.keyPressed((char) PConstants.CODED, PConstants.DOWN));
+        log.finish(900, 125.5f, 0xCAFEBABEL);
+
+        byte[] bytes = log.toBytes();
+        assertTrue(bytes.length < 64 + 102 * 5);
+        InputLog read = InputLog.fromBytes(bytes);
+        assertEquals(log.id, read.id);
+        assertEquals(-7, read.seed);
+        assertEquals(1, read.startLevel);
+        assertEquals(log.levelHashes, read.levelHashes);
+        assertEquals(900, read.finalTick);
+        assertEquals(125.5f, read.finalScore);
+        assertEquals(0xCAFEBABEL, read.stateHash);
+        assertEquals(log.entries.size(), read.entries.size());
+        for (int i = 0; i < log.entries.size(); i++) {
+            InputLog.Entry expected = log.entries.get(i);
+            InputLog.Entry actual = read.entries.get(i);
+            assertEquals(expected.tick, actual.tick);
+            assertEquals(expected.event.type, actual.event.type);
+            assertEquals(expected.event.x, actual.event.x);
+            assertEquals(expected.event.y, actual.event.y);
+            assertEquals(expected.event.button, actual.event.button);
+            assertEquals(expected.event.control, actual.event.control);
+            assertEquals(expected.event.key, actual.event.key);
+            assertEquals(expected.event.keyCode, actual.event.keyCode);
+        }
+    }
+
+    /**
+     * Test for bytes that are not a log of this version, or are cut short, being rejected.
+     */
+    @Test
+    public void testBadLog() {
+        InputLog log = new InputLog(0, 0);
+        log.add(5, InputEvent.mousePressed(10, 100, PConstants.LEFT, false));
+        log.finish(10, 0, 0);
+        byte[] bytes = log.toBytes();
+
+        byte[] badMagic = bytes.clone();
+        badMagic[0] = 0;
+        assertThrows(IOException.class, () -> InputLog.fromBytes(badMagic));
+        byte[] badVersion = bytes.clone();
+        badVersion[4] = InputLog.VERSION + 1;
+        assertThrows(IOException.class, () -> InputLog.fromBytes(badVersion));
+        byte[] oldVersion = bytes.clone();
+        oldVersion[4] = InputLog.VERSION - 1;
+        assertThrows(IOException.class, () -> InputLog.fromBytes(oldVersion));
+        assertThrows(IOException.class, () -> InputLog.fromBytes(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    /**
+     * Test for the hash of a level changing with its settings and with the content of its layout.
+     */
+    @Test
+    public void testHashLevel() throws IOException {
+        HashMap<String, Integer> scores = new HashMap<>();
+        scores.put("grey", 10);
+        List<String> rows = Arrays.asList("X ", " X");
+        LevelConfig level = new LevelConfig("a.txt", rows, null, 60, 5, 1, 1,
+                Arrays.asList("blue"), scores, scores);
+        assertEquals(InputLog.hashLevel(level), InputLog.hashLevel(new LevelConfig("a.txt", rows, null, 60, 5, 1, 1,
+                Arrays.asList("blue"), scores, scores)));
+        assertNotEquals(InputLog.hashLevel(level), InputLog.hashLevel(LevelTuner.withTiming(level, 60, 6)));
+
+        File file = new File(directory, "level.txt");
+        Files.write(file.toPath(), "X \n X\n".getBytes(StandardCharsets.UTF_8));
+        LevelConfig streamed = new LevelConfig(file.getPath(), null, null, 60, 5, 1, 1,
+                Arrays.asList("blue"), scores, scores);
+        long before = InputLog.hashLevel(streamed);
+        assertEquals(before, InputLog.hashLevel(streamed));
+        Files.write(file.toPath(), "XX\n X\n".getBytes(StandardCharsets.UTF_8));
+        assertNotEquals(before, InputLog.hashLevel(streamed));
+
+        LevelConfig compiled = new LevelConfig("a.ikl", null, new CompiledLevel(LevelCompiler.compile(rows, "a.txt")),
+                60, 5, 1, 1, Arrays.asList("blue"), scores, scores);
+        LevelConfig edited = new LevelConfig("a.ikl", null, new CompiledLevel(LevelCompiler.compile(Arrays.asList("XX", " X"), "a.txt")),
+                60, 5, 1, 1, Arrays.asList("blue"), scores, scores);
+        assertNotEquals(InputLog.hashLevel(compiled), InputLog.hashLevel(edited));
+    }
+
+    /**
+     * Test for a level being hashed only the first time it is entered.
+     */
+    @Test
+    public void testAddLevel() {
+        HashMap<String, Integer> scores = new HashMap<>();
+        LevelConfig level = new LevelConfig("a.txt", Arrays.asList("X "), null, 60, 5, 1, 1,
+                Arrays.asList("blue"), scores, scores);
+        InputLog log = new InputLog(0, 2);
+        log.addLevel(2, level);
+        log.addLevel(2, LevelTuner.withTiming(level, 30, 5));
+        assertEquals(1, log.levelHashes.size());
+        assertEquals(InputLog.hashLevel(level), log.levelHashes.get(2));
+    }
+}
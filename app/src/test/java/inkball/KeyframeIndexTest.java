@@ -0,0 +1,67 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeyframeIndexTest {
+
+    @TempDir
+    File directory;
+
+    /**
+     * Test for finding the last keyframe at or before a tick, and for keyframes being due only on the interval.
+     */
+    @Test
+    public void testFloor() throws IOException {
+        KeyframeIndex index = new KeyframeIndex(new File(directory, "a.keys"), 1, 10);
+        assertNull(index.floor(100));
+        assertTrue(index.isDue(0));
+        for (int tick = 0; tick <= 200; tick += 10) {
+            index.append(tick, tick / 3, new byte[]{(byte) tick, 1, 2});
+        }
+        assertFalse(index.isDue(200));
+        assertFalse(index.isDue(205));
+        assertTrue(index.isDue(210));
+        assertThrows(IllegalArgumentException.class, () -> index.append(150, 0, new byte[0]));
+
+        KeyframeIndex.Keyframe keyframe = index.floor(57);
+        assertEquals(50, keyframe.tick);
+        assertEquals(16, keyframe.inputIndex);
+        assertArrayEquals(new byte[]{50, 1, 2}, keyframe.state);
+        assertEquals(60, index.floor(60).tick);
+        assertEquals(200, index.floor(10_000).tick);
+        assertNull(index.floor(-1));
+        index.close();
+    }
+
+    /**
+     * Test for keyframes being kept when reopened for the same log, with a keyframe cut short dropped,
+     * and started over for another log.
+     */
+    @Test
+    public void testReopen() throws IOException {
+        File file = new File(directory, "b.keys");
+        KeyframeIndex index = new KeyframeIndex(file, 7, 10);
+        index.append(0, 0, new byte[100]);
+        index.append(10, 2, new byte[100]);
+        index.close();
+        try (RandomAccessFile data = new RandomAccessFile(file, "rw")) {
+            data.setLength(data.length() - 30);
+        }
+
+        KeyframeIndex reopened = new KeyframeIndex(file, 7, 10);
+        assertEquals(1, reopened.count);
+        assertEquals(0, reopened.lastTick());
+        reopened.append(10, 2, new byte[100]);
+        reopened.close();
+        assertEquals(2, new KeyframeIndex(file, 7, 10).count);
+
+        assertEquals(0, new KeyframeIndex(file, 8, 10).count);
+        assertEquals(KeyframeIndex.HEADER_BYTES, file.length());
+    }
+}
@@ -0,0 +1,127 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LaunchOptionsTest {
+
+    /**
+     * Test for default options.
+     */
+    @Test
+    public void testDefaults() {
+        LaunchOptions options = LaunchOptions.parse(null);
+        assertFalse(options.softwareCompositor);
+        assertTrue(options.compositorThreads >= 1);
+    }
+
+    /**
+     * Test for parsing the compositor options.
+     */
+    @Test
+    public void testCompositor() {
+        LaunchOptions options = LaunchOptions.parse(new String[]{"--compositor", "--compositor-threads", "3", "--unknown"});
+        assertTrue(options.softwareCompositor);
+        assertEquals(3, options.compositorThreads);
+    }
+
+    /**
+     * Test for parsing the threaded mode option.
+     */
+    @Test
+    public void testThreaded() {
+        assertFalse(LaunchOptions.parse(new String[]{}).threaded);
+        assertTrue(LaunchOptions.parse(new String[]{"--threaded"}).threaded);
+    }
+
+    /**
+     * Test for parsing the export options.
+     */
+    @Test
+    public void testExport() {
+        LaunchOptions options = LaunchOptions.parse(new String[]{"--export", "frames", "--export-frames", "300", "--export-threads", "2"});
+        assertEquals("frames", options.exportDirectory);
+        assertEquals(300, options.exportFrames);
+        assertEquals(2, options.exportThreads);
+        assertNull(LaunchOptions.parse(new String[]{}).exportDirectory);
+    }
+
+    /**
+     * Test for parsing the asset loading options.
+     */
+    @Test
+    public void testAssets() {
+        LaunchOptions options = LaunchOptions.parse(new String[]{"--asset-cache", "cache", "--asset-threads", "4"});
+        assertEquals("cache", options.assetCacheDirectory);
+        assertEquals(4, options.assetThreads);
+        assertNotNull(LaunchOptions.parse(new String[]{}).assetCacheDirectory);
+        assertNull(LaunchOptions.parse(new String[]{"--no-asset-cache"}).assetCacheDirectory);
+    }
+
+    /**
+     * Test for parsing the level options.
+     */
+    @Test
+    public void testLevels() {
+        LaunchOptions options = LaunchOptions.parse(new String[]{"--pack", "levels.ikp", "--level", "7"});
+        assertEquals("levels.ikp", options.packPath);
+        assertEquals(7, options.startLevel);
+        assertNull(LaunchOptions.parse(new String[]{}).packPath);
+        assertEquals(0, LaunchOptions.parse(new String[]{"--level", "-3"}).startLevel);
+    }
+
+    /**
+     * Test for parsing the warm-up options.
+     */
+    @Test
+    public void testWarmUp() {
+        assertFalse(LaunchOptions.parse(new String[]{}).warmUp);
+        assertTrue(LaunchOptions.parse(new String[]{"--warm-up"}).warmUp);
+        LaunchOptions options = LaunchOptions.parse(new String[]{"--warm-up-ticks", "50"});
+        assertTrue(options.warmUp);
+        assertEquals(50, options.warmUpTicks);
+    }
+
+    /**
+     * Test for the fast-forward speed option.
+     */
+    @Test
+    public void testSpeed() {
+        assertEquals(1, LaunchOptions.parse(new String[]{}).speed);
+        assertEquals(16, LaunchOptions.parse(new String[]{"--speed", "16"}).speed);
+        assertEquals(App.FAST_FORWARD_MAX, LaunchOptions.parse(new String[]{"--speed", "max"}).speed);
+        assertEquals(1, LaunchOptions.parse(new String[]{"--speed", "0"}).speed);
+    }
+
+    /**
+     * Test for the seed option.
+     */
+    @Test
+    public void testSeed() {
+        assertNull(LaunchOptions.parse(new String[]{}).seed);
+        assertEquals(-42L, LaunchOptions.parse(new String[]{"--seed", "-42"}).seed);
+    }
+
+    /**
+     * Test for parsing the record and replay options.
+     */
+    @Test
+    public void testRecordAndReplay() {
+        LaunchOptions options = LaunchOptions.parse(new String[]{"--record", "out.log", "--replay", "in.log"});
+        assertEquals("out.log", options.recordPath);
+        assertEquals("in.log", options.replayPath);
+        assertNull(LaunchOptions.parse(new String[]{"--record"}).recordPath);
+    }
+
+    /**
+     * Test for parsing the bot option and its budget, which also turns the bot on.
+     */
+    @Test
+    public void testBot() {
+        assertFalse(LaunchOptions.parse(new String[]{}).bot);
+        assertEquals(RolloutPlayer.DEFAULT_BUDGET_MILLIS, LaunchOptions.parse(new String[]{"--bot"}).botBudgetMillis);
+        LaunchOptions options = LaunchOptions.parse(new String[]{"--bot-budget", "25"});
+        assertTrue(options.bot);
+        assertEquals(25, options.botBudgetMillis);
+    }
+}
@@ -0,0 +1,199 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import processing.core.PConstants;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevelEditorTest {
+
+    private final List<String> layout = Arrays.asList(
+            "XXXXXX",
+            "XS  1X",
+            "X H2 X",
+            "X    X",
+            "XB3  X",
+            "XXXXXX");
+
+    /**
+     * Creates a level and loads the test layout into it.
+     */
+    private Level createLevel(boolean implicitBlankTiles) throws IOException {
+        Level level = new Level(6, 6, 32, 64);
+        if (implicitBlankTiles) {
+            level.load(LevelTemplate.fromCompiled(new CompiledLevel(LevelCompiler.compile(layout, "test")), 32, 64));
+        } else {
+            level.load(LevelTemplate.fromLayout(layout, 32, 64));
+        }
+        return level;
+    }
+
+    /**
+     * Test for the editor starting from the layout the level was loaded from.
+     */
+    @Test
+    public void testInitialLayout() throws IOException {
+        assertEquals(layout, new LevelEditor(createLevel(false)).toLayout());
+        assertEquals(layout, new LevelEditor(createLevel(true)).toLayout());
+    }
+
+    /**
+     * Test for painting a wall patching the cell's tile and hit boxes.
+     */
+    @Test
+    public void testPaintWall() throws IOException {
+        Level level = createLevel(false);
+        LevelEditor editor = new LevelEditor(level);
+        int tiles = level.tiles.size();
+        editor.colour = 2;
+
+        assertTrue(editor.paint(2, 1, LevelEditor.Brush.WALL));
+        Tile wall = level.board.get(2, 1);
+        assertEquals(Tile.TileType.WALL, wall.type);
+        assertEquals(2, wall.colorIndex);
+        assertEquals(4, wall.getHitBoxes().size());
+        assertEquals(tiles, level.tiles.size());
+        assertNull(level.template);
+        assertEquals("XS2 1X", editor.toLayout().get(1));
+
+        assertTrue(editor.paint(2, 1, LevelEditor.Brush.ERASE));
+        assertEquals(Tile.TileType.TILE, level.board.get(2, 1).type);
+        assertEquals(tiles, level.tiles.size());
+        assertFalse(editor.paint(6, 1, LevelEditor.Brush.WALL));
+    }
+
+    /**
+     * Test for holes covering their cells and being removed whole when a covered cell is painted over.
+     */
+    @Test
+    public void testPaintHole() throws IOException {
+        Level level = createLevel(true);
+        LevelEditor editor = new LevelEditor(level);
+
+        assertTrue(editor.paint(3, 3, LevelEditor.Brush.WALL));
+        assertEquals(0, level.holes.size());
+        assertFalse(level.board.isCoveredByHole(3, 2));
+        assertNull(level.board.get(2, 2));
+        assertEquals("X    X", editor.toLayout().get(2));
+        assertEquals("X  X X", editor.toLayout().get(3));
+
+        editor.colour = 1;
+        assertTrue(editor.paint(1, 2, LevelEditor.Brush.HOLE));
+        Tile hole = level.board.get(1, 2);
+        assertEquals(Tile.TileType.HOLE, hole.type);
+        assertEquals(64, hole.size);
+        assertEquals(Collections.singletonList(hole), level.holes);
+        assertTrue(level.board.isCoveredByHole(2, 3));
+        assertEquals("XH1  X", editor.toLayout().get(2));
+        assertFalse(editor.paint(5, 4, LevelEditor.Brush.HOLE));
+    }
+
+    /**
+     * Test for painting spawners and balls.
+     */
+    @Test
+    public void testPaintSpawnerAndBall() throws IOException {
+        Level level = createLevel(false);
+        LevelEditor editor = new LevelEditor(level);
+        int balls = level.balls.size();
+
+        assertTrue(editor.paint(1, 1, LevelEditor.Brush.ERASE));
+        assertTrue(level.spawner.isEmpty());
+        assertTrue(editor.paint(3, 3, LevelEditor.Brush.SPAWNER));
+        assertEquals(1, level.spawner.size());
+        assertEquals(96, level.spawner.get(0).x);
+
+        editor.colour = 4;
+        assertTrue(editor.paint(3, 4, LevelEditor.Brush.BALL));
+        assertEquals(balls + 1, level.balls.size());
+        assertEquals(4, level.balls.get(balls).colorIndex);
+        assertEquals("XB3B4X", editor.toLayout().get(4));
+
+        assertTrue(editor.paint(2, 4, LevelEditor.Brush.WALL));
+        assertEquals("X 4B4X", editor.toLayout().get(4));
+    }
+
+    /**
+     * Test for strokes painting each cell once, and for saving the layout.
+     */
+    @Test
+    public void testPaintAtAndSave(@TempDir File directory) throws IOException {
+        Level level = createLevel(false);
+        LevelEditor editor = new LevelEditor(level);
+
+        assertTrue(editor.paintAt(100, 64 + 100, LevelEditor.Brush.WALL));
+        assertFalse(editor.paintAt(110, 64 + 110, LevelEditor.Brush.WALL));
+        assertFalse(editor.paintAt(100, 10, LevelEditor.Brush.WALL));
+        editor.lift();
+        assertTrue(editor.paintAt(110, 64 + 110, LevelEditor.Brush.ERASE));
+        assertEquals(2, editor.edits);
+
+        File file = new File(directory, "level.txt");
+        editor.save(file);
+        assertEquals(editor.toLayout(), Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+        assertEquals(0, LevelTemplate.fromLayout(Files.readAllLines(file.toPath()), 32, 64).holes.size());
+    }
+
+    /**
+     * Test for edits replacing tiles in place, leaving every other tile at the same position in the list.
+     */
+    @Test
+    public void testStableIndices() throws IOException {
+        for (boolean implicitBlankTiles : new boolean[]{false, true}) {
+            Level level = createLevel(implicitBlankTiles);
+            LevelEditor editor = new LevelEditor(level);
+            ArrayList<Tile> before = new ArrayList<>(level.tiles);
+            Tile wall = level.board.get(0, 0);
+
+            assertTrue(editor.paint(3, 3, LevelEditor.Brush.HOLE));
+            assertTrue(editor.paint(2, 2, LevelEditor.Brush.WALL));
+            assertTrue(editor.paint(1, 1, LevelEditor.Brush.ERASE));
+            assertTrue(editor.paint(4, 1, LevelEditor.Brush.SPAWNER));
+
+            assertSame(wall, level.tiles.get(wall.index));
+            for (int i = 0; i < level.tiles.size(); i++) {
+                assertEquals(i, level.tiles.get(i).index);
+            }
+            for (int i = 0; i < before.size(); i++) {
+                Tile tile = before.get(i);
+                if (level.board.get(tile.x / 32, (tile.y - 64) / 32) == tile) {
+                    assertSame(tile, level.tiles.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test for leaving editor mode after an edit and coming back to it carrying on with the edited layout.
+     */
+    @Test
+    public void testReenterAfterEdit() {
+        App app = Replay.startHeadless(new LaunchOptions());
+        app.stepSimulation();
+        app.pressKey('e', 'E');
+        LevelEditor editor = app.editor;
+        assertNotNull(editor);
+        app.pressMouse(100, 200, PConstants.LEFT, false);
+        assertEquals(1, editor.edits);
+        assertNull(app.game.currentLevel.template);
+        List<String> edited = editor.toLayout();
+
+        app.pressKey('e', 'E');
+        assertNull(app.editor);
+        app.pressKey('e', 'E');
+        assertSame(editor, app.editor);
+        assertEquals(edited, app.editor.toLayout());
+
+        app.pressKey('e', 'E');
+        app.startLevel();
+        app.pressKey('e', 'E');
+        assertNotSame(editor, app.editor);
+        assertNotNull(app.game.currentLevel.template);
+    }
+}
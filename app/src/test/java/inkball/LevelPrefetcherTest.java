@@ -0,0 +1,115 @@
+package inkball;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevelPrefetcherTest {
+
+    private final LevelConfig[] levels = {createConfig(), createConfig(), createConfig()};
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private LevelPrefetcher prefetcher;
+
+    /**
+     * Creates an empty level configuration.
+     */
+    private static LevelConfig createConfig() {
+        return new LevelConfig("test.txt", Collections.singletonList("X"), null, 100, 5, 1, 1,
+                new ArrayList<>(), new HashMap<>(), new HashMap<>());
+    }
+
+    /**
+     * Creates a prefetcher whose loader waits for the latch when asked to.
+     */
+    private LevelPrefetcher createPrefetcher(boolean blocking) {
+        prefetcher = new LevelPrefetcher(index -> {
+            loads.incrementAndGet();
+            if (blocking) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return new LevelPrefetcher.PreparedLevel(levels[index], null, null);
+        });
+        return prefetcher;
+    }
+
+    /**
+     * Waits for the pending prefetch to finish.
+     */
+    private void awaitPending() throws Exception {
+        prefetcher.pending.get(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the worker thread.
+     */
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        prefetcher.shutdown();
+    }
+
+    /**
+     * Test for a finished prefetch being taken once.
+     */
+    @Test
+    public void testTake() throws Exception {
+        createPrefetcher(false);
+        prefetcher.prefetch(1);
+        prefetcher.prefetch(1);
+        awaitPending();
+        assertEquals(1, loads.get());
+
+        LevelPrefetcher.PreparedLevel prepared = prefetcher.take(1, levels[1]);
+        assertNotNull(prepared);
+        assertSame(levels[1], prepared.level);
+        assertNull(prefetcher.take(1, levels[1]));
+    }
+
+    /**
+     * Test for unfinished, mismatched and outdated prefetches not being used.
+     */
+    @Test
+    public void testFallback() throws Exception {
+        createPrefetcher(true);
+        prefetcher.prefetch(1);
+        assertNull(prefetcher.take(1, levels[1]));
+        assertNull(prefetcher.pending);
+
+        release.countDown();
+        prefetcher.prefetch(1);
+        awaitPending();
+        assertNull(prefetcher.take(2, levels[2]));
+
+        prefetcher.prefetch(1);
+        awaitPending();
+        assertNull(prefetcher.take(1, createConfig()));
+    }
+
+    /**
+     * Test for prefetches being cancelled by restarts and by prefetching another level.
+     */
+    @Test
+    public void testCancel() {
+        createPrefetcher(true);
+        prefetcher.prefetch(1);
+        Future<LevelPrefetcher.PreparedLevel> first = prefetcher.pending;
+        prefetcher.prefetch(2);
+        assertTrue(first.isCancelled());
+        assertEquals(2, prefetcher.pendingIndex);
+
+        prefetcher.cancel();
+        assertEquals(-1, prefetcher.pendingIndex);
+        assertNull(prefetcher.take(2, levels[2]));
+    }
+}
@@ -51,7 +51,7 @@ public class LevelTest {
      */
     @Test
     public void testUpdate() {
-        App.random.setSeed(0);
+        level.seed(0);
         assertEquals(0, level.yellowTileMoveCounter);
         for (int i = 0; i < 8000; i++) {
             level.updateYellowTileMovement();
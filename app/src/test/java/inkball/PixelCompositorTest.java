@@ -0,0 +1,127 @@
+package inkball;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import processing.core.PApplet;
+import processing.core.PImage;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PixelCompositorTest {
+    private PixelCompositor compositor;
+
+    /**
+     * Set up before testing.
+     */
+    @BeforeEach
+    public void setup() {
+        compositor = new PixelCompositor(4);
+    }
+
+    /**
+     * Stop the workers after testing.
+     */
+    @AfterEach
+    public void tearDown() {
+        compositor.shutdown();
+    }
+
+    /**
+     * Test for compositing opaque and translucent sprites.
+     */
+    @Test
+    public void testSprites() {
+        PImage opaque = new PImage(4, 4, PApplet.RGB);
+        Arrays.fill(opaque.pixels, 0xff112233);
+        PImage translucent = new PImage(2, 2, PApplet.ARGB);
+        Arrays.fill(translucent.pixels, 0x00ffffff);
+        translucent.pixels[0] = 0xffff0000;
+
+        int[] pixels = new int[8 * 8];
+        Arrays.fill(pixels, 0xffc8c8c8);
+        compositor.addSprite(opaque, 2, 2);
+        compositor.addSprite(translucent, 2, 2);
+        compositor.composite(pixels, 8, 0, 8);
+
+        assertEquals(0xffc8c8c8, pixels[0]);
+        assertEquals(0xffff0000, pixels[2 * 8 + 2]);
+        assertEquals(0xff112233, pixels[2 * 8 + 3]);
+        assertEquals(0xff112233, pixels[5 * 8 + 5]);
+        assertEquals(0xffc8c8c8, pixels[6 * 8 + 6]);
+    }
+
+    /**
+     * Test for drawing ink and leaving rows above the top bar untouched.
+     */
+    @Test
+    public void testInk() {
+        int[] pixels = new int[100 * 100];
+        Arrays.fill(pixels, 0xffc8c8c8);
+        compositor.addInkSegment(10, 5, 90, 5);
+        compositor.addInkSegment(50, 20, 50, 90);
+        compositor.composite(pixels, 100, 10, 100);
+
+        assertEquals(0xffc8c8c8, pixels[5 * 100 + 50]);
+        assertEquals(0xff000000, pixels[50 * 100 + 50]);
+        assertEquals(0xff000000, pixels[50 * 100 + 53]);
+        assertEquals(0xffc8c8c8, pixels[50 * 100 + 60]);
+    }
+
+    /**
+     * Test for getting the same result whatever the band height.
+     */
+    @Test
+    public void testBands() {
+        PImage sprite = new PImage(10, 10, PApplet.ARGB);
+        for (int i = 0; i < sprite.pixels.length; i++) {
+            sprite.pixels[i] = (i * 37) << 24 | i;
+        }
+        compositor.addSprite(sprite, 3, 17);
+        compositor.addInkSegment(0, 0, 63, 63);
+
+        int[] single = new int[64 * 64];
+        compositor.bandHeight = 64;
+        compositor.composite(single, 64, 0, 64);
+
+        int[] banded = new int[64 * 64];
+        compositor.bandHeight = 1;
+        compositor.composite(banded, 64, 0, 64);
+
+        assertArrayEquals(single, banded);
+    }
+
+    /**
+     * Test for blending a pixel.
+     */
+    @Test
+    public void testBlend() {
+        assertEquals(0xff0000ff, PixelCompositor.blend(0xff0000ff, 0xffffffff));
+        assertEquals(0xffffffff, PixelCompositor.blend(0x000000ff, 0xffffffff));
+        assertEquals(0xff7f7f7f, PixelCompositor.blend(0x80000000, 0xffffffff));
+    }
+
+    /**
+     * Test for placing both yellow tiles of a completed level below the top bar and on the board.
+     */
+    @Test
+    public void testYellowTiles() {
+        Level level = new Level(Engine.BOARD_WIDTH, Engine.BOARD_HEIGHT, 32, 64);
+        level.getLevel(new String[]{"X"});
+        level.isLevelComplete = true;
+        PImage sprite = new PImage(32, 32, PApplet.ARGB);
+        SpriteCache spriteCache = new SpriteCache();
+
+        for (int move = 0; move < 200; move++) {
+            compositor.clear();
+            compositor.collect(level, name -> sprite, spriteCache);
+            for (int i = compositor.spriteCount - 2; i < compositor.spriteCount; i++) {
+                PixelCompositor.SpriteCommand yellow = compositor.sprites.get(i);
+                assertTrue(yellow.y >= level.topbar);
+                assertTrue(yellow.y + 32 <= Engine.HEIGHT);
+            }
+            level.updateYellowTileMovement();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import processing.core.PConstants;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayTest {
+
+    @TempDir
+    File directory;
+
+    /**
+     * Plays the first level without a window for a while, drawing a line, pausing and scrolling, and records the inputs.
+     */
+    private App record(File log) {
+        LaunchOptions options = new LaunchOptions();
+        options.seed = 11L;
+        options.recordPath = log.getPath();
+        App app = Replay.startHeadless(options);
+        for (int t = 0; t < 20 * App.FPS; t++) {
+            if (t == 2 * App.FPS) {
+                app.handleInput(InputEvent.mousePressed(60, 400, PConstants.LEFT, false));
+                for (int i = 1; i <= 30; i++) {
+                    app.handleInput(InputEvent.mouseDragged(60 + i * 15, 400, PConstants.LEFT));
+                }
+            }
+            if (t == 5 * App.FPS || t == 6 * App.FPS) {
+                app.handleInput(InputEvent.keyPressed(' ', 32));
+            }
+            if (t == 8 * App.FPS) {
+                app.handleInput(InputEvent.mousePressed(300, 400, PConstants.RIGHT, false));
+            }
+            app.stepSimulation();
+        }
+        app.finishRecording();
+        return app;
+    }
+
+    /**
+     * Test for a recorded session played back without a window coming out with the same score and state.
+     */
+    @Test
+    public void testReplay() throws IOException {
+        File log = new File(directory, "session.log");
+        App recorded = record(log);
+        InputLog read = InputLog.read(log);
+        assertEquals(11, read.seed);
+        assertEquals(34, read.entries.size());
+        assertEquals(20 * App.FPS, read.finalTick);
+
+        LaunchOptions options = new LaunchOptions();
+        options.replayPath = log.getPath();
+        App replayed = Replay.startHeadless(options);
+        assertEquals(11, replayed.seed);
+        Replay replay = replayed.replay;
+        replayed.handleInput(InputEvent.keyPressed(' ', 32));
+        assertFalse(replayed.isPaused);
+        while (replayed.replay != null) {
+            replayed.stepSimulation();
+        }
+        assertTrue(replay.matched, replay.result);
+        assertEquals(recorded.scoreboard.total, replayed.scoreboard.total);
+        assertEquals(read.entries.size(), replay.next);
+        assertEquals(App.FPS, recorded.pausedTicks);
+        assertEquals(recorded.pausedTicks, replayed.pausedTicks);
+    }
+
+    /**
+     * Test for a session ending on an edited level failing verification rather than matching on an empty hash.
+     */
+    @Test
+    public void testEditedLevel() throws IOException {
+        File log = new File(directory, "edited.log");
+        LaunchOptions options = new LaunchOptions();
+        options.seed = 11L;
+        options.recordPath = log.getPath();
+        App app = Replay.startHeadless(options);
+        app.stepSimulation();
+        app.handleInput(InputEvent.keyPressed('e', 'E'));
+        app.handleInput(InputEvent.mousePressed(100, 200, PConstants.LEFT, false));
+        app.handleInput(InputEvent.keyPressed('e', 'E'));
+        for (int t = 0; t < App.FPS; t++) {
+            app.stepSimulation();
+        }
+        assertNull(app.game.currentLevel.template);
+        assertThrows(IllegalStateException.class, () -> GameState.hash(app));
+        app.finishRecording();
+
+        LaunchOptions replayOptions = new LaunchOptions();
+        replayOptions.replayPath = log.getPath();
+        App replayed = Replay.startHeadless(replayOptions);
+        Replay replay = replayed.replay;
+        while (replayed.replay != null) {
+            replayed.stepSimulation();
+        }
+        assertFalse(replay.matched);
+        assertTrue(replay.result.contains("edited"), replay.result);
+    }
+
+    /**
+     * Test for only the levels a session entered being hashed, and a changed level being caught when entered.
+     */
+    @Test
+    public void testLevelHashes() throws IOException {
+        File log = new File(directory, "session.log");
+        App recorded = record(log);
+        InputLog read = InputLog.read(log);
+        assertEquals(1, read.levelHashes.size());
+        assertEquals(InputLog.hashLevel(recorded.config.level), read.levelHashes.get(0));
+
+        Replay replay = new Replay(read);
+        assertTrue(replay.checkLevel(1, recorded.config.level));
+        assertFalse(replay.checkLevel(0, LevelTuner.withTiming(recorded.config.level, 1, 1)));
+        assertTrue(replay.checkLevel(0, recorded.config.level));
+    }
+
+    /**
+     * Test for a playback that does not reach the recorded state being reported as diverged.
+     */
+    @Test
+    public void testDiverged() throws IOException {
+        File log = new File(directory, "session.log");
+        record(log);
+        InputLog read = InputLog.read(log);
+        read.entries.remove(read.entries.size() - 1);
+        read.write(log);
+
+        LaunchOptions options = new LaunchOptions();
+        options.replayPath = log.getPath();
+        App replayed = Replay.startHeadless(options);
+        Replay replay = replayed.replay;
+        while (replayed.replay != null) {
+            replayed.stepSimulation();
+        }
+        assertFalse(replay.matched);
+        assertTrue(replay.result.contains("DIVERGED"));
+    }
+
+    /**
+     * Test for seeking back and forth through keyframes reaching the same state as playing straight through.
+     */
+    @Test
+    public void testSeek() throws IOException {
+        File log = new File(directory, "session.log");
+        record(log);
+        assertTrue(new File(directory, "session.log.keys").length() > 0);
+
+        LaunchOptions options = new LaunchOptions();
+        options.replayPath = log.getPath();
+        App straight = Replay.startHeadless(options);
+        while (straight.tick < 17 * App.FPS) {
+            straight.stepSimulation();
+        }
+
+        App seeking = Replay.startHeadless(options);
+        assertEquals(5, seeking.keyframes.count);
+        seeking.seek(17 * App.FPS);
+        assertEquals(17 * App.FPS, seeking.tick);
+        assertEquals(GameState.hash(straight), GameState.hash(seeking));
+        seeking.seek(3 * App.FPS);
+        assertEquals(3 * App.FPS, seeking.tick);
+        seeking.seek(17 * App.FPS);
+        assertEquals(GameState.hash(straight), GameState.hash(seeking));
+        assertEquals(straight.replay.next, seeking.replay.next);
+
+        seeking.seek(Long.MAX_VALUE);
+        assertEquals(20 * App.FPS, seeking.tick);
+        seeking.stepSimulation();
+        assertTrue(seeking.replay == null);
+    }
+
+    /**
+     * Test for presses on the scrub bar asking the replay to seek, and other inputs being ignored.
+     */
+    @Test
+    public void testScrubBar() throws IOException {
+        File log = new File(directory, "session.log");
+        record(log);
+        LaunchOptions options = new LaunchOptions();
+        options.replayPath = log.getPath();
+        App app = Replay.startHeadless(options);
+
+        app.handleInput(InputEvent.mousePressed(100, 300, PConstants.LEFT, false));
+        assertEquals(-1, app.seekTarget);
+        app.handleInput(InputEvent.mouseDragged(App.WIDTH / 2f, App.HEIGHT - 2, PConstants.LEFT));
+        assertEquals(10 * App.FPS, app.seekTarget);
+        app.applySeek();
+        assertEquals(10 * App.FPS, app.tick);
+        assertEquals(-1, app.seekTarget);
+    }
+
+    /**
+     * Test for the strokes the player draws in the window being recorded as mouse inputs that play back the same.
+     */
+    @Test
+    public void testRecordedInWindow() throws IOException {
+        File log = new File(directory, "bot.log");
+        LaunchOptions options = LaunchOptions.parse(new String[]{"--bot-budget", "1000", "--seed", "5",
+                "--record", log.getPath()});
+        App app = Replay.startHeadless(options);
+        assertNotNull(app.player);
+        for (int t = 0; t < 20 * App.FPS; t++) {
+            app.stepSimulation();
+        }
+        app.finishRecording();
+        app.player.shutdown();
+        InputLog recorded = InputLog.read(log);
+        assertFalse(recorded.entries.isEmpty());
+
+        LaunchOptions replayOptions = new LaunchOptions();
+        replayOptions.replayPath = log.getPath();
+        replayOptions.bot = true;
+        App replayed = Replay.startHeadless(replayOptions);
+        assertNull(replayed.player);
+        Replay replay = replayed.replay;
+        while (replayed.replay != null) {
+            replayed.stepSimulation();
+        }
+        assertTrue(replay.matched, replay.result);
+    }
+}
@@ -0,0 +1,38 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationThreadTest {
+
+    /**
+     * Test for shutting down waiting for the tick being run to finish.
+     */
+    @Test
+    public void testShutdownWaitsForTick() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        int[] ticksRun = new int[1];
+        App app = new App() {
+            @Override
+            public void runSimulationTick() {
+                started.countDown();
+                long end = System.nanoTime() + 100_000_000L;
+                while (System.nanoTime() < end) {
+                    Thread.onSpinWait();
+                }
+                ticksRun[0]++;
+            }
+        };
+        SimulationThread thread = new SimulationThread(app, 1000);
+        thread.start();
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        thread.shutdown();
+        assertFalse(thread.isAlive());
+        assertEquals(thread.ticks, ticksRun[0]);
+        assertTrue(ticksRun[0] >= 1);
+    }
+}
@@ -0,0 +1,45 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+import processing.core.PApplet;
+import processing.core.PImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpriteCacheTest {
+
+    /**
+     * Test for scaling an image and reusing the cached copy.
+     */
+    @Test
+    public void testGet() {
+        SpriteCache cache = new SpriteCache();
+        PImage source = new PImage(32, 32, PApplet.ARGB);
+
+        PImage scaled = cache.get(source, 64, 64);
+        assertEquals(64, scaled.width);
+        assertEquals(64, scaled.height);
+        assertSame(scaled, cache.get(source, 64, 64));
+        assertSame(source, cache.get(source, 32, 32));
+        assertNull(cache.get(null, 32, 32));
+        assertEquals(1, cache.sizeCount(source));
+    }
+
+    /**
+     * Test for evicting the least recently used sizes of a shrinking ball.
+     */
+    @Test
+    public void testEviction() {
+        SpriteCache cache = new SpriteCache(3);
+        PImage source = new PImage(24, 24, PApplet.ARGB);
+
+        PImage first = cache.get(source, 21, 21);
+        cache.get(source, 18, 18);
+        cache.get(source, 15, 15);
+        cache.get(source, 21, 21);
+        cache.get(source, 12, 12);
+
+        assertEquals(3, cache.sizeCount(source));
+        assertSame(first, cache.get(source, 21, 21));
+        assertEquals(3, cache.sizeCount(source));
+    }
+}
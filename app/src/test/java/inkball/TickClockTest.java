@@ -0,0 +1,75 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TickClockTest {
+
+    /**
+     * Test for ticks falling due at a fixed rate, whatever the frame timing.
+     */
+    @Test
+    public void testTicksDue() {
+        long[] now = {1_000};
+        TickClock clock = new TickClock(100, 5, 2);
+        clock.time = () -> now[0];
+
+        assertEquals(1, clock.ticksDue());
+        clock.tick();
+        assertEquals(0, clock.ticksDue());
+        assertEquals(10_000_000, clock.nanosUntilNextTick());
+
+        now[0] += 25_000_000;
+        int due = clock.ticksDue();
+        assertEquals(2, due);
+        for (int i = 0; i < due; i++) {
+            clock.tick();
+        }
+        assertEquals(3, clock.ticks);
+        assertEquals(0, clock.ticksDue());
+        assertEquals(0, clock.droppedTicks);
+    }
+
+    /**
+     * Test for catch-up being capped, dropping the ticks beyond the cap.
+     */
+    @Test
+    public void testCatchUpCap() {
+        long[] now = {0};
+        TickClock clock = new TickClock(100, 5, 2);
+        clock.time = () -> now[0];
+        clock.ticksDue();
+        clock.tick();
+
+        now[0] += 1_000_000_000;
+        assertEquals(5, clock.ticksDue());
+        assertEquals(95, clock.droppedTicks);
+        for (int i = 0; i < 5; i++) {
+            clock.tick();
+        }
+        assertEquals(0, clock.ticksDue());
+        now[0] += 10_000_000;
+        assertEquals(1, clock.ticksDue());
+    }
+
+    /**
+     * Test for frames being skipped while ticks are due, but never more than the cap in a row.
+     */
+    @Test
+    public void testFrameSkipping() {
+        long[] now = {0};
+        TickClock clock = new TickClock(100, 5, 2);
+        clock.time = () -> now[0];
+        clock.ticksDue();
+        clock.tick();
+        assertTrue(clock.beginFrame());
+
+        now[0] += 50_000_000;
+        assertFalse(clock.beginFrame());
+        assertFalse(clock.beginFrame());
+        assertTrue(clock.beginFrame());
+        assertEquals(2, clock.frames);
+        assertEquals(2, clock.droppedFrames);
+        assertThrows(IllegalArgumentException.class, () -> new TickClock(0, 1, 1));
+    }
+}
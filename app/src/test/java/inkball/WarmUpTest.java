@@ -0,0 +1,43 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WarmUpTest {
+
+    /**
+     * Creates an empty level the size of the window.
+     */
+    private Level createLevel() {
+        return new Level(App.BOARD_WIDTH, App.BOARD_HEIGHT, App.CELLSIZE, App.TOPBAR);
+    }
+
+    /**
+     * Test for the warm-up board being a valid layout.
+     */
+    @Test
+    public void testLayout() throws IOException {
+        CompiledLevel compiled = new CompiledLevel(LevelCompiler.compile(Arrays.asList(WarmUp.LAYOUT), "warm-up"));
+        assertEquals(5, compiled.holeCount);
+        assertEquals(5, compiled.ballCount);
+        assertEquals(2, compiled.spawnerCount);
+    }
+
+    /**
+     * Test for the warm-up playing the board without changing the score.
+     */
+    @Test
+    public void testRun() {
+        Level level = createLevel();
+        level.scoreboard.total = 42;
+        int restarts = WarmUp.run(level, 600, null);
+
+        assertEquals(42, level.scoreboard.total);
+        assertTrue(level.isLevelInitialized);
+        assertTrue(restarts >= 0);
+        assertFalse(level.playerLines.isEmpty());
+    }
+}
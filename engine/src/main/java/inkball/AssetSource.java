@@ -0,0 +1,20 @@
+package inkball;
+
+/**
+ * The {@code AssetSource} interface supplies the sprites a {@link Renderer} draws, by file name.
+ * The engine only ever names its sprites, such as {@link Ball#SPRITES} or {@link Tile#WALL_SPRITES};
+ * a front end resolves the names to images of whatever kind its graphics library draws.
+ *
+ * @param <T> the kind of image supplied
+ */
+
+public interface AssetSource<T> {
+
+    /**
+     * Returns a sprite.
+     *
+     * @param name the file name of the sprite, such as {@code ball0.png}
+     * @return the sprite
+     */
+    T get(String name);
+}
@@ -1,6 +1,4 @@
 package inkball;
-import processing.core.PApplet;
-import processing.core.PImage;
 import java.util.*;
 
 /**
@@ -11,11 +9,12 @@ import java.util.*;
 
 
 public class Ball {
-    public PApplet p; // PApplet instance
+    public static final long DEFAULT_SEED = 0; // Seed of the directions of balls built without a generator, such as top bar sprites
+    public static final float ATTRACTION_RADIUS = 32; // Distance between the centres of a ball and a hole within which the hole pulls the ball in
+    public static final String[] SPRITES = {"ball0.png", "ball1.png", "ball2.png", "ball3.png", "ball4.png"}; // File names of the ball sprites, by color index
     public float x, y; // Position of the ball
     public float i, j; // speed vectors
     public float diameter = 24; // Diameter of the ball
-    public PImage[] ballImages; // Array of ball images
     public int colorIndex; // color index of the ball
     public boolean isCaptured; // whether the ball has been captured
     public boolean isAttracted; // whether the ball has been attracted
@@ -24,21 +23,35 @@ public class Ball {
     public boolean isLaunched = false; // whether the ball has been launched
     public Tile attractedHole = null; // the specified tile which attracts the ball
     public boolean prevCollideState; // Previous collision state
+    public float boundsWidth = Engine.WIDTH; // Width of the board the ball bounces inside, set by its level
+    public float boundsHeight = Engine.HEIGHT; // Height of the board the ball bounces inside, top bar included, set by its level
+    public SplittableRandom random; // Generator of the ball's directions
+    public long randomSeed; // Seed of the generator, drawn from its level's
+    public int directionDraws = 0; // Number of directions drawn since the generator was seeded
 
     /**
      * Constructs a new {@code Ball} object with the specified parameters.
      *
-     * @param p          the PApplet instance used for rendering
      * @param x          the initial x-coordinate of the ball
      * @param y          the initial y-coordinate of the ball
-     * @param ballImages the array of ball images representing different colors
      * @param colorIndex the initial color index of the ball
      */
-    public Ball(PApplet p, float x, float y, PImage[] ballImages, int colorIndex) {
-        this.p = p;
+    public Ball(float x, float y, int colorIndex) {
+        this(x, y, colorIndex, DEFAULT_SEED);
+    }
+
+    /**
+     * Constructs a new {@code Ball} object whose directions are drawn from the given generator.
+     *
+     * @param x          the initial x-coordinate of the ball
+     * @param y          the initial y-coordinate of the ball
+     * @param colorIndex the initial color index of the ball
+     * @param randomSeed the seed of the generator of the ball's directions, used by this ball only
+     */
+    public Ball(float x, float y, int colorIndex, long randomSeed) {
+        seedRandom(randomSeed);
         this.x = x;
         this.y = y;
-        this.ballImages = ballImages;
         this.colorIndex = colorIndex;
         this.isCaptured = false;
         this.isAttracted = false;
@@ -52,14 +65,12 @@ public class Ball {
      * @param tiles      the list of tiles on the board
      * @param playerLine the list of player-drawn lines
      * @param balls      the list of balls in the game
-     * @param ballImages the array of ball images
-     * @param tileImages the array of tile images
      */
-    public void update(ArrayList<Tile> tiles, ArrayList<PlayerLine> playerLine, ArrayList<Ball> balls, PImage[] ballImages, PImage[] tileImages) {
+    public void update(ArrayList<Tile> tiles, ArrayList<PlayerLine> playerLine, ArrayList<Ball> balls) {
         if (!isCaptured) {
             x += i;
             y += j;
-            checkCollisions(tiles, playerLine, ballImages, tileImages);
+            checkCollisions(tiles, playerLine);
             checkHoleAttraction(tiles, balls);
         }
     }
@@ -68,30 +79,56 @@ public class Ball {
      * Sets a random initial direction for the ball.
      */
     public void setRandomDirection() {
-        this.i = Math.random() < 0.5 ? 2 : -2;
-        this.j = Math.random() < 0.5 ? 2 : -2;
+        this.i = random.nextBoolean() ? 2 : -2;
+        this.j = random.nextBoolean() ? 2 : -2;
+        directionDraws++;
     }
 
     /**
-     * Checks for collisions between the ball and tiles or player lines.
+     * Gives the ball a new generator for its directions.
+     *
+     * @param seed the seed of the generator
+     */
+    public void seedRandom(long seed) {
+        this.randomSeed = seed;
+        this.random = new SplittableRandom(seed);
+        this.directionDraws = 0;
+    }
+
+    /**
+     * Puts the generator of the ball's directions back to where it was after a number of draws
+     * from the given seed, as when a saved game is restored. The current direction is kept.
+     *
+     * @param seed  the seed of the generator
+     * @param draws the number of directions drawn from it
+     */
+    public void restoreRandom(long seed, int draws) {
+        seedRandom(seed);
+        for (int draw = 0; draw < draws; draw++) {
+            random.nextBoolean();
+            random.nextBoolean();
+        }
+        this.directionDraws = draws;
+    }
+
+    /**
+     * Checks for collisions between the ball and the edges of its board, tiles or player lines.
      *
      * @param tiles      the list of tiles on the board
      * @param playerLines the list of player-drawn lines
-     * @param ballImages the array of ball images
-     * @param tileImages the array of tile images
      */
-    public void checkCollisions(ArrayList<Tile> tiles, ArrayList<PlayerLine> playerLines, PImage[] ballImages, PImage[] tileImages) {
-        if (x <= 0 || x >= p.width - diameter) {
+    public void checkCollisions(ArrayList<Tile> tiles, ArrayList<PlayerLine> playerLines) {
+        if (x <= 0 || x >= boundsWidth - diameter) {
             i *= -1;
         }
 
-        if (y <= topbar || y >= p.height - diameter) {
+        if (y <= topbar || y >= boundsHeight - diameter) {
             j *= -1;
         }
 
         for (Tile tile : tiles) {
             if (tile.type == Tile.TileType.WALL) {
-                handleCollidingWithTile(tile, ballImages, tileImages);
+                handleCollidingWithTile(tile);
             }
         }
 
@@ -114,10 +151,8 @@ public class Ball {
      * Handles collision between the ball and a tile.
      *
      * @param tile       the tile being collided with
-     * @param ballImages the array of ball images
-     * @param tileImages the array of tile images
      */
-    public void handleCollidingWithTile(Tile tile, PImage[] ballImages, PImage[] tileImages) {
+    public void handleCollidingWithTile(Tile tile) {
         for (HitBox hitBox : tile.getHitBoxes()) {
             if (hitBox.isColliding(x + 12, y + 12, diameter / 2, i, j)) {
                 float[] newVelocity = hitBox.reflect(i, j, x, y);
@@ -125,8 +160,8 @@ public class Ball {
                 i = newVelocity[0];
                 j = newVelocity[1];
 
-                tile.hit(tileImages[0], this.colorIndex);
-                changeColor(tile.colorIndex, tile, ballImages);
+                tile.hit(this.colorIndex);
+                changeColor(tile.colorIndex, tile);
             }
         }
     }
@@ -136,10 +171,9 @@ public class Ball {
      *
      * @param newColorIndex the new color index of the ball
      * @param tile          the tile being collided with
-     * @param ballImages    the array of ball images
      */
-    public void changeColor(int newColorIndex, Tile tile, PImage[] ballImages) {
-        if (newColorIndex > 0 && newColorIndex < ballImages.length && tile.type == Tile.TileType.WALL) {
+    public void changeColor(int newColorIndex, Tile tile) {
+        if (newColorIndex > 0 && newColorIndex < SPRITES.length && tile.type == Tile.TileType.WALL) {
             this.colorIndex = newColorIndex;
         }
     }
@@ -175,8 +209,8 @@ public class Ball {
         for (Tile hole : holes) {
             for (Ball ball : copyList) {
                 if (hole.type == Tile.TileType.HOLE) {
-                    float distanceToHoleCenter = PApplet.dist(ball.x + ball.diameter/2, ball.y + ball.diameter/2, hole.x + (float) hole.size /2, hole.y + (float) hole.size /2);
-                    if (distanceToHoleCenter <= 32) {
+                    float distanceToHoleCenter = HitBox.distance(ball.x + ball.diameter/2, ball.y + ball.diameter/2, hole.x + (float) hole.size /2, hole.y + (float) hole.size /2);
+                    if (distanceToHoleCenter <= ATTRACTION_RADIUS) {
                         ball.isAttracted = true;
                         Ball capturedBall = attractToHole(hole, ball);
                         ball.attractedHole = hole;
@@ -203,7 +237,7 @@ public class Ball {
 
         //ball.diameter -= 3f;
 
-        float distanceFromHole = PApplet.dist((ball.x + ball.diameter / 2), (ball.y + ball.diameter / 2), hole.x + (float) hole.size /2, hole.y + (float) hole.size /2);
+        float distanceFromHole = HitBox.distance((ball.x + ball.diameter / 2), (ball.y + ball.diameter / 2), hole.x + (float) hole.size /2, hole.y + (float) hole.size /2);
 
         ball.diameter -= 3f;
 
@@ -256,13 +290,29 @@ public class Ball {
         this.x = 15 + realTopBarBalls.size() * 32;
         this.y = 20;
         this.diameter = 24;
-        this.i = Math.random() < 0.5 ? 2 : -2;
-        this.j = Math.random() < 0.5 ? 2 : -2;
+        setRandomDirection();
         this.isCaptured = false;
         this.isAttracted = false;
         this.attractedHole = null;
     }
 
+    /**
+     * Places the ball at a starting position with a new random direction,
+     * clearing its launch, collision and attraction states.
+     *
+     * @param x the x-coordinate to place the ball at
+     * @param y the y-coordinate to place the ball at
+     */
+    public void place(float x, float y) {
+        this.x = x;
+        this.y = y;
+        this.diameter = 24;
+        setRandomDirection();
+        this.isCaptured = false;
+        this.isAttracted = false;
+        this.attractedHole = null;
+        this.isColliding = false;
+        this.isLaunched = false;
+        this.prevCollideState = false;
+    }
 }
-
-
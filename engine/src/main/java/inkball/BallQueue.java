@@ -0,0 +1,142 @@
+package inkball;
+import java.util.NoSuchElementException;
+
+/**
+ * The {@code BallQueue} class holds the balls waiting in the top bar as a ring buffer of colour
+ * indices, one byte per ball. Only the balls in the visible slots at the front of the queue have
+ * sprites, which slide towards the launch position; a {@link Ball} is built for the board only when
+ * one spawns. Memory and spawn time stay the same however many balls are queued.
+ */
+
+public class BallQueue {
+
+    public static final int VISIBLE_SLOTS = 5; // Number of queued balls shown in the top bar
+    public static final int SLOT_SPACING = 32; // Distance between the starting positions of queued balls
+    public static final float START_X = 20; // The x-coordinate of the first queued ball
+    public static final float START_Y = 20; // The y-coordinate of the queued balls
+
+    public byte[] colours; // Colour index of each queued ball, from head onwards
+    public int head = 0; // Position of the front of the queue in the buffer
+    public int size = 0; // Number of queued balls
+    public Ball[] sprites = new Ball[VISIBLE_SLOTS]; // Sprites of the visible slots, reused as balls move up
+
+    /**
+     * Constructs a new, empty {@code BallQueue}.
+     */
+    public BallQueue() {
+        this.colours = new byte[16];
+    }
+
+    /**
+     * Returns the number of queued balls.
+     *
+     * @return the number of queued balls
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether no ball is queued.
+     *
+     * @return {@code true} if the queue is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the colour index of a queued ball.
+     *
+     * @param index the position in the queue, from the front
+     * @return the colour index
+     */
+    public int colourAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Ball " + index + " of " + size);
+        }
+        return colours[(head + index) % colours.length];
+    }
+
+    /**
+     * Returns the sprite of a ball in one of the visible slots.
+     *
+     * @param slot the position in the queue, below {@link #VISIBLE_SLOTS}
+     * @return the sprite drawn for the ball
+     */
+    public Ball get(int slot) {
+        if (slot < 0 || slot >= Math.min(size, VISIBLE_SLOTS)) {
+            throw new IndexOutOfBoundsException("Slot " + slot + " of " + Math.min(size, VISIBLE_SLOTS));
+        }
+        return sprites[slot];
+    }
+
+    /**
+     * Adds a ball at the back of the queue. If it lands in a visible slot, its sprite starts at
+     * the given position; otherwise only its colour is kept.
+     *
+     * @param colorIndex the colour index of the ball
+     * @param x          the x-coordinate the ball's sprite starts at if it is visible
+     */
+    public void add(int colorIndex, float x) {
+        if (size == colours.length) {
+            byte[] grown = new byte[colours.length * 2];
+            for (int i = 0; i < size; i++) {
+                grown[i] = colours[(head + i) % colours.length];
+            }
+            colours = grown;
+            head = 0;
+        }
+        colours[(head + size) % colours.length] = (byte) colorIndex;
+        size++;
+        if (size <= VISIBLE_SLOTS) {
+            showSlot(size - 1, x);
+        }
+    }
+
+    /**
+     * Removes the ball at the front of the queue. The balls behind it move up a slot, and the
+     * first hidden ball, if any, gets a sprite just out of sight behind the last visible one.
+     *
+     * @return the colour index of the removed ball
+     * @throws NoSuchElementException if the queue is empty
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException("No ball is queued");
+        }
+        int colorIndex = colours[head];
+        head = (head + 1) % colours.length;
+        size--;
+
+        Ball removed = sprites[0];
+        System.arraycopy(sprites, 1, sprites, 0, VISIBLE_SLOTS - 1);
+        sprites[VISIBLE_SLOTS - 1] = removed;
+        if (size >= VISIBLE_SLOTS) {
+            float behind = START_X + VISIBLE_SLOTS * SLOT_SPACING;
+            showSlot(VISIBLE_SLOTS - 1, Math.max(behind, sprites[VISIBLE_SLOTS - 2].x + SLOT_SPACING));
+        }
+        return colorIndex;
+    }
+
+    /**
+     * Empties the queue. The sprites are kept for reuse.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Places the sprite of a visible slot, building it the first time the slot is used.
+     */
+    private void showSlot(int slot, float x) {
+        int colorIndex = colourAt(slot);
+        if (sprites[slot] == null) {
+            sprites[slot] = new Ball(x, START_Y, colorIndex);
+        } else {
+            sprites[slot].place(x, START_Y);
+            sprites[slot].colorIndex = colorIndex;
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package inkball;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code BatchSimulator} class plays a level many times without a window to see how it plays
+ * out: how high players score, how long the board takes to clear and how often time runs out.
+ * Each run is an independent {@link Engine} with its own seed, and the runs are spread over a
+ * fork-join pool, so throughput grows with the number of cores. No ink is drawn unless
+ * {@code --ink} asks for the built-in {@link InkPolicy}, or {@code --bot} for a {@link RolloutPlayer}
+ * looking ahead on its own engines, within {@code --budget-ms} per decision if given.
+ *
+ * <p>Run as {@code inkball simulate --config config.json --level 2 --runs 10000 --threads 8}.
+ * Levels are counted from 0, so {@code --level 2} plays the third level of the config file.</p>
+ */
+
+public class BatchSimulator {
+
+    public static final String[] COLOURS = {"grey", "orange", "blue", "green", "yellow"}; // Ball colours, by colour index
+    public static final double[] PERCENTILES = {0.05, 0.5, 0.95, 0.99}; // Percentiles reported for each statistic
+    public static final int DEFAULT_RUNS = 1000; // Runs played when no count is given
+    public static final int DEFAULT_MAX_SECONDS = 600; // Game time after which an unfinished run is stopped
+    public static final String USAGE = "Usage: inkball simulate [--config <file> | --pack <file>] [--level <index from 0>]"
+            + " [--runs <n>] [--threads <n>] [--seed <n>] [--max-seconds <n>] [--ink | --bot [--budget-ms <n>]]"; // Printed when the options cannot be parsed
+
+    public String configPath = "config.json"; // The config file the level is read from
+    public String packPath = null; // Level pack the level is read from instead, or null
+    public int levelIndex = 0; // Index of the level to play, counted from 0
+    public int runs = DEFAULT_RUNS; // Number of runs to play
+    public int threads = Runtime.getRuntime().availableProcessors(); // Number of threads playing runs
+    public long seed = 0; // Batch seed, which the seed of each run is derived from
+    public long maxTicks = (long) DEFAULT_MAX_SECONDS * Engine.FPS; // Most ticks a run is played for
+    public boolean ink = false; // Whether each run is played with the built-in ink policy
+    public boolean bot = false; // Whether each run is played by a player rolling out candidate strokes
+    public long budgetMillis = 0; // Time each of the player's decisions may take, or 0 for no limit
+    public RolloutPlayer player; // The player shared by the runs with --bot, or null before the first
+
+    /**
+     * The {@code Run} class holds the outcome of one run.
+     */
+    public static final class Run {
+        public final float score; // Score at the end of the run
+        public final int[] captures; // Balls captured by a matching hole, by colour
+        public final int wrongHoleCaptures; // Balls captured by a hole of another colour
+        public final long clearedAt; // Tick the board was cleared on, or -1 if it was not
+        public final boolean timedOut; // Whether time ran out
+        public final long ticks; // Number of ticks played
+        public final int timeBonus; // Points added for the time left once the board was cleared
+
+        /**
+         * Records the outcome of a run from the engine it was played on.
+         *
+         * @param engine the engine, once the run is over
+         */
+        public Run(Engine engine) {
+            this.score = engine.scoreboard.total;
+            this.captures = engine.level.captures.clone();
+            this.wrongHoleCaptures = engine.level.wrongHoleCaptures;
+            this.clearedAt = engine.clearedAt;
+            this.timedOut = engine.failed;
+            this.ticks = engine.ticks;
+            this.timeBonus = engine.level.scoreAdditionCounter;
+        }
+    }
+
+    /**
+     * Parses the options of a batch simulation. Unknown arguments are ignored. The level given
+     * with {@code --level} is counted from 0.
+     *
+     * @param args the command-line arguments following {@code simulate}
+     * @return the simulator, set up with the parsed options
+     * @throws IllegalArgumentException if a numeric option is given a value that is not a number
+     */
+    public static BatchSimulator parse(String[] args) {
+        BatchSimulator simulator = new BatchSimulator();
+        for (int i = 0; i < args.length; i++) {
+            boolean hasValue = i + 1 < args.length;
+            switch (args[i]) {
+                case "--config":
+                    if (hasValue) {
+                        simulator.configPath = args[++i];
+                    }
+                    break;
+
+                case "--pack":
+                    if (hasValue) {
+                        simulator.packPath = args[++i];
+                    }
+                    break;
+
+                case "--level":
+                    if (hasValue) {
+                        simulator.levelIndex = Math.max(0, intValue(args, ++i));
+                    }
+                    break;
+
+                case "--runs":
+                    if (hasValue) {
+                        simulator.runs = Math.max(1, intValue(args, ++i));
+                    }
+                    break;
+
+                case "--threads":
+                    if (hasValue) {
+                        simulator.threads = Math.max(1, intValue(args, ++i));
+                    }
+                    break;
+
+                case "--seed":
+                    if (hasValue) {
+                        simulator.seed = longValue(args, ++i);
+                    }
+                    break;
+
+                case "--max-seconds":
+                    if (hasValue) {
+                        simulator.maxTicks = (long) Math.max(1, intValue(args, ++i)) * Engine.FPS;
+                    }
+                    break;
+
+                case "--ink":
+                    simulator.ink = true;
+                    break;
+
+                case "--bot":
+                    simulator.bot = true;
+                    break;
+
+                case "--budget-ms":
+                    if (hasValue) {
+                        simulator.budgetMillis = Math.max(0, longValue(args, ++i));
+                    }
+                    break;
+            }
+        }
+        return simulator;
+    }
+
+    /**
+     * Reads the whole number given to an option.
+     *
+     * @param args  the command-line arguments
+     * @param index the index of the value, just after the option
+     * @return the number
+     * @throws IllegalArgumentException if the value is not a whole number
+     */
+    public static int intValue(String[] args, int index) {
+        try {
+            return Integer.parseInt(args[index]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(args[index - 1] + " expects a whole number, not " + args[index]);
+        }
+    }
+
+    /**
+     * Reads the long whole number given to an option.
+     *
+     * @param args  the command-line arguments
+     * @param index the index of the value, just after the option
+     * @return the number
+     * @throws IllegalArgumentException if the value is not a whole number
+     */
+    public static long longValue(String[] args, int index) {
+        try {
+            return Long.parseLong(args[index]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(args[index - 1] + " expects a whole number, not " + args[index]);
+        }
+    }
+
+    /**
+     * Reads the level to play from the level pack or the config file.
+     *
+     * @return the configuration of the level
+     * @throws IOException if the file cannot be read
+     */
+    public LevelConfig loadLevel() throws IOException {
+        LevelSource source = packPath != null
+                ? LevelPack.open(new File(packPath), LevelPack.DEFAULT_CACHED_LEVELS)
+                : new ConfigRepository(configPath);
+        if (levelIndex >= source.levelCount()) {
+            throw new IOException("Level " + levelIndex + " of " + source.levelCount());
+        }
+        return source.level(levelIndex);
+    }
+
+    /**
+     * Plays every run of a level on a fork-join pool, one engine per run.
+     *
+     * @param level the configuration of the level
+     * @return the outcome of each run, in run order
+     * @throws IOException if the layout of the level cannot be read
+     */
+    public List<Run> simulate(LevelConfig level) throws IOException {
+        return simulate(level, 0, runs);
+    }
+
+    /**
+     * Plays a range of runs of a level on a fork-join pool, one engine per run.
+     *
+     * @param level    the configuration of the level
+     * @param firstRun the index of the first run, which its seed is derived from
+     * @param count    the number of runs
+     * @return the outcome of each run, in run order
+     * @throws IOException if the layout of the level cannot be read
+     */
+    public List<Run> simulate(LevelConfig level, int firstRun, int count) throws IOException {
+        LevelTemplate.of(level, Engine.CELLSIZE, Engine.TOPBAR);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(() -> IntStream.range(firstRun, firstRun + count).parallel()
+                    .mapToObj(run -> play(level, run))
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while simulating", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays one run of a level until it is over or the tick limit is reached.
+     *
+     * @param level the configuration of the level
+     * @param run   the index of the run, which its seed is derived from
+     * @return the outcome of the run
+     * @throws UncheckedIOException if the layout of the level cannot be read
+     */
+    public Run play(LevelConfig level, int run) {
+        try {
+            Engine engine = new Engine(level, runSeed(run));
+            if (bot) {
+                engine.player = player();
+            } else if (ink) {
+                engine.ink = new InkPolicy();
+            }
+            engine.run(maxTicks);
+            return new Run(engine);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the player the runs share with {@code --bot}, creating it on first use. Each run is
+     * already on its own thread, so the player rolls out its candidates on the thread of the run.
+     *
+     * @return the player
+     */
+    public synchronized RolloutPlayer player() {
+        if (player == null) {
+            player = new RolloutPlayer(1, budgetMillis * 1_000_000);
+        }
+        return player;
+    }
+
+    /**
+     * Returns the seed of a run. It depends only on the batch seed and the index of the run,
+     * so a batch gives the same results however many threads play it.
+     *
+     * @param run the index of the run
+     * @return the seed of the run
+     */
+    public long runSeed(int run) {
+        return new SplittableRandom(seed + run).nextLong();
+    }
+
+    /**
+     * Sums up the outcomes of a batch as percentiles of each statistic.
+     *
+     * @param results the outcome of each run
+     * @return the report, one statistic per line
+     */
+    public static String report(List<Run> results) {
+        int count = results.size();
+        float[] scores = new float[count];
+        float[] wrongHoles = new float[count];
+        float[][] captures = new float[COLOURS.length][count];
+        ArrayList<Float> clearSeconds = new ArrayList<>();
+        int timeouts = 0;
+        for (int i = 0; i < count; i++) {
+            Run run = results.get(i);
+            scores[i] = run.score;
+            wrongHoles[i] = run.wrongHoleCaptures;
+            for (int colour = 0; colour < COLOURS.length; colour++) {
+                captures[colour][i] = run.captures[colour];
+            }
+            if (run.clearedAt >= 0) {
+                clearSeconds.add((float) run.clearedAt / Engine.FPS);
+            }
+            if (run.timedOut) {
+                timeouts++;
+            }
+        }
+
+        StringBuilder report = new StringBuilder(String.format("%-22s", "statistic"));
+        for (double percentile : PERCENTILES) {
+            report.append(String.format("%10s", "p" + Math.round(percentile * 100)));
+        }
+        report.append('\n');
+        appendRow(report, "score", scores);
+        float[] cleared = new float[clearSeconds.size()];
+        for (int i = 0; i < cleared.length; i++) {
+            cleared[i] = clearSeconds.get(i);
+        }
+        appendRow(report, "time to clear (s)", cleared);
+        appendRow(report, "wrong-hole captures", wrongHoles);
+        for (int colour = 0; colour < COLOURS.length; colour++) {
+            appendRow(report, COLOURS[colour] + " captures", captures[colour]);
+        }
+        report.append(String.format("cleared %d, timed out %d, unfinished %d of %d runs%n",
+                cleared.length, timeouts, count - cleared.length - timeouts, count));
+        return report.toString();
+    }
+
+    /**
+     * Returns a percentile of sorted values, taking the nearest value at or above it.
+     *
+     * @param sorted   the values in ascending order
+     * @param fraction the percentile, between 0 and 1
+     * @return the value at the percentile, or {@code NaN} if there are no values
+     */
+    public static float percentile(float[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return Float.NaN;
+        }
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /**
+     * Appends a line of percentiles of a statistic to the report.
+     */
+    private static void appendRow(StringBuilder report, String name, float[] values) {
+        float[] sorted = values.clone();
+        Arrays.sort(sorted);
+        report.append(String.format("%-22s", name));
+        for (double fraction : PERCENTILES) {
+            report.append(String.format("%10.1f", percentile(sorted, fraction)));
+        }
+        report.append('\n');
+    }
+
+    /**
+     * Plays a batch of runs of a level and prints the report and the throughput.
+     *
+     * @param args the options, such as {@code --config config.json --level 2 --runs 10000 --threads 8}
+     */
+    public static void main(String[] args) {
+        BatchSimulator simulator;
+        try {
+            simulator = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        try {
+            LevelConfig level = simulator.loadLevel();
+            long start = System.nanoTime();
+            List<Run> results = simulator.simulate(level);
+            long elapsed = System.nanoTime() - start;
+            long ticks = 0;
+            for (Run run : results) {
+                ticks += run.ticks;
+            }
+            System.out.print(report(results));
+            System.out.printf("%d runs on %d threads in %d ms: %.0f runs/s, %.0f ticks/s%n", results.size(),
+                    simulator.threads, elapsed / 1_000_000, results.size() * 1e9 / elapsed, ticks * 1e9 / elapsed);
+            if (simulator.player != null) {
+                RolloutPlayer player = simulator.player;
+                System.out.printf("%d decisions, %d rollouts, %d from the table: %.0f games/min%n",
+                        player.decisions.sum(), player.rollouts.sum(), player.cacheHits.sum(),
+                        results.size() * 60e9 / elapsed);
+            }
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+}
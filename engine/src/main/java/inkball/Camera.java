@@ -0,0 +1,66 @@
+package inkball;
+
+/**
+ * The {@code Camera} class tracks which part of a board is shown below the top bar.
+ * Boards no larger than the window never scroll; larger boards can be scrolled
+ * until their edges meet the edges of the window.
+ */
+
+public class Camera {
+
+    public float x = 0; // Horizontal scroll offset in pixels
+    public float y = 0; // Vertical scroll offset in pixels
+    public int viewportWidth; // Width of the visible board area in pixels
+    public int viewportHeight; // Height of the visible board area in pixels
+    public int worldWidth; // Width of the board in pixels
+    public int worldHeight; // Height of the board in pixels, excluding the top bar
+
+    /**
+     * Constructs a new {@code Camera} showing an area of the given size.
+     *
+     * @param viewportWidth  the width of the visible board area in pixels
+     * @param viewportHeight the height of the visible board area in pixels
+     */
+    public Camera(int viewportWidth, int viewportHeight) {
+        this.viewportWidth = viewportWidth;
+        this.viewportHeight = viewportHeight;
+        this.worldWidth = viewportWidth;
+        this.worldHeight = viewportHeight;
+    }
+
+    /**
+     * Sets the size of the board and keeps the camera inside it.
+     *
+     * @param worldWidth  the width of the board in pixels
+     * @param worldHeight the height of the board in pixels, excluding the top bar
+     */
+    public void setWorld(int worldWidth, int worldHeight) {
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        scroll(0, 0);
+    }
+
+    /**
+     * Moves the camera, stopping at the edges of the board.
+     *
+     * @param dx the horizontal distance in pixels
+     * @param dy the vertical distance in pixels
+     */
+    public void scroll(float dx, float dy) {
+        x = Math.max(0, Math.min(x + dx, worldWidth - viewportWidth));
+        y = Math.max(0, Math.min(y + dy, worldHeight - viewportHeight));
+    }
+
+    /**
+     * Returns whether a rectangle of the board is at least partly visible.
+     *
+     * @param left   the x-coordinate of the rectangle on the board
+     * @param top    the y-coordinate of the rectangle on the board, excluding the top bar
+     * @param width  the width of the rectangle
+     * @param height the height of the rectangle
+     * @return {@code true} if the rectangle overlaps the visible area
+     */
+    public boolean isVisible(float left, float top, float width, float height) {
+        return left + width > x && left < x + viewportWidth && top + height > y && top < y + viewportHeight;
+    }
+}
@@ -0,0 +1,146 @@
+package inkball;
+import java.util.*;
+
+/**
+ * The {@code ChunkedBoard} class stores the tiles of a board in fixed-size square chunks
+ * that are only allocated once a tile is placed in them. Empty regions of a large board
+ * cost nothing, and lookups around a point only touch the few chunks that cover it.
+ */
+
+public class ChunkedBoard {
+
+    public static final int CHUNK_SHIFT = 4; // Chunks are 2^CHUNK_SHIFT cells wide and high
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT; // Number of cells along each side of a chunk
+    public static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    public HashMap<Long, Chunk> chunks; // Allocated chunks keyed by their chunk coordinates
+
+    /**
+     * A square block of cells.
+     */
+    public static class Chunk {
+        public final Tile[] tiles = new Tile[CHUNK_SIZE * CHUNK_SIZE]; // Tile of each cell, row by row
+        public final boolean[] coveredByHole = new boolean[CHUNK_SIZE * CHUNK_SIZE]; // Whether a hole covers each cell
+    }
+
+    /**
+     * Constructs a new, empty {@code ChunkedBoard}.
+     */
+    public ChunkedBoard() {
+        this.chunks = new HashMap<>();
+    }
+
+    /**
+     * Returns the tile placed at a cell.
+     *
+     * @param column the column of the cell
+     * @param row    the row of the cell
+     * @return the tile, or {@code null} if the cell is empty
+     */
+    public Tile get(int column, int row) {
+        Chunk chunk = chunkAt(column, row, false);
+        return chunk == null ? null : chunk.tiles[cellIndex(column, row)];
+    }
+
+    /**
+     * Places a tile at a cell, allocating its chunk if needed.
+     *
+     * @param column the column of the cell
+     * @param row    the row of the cell
+     * @param tile   the tile to place, or {@code null} to empty the cell
+     */
+    public void set(int column, int row, Tile tile) {
+        Chunk chunk = chunkAt(column, row, tile != null);
+        if (chunk != null) {
+            chunk.tiles[cellIndex(column, row)] = tile;
+        }
+    }
+
+    /**
+     * Returns whether a cell is covered by a hole anchored in another cell.
+     *
+     * @param column the column of the cell
+     * @param row    the row of the cell
+     * @return {@code true} if the cell is covered by a hole
+     */
+    public boolean isCoveredByHole(int column, int row) {
+        Chunk chunk = chunkAt(column, row, false);
+        return chunk != null && chunk.coveredByHole[cellIndex(column, row)];
+    }
+
+    /**
+     * Marks whether a cell is covered by a hole anchored in another cell.
+     *
+     * @param column  the column of the cell
+     * @param row     the row of the cell
+     * @param covered whether the cell is covered
+     */
+    public void setCoveredByHole(int column, int row, boolean covered) {
+        Chunk chunk = chunkAt(column, row, covered);
+        if (chunk != null) {
+            chunk.coveredByHole[cellIndex(column, row)] = covered;
+        }
+    }
+
+    /**
+     * Adds the tiles in a rectangle of cells to a list, row by row.
+     * Cells outside any allocated chunk are skipped without a lookup per cell.
+     *
+     * @param minColumn the first column, inclusive
+     * @param minRow    the first row, inclusive
+     * @param maxColumn the last column, inclusive
+     * @param maxRow    the last row, inclusive
+     * @param out       the list the tiles are added to
+     */
+    public void collectTiles(int minColumn, int minRow, int maxColumn, int maxRow, ArrayList<Tile> out) {
+        for (int row = minRow; row <= maxRow; row++) {
+            int column = minColumn;
+            while (column <= maxColumn) {
+                int chunkEnd = Math.min(maxColumn, (column | CHUNK_MASK));
+                Chunk chunk = chunkAt(column, row, false);
+                if (chunk != null) {
+                    int base = (row & CHUNK_MASK) << CHUNK_SHIFT;
+                    for (int c = column; c <= chunkEnd; c++) {
+                        Tile tile = chunk.tiles[base + (c & CHUNK_MASK)];
+                        if (tile != null) {
+                            out.add(tile);
+                        }
+                    }
+                }
+                column = chunkEnd + 1;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of chunks allocated so far.
+     *
+     * @return the number of chunks
+     */
+    public int chunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Finds the chunk holding a cell.
+     */
+    private Chunk chunkAt(int column, int row, boolean allocate) {
+        if (column < 0 || row < 0) {
+            return null;
+        }
+        long key = ((long) (row >> CHUNK_SHIFT) << 32) | (column >> CHUNK_SHIFT);
+        Chunk chunk = chunks.get(key);
+        if (chunk == null && allocate) {
+            chunk = new Chunk();
+            chunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Returns the index of a cell inside its chunk.
+     */
+    private static int cellIndex(int column, int row) {
+        return ((row & CHUNK_MASK) << CHUNK_SHIFT) | (column & CHUNK_MASK);
+    }
+}
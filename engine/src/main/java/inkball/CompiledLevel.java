@@ -0,0 +1,227 @@
+package inkball;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The {@code CompiledLevel} class reads a level layout produced by {@link LevelCompiler}.
+ * The file is memory-mapped and read in place: loading a level copies nothing but the
+ * header, and the cell grid and tables are only touched while the level is built.
+ *
+ * <p>The format, in big-endian order, is a header of seven ints (magic, format version,
+ * columns, rows, hole count, spawner count, ball count), one byte per cell in row order,
+ * then the hole, spawner and ball tables. Each cell byte holds a cell type in its high
+ * four bits and a colour in its low four bits. Table entries are a short column, a short
+ * row and, for holes and balls, a colour byte.</p>
+ */
+
+public class CompiledLevel {
+
+    public static final int MAGIC = 0x494B4C31; // "IKL1", first word of every compiled level
+    public static final int FORMAT_VERSION = 1; // Version of the format written by the compiler
+    public static final String EXTENSION = ".ikl"; // File extension of compiled levels
+    public static final int HEADER_BYTES = 7 * 4; // Size of the header
+
+    // Cell types stored in the high four bits of each cell byte
+    public static final int EMPTY = 0; // No tile
+    public static final int BLANK = 1; // A blank tile
+    public static final int WALL = 2; // A wall of the cell's colour
+    public static final int HOLE = 3; // The top-left cell of a hole of the cell's colour
+    public static final int COVERED = 4; // A cell covered by a hole anchored elsewhere
+    public static final int ENTRYPOINT = 5; // A spawner
+    public static final int BALL = 6; // A blank tile with a ball of the cell's colour on it
+
+    public static final int HOLE_ENTRY_BYTES = 5; // Column, row and colour of a hole
+    public static final int SPAWNER_ENTRY_BYTES = 4; // Column and row of a spawner
+    public static final int BALL_ENTRY_BYTES = 5; // Column, row and colour of a ball
+
+    public ByteBuffer buffer; // The whole compiled file
+    public int columns; // Number of columns in the layout
+    public int rows; // Number of rows in the layout
+    public int holeCount; // Number of holes
+    public int spawnerCount; // Number of spawners
+    public int ballCount; // Number of initial balls
+
+    /**
+     * Constructs a new {@code CompiledLevel} over the bytes of a compiled file.
+     *
+     * @param buffer the compiled file
+     * @throws IOException if the bytes are not a compiled level of this format version
+     */
+    public CompiledLevel(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        if (this.buffer.limit() < HEADER_BYTES || this.buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a compiled level");
+        }
+        if (this.buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported compiled level version " + this.buffer.getInt(4));
+        }
+        this.columns = this.buffer.getInt(8);
+        this.rows = this.buffer.getInt(12);
+        this.holeCount = this.buffer.getInt(16);
+        this.spawnerCount = this.buffer.getInt(20);
+        this.ballCount = this.buffer.getInt(24);
+
+        long expected = (long) HEADER_BYTES + (long) columns * rows + (long) holeCount * HOLE_ENTRY_BYTES
+                + (long) spawnerCount * SPAWNER_ENTRY_BYTES + (long) ballCount * BALL_ENTRY_BYTES;
+        if (columns < 0 || rows < 0 || holeCount < 0 || spawnerCount < 0 || ballCount < 0 || expected != this.buffer.limit()) {
+            throw new IOException("Truncated or corrupt compiled level");
+        }
+    }
+
+    /**
+     * Memory-maps a compiled level file.
+     *
+     * @param file the compiled level
+     * @return the mapped level
+     * @throws IOException if the file cannot be mapped or is not a compiled level
+     */
+    public static CompiledLevel map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new CompiledLevel(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Returns whether a layout path names a compiled level.
+     *
+     * @param path the path of the layout
+     * @return {@code true} if the path has the compiled level extension
+     */
+    public static boolean isCompiled(String path) {
+        return path.endsWith(EXTENSION);
+    }
+
+    /**
+     * Returns the type of a cell.
+     *
+     * @param column the column of the cell
+     * @param row    the row of the cell
+     * @return one of the cell type constants
+     */
+    public int cellType(int column, int row) {
+        return (cellByte(column, row) >> 4) & 0xF;
+    }
+
+    /**
+     * Returns the colour of a cell.
+     *
+     * @param column the column of the cell
+     * @param row    the row of the cell
+     * @return the colour index
+     */
+    public int cellColour(int column, int row) {
+        return cellByte(column, row) & 0xF;
+    }
+
+    /**
+     * Returns the column of a spawner.
+     *
+     * @param index the index of the spawner in row order
+     * @return the column
+     */
+    public int spawnerColumn(int index) {
+        return buffer.getShort(spawnerTableOffset() + index * SPAWNER_ENTRY_BYTES);
+    }
+
+    /**
+     * Returns the row of a spawner.
+     *
+     * @param index the index of the spawner in row order
+     * @return the row
+     */
+    public int spawnerRow(int index) {
+        return buffer.getShort(spawnerTableOffset() + index * SPAWNER_ENTRY_BYTES + 2);
+    }
+
+    /**
+     * Returns the column of a hole.
+     *
+     * @param index the index of the hole in row order
+     * @return the column of its top-left cell
+     */
+    public int holeColumn(int index) {
+        return buffer.getShort(holeTableOffset() + index * HOLE_ENTRY_BYTES);
+    }
+
+    /**
+     * Returns the row of a hole.
+     *
+     * @param index the index of the hole in row order
+     * @return the row of its top-left cell
+     */
+    public int holeRow(int index) {
+        return buffer.getShort(holeTableOffset() + index * HOLE_ENTRY_BYTES + 2);
+    }
+
+    /**
+     * Returns the colour of a hole.
+     *
+     * @param index the index of the hole in row order
+     * @return the colour index
+     */
+    public int holeColour(int index) {
+        return buffer.get(holeTableOffset() + index * HOLE_ENTRY_BYTES + 4);
+    }
+
+    /**
+     * Returns the column of an initial ball.
+     *
+     * @param index the index of the ball in row order
+     * @return the column
+     */
+    public int ballColumn(int index) {
+        return buffer.getShort(ballTableOffset() + index * BALL_ENTRY_BYTES);
+    }
+
+    /**
+     * Returns the row of an initial ball.
+     *
+     * @param index the index of the ball in row order
+     * @return the row
+     */
+    public int ballRow(int index) {
+        return buffer.getShort(ballTableOffset() + index * BALL_ENTRY_BYTES + 2);
+    }
+
+    /**
+     * Returns the colour of an initial ball.
+     *
+     * @param index the index of the ball in row order
+     * @return the colour index
+     */
+    public int ballColour(int index) {
+        return buffer.get(ballTableOffset() + index * BALL_ENTRY_BYTES + 4);
+    }
+
+    /**
+     * Returns the raw byte of a cell.
+     */
+    private int cellByte(int column, int row) {
+        return buffer.get(HEADER_BYTES + row * columns + column);
+    }
+
+    /**
+     * Returns the offset of the hole table.
+     */
+    private int holeTableOffset() {
+        return HEADER_BYTES + columns * rows;
+    }
+
+    /**
+     * Returns the offset of the spawner table.
+     */
+    private int spawnerTableOffset() {
+        return holeTableOffset() + holeCount * HOLE_ENTRY_BYTES;
+    }
+
+    /**
+     * Returns the offset of the ball table.
+     */
+    private int ballTableOffset() {
+        return spawnerTableOffset() + spawnerCount * SPAWNER_ENTRY_BYTES;
+    }
+}
@@ -0,0 +1,194 @@
+package inkball;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The {@code ConfigRepository} class parses {@code config.json} and every layout it refers to
+ * once, into immutable {@link LevelConfig} objects that can be served without further I/O.
+ *
+ * <p>When watching, a background thread reloads everything whenever one of the files changes
+ * and swaps the new levels in with a single atomic write. A file that fails to parse, such as
+ * one caught half-saved, leaves the previous levels in place until the next change.</p>
+ */
+
+public class ConfigRepository implements LevelSource {
+
+    public static final long RELOAD_SETTLE_MILLIS = 100; // Wait for further writes before reloading, as editors often save twice
+
+    public String configPath; // The path of the config file
+    public AtomicReference<List<LevelConfig>> levels = new AtomicReference<>(); // The levels of the latest good version
+    public volatile int version = 0; // Number of times the levels have been loaded
+    public WatchService watchService; // Watcher of the config and layout directories, or null when not watching
+    public Thread watcher; // Thread reloading the files on change
+
+    /**
+     * Constructs a new {@code ConfigRepository} and loads the config file and its layouts.
+     *
+     * @param configPath the path of the config file
+     * @throws IOException if the files cannot be read or parsed
+     */
+    public ConfigRepository(String configPath) throws IOException {
+        this.configPath = configPath;
+        reload();
+    }
+
+    /**
+     * Returns the configuration of a level from the latest good version.
+     *
+     * @param levelIndex the index of the level
+     * @return the level configuration
+     */
+    @Override
+    public LevelConfig level(int levelIndex) {
+        return levels.get().get(levelIndex);
+    }
+
+    /**
+     * Returns the number of levels in the latest good version.
+     *
+     * @return the number of levels
+     */
+    @Override
+    public int levelCount() {
+        return levels.get().size();
+    }
+
+    /**
+     * Reads and parses the config file and its layouts, and swaps them in if they are all valid.
+     *
+     * @throws IOException if a file cannot be read or parsed, in which case the previous levels are kept
+     */
+    public synchronized void reload() throws IOException {
+        Map<String, Object> config;
+        try {
+            config = JsonReader.parseObject(new String(Files.readAllBytes(Paths.get(configPath)), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new IOException("Could not parse " + configPath + ": " + e.getMessage(), e);
+        }
+
+        ArrayList<LevelConfig> parsed = new ArrayList<>();
+        try {
+            if (!(config.get("levels") instanceof List)) {
+                throw new IllegalArgumentException("\"levels\" is not an array");
+            }
+            int count = ((List<?>) config.get("levels")).size();
+            for (int i = 0; i < count; i++) {
+                String layoutPath = LevelConfig.layoutPathOf(config, i);
+                List<String> layout = GetConfig.isStreamedLayout(layoutPath)
+                        ? null : Files.readAllLines(Paths.get(layoutPath), StandardCharsets.UTF_8);
+                parsed.add(LevelConfig.fromJSON(config, i, layout));
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid level in " + configPath + ": " + e.getMessage(), e);
+        }
+
+        levels.set(Collections.unmodifiableList(parsed));
+        version++;
+    }
+
+    /**
+     * Starts reloading the levels in the background whenever the config file or a layout changes.
+     *
+     * @throws IOException if the directories cannot be watched
+     */
+    public void startWatching() throws IOException {
+        if (watcher != null) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        registerDirectories();
+
+        watcher = new Thread(this::watch, "inkball-config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Stops watching the files.
+     */
+    public void stopWatching() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                System.err.println("Could not stop watching " + configPath + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the files the current levels were loaded from.
+     *
+     * @return the absolute paths of the config file and every layout
+     */
+    public Set<Path> watchedFiles() {
+        HashSet<Path> files = new HashSet<>();
+        files.add(Paths.get(configPath).toAbsolutePath().normalize());
+        for (LevelConfig level : levels.get()) {
+            files.add(Paths.get(level.layoutPath).toAbsolutePath().normalize());
+        }
+        return files;
+    }
+
+    /**
+     * Registers the directories of the watched files with the watch service.
+     */
+    private void registerDirectories() throws IOException {
+        HashSet<Path> directories = new HashSet<>();
+        for (Path file : watchedFiles()) {
+            directories.add(file.getParent());
+        }
+        for (Path directory : directories) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+        }
+    }
+
+    /**
+     * Waits for changes to the watched files and reloads them, until the watch service is closed.
+     */
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = drain(key);
+
+                Thread.sleep(RELOAD_SETTLE_MILLIS);
+                WatchKey more;
+                while ((more = watchService.poll()) != null) {
+                    changed |= drain(more);
+                }
+
+                if (changed) {
+                    try {
+                        reload();
+                        registerDirectories();
+                    } catch (IOException e) {
+                        System.err.println("Keeping previous levels: " + e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watching stopped
+        }
+    }
+
+    /**
+     * Consumes the events of a watch key and returns whether any of them touched a watched file.
+     */
+    private boolean drain(WatchKey key) {
+        Set<Path> files = watchedFiles();
+        Path directory = (Path) key.watchable();
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path && files.contains(directory.resolve((Path) event.context()))) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+}
@@ -0,0 +1,111 @@
+package inkball;
+import java.io.IOException;
+
+/**
+ * The {@code Engine} class plays one level without a window: no sketch is started, nothing is
+ * drawn and no clock paces the ticks, so it steps as fast as the CPU allows. Each engine has its
+ * own level, queued balls, scoreboard and seeded randomness, so many can run side by side in one
+ * JVM, and an engine given the same seed plays the same way.
+ */
+
+public class Engine {
+
+    public static final int FPS = 30; // Ticks of play in each second of level time
+    public static final int CELLSIZE = 32; // Size of each tile in pixels
+    public static final int TOPBAR = 64; // Height of the top bar
+    public static final int BOARD_WIDTH = 18; // Width of the board shown at once, in tiles
+    public static final int BOARD_HEIGHT = 20; // Height of the board shown at once, top bar included, in tiles
+    public static final int WIDTH = BOARD_WIDTH * CELLSIZE; // Width of the board shown at once, in pixels
+    public static final int HEIGHT = BOARD_HEIGHT * CELLSIZE; // Height of the board shown at once, top bar included, in pixels
+
+    public final LevelConfig levelConfig; // The configuration the level was built from
+    public GetConfig config; // The queued balls and score rules of the level
+    public Level level; // The level being played
+    public Scoreboard scoreboard = new Scoreboard(); // Score of the game played on this engine
+    public long ticks = 0; // Number of ticks stepped
+    public long clearedAt = -1; // Tick the board was cleared on, or -1 while balls are left
+    public boolean completed = false; // Whether the level has been completed and its time added to the score
+    public boolean failed = false; // Whether the level ran out of time
+    public InkPolicy ink; // Draws ink as the level is played, or null to leave the balls alone
+    public RolloutPlayer player; // Draws ink chosen by looking ahead as the level is played, or null
+
+    /**
+     * Constructs a new {@code Engine} and starts its level.
+     *
+     * @param levelConfig the configuration of the level
+     * @param seed        the seed of the level's randomness
+     * @throws IOException if the layout of the level cannot be read
+     */
+    public Engine(LevelConfig levelConfig, long seed) throws IOException {
+        this.levelConfig = levelConfig;
+        this.config = new GetConfig(levelConfig.layoutPath);
+        config.loadConfig(levelConfig);
+        this.level = new Level(BOARD_WIDTH, BOARD_HEIGHT, CELLSIZE, TOPBAR);
+        level.scoreboard = scoreboard;
+        level.seed(seed);
+        level.load(LevelTemplate.of(levelConfig, CELLSIZE, TOPBAR));
+        level.startTimers(config.time, config.spawnInterval, config.realTopBarBalls);
+        level.updateTopBar(config.realTopBarBalls);
+    }
+
+    /**
+     * Steps the level by one tick, as the game does each frame while it is not paused.
+     *
+     * @return {@code true} if a tick was stepped, {@code false} if the level is already over
+     */
+    public boolean step() {
+        if (isOver()) {
+            return false;
+        }
+        level.updateTopBar(config.realTopBarBalls);
+        if (ink != null) {
+            ink.apply(level, ticks);
+        }
+        if (player != null) {
+            player.act(this);
+        }
+        level.updateBalls(config.scoreIncreaseFromHoleCapture, config.scoreDecreaseFromWrongHole,
+                config.scoreIncreaseModifier, config.scoreDecreaseModifier, config.realTopBarBalls);
+        level.tick();
+        ticks++;
+        if (clearedAt < 0 && level.isLevelComplete) {
+            clearedAt = ticks;
+        }
+
+        if (level.isLevelComplete && level.countdownTime == 0) {
+            completed = true;
+        } else if (level.islevelFailed) {
+            failed = true;
+        }
+
+        if (!level.playerLines.isEmpty()) {
+            for (Ball ball : level.balls) {
+                ball.isColliding = false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Steps the level until it is over or a number of ticks has been stepped.
+     *
+     * @param maxTicks the most ticks to step
+     * @return the number of ticks stepped
+     */
+    public long run(long maxTicks) {
+        long stepped = 0;
+        while (stepped < maxTicks && step()) {
+            stepped++;
+        }
+        return stepped;
+    }
+
+    /**
+     * Returns whether the level has been completed or has failed.
+     *
+     * @return {@code true} if no more ticks can be stepped
+     */
+    public boolean isOver() {
+        return completed || failed;
+    }
+}
@@ -0,0 +1,171 @@
+package inkball;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code GetConfig} class is responsible for loading and managing
+ * the game configuration, including level layouts, ball settings, and score rules.
+ * It reads configurations from a JSON file and initializes game elements accordingly.
+ */
+public class GetConfig {
+
+    public static final long STREAMING_LAYOUT_BYTES = 64 * 1024; // Layout files larger than this are streamed instead of loaded whole
+
+    public String configPath; // The path of the config file
+    public String layoutPath; // The path of the level layout file
+    public String[] layoutLevelFile; // The String Array of level layout, or null when the layout is read from its file as the level starts
+    public CompiledLevel compiledLayout; // Compiled layout carried with the level, as in a level pack, or null
+    public int time; // The countdown time for the level
+    public int spawnInterval; // The interval before next ball spawns
+    public float scoreIncreaseModifier; // Modifier for score increase from capturing a ball in the correct hole
+    public float scoreDecreaseModifier; // Modifier for score decrease from capturing a ball in the wrong hole
+    public BallQueue realTopBarBalls; // Balls waiting in the top bar
+    public LevelConfig level; // The parsed configuration loaded last, or null before loading
+    public HashMap<String, Integer> scoreIncreaseFromHoleCapture; // Score increases for correct captures
+    public HashMap<String, Integer> scoreDecreaseFromWrongHole; // Score decreases for wrong captures
+
+
+    /**
+     * Constructs a new {@code GetConfig} object with the specified configuration path.
+     *
+     * @param configPath the path to the configuration JSON file
+     */
+    public GetConfig(String configPath) {
+        this.configPath = configPath;
+        this.scoreIncreaseFromHoleCapture = new HashMap<>();
+        this.scoreDecreaseFromWrongHole = new HashMap<>();
+        this.realTopBarBalls = new BallQueue();
+    }
+
+    /**
+     * Loads the configuration for a specific level from the JSON configuration file.
+     *
+     * <p>This method reads the level layout, time, spawn interval, ball colors,
+     * and score rules from the JSON file. It initializes the game board layout
+     * and creates ball objects based on the configuration.</p>
+     *
+     * @param levelIndex the index of the level to load from the configuration file
+     * @throws UncheckedIOException if the configuration file or the layout cannot be read
+     */
+    public void loadConfig(int levelIndex) {
+        Map<String, Object> config = JsonReader.parseObject(readText(configPath));
+        String layoutPath = LevelConfig.layoutPathOf(config, levelIndex);
+        String[] layout = isStreamedLayout(layoutPath) ? null : readLayOut(layoutPath);
+        loadConfig(LevelConfig.fromJSON(config, levelIndex, layout == null ? null : Arrays.asList(layout)));
+    }
+
+    /**
+     * Loads the configuration of a level that has already been parsed, without any file access.
+     *
+     * @param level the parsed level configuration
+     */
+    public void loadConfig(LevelConfig level) {
+        this.level = level;
+        this.layoutPath = level.layoutPath;
+        this.layoutLevelFile = level.layout == null ? null : level.layout.toArray(new String[0]);
+        this.compiledLayout = level.compiledLayout;
+        this.time = level.time;
+        this.spawnInterval = level.spawnInterval;
+        this.scoreIncreaseModifier = level.scoreIncreaseModifier;
+        this.scoreDecreaseModifier = level.scoreDecreaseModifier;
+
+        queueBalls(level);
+
+        scoreIncreaseFromHoleCapture.putAll(level.scoreIncreaseFromHoleCapture);
+        scoreDecreaseFromWrongHole.putAll(level.scoreDecreaseFromWrongHole);
+    }
+
+    /**
+     * Puts the queued balls back in the top bar as they were when the level was loaded, in place.
+     */
+    public void resetTopBar() {
+        realTopBarBalls.clear();
+        if (level != null) {
+            queueBalls(level);
+        }
+    }
+
+    /**
+     * Adds the balls of a level to the top bar, in the slots their place in the configuration gives them.
+     */
+    private void queueBalls(LevelConfig level) {
+        for (int i = 0; i < level.balls.size(); i++) {
+            int ballColorIndex = getColorIndexFromName(level.balls.get(i));
+            if (ballColorIndex != -1) {
+                realTopBarBalls.add(ballColorIndex, BallQueue.START_X + i * BallQueue.SLOT_SPACING);
+            }
+        }
+    }
+
+    /**
+     * Returns the color index for the given color name.
+     * This index corresponds to the position of the color in {@link Ball#SPRITES}.
+     *
+     * @param colorName the name of the color (e.g., "grey", "orange")
+     * @return the index of the color, or -1 if the color is not recognized
+     */
+    public int getColorIndexFromName(String colorName) {
+        switch (colorName.toLowerCase()) {
+            case "grey":
+                return 0;
+            case "orange":
+                return 1;
+            case "blue":
+                return 2;
+            case "green":
+                return 3;
+            case "yellow":
+                return 4;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Reads the layout of the level from a specified file and returns it as an array of strings.
+     *
+     * @param layoutFile the name of the layout file to read
+     * @return an array of strings representing the level layout
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public String[] readLayOut(String layoutFile) {
+        try {
+            List<String> lines = Files.readAllLines(Paths.get(layoutFile), StandardCharsets.UTF_8);
+            return lines.toArray(new String[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + layoutFile, e);
+        }
+    }
+
+    /**
+     * Reads a whole text file.
+     */
+    private static String readText(String path) {
+        try {
+            return new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + path, e);
+        }
+    }
+
+    /**
+     * Returns whether a layout is read from its file as the level starts rather than loaded with the config:
+     * compiled levels are memory-mapped, and text layouts larger than {@link #STREAMING_LAYOUT_BYTES} are streamed.
+     *
+     * @param layoutFile the name of the layout file
+     * @return {@code true} if the layout is compiled or large
+     */
+    public static boolean isStreamedLayout(String layoutFile) {
+        return CompiledLevel.isCompiled(layoutFile) || new File(layoutFile).length() > STREAMING_LAYOUT_BYTES;
+    }
+
+}
@@ -1,5 +1,4 @@
 package inkball;
-import processing.core.PApplet;
 
 /**
  * The {@code HitBox} class defines a line segment used for collision detection
@@ -36,7 +35,7 @@ public class HitBox {
      * @return the distance between the two points
      */
     public static float distance(float x1, float y1, float x2, float y2) {
-        return PApplet.sqrt(PApplet.pow(x2 - x1, 2) + PApplet.pow(y2 - y1, 2));
+        return (float) Math.sqrt((x2 - x1) * (x2 - x1) + (y2 - y1) * (y2 - y1));
     }
 
     /**
@@ -117,16 +116,16 @@ public class HitBox {
         float dx = x2 - x1;
         float dy = y2 - y1;
         if (dx == 0 && dy == 0) {
-            return PApplet.dist(px, py, x1, y1);
+            return distance(px, py, x1, y1);
         }
 
         float t = ((px - x1) * dx + (py - y1) * dy) / (dx * dx + dy * dy);
-        t = PApplet.constrain(t, 0, 1);
+        t = Math.max(0, Math.min(1, t));
 
         float nearestX = x1 + t * dx;
         float nearestY = y1 + t * dy;
 
-        return PApplet.dist(px, py, nearestX, nearestY);
+        return distance(px, py, nearestX, nearestY);
     }
 
 }
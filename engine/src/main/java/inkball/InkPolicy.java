@@ -0,0 +1,98 @@
+package inkball;
+
+/**
+ * The {@code InkPolicy} class draws ink the way a simple player might, for simulations that
+ * should not assume the balls are left alone. Every so often it looks at each ball and, if the
+ * ball is heading away from the nearest hole it may go into, draws a short stroke just ahead of
+ * it to turn it back towards the hole. Strokes are used up when a ball bounces off them.
+ */
+
+public class InkPolicy {
+
+    public static final int INTERVAL_TICKS = Engine.FPS / 2; // Ticks between looks at the board
+    public static final int MAX_LINES = 8; // Most strokes left on the board at once
+    public static final float LEAD = 22; // Distance from the centre of a ball to the stroke drawn ahead of it
+    public static final float STROKE_LENGTH = 56; // Length of each stroke
+    public static final float POINT_SPACING = 8; // Distance between the points of a stroke
+
+    /**
+     * Looks at the board on every {@link #INTERVAL_TICKS}th tick and draws strokes turning balls
+     * towards their holes.
+     *
+     * @param level the level being played
+     * @param tick  the number of ticks played so far
+     */
+    public void apply(Level level, long tick) {
+        if (tick % INTERVAL_TICKS != 0) {
+            return;
+        }
+        for (int b = 0; b < level.balls.size() && level.playerLines.size() < MAX_LINES; b++) {
+            Ball ball = level.balls.get(b);
+            Tile hole = targetHole(level, ball);
+            if (hole == null) {
+                continue;
+            }
+            float cx = ball.x + ball.diameter / 2;
+            float cy = ball.y + ball.diameter / 2;
+            float dx = hole.x + hole.size / 2f - cx;
+            float dy = hole.y + hole.size / 2f - cy;
+
+            if (Math.abs(dx) > level.cellsize && Math.signum(dx) != Math.signum(ball.i)) {
+                float x = cx + Math.signum(ball.i) * LEAD;
+                addStroke(level, x, cy - STROKE_LENGTH / 2, x, cy + STROKE_LENGTH / 2);
+            } else if (Math.abs(dy) > level.cellsize && Math.signum(dy) != Math.signum(ball.j)) {
+                float y = cy + Math.signum(ball.j) * LEAD;
+                addStroke(level, cx - STROKE_LENGTH / 2, y, cx + STROKE_LENGTH / 2, y);
+            }
+        }
+    }
+
+    /**
+     * Returns the nearest hole a ball scores in: one of its colour, or any hole if either is grey.
+     *
+     * @param level the level being played
+     * @param ball  the ball
+     * @return the hole, or {@code null} if there is none
+     */
+    public Tile targetHole(Level level, Ball ball) {
+        Tile nearest = null;
+        float nearestDistance = Float.MAX_VALUE;
+        for (Tile hole : level.holes) {
+            if (ball.colorIndex != hole.colorIndex && ball.colorIndex != 0 && hole.colorIndex != 0) {
+                continue;
+            }
+            float dx = hole.x - ball.x;
+            float dy = hole.y - ball.y;
+            float distance = dx * dx + dy * dy;
+            if (distance < nearestDistance) {
+                nearest = hole;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Draws a straight stroke as the points a mouse drag would add, if it has enough points to be hit.
+     *
+     * @param level the level being played
+     * @param x1    the x-coordinate the stroke starts at
+     * @param y1    the y-coordinate the stroke starts at
+     * @param x2    the x-coordinate the stroke ends at
+     * @param y2    the y-coordinate the stroke ends at
+     * @return {@code true} if the stroke was drawn
+     */
+    public boolean addStroke(Level level, float x1, float y1, float x2, float y2) {
+        PlayerLine line = new PlayerLine();
+        int steps = (int) (STROKE_LENGTH / POINT_SPACING);
+        for (int step = 0; step <= steps; step++) {
+            float t = (float) step / steps;
+            line.addPoint(x1 + (x2 - x1) * t, y1 + (y2 - y1) * t, level.balls);
+        }
+        if (line.getHitBoxes().isEmpty()) {
+            return false;
+        }
+        level.playerLines.add(line);
+        return true;
+    }
+}
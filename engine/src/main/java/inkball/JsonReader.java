@@ -0,0 +1,267 @@
+package inkball;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code JsonReader} class parses the JSON of {@code config.json} into plain Java values, so
+ * the engine can read its levels without a JSON library: objects become maps keeping the order of
+ * their keys, arrays become lists, numbers become doubles, and strings, booleans and {@code null}
+ * stay as they are. It reads one text in a single pass and keeps no state between calls.
+ */
+
+public class JsonReader {
+
+    public final String text; // The JSON being read
+    public int position = 0; // Index of the next character to read
+
+    /**
+     * Constructs a new {@code JsonReader} at the start of a text.
+     *
+     * @param text the JSON to read
+     */
+    public JsonReader(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses a JSON text.
+     *
+     * @param text the JSON text
+     * @return the value it holds
+     * @throws IllegalArgumentException if the text is not valid JSON
+     */
+    public static Object parse(String text) {
+        JsonReader reader = new JsonReader(text);
+        Object value = reader.readValue();
+        reader.skipWhitespace();
+        if (reader.position < text.length()) {
+            throw reader.error("Unexpected text after the value");
+        }
+        return value;
+    }
+
+    /**
+     * Parses a JSON text holding an object.
+     *
+     * @param text the JSON text
+     * @return the object, by key
+     * @throws IllegalArgumentException if the text is not valid JSON or does not hold an object
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parseObject(String text) {
+        Object value = parse(text);
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    /**
+     * Reads the value starting at the current position.
+     *
+     * @return the value
+     * @throws IllegalArgumentException if no valid value starts there
+     */
+    public Object readValue() {
+        skipWhitespace();
+        if (position >= text.length()) {
+            throw error("Unexpected end of text");
+        }
+        char c = text.charAt(position);
+        switch (c) {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+                return readString();
+            case 't':
+                expect("true");
+                return Boolean.TRUE;
+            case 'f':
+                expect("false");
+                return Boolean.FALSE;
+            case 'n':
+                expect("null");
+                return null;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return readNumber();
+                }
+                throw error("Unexpected character '" + c + "'");
+        }
+    }
+
+    /**
+     * Reads an object, keeping its keys in the order they are written.
+     */
+    private Map<String, Object> readObject() {
+        LinkedHashMap<String, Object> object = new LinkedHashMap<>();
+        position++;
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            return object;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw error("Expected a key");
+            }
+            String key = readString();
+            skipWhitespace();
+            if (peek() != ':') {
+                throw error("Expected ':'");
+            }
+            position++;
+            object.put(key, readValue());
+            skipWhitespace();
+            char c = peek();
+            position++;
+            if (c == '}') {
+                return object;
+            }
+            if (c != ',') {
+                throw error("Expected ',' or '}'");
+            }
+        }
+    }
+
+    /**
+     * Reads an array.
+     */
+    private List<Object> readArray() {
+        ArrayList<Object> array = new ArrayList<>();
+        position++;
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+            return array;
+        }
+        while (true) {
+            array.add(readValue());
+            skipWhitespace();
+            char c = peek();
+            position++;
+            if (c == ']') {
+                return array;
+            }
+            if (c != ',') {
+                throw error("Expected ',' or ']'");
+            }
+        }
+    }
+
+    /**
+     * Reads a string, resolving its escapes.
+     */
+    private String readString() {
+        StringBuilder string = new StringBuilder();
+        position++;
+        while (true) {
+            if (position >= text.length()) {
+                throw error("Unterminated string");
+            }
+            char c = text.charAt(position++);
+            if (c == '"') {
+                return string.toString();
+            }
+            if (c != '\\') {
+                string.append(c);
+                continue;
+            }
+            if (position >= text.length()) {
+                throw error("Unterminated string");
+            }
+            char escape = text.charAt(position++);
+            switch (escape) {
+                case '"':
+                case '\\':
+                case '/':
+                    string.append(escape);
+                    break;
+                case 'b':
+                    string.append('\b');
+                    break;
+                case 'f':
+                    string.append('\f');
+                    break;
+                case 'n':
+                    string.append('\n');
+                    break;
+                case 'r':
+                    string.append('\r');
+                    break;
+                case 't':
+                    string.append('\t');
+                    break;
+                case 'u':
+                    if (position + 4 > text.length()) {
+                        throw error("Unterminated escape");
+                    }
+                    try {
+                        string.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Bad escape");
+                    }
+                    position += 4;
+                    break;
+                default:
+                    throw error("Bad escape '\\" + escape + "'");
+            }
+        }
+    }
+
+    /**
+     * Reads a number.
+     */
+    private Double readNumber() {
+        int start = position;
+        while (position < text.length() && "+-.eE0123456789".indexOf(text.charAt(position)) >= 0) {
+            position++;
+        }
+        try {
+            return Double.valueOf(text.substring(start, position));
+        } catch (NumberFormatException e) {
+            throw error("Bad number");
+        }
+    }
+
+    /**
+     * Reads a literal word such as {@code true}.
+     */
+    private void expect(String word) {
+        if (!text.startsWith(word, position)) {
+            throw error("Expected " + word);
+        }
+        position += word.length();
+    }
+
+    /**
+     * Returns the character at the current position without reading it.
+     */
+    private char peek() {
+        if (position >= text.length()) {
+            throw error("Unexpected end of text");
+        }
+        return text.charAt(position);
+    }
+
+    /**
+     * Moves past any whitespace.
+     */
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    /**
+     * Builds the exception thrown for invalid JSON at the current position.
+     */
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at character " + position);
+    }
+}
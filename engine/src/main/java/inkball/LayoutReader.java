@@ -0,0 +1,60 @@
+package inkball;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The {@code LayoutReader} class reads a level layout one row at a time,
+ * so that large layouts never have to be held in memory as a whole.
+ */
+
+public class LayoutReader implements Closeable {
+
+    public BufferedReader reader; // Source of the layout text
+    public int rowsRead = 0; // Number of rows returned so far
+    public int maxRowLength = 0; // Length of the longest row returned so far
+
+    /**
+     * Constructs a new {@code LayoutReader} over the given text.
+     *
+     * @param reader the layout text
+     */
+    public LayoutReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Opens a layout file.
+     *
+     * @param path the path of the layout file
+     * @return a reader positioned at the first row
+     * @throws IOException if the file cannot be opened
+     */
+    public static LayoutReader open(String path) throws IOException {
+        return new LayoutReader(new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the next row of the layout.
+     *
+     * @return the row, or {@code null} at the end of the layout
+     * @throws IOException if the layout cannot be read
+     */
+    public String nextRow() throws IOException {
+        String row = reader.readLine();
+        if (row != null) {
+            rowsRead++;
+            maxRowLength = Math.max(maxRowLength, row.length());
+        }
+        return row;
+    }
+
+    /**
+     * Closes the underlying reader.
+     *
+     * @throws IOException if the reader cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
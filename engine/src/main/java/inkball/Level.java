@@ -0,0 +1,834 @@
+package inkball;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * The {@code Level} class manages the layout, logic, and behavior of each level in the Inkball game.
+ * It handles ball spawning, tile movements, score updates, and rendering of game elements.
+ */
+
+public class Level {
+
+    public int boardWidth; // Width of the board
+    public int boardHeight; // Height of the board in tiles
+    public int cellsize; // Size of each tile in pixels
+    public int topbar; // Height of the top bar
+    public ChunkedBoard board; // Tiles of the board, stored in lazily allocated chunks
+    public int columns = 0; // Number of columns in the loaded layout
+    public int rows = 0; // Number of rows in the loaded layout
+    public Camera camera; // Part of the board shown below the top bar
+
+    public ArrayList<Ball> balls; // List of active balls
+    public ArrayList<Tile> tiles; // List of tiles on the board
+    public ArrayList<Tile> holes; // List of holes on the board
+    public ArrayList<Tile> spawner; // List of spawners
+    public ArrayList<PlayerLine> playerLines; // List of player lines
+    public boolean isLevelInitialized = false; // Whether the level is initialized
+    public long seed; // Seed of the level's randomness, which starts over from it on each reset
+    public SplittableRandom spawnRandom; // Chooses the spawner each ball comes out of
+    public SplittableRandom ballRandom; // Draws the seed of the generator of each ball placed on the board
+    public int spawnDraws = 0; // Number of spawners chosen since the level was seeded
+    public int ballSeedDraws = 0; // Number of ball seeds drawn since the level was seeded
+    public float score = 0; // Record the scores for current level
+    public Scoreboard scoreboard = new Scoreboard(); // Score of the game this level is played in
+    public int[] captures = new int[5]; // Number of balls captured by a matching hole, by colour
+    public int wrongHoleCaptures = 0; // Number of balls captured by a hole of another colour
+
+    public boolean isLevelComplete = false; // Whether the level completes
+    public int yellowTileMoveCounter = 0; // Number of times the yellow tiles have moved
+    public int yellowTileTopLeftX, yellowTileTopLeftY, yellowTileTopLeftDirection; // // Movement state of top-left yellow tile
+    public int yellowTileBottomRightX, yellowTileBottomRightY, yellowTileBottomRightDirection; // // Movement state of bottom-right yellow tile
+    public int scoreAdditionCounter = 0; // Number of points added for the time left
+
+    public float countdownTime; // Countdown timer for the level
+    public float spawnCountdown; // Time left before the next ball spawns
+
+    public boolean islevelFailed = false; // Whether the level fails
+
+    public ArrayList<Ball> initialisedBalls; // Balls placed by the layout, reused when the level is reset
+    public boolean implicitBlankTiles = false; // Whether blank cells are left out of the board and drawn on the fly
+    public ArrayList<Tile> visibleTiles = new ArrayList<>(); // Tiles found by the last visibility query
+    public ArrayList<Tile> nearbyTiles = new ArrayList<>(); // Tiles found by the last neighbourhood query
+    public ArrayList<Tile> nearbyHoleCells = new ArrayList<>(); // Tiles of the cells last searched for holes around a ball
+    public ArrayList<Tile> blankTilePool = new ArrayList<>(); // Reusable blank tiles standing in for empty cells
+    public long boardVersion = 0; // Bumped whenever tiles are placed, replaced or reset, so copies of their geometry can tell they are stale
+    public LevelTemplate template; // The fixed part of the level it was loaded from, or null before loading
+
+    public static final int BONUS_CLOCK_RATE = 16; // Ticks of level time that pass each tick once the level is complete
+    public static final int YELLOW_TILE_MOVE_TICKS = Math.max(1, (int) (0.067f * Engine.FPS)); // Ticks between moves of the yellow tiles
+    public static final int SCORE_ADDITION_TICKS = 3; // Ticks between points added for the time left
+    public TimingWheel timers = new TimingWheel(); // Timers of the level, advanced once per tick of play
+    public boolean timersStarted = false; // Whether the spawn and timeout timers have been started
+    public int levelTime; // The time allowed for the level, in seconds
+    public int spawnInterval; // Seconds between spawns
+    public BallQueue topBarBalls; // The balls queued for this level, or null before the timers start
+    public long clockTicks = 0; // Level time passed in ticks, running faster once the level is complete
+    public TimingWheel.Timer spawnTimer; // Timer spawning the next ball, or null
+    public TimingWheel.Timer timeoutTimer; // Timer ending the level when its time runs out, or null
+    public TimingWheel.Timer yellowTileTimer; // Timer moving the yellow tiles once the level is complete, or null
+    public TimingWheel.Timer scoreTimer; // Timer adding points for the time left once the level is complete, or null
+
+
+    /**
+     * Constructs a new {@code Level} object with the given parameters.
+     *
+     * @param boardWidth  the width of the board shown at once, in tiles
+     * @param boardHeight the height of the board shown at once, top bar included, in tiles
+     * @param cellsize    the size of each tile in pixels
+     * @param topbar      the height of the top bar
+     */
+    public Level(int boardWidth, int boardHeight, int cellsize, int topbar) {
+        this.boardHeight = boardHeight;
+        this.boardWidth = boardWidth;
+        this.cellsize = cellsize;
+        this.topbar = topbar;
+        this.board = new ChunkedBoard();
+        this.camera = new Camera(boardWidth * cellsize, boardHeight * cellsize - topbar);
+        this.balls = new ArrayList<>();
+        this.tiles = new ArrayList<>();
+        this.holes = new ArrayList<>();
+        this.playerLines = new ArrayList<>();
+        this.spawner = new ArrayList<>();
+        this.initialisedBalls = new ArrayList<>();
+
+        seed(Ball.DEFAULT_SEED);
+        resetYellowTiles();
+    }
+
+    /**
+     * Seeds the level's randomness. Spawner choices and ball directions each draw from a generator
+     * of their own, split from the seed, so the draws of one never shift the other. It is called
+     * before the level is loaded; the same seed and the same inputs then play the level the same way.
+     *
+     * @param seed the seed
+     */
+    public void seed(long seed) {
+        this.seed = seed;
+        SplittableRandom random = new SplittableRandom(seed);
+        spawnRandom = random.split();
+        ballRandom = random.split();
+        spawnDraws = 0;
+        ballSeedDraws = 0;
+    }
+
+    /**
+     * Puts the level's randomness back to where it was after the given numbers of draws from
+     * its seed, as when a saved game is restored.
+     *
+     * @param seed          the seed
+     * @param spawnDraws    the number of spawners chosen
+     * @param ballSeedDraws the number of ball seeds drawn
+     */
+    public void restoreRandom(long seed, int spawnDraws, int ballSeedDraws) {
+        seed(seed);
+        for (int draw = 0; draw < spawnDraws; draw++) {
+            chooseSpawner();
+        }
+        for (int draw = 0; draw < ballSeedDraws; draw++) {
+            nextBallSeed();
+        }
+    }
+
+    /**
+     * Draws the seed of the generator of a ball placed on the board.
+     *
+     * @return the seed
+     */
+    public long nextBallSeed() {
+        ballSeedDraws++;
+        return ballRandom.nextLong();
+    }
+
+    /**
+     * Chooses the spawner the next ball comes out of.
+     *
+     * @return the spawner
+     */
+    public Tile chooseSpawner() {
+        spawnDraws++;
+        return spawner.get(spawnRandom.nextInt(spawner.size()));
+    }
+
+    /**
+     * Moves the yellow tiles back to the top-left and bottom-right corners of the board.
+     */
+    public void resetYellowTiles() {
+        yellowTileMoveCounter = 0;
+        yellowTileTopLeftX = 0;
+        yellowTileTopLeftY = 0;
+        yellowTileTopLeftDirection = 0;
+
+        yellowTileBottomRightX = this.boardWidth - 1;
+        yellowTileBottomRightY = this.boardHeight - 3;
+        yellowTileBottomRightDirection = 2;
+    }
+
+    /**
+     * Loads the layout for the current level based on the provided layout data.
+     *
+     * @param levelLayOut the layout of the level as an array of strings
+     */
+    public void getLevel(String[] levelLayOut) {
+        if (isLevelInitialized) {
+            return;
+        }
+        load(LevelTemplate.fromLayout(Arrays.asList(levelLayOut), cellsize, topbar));
+    }
+
+    /**
+     * Loads the layout for the current level one row at a time from a reader.
+     * Blank cells are not stored, so memory grows with the number of walls, holes
+     * and spawners rather than with the size of the map.
+     *
+     * @param reader the reader positioned at the first row of the layout
+     * @throws IOException if the layout cannot be read
+     */
+    public void getLevel(LayoutReader reader) throws IOException {
+        if (isLevelInitialized) {
+            return;
+        }
+        load(LevelTemplate.fromReader(reader, cellsize, topbar));
+    }
+
+    /**
+     * Builds the level from a compiled layout. The cell grid is read in place from the mapped
+     * file and blank cells are drawn on the fly, so no text is parsed and no blank tiles are created.
+     *
+     * @param compiled the compiled layout
+     */
+    public void getLevel(CompiledLevel compiled) {
+        if (isLevelInitialized) {
+            return;
+        }
+        load(LevelTemplate.fromCompiled(compiled, cellsize, topbar));
+    }
+
+    /**
+     * Builds the tiles, holes, spawners and balls of the level from a template.
+     * The walls share their hit boxes with the template.
+     *
+     * @param template the template of the layout, built for this level's cell size and top bar
+     */
+    public void load(LevelTemplate template) {
+        if (isLevelInitialized) {
+            return;
+        }
+        if (template.cellsize != cellsize || template.topbar != topbar) {
+            throw new IllegalArgumentException("Template built for cells of " + template.cellsize + " pixels, not " + cellsize);
+        }
+        this.template = template;
+        implicitBlankTiles = template.implicitBlankTiles;
+
+        for (LevelTemplate.Cell cell : template.tiles) {
+            Tile tile = new Tile(cell.x, cell.y, cell.size, cell.type, cell.colorIndex, cell.hitBoxes);
+            addTile(cell.column, cell.row, tile);
+            if (cell.type == Tile.TileType.HOLE) {
+                holes.add(tile);
+                board.setCoveredByHole(cell.column + 1, cell.row, true);
+                board.setCoveredByHole(cell.column, cell.row + 1, true);
+                board.setCoveredByHole(cell.column + 1, cell.row + 1, true);
+            }
+        }
+        for (LevelTemplate.Cell cell : template.spawners) {
+            spawner.add(new Tile(cell.x, cell.y, cell.size, Tile.TileType.ENTRYPOINT, 0));
+        }
+        for (LevelTemplate.Cell cell : template.balls) {
+            Ball ball = new Ball(cell.x, cell.y, cell.colorIndex, nextBallSeed());
+            initialisedBalls.add(ball);
+            addBall(ball);
+        }
+
+        columns = template.columns;
+        rows = template.rows;
+        finishLoading();
+    }
+
+    /**
+     * Puts the level back the way it started, in place: walls are repaired, the starting balls
+     * return to their cells, the ink is cleared and the counters and timers are reset. The randomness
+     * starts over from the level's seed. Nothing is parsed and, apart from the generators, nothing is
+     * allocated; the timers must be started again.
+     *
+     * @throws IllegalStateException if the level has not been loaded
+     */
+    public void reset() {
+        if (template == null) {
+            throw new IllegalStateException("The level has not been loaded");
+        }
+        for (int i = 0; i < tiles.size(); i++) {
+            LevelTemplate.Cell cell = template.tiles.get(i);
+            tiles.get(i).restore(cell.type);
+        }
+        boardVersion++;
+
+        balls.clear();
+        playerLines.clear();
+        seed(seed);
+        for (int i = 0; i < initialisedBalls.size(); i++) {
+            LevelTemplate.Cell cell = template.balls.get(i);
+            Ball ball = initialisedBalls.get(i);
+            ball.seedRandom(nextBallSeed());
+            ball.place(cell.x, cell.y);
+            ball.colorIndex = cell.colorIndex;
+            fitBallToBoard(ball);
+            addBall(ball);
+        }
+
+        stopTimers();
+        score = 0;
+        Arrays.fill(captures, 0);
+        wrongHoleCaptures = 0;
+        isLevelComplete = false;
+        islevelFailed = false;
+        scoreAdditionCounter = 0;
+        resetYellowTiles();
+        camera.x = 0;
+        camera.y = 0;
+    }
+
+    /**
+     * Adds a ball placed by the layout or the editor, once the board is built, and lets it bounce off any tile it starts against.
+     *
+     * @param ball the ball to add
+     */
+    public void addBall(Ball ball) {
+        balls.add(ball);
+        ball.checkCollisions(collectNearbyTiles(ball), playerLines);
+    }
+
+    /**
+     * Fits the camera and the ball bounds to the loaded layout and marks the level as initialized.
+     */
+    public void finishLoading() {
+        camera.setWorld(columns * cellsize, rows * cellsize);
+        for (Ball ball : balls) {
+            fitBallToBoard(ball);
+        }
+        isLevelInitialized = true;
+    }
+
+    /**
+     * Places a tile on the board.
+     *
+     * @param column the column of the tile
+     * @param row    the row of the tile
+     * @param tile   the tile to place
+     */
+    public void addTile(int column, int row, Tile tile) {
+        board.set(column, row, tile);
+        tile.index = tiles.size();
+        tiles.add(tile);
+        boardVersion++;
+    }
+
+    /**
+     * Replaces the tile in a cell, taking its place in the list of tiles, so the other tiles keep
+     * their positions and no list is searched or shifted. A cell left empty keeps a blank tile in
+     * the list, off the board. A tile put in a cell that had none is added at the end.
+     *
+     * @param column the column of the cell
+     * @param row    the row of the cell
+     * @param tile   the tile to place, or {@code null} to leave the cell empty
+     */
+    public void setTile(int column, int row, Tile tile) {
+        Tile replaced = board.get(column, row);
+        if (replaced != null && replaced.index >= 0) {
+            Tile slot = tile != null ? tile
+                    : new Tile(replaced.x, replaced.y, cellsize, Tile.TileType.TILE, 0);
+            slot.index = replaced.index;
+            tiles.set(replaced.index, slot);
+            replaced.index = -1;
+            board.set(column, row, tile);
+            boardVersion++;
+        } else if (tile != null) {
+            addTile(column, row, tile);
+        } else {
+            board.set(column, row, null);
+            boardVersion++;
+        }
+    }
+
+    /**
+     * Lets a ball bounce off the edges of the loaded layout, or of the board shown at once if the layout is smaller.
+     *
+     * @param ball the ball on this level
+     */
+    public void fitBallToBoard(Ball ball) {
+        ball.boundsWidth = Math.max(boardWidth * cellsize, camera.worldWidth);
+        ball.boundsHeight = Math.max(boardHeight * cellsize, camera.worldHeight + topbar);
+    }
+
+    /**
+     * Finds the tiles a ball can collide with this tick: the walls and other tiles in the
+     * cells around it, followed by the holes that can pull in a ball this tick. A hole checked
+     * by a ball attracts every ball in its reach, so the holes are looked up around each ball on
+     * the board, by the cell of their top-left corner, with {@link Ball#ATTRACTION_RADIUS} as
+     * margin and, for the moving ball, its speed on top. Holes out of every ball's reach attract
+     * nothing and are left out, so the search never goes through the level's whole list.
+     *
+     * @param ball the ball to look around
+     * @return the tiles found, valid until the next call
+     */
+    public ArrayList<Tile> collectNearbyTiles(Ball ball) {
+        nearbyTiles.clear();
+        int minColumn = Math.max(0, (int) Math.floor(ball.x / cellsize) - 2);
+        int minRow = Math.max(0, (int) Math.floor((ball.y - topbar) / cellsize) - 2);
+        int maxColumn = (int) Math.floor((ball.x + ball.diameter) / cellsize) + 1;
+        int maxRow = (int) Math.floor((ball.y + ball.diameter - topbar) / cellsize) + 1;
+        if (maxColumn >= 0 && maxRow >= 0) {
+            board.collectTiles(minColumn, minRow, maxColumn, maxRow, nearbyTiles);
+        }
+        nearbyTiles.removeIf(tile -> tile.type == Tile.TileType.HOLE);
+
+        int firstHole = nearbyTiles.size();
+        collectNearbyHoles(ball, Math.max(Math.abs(ball.i), Math.abs(ball.j)), firstHole);
+        for (Ball other : balls) {
+            if (other != ball) {
+                collectNearbyHoles(other, 0, firstHole);
+            }
+        }
+        return nearbyTiles;
+    }
+
+    /**
+     * Appends the holes whose centres are within {@link Ball#ATTRACTION_RADIUS} and a margin of
+     * a ball's centre along both axes to the nearby tiles, skipping those already found.
+     *
+     * @param ball      the ball to look around
+     * @param margin    the distance in pixels added to the attraction radius
+     * @param firstHole the index of the first hole in the nearby tiles
+     */
+    private void collectNearbyHoles(Ball ball, float margin, int firstHole) {
+        float reach = Ball.ATTRACTION_RADIUS + margin;
+        float centreX = ball.x + ball.diameter / 2 - cellsize;
+        float centreY = ball.y + ball.diameter / 2 - topbar - cellsize;
+        int minColumn = Math.max(0, (int) Math.floor((centreX - reach) / cellsize));
+        int minRow = Math.max(0, (int) Math.floor((centreY - reach) / cellsize));
+        int maxColumn = (int) Math.floor((centreX + reach) / cellsize);
+        int maxRow = (int) Math.floor((centreY + reach) / cellsize);
+        if (maxColumn < 0 || maxRow < 0) {
+            return;
+        }
+        nearbyHoleCells.clear();
+        board.collectTiles(minColumn, minRow, maxColumn, maxRow, nearbyHoleCells);
+        for (Tile tile : nearbyHoleCells) {
+            if (tile.type == Tile.TileType.HOLE && nearbyTiles.subList(firstHole, nearbyTiles.size()).indexOf(tile) < 0) {
+                nearbyTiles.add(tile);
+            }
+        }
+    }
+
+    /**
+     * Finds the tiles inside the camera's view, row by row, with one cell of margin.
+     * When blank cells are drawn on the fly, pooled blank tiles stand in for them.
+     *
+     * @return the tiles found, valid until the next call
+     */
+    public ArrayList<Tile> collectVisibleTiles() {
+        visibleTiles.clear();
+        int minColumn = Math.max(0, (int) (camera.x / cellsize) - 1);
+        int minRow = Math.max(0, (int) (camera.y / cellsize) - 1);
+        int maxColumn = Math.min(columns - 1, (int) ((camera.x + camera.viewportWidth) / cellsize));
+        int maxRow = Math.min(rows - 1, (int) ((camera.y + camera.viewportHeight) / cellsize));
+
+        if (!implicitBlankTiles) {
+            board.collectTiles(minColumn, minRow, maxColumn, maxRow, visibleTiles);
+            return visibleTiles;
+        }
+
+        int blanks = 0;
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                Tile tile = board.get(column, row);
+                if (tile == null) {
+                    if (board.isCoveredByHole(column, row)) {
+                        continue;
+                    }
+                    if (blanks == blankTilePool.size()) {
+                        blankTilePool.add(new Tile(0, 0, cellsize, Tile.TileType.TILE, 0));
+                    }
+                    tile = blankTilePool.get(blanks++);
+                    tile.x = column * cellsize;
+                    tile.y = row * cellsize + topbar;
+                }
+                visibleTiles.add(tile);
+            }
+        }
+        return visibleTiles;
+    }
+
+    /**
+     * Starts the timers of the level: one spawning a ball every spawn interval and one failing the
+     * level if balls are still in play when its time runs out. Any earlier timers are stopped.
+     *
+     * @param time          the time allowed for the level, in seconds
+     * @param spawnInterval the interval between spawning balls, in seconds
+     * @param topBarBalls   the balls queued in the top bar
+     */
+    public void startTimers(int time, int spawnInterval, BallQueue topBarBalls) {
+        int spawnTicks = Math.max(1, spawnInterval * Engine.FPS);
+        resumeTimers(time, spawnInterval, topBarBalls, 0, spawnTicks, (long) time * Engine.FPS, -1, -1);
+    }
+
+    /**
+     * Starts the timers of the level part way through, as when a saved game is restored: the level
+     * clock is set and each timer is given the ticks it had left. A timer given fewer than zero
+     * ticks is not started. Any earlier timers are stopped.
+     *
+     * @param time              the time allowed for the level, in seconds
+     * @param spawnInterval     the interval between spawning balls, in seconds
+     * @param topBarBalls       the balls queued in the top bar
+     * @param clockTicks        the level time passed, in ticks
+     * @param spawnTicksLeft    the ticks before the next spawn
+     * @param timeoutTicksLeft  the ticks before the level times out
+     * @param yellowTicksLeft   the ticks before the yellow tiles next move
+     * @param scoreTicksLeft    the ticks before the next point is added for the time left
+     */
+    public void resumeTimers(int time, int spawnInterval, BallQueue topBarBalls, long clockTicks, long spawnTicksLeft,
+                             long timeoutTicksLeft, long yellowTicksLeft, long scoreTicksLeft) {
+        stopTimers();
+        this.levelTime = time;
+        this.spawnInterval = spawnInterval;
+        this.topBarBalls = topBarBalls;
+        this.clockTicks = clockTicks;
+        int spawnTicks = Math.max(1, spawnInterval * Engine.FPS);
+        if (spawnTicksLeft >= 0) {
+            spawnTimer = timers.schedule(spawnTicksLeft, spawnTicks, () -> spawnBall(this.topBarBalls));
+        }
+        if (timeoutTicksLeft >= 0) {
+            timeoutTimer = timers.schedule(timeoutTicksLeft, this::timeOut);
+        }
+        if (yellowTicksLeft >= 0) {
+            yellowTileTimer = timers.schedule(yellowTicksLeft, YELLOW_TILE_MOVE_TICKS, this::updateYellowTileMovement);
+        }
+        if (scoreTicksLeft >= 0) {
+            scoreTimer = timers.schedule(scoreTicksLeft, SCORE_ADDITION_TICKS, this::incrementScoreWithTime);
+        }
+        timersStarted = true;
+        updateCountdowns();
+    }
+
+    /**
+     * Cancels every timer of the level and sets its clock back to the start.
+     */
+    public void stopTimers() {
+        timers.clear();
+        spawnTimer = null;
+        timeoutTimer = null;
+        yellowTileTimer = null;
+        scoreTimer = null;
+        timersStarted = false;
+        clockTicks = 0;
+        countdownTime = 0;
+        spawnCountdown = 0;
+    }
+
+    /**
+     * Advances the level by one tick of play: moves its clock on and runs the timers due.
+     * It is not called while the game is paused, which freezes every timer.
+     */
+    public void tick() {
+        clockTicks += isLevelComplete ? BONUS_CLOCK_RATE : 1;
+        timers.advance();
+        updateCountdowns();
+    }
+
+    /**
+     * Fails the level if any ball is still on the board or queued when its time runs out.
+     */
+    public void timeOut() {
+        if (!isLevelComplete && (!balls.isEmpty() || (topBarBalls != null && !topBarBalls.isEmpty()))) {
+            islevelFailed = true;
+        }
+    }
+
+    /**
+     * Marks the level as complete: stops spawning and the timeout, and starts the yellow tiles
+     * and the points added for the time left.
+     */
+    public void completeLevel() {
+        isLevelComplete = true;
+        if (spawnTimer != null) {
+            spawnTimer.cancel();
+        }
+        if (timeoutTimer != null) {
+            timeoutTimer.cancel();
+        }
+        yellowTileTimer = timers.schedule(YELLOW_TILE_MOVE_TICKS - 1, YELLOW_TILE_MOVE_TICKS, this::updateYellowTileMovement);
+        scoreTimer = timers.schedule(SCORE_ADDITION_TICKS - 1, SCORE_ADDITION_TICKS, this::incrementScoreWithTime);
+    }
+
+    /**
+     * Works out the time left in the level and before the next spawn from the level clock and the spawn timer.
+     */
+    public void updateCountdowns() {
+        countdownTime = Math.max(0, levelTime - (int) (clockTicks / Engine.FPS));
+        if (topBarBalls == null || topBarBalls.isEmpty() || spawnTimer == null || !spawnTimer.isActive()) {
+            spawnCountdown = 0.0f;
+        } else {
+            spawnCountdown = (float) spawnTimer.remaining() / Engine.FPS;
+        }
+    }
+
+    /**
+     * Slides the queued balls towards the launch position. The countdowns shown are the ones
+     * worked out on the last tick.
+     *
+     * @param topBarBalls the balls queued in the top bar
+     */
+    public void updateTopBar(BallQueue topBarBalls) {
+        if (islevelFailed) {
+            return;
+        }
+
+        float launchPositionX = 20;
+
+        boolean firstBallLaunched = !topBarBalls.isEmpty() && topBarBalls.get(0).isLaunched;
+
+        if (!topBarBalls.isEmpty() && !topBarBalls.get(0).isLaunched) {
+            topBarBalls.get(0).isLaunched = true;
+        }
+
+        if (!firstBallLaunched) {
+            return;
+        }
+
+        int maxBalls = Math.min(topBarBalls.size(), 5);
+        for (int i = 0; i < maxBalls; i++) {
+            Ball ball = topBarBalls.get(i);
+            if (i == 0) {
+                if ((ball.x >= launchPositionX)) {
+                    ball.x -= 1;
+                }
+            } else {
+                float previousBallPosition = topBarBalls.get(i - 1).x + topBarBalls.get(i - 1).diameter + 8;
+                if ((ball.x > previousBallPosition)) {
+                    ball.x -= 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws the top bar with game information such as score, time, and balls through the given renderer.
+     * The countdowns shown are the ones worked out on the last tick.
+     *
+     * @param renderer    the renderer to draw through
+     * @param topBarBalls the balls queued in the top bar
+     * @param isPaused    whether the game is currently paused
+     */
+    public void drawTopBar(Renderer renderer, BallQueue topBarBalls, boolean isPaused) {
+        int width = boardWidth * cellsize;
+        renderer.rect(220, 0, 0, width, topbar);
+        renderer.rect(0, 15, 15, 160, 32);
+
+        if (islevelFailed) {
+            renderer.text("=== TIME'S UP ===", 240, 50, 15);
+            drawTopBarText(renderer, width, scoreboard.total, countdownTime, spawnCountdown, isPaused);
+            return;
+        }
+
+        int maxBalls = Math.min(topBarBalls.size(), 5);
+        for (int i = 0; i < maxBalls; i++) {
+            Ball ball = topBarBalls.get(i);
+            renderer.sprite(Ball.SPRITES[ball.colorIndex], ball.x, ball.y, ball.diameter, ball.diameter);
+            renderer.rect(220, 175, 15, width - 175, topbar - 30);
+        }
+
+        drawTopBarText(renderer, width, scoreboard.total, countdownTime, spawnCountdown, isPaused);
+    }
+
+    /**
+     * Draws the score, the level countdown, the pause notice and the spawn countdown of the top bar.
+     *
+     * @param renderer       the renderer to draw through
+     * @param width          the width of the top bar
+     * @param totalScore     the score to show
+     * @param countdownTime  the time left in the level
+     * @param spawnCountdown the time left before the next ball spawns
+     * @param isPaused       whether the game is currently paused
+     */
+    public static void drawTopBarText(Renderer renderer, int width, float totalScore, float countdownTime, float spawnCountdown, boolean isPaused) {
+        renderer.text("Score: " + (int)totalScore, width - 150, 30, 24);
+        renderer.text("Time:  " + (int)countdownTime, width - 150, 50, 24);
+
+        if (isPaused) {
+            renderer.text("*** PAUSED ***", (float) width / 2 - 25, 30, 15);
+        }
+
+        renderer.text(String.format("%.1f", spawnCountdown), 190, 50, 24);
+    }
+
+    /**
+     * Spawns the ball at the front of the top bar at one of the entry points on the board,
+     * if there is a ball queued and an entry point to spawn it from. Run by the spawn timer.
+     *
+     * @param topBarBalls the balls queued in the top bar
+     */
+    public void spawnBall(BallQueue topBarBalls) {
+        if (islevelFailed) {
+            return;
+        }
+
+        if (!spawner.isEmpty() && !topBarBalls.isEmpty()) {
+            Tile selectedSpawner = chooseSpawner();
+
+            Ball ballToSpawn = new Ball(0, 0, topBarBalls.poll(), nextBallSeed());
+            ballToSpawn.x = selectedSpawner.x + (float) cellsize / 2 - ballToSpawn.diameter / 2;
+            ballToSpawn.y = selectedSpawner.y + (float) cellsize / 2 - ballToSpawn.diameter / 2;
+            fitBallToBoard(ballToSpawn);
+            balls.add(ballToSpawn);
+            ballToSpawn.isLaunched = true;
+        }
+    }
+
+    /**
+     * Updates the state of all active balls and checks for collisions with tiles.
+     * The level is complete once no ball is left on the board or in the top bar.
+     *
+     * @param scoreIncrease           the score increase map for correct captures
+     * @param scoreDecrease           the score decrease map for incorrect captures
+     * @param scoreIncreasedMultiplier the multiplier for score increases
+     * @param scoreDecreasedMultiplier the multiplier for score decreases
+     * @param realTopBarBalls         the balls queued in the top bar
+     */
+    public void updateBalls(HashMap<String, Integer> scoreIncrease, HashMap<String, Integer> scoreDecrease, float scoreIncreasedMultiplier, float scoreDecreasedMultiplier, BallQueue realTopBarBalls) {
+        ArrayList<Ball> copyBalls = new ArrayList<>(balls);
+
+        if (!isLevelComplete && balls.isEmpty() && realTopBarBalls.isEmpty()) {
+            completeLevel();
+        }
+
+
+        for (Ball ball : copyBalls) {
+            if (!ball.isCaptured) {
+                ball.update(collectNearbyTiles(ball), playerLines, balls);
+            }
+
+            if (ball.isCaptured && !holes.isEmpty()) {
+                if (ball.colorIndex == ball.attractedHole.colorIndex || ball.colorIndex == 0 || ball.attractedHole.colorIndex == 0) {
+                    captures[ball.colorIndex]++;
+                    score += scoreIncrease.get(ball.getColorName()) * scoreIncreasedMultiplier;
+                    scoreboard.total += scoreIncrease.get(ball.getColorName()) * scoreIncreasedMultiplier;
+                } else {
+                    wrongHoleCaptures++;
+                    score -= scoreDecrease.get(ball.getColorName()) * scoreDecreasedMultiplier;
+                    scoreboard.total -= scoreDecrease.get(ball.getColorName()) * scoreDecreasedMultiplier;
+                    realTopBarBalls.add(ball.colorIndex, 15 + realTopBarBalls.size() * BallQueue.SLOT_SPACING);
+                }
+                ball.isCaptured = false;
+            }
+        }
+    }
+
+    /**
+     * Moves the yellow tiles at the top-left and bottom-right corners of the board one cell along
+     * the edge. Run by a timer once the level is complete.
+     */
+    public void updateYellowTileMovement() {
+        yellowTileMoveCounter++;
+        moveTopLeftYellowTile();
+        moveBottomRightYellowTile();
+    }
+
+    /**
+     * Moves the yellow tile at the top-left corners of the board.
+     */
+    public void moveTopLeftYellowTile() {
+        switch (yellowTileTopLeftDirection) {
+            case 0:
+                yellowTileTopLeftX++;
+                if (yellowTileTopLeftX >= boardWidth - 1) yellowTileTopLeftDirection = 1;
+                break;
+            case 1:
+                yellowTileTopLeftY++;
+                if (yellowTileTopLeftY >= boardHeight - 3) yellowTileTopLeftDirection = 2;
+                break;
+            case 2:
+                yellowTileTopLeftX--;
+                if (yellowTileTopLeftX <= 0) yellowTileTopLeftDirection = 3;
+                break;
+            case 3:
+                yellowTileTopLeftY--;
+                if (yellowTileTopLeftY <= 0) yellowTileTopLeftDirection = 0;
+                break;
+        }
+    }
+
+    /**
+     * Moves the yellow tile at the bottom-right corners of the board.
+     */
+    public void moveBottomRightYellowTile() {
+        switch (yellowTileBottomRightDirection) {
+            case 0:
+                yellowTileBottomRightX++;
+                if (yellowTileBottomRightX >= boardWidth - 1) yellowTileBottomRightDirection = 1;
+                break;
+            case 1:
+                yellowTileBottomRightY++;
+                if (yellowTileBottomRightY >= boardHeight - 3) yellowTileBottomRightDirection = 2;
+                break;
+            case 2:
+                yellowTileBottomRightX--;
+                if (yellowTileBottomRightX <= 0) yellowTileBottomRightDirection = 3;
+                break;
+            case 3:
+                yellowTileBottomRightY--;
+                if (yellowTileBottomRightY <= 0) yellowTileBottomRightDirection = 0;
+                break;
+        }
+    }
+
+    /**
+     * Adds a point for time left once the level is complete. Run by a timer.
+     */
+    public void incrementScoreWithTime() {
+        if (countdownTime > 0) {
+            scoreboard.total += 1;
+            score += 1;
+            scoreAdditionCounter++;
+        }
+    }
+
+    /**
+     * Displays the active balls within the camera's view through the given renderer, in board coordinates.
+     *
+     * @param renderer the renderer to draw through
+     */
+    public void displayBalls(Renderer renderer) {
+        for (Ball ball : balls) {
+            if (!camera.isVisible(ball.x, ball.y - topbar, ball.diameter, ball.diameter)) {
+                continue;
+            }
+            renderer.sprite(Ball.SPRITES[ball.colorIndex], ball.x, ball.y, ball.diameter, ball.diameter);
+        }
+    }
+
+    /**
+     * Displays the tiles within the camera's view through the given renderer, in board coordinates.
+     *
+     * @param renderer the renderer to draw through
+     */
+    public void displayTiles(Renderer renderer) {
+        for (Tile tile : collectVisibleTiles()) {
+            tile.display(renderer);
+        }
+
+        if (isLevelComplete) {
+            String yellowWall = Tile.WALL_SPRITES[4];
+            renderer.sprite(yellowWall, yellowTileTopLeftX * cellsize, yellowTileTopLeftY * cellsize + topbar, cellsize, cellsize);
+            renderer.sprite(yellowWall, yellowTileBottomRightX * cellsize, yellowTileBottomRightY * cellsize + topbar, cellsize, cellsize);
+        }
+    }
+
+    /**
+     * Checks if the current level is completed.
+     *
+     * @param topBarBalls the balls queued in the top bar
+     * @return {@code true} if the level is complete, otherwise {@code false}
+     */
+    public boolean isLevelCompleted(BallQueue topBarBalls) {
+        return balls.isEmpty() && topBarBalls.isEmpty();
+    }
+}
+
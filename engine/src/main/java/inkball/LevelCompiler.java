@@ -0,0 +1,199 @@
+package inkball;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * The {@code LevelCompiler} class validates text level layouts and compiles them into the
+ * binary form read by {@link CompiledLevel}. Malformed layouts, such as a hole or ball
+ * without a colour digit after it, are rejected with the row and column of the problem.
+ *
+ * <p>Run it as {@code java inkball.LevelCompiler level1.txt level2.txt ...} to write
+ * {@code level1.ikl} and so on next to each layout.</p>
+ */
+
+public class LevelCompiler {
+
+    /**
+     * Validates and compiles a layout.
+     *
+     * @param layout     the rows of the layout
+     * @param sourceName the name of the layout, used in error messages
+     * @return the compiled level, ready to be written to a file
+     * @throws IOException if the layout is malformed
+     */
+    public static ByteBuffer compile(List<String> layout, String sourceName) throws IOException {
+        int rows = layout.size();
+        int columns = 0;
+        for (String line : layout) {
+            columns = Math.max(columns, line.length());
+        }
+        if (rows > Short.MAX_VALUE || columns > Short.MAX_VALUE) {
+            throw new IOException(sourceName + ": layouts are limited to " + Short.MAX_VALUE + " rows and columns");
+        }
+
+        byte[] cells = new byte[rows * columns];
+        ArrayList<int[]> holes = new ArrayList<>();
+        ArrayList<int[]> spawners = new ArrayList<>();
+        ArrayList<int[]> balls = new ArrayList<>();
+
+        for (int row = 0; row < rows; row++) {
+            String line = layout.get(row);
+            for (int column = 0; column < line.length(); column++) {
+                int index = row * columns + column;
+                char c = line.charAt(column);
+                if (cells[index] == cell(CompiledLevel.COVERED, 0)) {
+                    if (c != ' ') {
+                        throw error(sourceName, row, column, "'" + c + "' is under a hole and must be blank");
+                    }
+                    continue;
+                }
+                switch (c) {
+                    case 'X':
+                        cells[index] = cell(CompiledLevel.WALL, 0);
+                        break;
+
+                    case '1':
+                    case '2':
+                    case '3':
+                    case '4':
+                        cells[index] = cell(CompiledLevel.WALL, c - '0');
+                        break;
+
+                    case ' ':
+                        cells[index] = cell(CompiledLevel.BLANK, 0);
+                        break;
+
+                    case 'S':
+                        cells[index] = cell(CompiledLevel.ENTRYPOINT, 0);
+                        spawners.add(new int[]{column, row});
+                        break;
+
+                    case 'B': {
+                        int colour = colourAfter(line, row, column, sourceName);
+                        checkFree(cells, index + 1, row, column + 1, sourceName);
+                        cells[index] = cell(CompiledLevel.BALL, colour);
+                        cells[index + 1] = cell(CompiledLevel.BLANK, 0);
+                        balls.add(new int[]{column, row, colour});
+                        column++;
+                        break;
+                    }
+
+                    case 'H': {
+                        int colour = colourAfter(line, row, column, sourceName);
+                        checkFree(cells, index + 1, row, column + 1, sourceName);
+                        cells[index] = cell(CompiledLevel.HOLE, colour);
+                        cells[index + 1] = cell(CompiledLevel.COVERED, 0);
+                        if (row + 1 < rows) {
+                            cells[index + columns] = cell(CompiledLevel.COVERED, 0);
+                            cells[index + columns + 1] = cell(CompiledLevel.COVERED, 0);
+                        }
+                        holes.add(new int[]{column, row, colour});
+                        column++;
+                        break;
+                    }
+
+                    default:
+                        throw error(sourceName, row, column, "unknown character '" + c + "'");
+                }
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(CompiledLevel.HEADER_BYTES + cells.length
+                + holes.size() * CompiledLevel.HOLE_ENTRY_BYTES
+                + spawners.size() * CompiledLevel.SPAWNER_ENTRY_BYTES
+                + balls.size() * CompiledLevel.BALL_ENTRY_BYTES);
+        buffer.putInt(CompiledLevel.MAGIC).putInt(CompiledLevel.FORMAT_VERSION).putInt(columns).putInt(rows)
+                .putInt(holes.size()).putInt(spawners.size()).putInt(balls.size());
+        buffer.put(cells);
+        for (int[] hole : holes) {
+            buffer.putShort((short) hole[0]).putShort((short) hole[1]).put((byte) hole[2]);
+        }
+        for (int[] spawner : spawners) {
+            buffer.putShort((short) spawner[0]).putShort((short) spawner[1]);
+        }
+        for (int[] ball : balls) {
+            buffer.putShort((short) ball[0]).putShort((short) ball[1]).put((byte) ball[2]);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Compiles a layout file into a compiled level next to it.
+     *
+     * @param source the text layout
+     * @return the compiled level file
+     * @throws IOException if the layout cannot be read, is malformed, or the output cannot be written
+     */
+    public static File compile(File source) throws IOException {
+        List<String> layout = Files.readAllLines(source.toPath(), StandardCharsets.UTF_8);
+        ByteBuffer compiled = compile(layout, source.getPath());
+
+        String name = source.getName();
+        int dot = name.lastIndexOf('.');
+        File target = new File(source.getAbsoluteFile().getParentFile(), (dot > 0 ? name.substring(0, dot) : name) + CompiledLevel.EXTENSION);
+        Files.write(target.toPath(), Arrays.copyOf(compiled.array(), compiled.limit()));
+        return target;
+    }
+
+    /**
+     * Compiles every layout named on the command line.
+     *
+     * @param args the paths of the text layouts
+     */
+    public static void main(String[] args) {
+        boolean failed = false;
+        for (String path : args) {
+            try {
+                System.out.println("Compiled " + compile(new File(path)));
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
+                failed = true;
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Packs a cell type and colour into a cell byte.
+     */
+    private static byte cell(int type, int colour) {
+        return (byte) ((type << 4) | colour);
+    }
+
+    /**
+     * Reads the colour digit following a hole or ball.
+     */
+    private static int colourAfter(String line, int row, int column, String sourceName) throws IOException {
+        if (column + 1 >= line.length()) {
+            throw error(sourceName, row, column, "'" + line.charAt(column) + "' needs a colour digit after it");
+        }
+        char digit = line.charAt(column + 1);
+        if (digit < '0' || digit > '4') {
+            throw error(sourceName, row, column + 1, "colour must be 0 to 4, not '" + digit + "'");
+        }
+        return digit - '0';
+    }
+
+    /**
+     * Rejects a second cell of a hole or ball that is already covered by another hole.
+     */
+    private static void checkFree(byte[] cells, int index, int row, int column, String sourceName) throws IOException {
+        if (cells[index] != 0) {
+            throw error(sourceName, row, column, "overlaps a hole");
+        }
+    }
+
+    /**
+     * Builds an error pointing at a cell, with one-based row and column numbers.
+     */
+    private static IOException error(String sourceName, int row, int column, String message) {
+        return new IOException(sourceName + ":" + (row + 1) + ":" + (column + 1) + ": " + message);
+    }
+}
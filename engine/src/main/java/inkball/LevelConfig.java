@@ -0,0 +1,160 @@
+package inkball;
+import java.util.*;
+
+/**
+ * The {@code LevelConfig} class is the parsed, immutable configuration of one level:
+ * its layout, timing, queued balls and score rules. Instances are shared freely
+ * between threads and are never changed once built.
+ */
+
+public final class LevelConfig {
+
+    public final String layoutPath; // The path of the level layout file
+    public final List<String> layout; // Rows of the level layout, or null when the layout is read from its file as the level starts
+    public final CompiledLevel compiledLayout; // Compiled layout carried with the level, as in a level pack, or null
+    public final int time; // The countdown time for the level
+    public final int spawnInterval; // The interval before next ball spawns
+    public final float scoreIncreaseModifier; // Modifier for score increase from capturing a ball in the correct hole
+    public final float scoreDecreaseModifier; // Modifier for score decrease from capturing a ball in the wrong hole
+    public final List<String> balls; // Colors of the balls queued in the top bar
+    public final Map<String, Integer> scoreIncreaseFromHoleCapture; // Score increases for correct captures
+    public final Map<String, Integer> scoreDecreaseFromWrongHole; // Score decreases for wrong captures
+
+    /**
+     * Constructs a new {@code LevelConfig}, copying the given collections.
+     *
+     * @param layoutPath                   the path of the level layout file
+     * @param layout                       the rows of the layout, or {@code null} when it is read from its file
+     * @param compiledLayout               the compiled layout carried with the level, or {@code null}
+     * @param time                         the countdown time for the level
+     * @param spawnInterval                the interval before next ball spawns
+     * @param scoreIncreaseModifier        the modifier for score increases
+     * @param scoreDecreaseModifier        the modifier for score decreases
+     * @param balls                        the colors of the balls queued in the top bar
+     * @param scoreIncreaseFromHoleCapture the score increases for correct captures
+     * @param scoreDecreaseFromWrongHole   the score decreases for wrong captures
+     */
+    public LevelConfig(String layoutPath, List<String> layout, CompiledLevel compiledLayout, int time, int spawnInterval,
+                       float scoreIncreaseModifier, float scoreDecreaseModifier, List<String> balls,
+                       Map<String, Integer> scoreIncreaseFromHoleCapture, Map<String, Integer> scoreDecreaseFromWrongHole) {
+        this.layoutPath = layoutPath;
+        this.layout = layout == null ? null : Collections.unmodifiableList(new ArrayList<>(layout));
+        this.compiledLayout = compiledLayout;
+        this.time = time;
+        this.spawnInterval = spawnInterval;
+        this.scoreIncreaseModifier = scoreIncreaseModifier;
+        this.scoreDecreaseModifier = scoreDecreaseModifier;
+        this.balls = Collections.unmodifiableList(new ArrayList<>(balls));
+        this.scoreIncreaseFromHoleCapture = Collections.unmodifiableMap(new HashMap<>(scoreIncreaseFromHoleCapture));
+        this.scoreDecreaseFromWrongHole = Collections.unmodifiableMap(new HashMap<>(scoreDecreaseFromWrongHole));
+    }
+
+    /**
+     * Returns the layout path of a level in a parsed {@code config.json}.
+     *
+     * @param config     the parsed configuration file
+     * @param levelIndex the index of the level
+     * @return the path of the level's layout file
+     * @throws IllegalArgumentException if the level is missing or has no layout
+     */
+    public static String layoutPathOf(Map<String, Object> config, int levelIndex) {
+        return stringOf(levelOf(config, levelIndex), "layout");
+    }
+
+    /**
+     * Builds the configuration of a level from a parsed {@code config.json}.
+     *
+     * @param config     the parsed configuration file
+     * @param levelIndex the index of the level
+     * @param layout     the rows of the level's layout, or {@code null} when it is read from its file
+     * @return the level configuration
+     * @throws IllegalArgumentException if the level is missing or a value of it is missing or of the wrong type
+     */
+    public static LevelConfig fromJSON(Map<String, Object> config, int levelIndex, List<String> layout) {
+        Map<String, Object> level = levelOf(config, levelIndex);
+
+        ArrayList<String> balls = new ArrayList<>();
+        for (Object ball : arrayOf(level, "balls")) {
+            if (!(ball instanceof String)) {
+                throw new IllegalArgumentException("Ball " + ball + " is not a colour");
+            }
+            balls.add((String) ball);
+        }
+
+        return new LevelConfig(stringOf(level, "layout"), layout, null, (int) numberOf(level, "time"),
+                (int) numberOf(level, "spawn_interval"),
+                (float) numberOf(level, "score_increase_from_hole_capture_modifier"),
+                (float) numberOf(level, "score_decrease_from_wrong_hole_modifier"), balls,
+                readScores(objectOf(config, "score_increase_from_hole_capture")),
+                readScores(objectOf(config, "score_decrease_from_wrong_hole")));
+    }
+
+    /**
+     * Reads a table of scores keyed by ball color.
+     */
+    private static HashMap<String, Integer> readScores(Map<String, Object> scores) {
+        HashMap<String, Integer> result = new HashMap<>();
+        for (String key : scores.keySet()) {
+            result.put(key, (int) numberOf(scores, key));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the object of one level in a parsed {@code config.json}.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> levelOf(Map<String, Object> config, int levelIndex) {
+        List<Object> levels = arrayOf(config, "levels");
+        if (levelIndex < 0 || levelIndex >= levels.size() || !(levels.get(levelIndex) instanceof Map)) {
+            throw new IllegalArgumentException("No level " + levelIndex + " of " + levels.size());
+        }
+        return (Map<String, Object>) levels.get(levelIndex);
+    }
+
+    /**
+     * Returns the object under a key.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> objectOf(Map<String, Object> object, String key) {
+        Object value = object.get(key);
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("\"" + key + "\" is not an object");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    /**
+     * Returns the array under a key.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Object> arrayOf(Map<String, Object> object, String key) {
+        Object value = object.get(key);
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException("\"" + key + "\" is not an array");
+        }
+        return (List<Object>) value;
+    }
+
+    /**
+     * Returns the string under a key.
+     */
+    private static String stringOf(Map<String, Object> object, String key) {
+        Object value = object.get(key);
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException("\"" + key + "\" is not a string");
+        }
+        return (String) value;
+    }
+
+    /**
+     * Returns the number under a key.
+     */
+    private static double numberOf(Map<String, Object> object, String key) {
+        Object value = object.get(key);
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException("\"" + key + "\" is not a number");
+        }
+        return ((Number) value).doubleValue();
+    }
+}
@@ -0,0 +1,351 @@
+package inkball;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * The {@code LevelPack} class reads many levels from a single file. The file starts with an
+ * index of where each level's record lies, so a level is found with one lookup and parsed on
+ * its own; nothing else in the pack is read. Parsed levels are kept in a bounded cache,
+ * least recently used first out, so moving between levels costs the same however large the pack is.
+ *
+ * <p>The format, in big-endian order, is a header of three ints (magic, format version, level
+ * count), an index of one int offset and one int length per level, then the level records.
+ * A record holds the layout name, the time, spawn interval and score modifiers, the queued
+ * ball colours, the two score tables and the layout compiled by {@link LevelCompiler}.
+ * Strings are a short byte count followed by UTF-8 bytes.</p>
+ *
+ * <p>Run it as {@code java inkball.LevelPack config.json levels.ikp} to pack every level of a
+ * config file, then start the game with {@code --pack levels.ikp}.</p>
+ */
+
+public class LevelPack implements LevelSource {
+
+    public static final int MAGIC = 0x494B5031; // "IKP1", first word of every level pack
+    public static final int FORMAT_VERSION = 1; // Version of the format written by this class
+    public static final String EXTENSION = ".ikp"; // File extension of level packs
+    public static final int HEADER_BYTES = 3 * 4; // Size of the header
+    public static final int INDEX_ENTRY_BYTES = 2 * 4; // Offset and length of one record
+    public static final int DEFAULT_CACHED_LEVELS = 16; // Parsed levels kept when no bound is given
+
+    public ByteBuffer buffer; // The whole pack, memory-mapped
+    public int levelCount; // Number of levels in the pack
+    public int maxCachedLevels; // Bound on the number of parsed levels kept
+    public LinkedHashMap<Integer, LevelConfig> cachedLevels; // Parsed levels by index, least recently used first
+    public int levelsParsed = 0; // Number of records parsed, counting levels parsed again after eviction
+
+    /**
+     * Constructs a new {@code LevelPack} over the bytes of a pack file.
+     *
+     * @param buffer          the pack file
+     * @param maxCachedLevels the number of parsed levels to keep
+     * @throws IOException if the bytes are not a level pack of this format version
+     */
+    public LevelPack(ByteBuffer buffer, int maxCachedLevels) throws IOException {
+        this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        if (this.buffer.limit() < HEADER_BYTES || this.buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a level pack");
+        }
+        if (this.buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported level pack version " + this.buffer.getInt(4));
+        }
+        this.levelCount = this.buffer.getInt(8);
+        if (levelCount < 0 || HEADER_BYTES + (long) levelCount * INDEX_ENTRY_BYTES > this.buffer.limit()) {
+            throw new IOException("Truncated or corrupt level pack index");
+        }
+
+        this.maxCachedLevels = Math.max(1, maxCachedLevels);
+        this.cachedLevels = new LinkedHashMap<Integer, LevelConfig>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, LevelConfig> eldest) {
+                return size() > LevelPack.this.maxCachedLevels;
+            }
+        };
+    }
+
+    /**
+     * Memory-maps a level pack file.
+     *
+     * @param file            the level pack
+     * @param maxCachedLevels the number of parsed levels to keep
+     * @return the opened pack
+     * @throws IOException if the file cannot be mapped or is not a level pack
+     */
+    public static LevelPack open(File file, int maxCachedLevels) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new LevelPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), maxCachedLevels);
+        }
+    }
+
+    /**
+     * Returns the configuration of a level, parsing its record if it is not cached.
+     *
+     * @param levelIndex the index of the level
+     * @return the level configuration
+     * @throws UncheckedIOException if the record is corrupt
+     */
+    @Override
+    public synchronized LevelConfig level(int levelIndex) {
+        LevelConfig level = cachedLevels.get(levelIndex);
+        if (level == null) {
+            try {
+                level = parseLevel(levelIndex);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            cachedLevels.put(levelIndex, level);
+        }
+        return level;
+    }
+
+    /**
+     * Returns the number of levels in the pack.
+     *
+     * @return the number of levels
+     */
+    @Override
+    public int levelCount() {
+        return levelCount;
+    }
+
+    /**
+     * Parses the record of a level, reading its fields in order. The compiled layout is not
+     * copied: it stays a view of the mapped pack.
+     *
+     * @param levelIndex the index of the level
+     * @return the level configuration
+     * @throws IOException if the record is truncated or corrupt
+     */
+    public LevelConfig parseLevel(int levelIndex) throws IOException {
+        if (levelIndex < 0 || levelIndex >= levelCount) {
+            throw new IndexOutOfBoundsException("Level " + levelIndex + " of " + levelCount);
+        }
+        int entry = HEADER_BYTES + levelIndex * INDEX_ENTRY_BYTES;
+        int offset = buffer.getInt(entry);
+        int length = buffer.getInt(entry + 4);
+        if (offset < 0 || length < 0 || (long) offset + length > buffer.limit()) {
+            throw new IOException("Level " + levelIndex + " lies outside the pack");
+        }
+        ByteBuffer record = slice(buffer, offset, length);
+
+        try {
+            String layoutPath = readString(record);
+            int time = record.getInt();
+            int spawnInterval = record.getInt();
+            float scoreIncreaseModifier = record.getFloat();
+            float scoreDecreaseModifier = record.getFloat();
+
+            int ballCount = record.getInt();
+            if (ballCount < 0 || ballCount > record.remaining() / 2) {
+                throw new IOException("Level " + levelIndex + " has a corrupt ball count");
+            }
+            ArrayList<String> balls = new ArrayList<>(ballCount);
+            for (int i = 0; i < ballCount; i++) {
+                balls.add(readString(record));
+            }
+            HashMap<String, Integer> scoreIncreases = readScores(record);
+            HashMap<String, Integer> scoreDecreases = readScores(record);
+
+            int compiledLength = record.getInt();
+            if (compiledLength < 0 || compiledLength > record.remaining()) {
+                throw new IOException("Level " + levelIndex + " has a truncated layout");
+            }
+            CompiledLevel compiled = new CompiledLevel(slice(record, record.position(), compiledLength));
+
+            levelsParsed++;
+            return new LevelConfig(layoutPath, null, compiled, time, spawnInterval,
+                    scoreIncreaseModifier, scoreDecreaseModifier, balls, scoreIncreases, scoreDecreases);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Level " + levelIndex + " is truncated", e);
+        }
+    }
+
+    /**
+     * Writes levels to a pack file. Text layouts are compiled on the way. The pack is written
+     * under a temporary name and moved into place, so a running game never maps a partly written pack.
+     *
+     * @param file   the pack file to write
+     * @param levels the levels, in play order
+     * @throws IOException if a layout cannot be read or compiled, or the pack cannot be written
+     */
+    public static void write(File file, List<LevelConfig> levels) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        File temp = File.createTempFile("levels", ".tmp", directory);
+        try {
+            try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE)) {
+                ByteBuffer index = ByteBuffer.allocate(HEADER_BYTES + levels.size() * INDEX_ENTRY_BYTES);
+                index.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(levels.size());
+
+                long position = index.capacity();
+                for (LevelConfig level : levels) {
+                    ByteBuffer record = encode(level);
+                    if (position + record.remaining() > Integer.MAX_VALUE) {
+                        throw new IOException("Level packs are limited to " + Integer.MAX_VALUE + " bytes");
+                    }
+                    index.putInt((int) position).putInt(record.remaining());
+                    while (record.hasRemaining()) {
+                        position += channel.write(record, position);
+                    }
+                }
+
+                index.flip();
+                long indexPosition = 0;
+                while (index.hasRemaining()) {
+                    indexPosition += channel.write(index, indexPosition);
+                }
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            temp.delete();
+        }
+    }
+
+    /**
+     * Packs every level of a config file.
+     *
+     * @param args the path of the config file and the path of the pack to write
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: LevelPack <config.json> <pack" + EXTENSION + ">");
+            System.exit(2);
+        }
+        try {
+            ConfigRepository repository = new ConfigRepository(args[0]);
+            write(new File(args[1]), repository.levels.get());
+            System.out.println("Packed " + repository.levelCount() + " levels into " + args[1]);
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Encodes the record of a level.
+     */
+    private static ByteBuffer encode(LevelConfig level) throws IOException {
+        ByteBuffer compiled = compiledLayoutOf(level);
+
+        ArrayList<byte[]> strings = new ArrayList<>();
+        strings.add(encodeString(level.layoutPath));
+        for (String ball : level.balls) {
+            strings.add(encodeString(ball));
+        }
+        for (String colour : level.scoreIncreaseFromHoleCapture.keySet()) {
+            strings.add(encodeString(colour));
+        }
+        for (String colour : level.scoreDecreaseFromWrongHole.keySet()) {
+            strings.add(encodeString(colour));
+        }
+        int size = 4 * 4 + 3 * 4 + 4 + compiled.remaining()
+                + (level.scoreIncreaseFromHoleCapture.size() + level.scoreDecreaseFromWrongHole.size()) * 4;
+        for (byte[] string : strings) {
+            size += 2 + string.length;
+        }
+
+        Iterator<byte[]> next = strings.iterator();
+        ByteBuffer record = ByteBuffer.allocate(size);
+        putString(record, next.next());
+        record.putInt(level.time).putInt(level.spawnInterval)
+                .putFloat(level.scoreIncreaseModifier).putFloat(level.scoreDecreaseModifier);
+        record.putInt(level.balls.size());
+        for (int i = 0; i < level.balls.size(); i++) {
+            putString(record, next.next());
+        }
+        putScores(record, level.scoreIncreaseFromHoleCapture, next);
+        putScores(record, level.scoreDecreaseFromWrongHole, next);
+        record.putInt(compiled.remaining()).put(compiled);
+        record.flip();
+        return record;
+    }
+
+    /**
+     * Returns the compiled layout of a level, compiling or reading its layout file if needed.
+     */
+    private static ByteBuffer compiledLayoutOf(LevelConfig level) throws IOException {
+        if (level.compiledLayout != null) {
+            ByteBuffer compiled = level.compiledLayout.buffer.duplicate();
+            compiled.position(0);
+            return compiled;
+        }
+        if (level.layout != null) {
+            return LevelCompiler.compile(level.layout, level.layoutPath);
+        }
+        Path path = Paths.get(level.layoutPath);
+        if (CompiledLevel.isCompiled(level.layoutPath)) {
+            return ByteBuffer.wrap(Files.readAllBytes(path));
+        }
+        return LevelCompiler.compile(Files.readAllLines(path, StandardCharsets.UTF_8), level.layoutPath);
+    }
+
+    /**
+     * Writes a score table, taking the encoded colour names from the iterator in key order.
+     */
+    private static void putScores(ByteBuffer record, Map<String, Integer> scores, Iterator<byte[]> names) {
+        record.putInt(scores.size());
+        for (Map.Entry<String, Integer> score : scores.entrySet()) {
+            putString(record, names.next());
+            record.putInt(score.getValue());
+        }
+    }
+
+    /**
+     * Reads a score table.
+     */
+    private static HashMap<String, Integer> readScores(ByteBuffer record) throws IOException {
+        int count = record.getInt();
+        if (count < 0 || count > record.remaining() / 6) {
+            throw new IOException("Corrupt score table size");
+        }
+        HashMap<String, Integer> scores = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String colour = readString(record);
+            scores.put(colour, record.getInt());
+        }
+        return scores;
+    }
+
+    /**
+     * Encodes a string as UTF-8, rejecting strings too long for their length prefix.
+     */
+    private static byte[] encodeString(String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IOException("String too long for a level pack: " + string.substring(0, 32) + "...");
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes an encoded string with its length.
+     */
+    private static void putString(ByteBuffer record, byte[] bytes) {
+        record.putShort((short) bytes.length).put(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #putString}.
+     */
+    private static String readString(ByteBuffer record) {
+        int length = record.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns a big-endian view of part of a buffer, positioned at its start.
+     */
+    private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(offset + length).position(offset);
+        return view.slice().order(ByteOrder.BIG_ENDIAN);
+    }
+}
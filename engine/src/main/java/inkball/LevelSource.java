@@ -0,0 +1,24 @@
+package inkball;
+
+/**
+ * The {@code LevelSource} interface is a numbered collection of parsed levels that the game
+ * plays through in order, such as a {@link ConfigRepository} or a {@link LevelPack}.
+ */
+
+public interface LevelSource {
+
+    /**
+     * Returns the configuration of a level.
+     *
+     * @param levelIndex the index of the level
+     * @return the level configuration
+     */
+    LevelConfig level(int levelIndex);
+
+    /**
+     * Returns the number of levels.
+     *
+     * @return the number of levels
+     */
+    int levelCount();
+}
@@ -0,0 +1,277 @@
+package inkball;
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * The {@code LevelTemplate} class is the fixed part of a level, built once per layout:
+ * where its tiles, holes, spawners and starting balls are, and the hit boxes of its walls.
+ * Templates are never changed once built, so every {@link Level} played from the same
+ * layout, whether a restart or another session, shares one. A level keeps only what
+ * changes during play and can be reset to its template in place.
+ */
+
+public final class LevelTemplate {
+
+    private static final WeakHashMap<LevelConfig, LevelTemplate> templates = new WeakHashMap<>(); // Templates by the level they were built from
+
+    public final int cellsize; // Size of each tile in pixels
+    public final int topbar; // Height of the top bar
+    public final int columns; // Number of columns in the layout
+    public final int rows; // Number of rows in the layout
+    public final boolean implicitBlankTiles; // Whether blank cells are left out and drawn on the fly
+    public final List<Cell> tiles; // Every tile of the board, in row order
+    public final List<Cell> holes; // The holes, in row order
+    public final List<Cell> spawners; // The spawners, in row order
+    public final List<Cell> balls; // The cells holding a ball when the level starts, in row order
+
+    /**
+     * The {@code Cell} class is one placed element of a template: a tile, a spawner or a starting ball.
+     */
+    public static final class Cell {
+        public final int column; // Column of the cell
+        public final int row; // Row of the cell
+        public final int x; // The x-coordinate in pixels
+        public final int y; // The y-coordinate in pixels, below the top bar
+        public final int size; // Width and height in pixels
+        public final Tile.TileType type; // The type of tile placed in the cell
+        public final int colorIndex; // The color index of the tile or ball
+        public final ArrayList<HitBox> hitBoxes; // Hit boxes of a wall, shared by every tile built from the cell
+
+        private Cell(int column, int row, int cellsize, int topbar, int size, Tile.TileType type, int colorIndex) {
+            this.column = column;
+            this.row = row;
+            this.x = column * cellsize;
+            this.y = row * cellsize + topbar;
+            this.size = size;
+            this.type = type;
+            this.colorIndex = colorIndex;
+            this.hitBoxes = type == Tile.TileType.WALL ? Tile.edgeHitBoxes(x, y, size) : new ArrayList<>(0);
+        }
+    }
+
+    private LevelTemplate(Parser parser) {
+        this.cellsize = parser.cellsize;
+        this.topbar = parser.topbar;
+        this.columns = parser.columns;
+        this.rows = parser.rows;
+        this.implicitBlankTiles = parser.implicitBlankTiles;
+        this.tiles = Collections.unmodifiableList(parser.tiles);
+        this.holes = Collections.unmodifiableList(parser.holes);
+        this.spawners = Collections.unmodifiableList(parser.spawners);
+        this.balls = Collections.unmodifiableList(parser.balls);
+    }
+
+    /**
+     * Returns the template of a level, building it on first use. Templates are kept for as long
+     * as their level is, so every session and restart of a level shares the same template.
+     *
+     * @param level    the level configuration
+     * @param cellsize the size of each tile in pixels
+     * @param topbar   the height of the top bar
+     * @return the template
+     * @throws IOException if the layout file cannot be read
+     */
+    public static LevelTemplate of(LevelConfig level, int cellsize, int topbar) throws IOException {
+        synchronized (templates) {
+            LevelTemplate template = templates.get(level);
+            if (template != null && template.cellsize == cellsize && template.topbar == topbar) {
+                return template;
+            }
+        }
+
+        LevelTemplate template;
+        if (level.layout != null) {
+            template = fromLayout(level.layout, cellsize, topbar);
+        } else if (level.compiledLayout != null) {
+            template = fromCompiled(level.compiledLayout, cellsize, topbar);
+        } else if (CompiledLevel.isCompiled(level.layoutPath)) {
+            template = fromCompiled(CompiledLevel.map(new File(level.layoutPath)), cellsize, topbar);
+        } else {
+            try (LayoutReader reader = LayoutReader.open(level.layoutPath)) {
+                template = fromReader(reader, cellsize, topbar);
+            }
+        }
+
+        synchronized (templates) {
+            templates.put(level, template);
+        }
+        return template;
+    }
+
+    /**
+     * Builds a template from the rows of a text layout, with a blank tile in every blank cell.
+     *
+     * @param layout   the rows of the layout
+     * @param cellsize the size of each tile in pixels
+     * @param topbar   the height of the top bar
+     * @return the template
+     */
+    public static LevelTemplate fromLayout(List<String> layout, int cellsize, int topbar) {
+        Parser parser = new Parser(cellsize, topbar, false);
+        for (int rowNum = 0; rowNum < layout.size(); rowNum++) {
+            parser.addRow(rowNum, layout.get(rowNum));
+        }
+        return new LevelTemplate(parser);
+    }
+
+    /**
+     * Builds a template from a text layout read one row at a time. Blank cells are left out,
+     * so memory grows with the number of walls, holes and spawners rather than with the size of the map.
+     *
+     * @param reader   the reader positioned at the first row of the layout
+     * @param cellsize the size of each tile in pixels
+     * @param topbar   the height of the top bar
+     * @return the template
+     * @throws IOException if the layout cannot be read
+     */
+    public static LevelTemplate fromReader(LayoutReader reader, int cellsize, int topbar) throws IOException {
+        Parser parser = new Parser(cellsize, topbar, true);
+        String row;
+        for (int rowNum = 0; (row = reader.nextRow()) != null; rowNum++) {
+            parser.addRow(rowNum, row);
+        }
+        return new LevelTemplate(parser);
+    }
+
+    /**
+     * Builds a template from a compiled layout. Blank cells are left out.
+     *
+     * @param compiled the compiled layout
+     * @param cellsize the size of each tile in pixels
+     * @param topbar   the height of the top bar
+     * @return the template
+     */
+    public static LevelTemplate fromCompiled(CompiledLevel compiled, int cellsize, int topbar) {
+        Parser parser = new Parser(cellsize, topbar, true);
+        for (int rowNum = 0; rowNum < compiled.rows; rowNum++) {
+            for (int colNum = 0; colNum < compiled.columns; colNum++) {
+                int colour = compiled.cellColour(colNum, rowNum);
+                switch (compiled.cellType(colNum, rowNum)) {
+                    case CompiledLevel.WALL:
+                        parser.addTile(colNum, rowNum, 1, Tile.TileType.WALL, colour);
+                        break;
+
+                    case CompiledLevel.HOLE:
+                        parser.holes.add(parser.addTile(colNum, rowNum, 2, Tile.TileType.HOLE, colour));
+                        break;
+
+                    case CompiledLevel.ENTRYPOINT:
+                        parser.addTile(colNum, rowNum, 1, Tile.TileType.ENTRYPOINT, 0);
+                        break;
+                }
+            }
+        }
+
+        for (int i = 0; i < compiled.spawnerCount; i++) {
+            parser.spawners.add(parser.cell(compiled.spawnerColumn(i), compiled.spawnerRow(i), 1, Tile.TileType.ENTRYPOINT, 0));
+        }
+        for (int i = 0; i < compiled.ballCount; i++) {
+            parser.balls.add(parser.cell(compiled.ballColumn(i), compiled.ballRow(i), 1, Tile.TileType.TILE, compiled.ballColour(i)));
+        }
+        parser.columns = compiled.columns;
+        parser.rows = compiled.rows;
+        return new LevelTemplate(parser);
+    }
+
+    /**
+     * Collects the cells of a template while its layout is read.
+     */
+    private static final class Parser {
+        final int cellsize;
+        final int topbar;
+        final boolean implicitBlankTiles;
+        final ArrayList<Cell> tiles = new ArrayList<>();
+        final ArrayList<Cell> holes = new ArrayList<>();
+        final ArrayList<Cell> spawners = new ArrayList<>();
+        final ArrayList<Cell> balls = new ArrayList<>();
+        final ChunkedBoard covered = new ChunkedBoard();
+        int columns = 0;
+        int rows = 0;
+
+        Parser(int cellsize, int topbar, boolean implicitBlankTiles) {
+            this.cellsize = cellsize;
+            this.topbar = topbar;
+            this.implicitBlankTiles = implicitBlankTiles;
+        }
+
+        /**
+         * Creates a cell spanning the given number of grid cells.
+         */
+        Cell cell(int column, int row, int span, Tile.TileType type, int colorIndex) {
+            return new Cell(column, row, cellsize, topbar, cellsize * span, type, colorIndex);
+        }
+
+        /**
+         * Creates a cell and adds it to the tiles.
+         */
+        Cell addTile(int column, int row, int span, Tile.TileType type, int colorIndex) {
+            Cell cell = cell(column, row, span, type, colorIndex);
+            tiles.add(cell);
+            return cell;
+        }
+
+        /**
+         * Adds a blank tile, unless blank cells are drawn on the fly.
+         */
+        void addBlankTile(int column, int row) {
+            if (!implicitBlankTiles) {
+                addTile(column, row, 1, Tile.TileType.TILE, 0);
+            }
+        }
+
+        /**
+         * Reads the tiles, holes, spawners and balls of one row of a text layout.
+         */
+        void addRow(int rowNum, String row) {
+            for (int colNum = 0; colNum < row.length(); colNum++) {
+                if (covered.isCoveredByHole(colNum, rowNum)) {
+                    continue;
+                }
+                char c = row.charAt(colNum);
+                switch (c) {
+                    case 'X':
+                        addTile(colNum, rowNum, 1, Tile.TileType.WALL, 0);
+                        break;
+
+                    case '1':
+                    case '2':
+                    case '3':
+                    case '4':
+                        addTile(colNum, rowNum, 1, Tile.TileType.WALL, c - '0');
+                        break;
+
+                    case 'B':
+                        if (colNum + 1 < row.length()) {
+                            addBlankTile(colNum, rowNum);
+                            addBlankTile(colNum + 1, rowNum);
+                            balls.add(cell(colNum, rowNum, 1, Tile.TileType.TILE, Character.getNumericValue(row.charAt(colNum + 1))));
+                            colNum++;
+                        }
+                        break;
+
+                    case 'H':
+                        if (colNum + 1 < row.length()) {
+                            holes.add(addTile(colNum, rowNum, 2, Tile.TileType.HOLE, Character.getNumericValue(row.charAt(colNum + 1))));
+                            covered.setCoveredByHole(colNum + 1, rowNum, true);
+                            covered.setCoveredByHole(colNum, rowNum + 1, true);
+                            covered.setCoveredByHole(colNum + 1, rowNum + 1, true);
+                            colNum++;
+                        }
+                        break;
+
+                    case 'S':
+                        addTile(colNum, rowNum, 1, Tile.TileType.ENTRYPOINT, 0);
+                        spawners.add(cell(colNum, rowNum, 1, Tile.TileType.ENTRYPOINT, 0));
+                        break;
+
+                    case ' ':
+                        addBlankTile(colNum, rowNum);
+                        break;
+                }
+            }
+            columns = Math.max(columns, row.length());
+            rows = Math.max(rows, rowNum + 1);
+        }
+    }
+}
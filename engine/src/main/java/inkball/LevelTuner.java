@@ -0,0 +1,333 @@
+package inkball;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * The {@code LevelTuner} class suggests the time, spawn interval and score modifiers of a level
+ * so that it lands in a band of difficulty. A candidate setting is judged by playing seeded
+ * headless runs with the built-in {@link InkPolicy} in batches across every core, stopping as
+ * soon as the confidence interval of its clear rate is narrow enough, or clearly outside the band.
+ * A coarse grid of settings is tried first, then the best one is refined with ever smaller steps.
+ * Every candidate is played with the same seeds, so differences come from the setting alone.
+ *
+ * <p>Run as {@code inkball tune --config config.json --level 2 --min-clear 0.4 --max-clear 0.6}.
+ * As with {@link BatchSimulator}, levels are counted from 0.</p>
+ */
+
+public class LevelTuner {
+
+    public static final double Z = 1.96; // Normal quantile of the 95% confidence intervals
+    public static final double[] TIME_FACTORS = {0.5, 0.75, 1, 1.5, 2}; // Coarse grid of times, relative to the level's
+    public static final double[] SPAWN_FACTORS = {0.5, 1, 1.5, 2}; // Coarse grid of spawn intervals, relative to the level's
+    public static final int MAX_REFINEMENTS = 32; // Most refinement rounds
+    public static final String USAGE = "Usage: inkball tune [simulate options] [--min-clear <rate>] [--max-clear <rate>]"
+            + " [--precision <rate>] [--max-runs <n>] [--target-score <score>]"; // Printed when the options cannot be parsed
+
+    public BatchSimulator simulator; // Plays the runs; its batch seed is used for every candidate
+    public double minClearRate = 0.4; // Lowest clear rate of the target band
+    public double maxClearRate = 0.6; // Highest clear rate of the target band
+    public double precision = 0.05; // Half-width of the confidence interval at which a candidate is settled
+    public int batchRuns = 64; // Runs played between checks of the confidence interval
+    public int maxRuns = 2048; // Most runs played for one candidate
+    public float targetScore = Float.NaN; // Median score the score modifiers are scaled to reach, or NaN to keep them
+    public HashMap<Long, Estimate> estimates = new HashMap<>(); // Estimates made so far, by time and spawn interval
+
+    /**
+     * The {@code Estimate} class holds what the runs of one candidate setting showed.
+     */
+    public static final class Estimate {
+        public final LevelConfig level; // The candidate setting
+        public final int runs; // Number of runs played
+        public final int cleared; // Number of runs that cleared the board
+        public final float medianScore; // Median score of the runs
+        public final float medianCaptureScore; // Median score of the runs, without the points added for time left
+        public final float medianTimeBonus; // Median points added for time left
+
+        /**
+         * Sums up the runs of a candidate.
+         *
+         * @param level   the candidate setting
+         * @param results the outcome of each run
+         */
+        public Estimate(LevelConfig level, List<BatchSimulator.Run> results) {
+            this.level = level;
+            this.runs = results.size();
+            float[] scores = new float[runs];
+            float[] captureScores = new float[runs];
+            float[] timeBonuses = new float[runs];
+            int cleared = 0;
+            for (int i = 0; i < runs; i++) {
+                BatchSimulator.Run run = results.get(i);
+                scores[i] = run.score;
+                captureScores[i] = run.score - run.timeBonus;
+                timeBonuses[i] = run.timeBonus;
+                if (run.clearedAt >= 0) {
+                    cleared++;
+                }
+            }
+            Arrays.sort(scores);
+            Arrays.sort(captureScores);
+            Arrays.sort(timeBonuses);
+            this.cleared = cleared;
+            this.medianScore = BatchSimulator.percentile(scores, 0.5);
+            this.medianCaptureScore = BatchSimulator.percentile(captureScores, 0.5);
+            this.medianTimeBonus = BatchSimulator.percentile(timeBonuses, 0.5);
+        }
+
+        /**
+         * Returns the fraction of runs that cleared the board.
+         *
+         * @return the clear rate
+         */
+        public double clearRate() {
+            return runs == 0 ? 0 : (double) cleared / runs;
+        }
+
+        /**
+         * Returns the 95% Wilson score interval of the clear rate, which stays sensible near 0 and 1.
+         *
+         * @return the lower and upper bounds
+         */
+        public double[] interval() {
+            if (runs == 0) {
+                return new double[]{0, 1};
+            }
+            double rate = clearRate();
+            double z2 = Z * Z / runs;
+            double centre = (rate + z2 / 2) / (1 + z2);
+            double halfWidth = Z * Math.sqrt(rate * (1 - rate) / runs + z2 / (4 * runs)) / (1 + z2);
+            return new double[]{Math.max(0, centre - halfWidth), Math.min(1, centre + halfWidth)};
+        }
+    }
+
+    /**
+     * Constructs a new {@code LevelTuner}.
+     *
+     * @param simulator the simulator playing the runs
+     */
+    public LevelTuner(BatchSimulator simulator) {
+        this.simulator = simulator;
+        simulator.ink = true;
+    }
+
+    /**
+     * Parses the options of a tuning run, which are those of {@link BatchSimulator} and
+     * {@code --min-clear}, {@code --max-clear}, {@code --precision}, {@code --max-runs} and
+     * {@code --target-score}. Unknown arguments are ignored.
+     *
+     * @param args the command-line arguments following {@code tune}
+     * @return the tuner, set up with the parsed options
+     * @throws IllegalArgumentException if a numeric option is given a value that is not a number
+     */
+    public static LevelTuner parse(String[] args) {
+        LevelTuner tuner = new LevelTuner(BatchSimulator.parse(args));
+        for (int i = 0; i + 1 < args.length; i++) {
+            switch (args[i]) {
+                case "--min-clear":
+                    tuner.minClearRate = doubleValue(args, ++i);
+                    break;
+
+                case "--max-clear":
+                    tuner.maxClearRate = doubleValue(args, ++i);
+                    break;
+
+                case "--precision":
+                    tuner.precision = doubleValue(args, ++i);
+                    break;
+
+                case "--max-runs":
+                    tuner.maxRuns = Math.max(1, BatchSimulator.intValue(args, ++i));
+                    break;
+
+                case "--target-score":
+                    tuner.targetScore = (float) doubleValue(args, ++i);
+                    break;
+            }
+        }
+        return tuner;
+    }
+
+    /**
+     * Reads the number given to an option.
+     */
+    private static double doubleValue(String[] args, int index) {
+        try {
+            return Double.parseDouble(args[index]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(args[index - 1] + " expects a number, not " + args[index]);
+        }
+    }
+
+    /**
+     * Estimates the clear rate and scores of a setting, playing batches of runs until the
+     * confidence interval is narrow enough, lies wholly outside the target band, or the run limit is hit.
+     *
+     * @param level the candidate setting
+     * @return the estimate
+     * @throws IOException if the layout of the level cannot be read
+     */
+    public Estimate estimate(LevelConfig level) throws IOException {
+        Long key = key(level.time, level.spawnInterval);
+        Estimate estimate = estimates.get(key);
+        if (estimate != null) {
+            return estimate;
+        }
+        ArrayList<BatchSimulator.Run> results = new ArrayList<>();
+        while (true) {
+            int count = Math.min(batchRuns, maxRuns - results.size());
+            results.addAll(simulator.simulate(level, results.size(), count));
+            estimate = new Estimate(level, results);
+            double[] interval = estimate.interval();
+            if (results.size() >= maxRuns || (interval[1] - interval[0]) / 2 <= precision
+                    || interval[1] < minClearRate || interval[0] > maxClearRate) {
+                break;
+            }
+        }
+        estimates.put(key, estimate);
+        return estimate;
+    }
+
+    /**
+     * Returns how far an estimate is from the target band: 0 inside it, otherwise the distance
+     * to its nearest edge, plus a small part of the distance to its centre to break ties.
+     *
+     * @param estimate the estimate
+     * @return the distance, smaller being better
+     */
+    public double error(Estimate estimate) {
+        double rate = estimate.clearRate();
+        double outside = Math.max(0, Math.max(minClearRate - rate, rate - maxClearRate));
+        return outside + Math.abs(rate - (minClearRate + maxClearRate) / 2) / 100;
+    }
+
+    /**
+     * Searches for the time and spawn interval that best hit the target band: a coarse grid
+     * around the level's own values, then rounds of trying the neighbours of the best setting,
+     * halving the step whenever none of them is better.
+     *
+     * @param level the level as configured
+     * @return the estimate of the best setting found
+     * @throws IOException if the layout of the level cannot be read
+     */
+    public Estimate search(LevelConfig level) throws IOException {
+        Estimate best = null;
+        for (double timeFactor : TIME_FACTORS) {
+            for (double spawnFactor : SPAWN_FACTORS) {
+                Estimate estimate = estimate(withTiming(level, (int) Math.round(level.time * timeFactor),
+                        (int) Math.round(level.spawnInterval * spawnFactor)));
+                if (best == null || error(estimate) < error(best)) {
+                    best = estimate;
+                }
+            }
+        }
+
+        int timeStep = Math.max(1, best.level.time / 8);
+        int spawnStep = Math.max(1, best.level.spawnInterval / 4);
+        for (int round = 0; round < MAX_REFINEMENTS; round++) {
+            Estimate centre = best;
+            for (int dt = -1; dt <= 1; dt++) {
+                for (int ds = -1; ds <= 1; ds++) {
+                    if (dt == 0 && ds == 0) {
+                        continue;
+                    }
+                    Estimate estimate = estimate(withTiming(level, centre.level.time + dt * timeStep,
+                            centre.level.spawnInterval + ds * spawnStep));
+                    if (error(estimate) < error(best)) {
+                        best = estimate;
+                    }
+                }
+            }
+            if (best == centre) {
+                if (timeStep == 1 && spawnStep == 1) {
+                    break;
+                }
+                timeStep = Math.max(1, timeStep / 2);
+                spawnStep = Math.max(1, spawnStep / 2);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Scales the score modifiers of a setting so its median score reaches the target score.
+     * The points for captures scale with the modifiers, while the points for time left do not.
+     * The modifiers are kept when there is no target or no capture points to scale.
+     *
+     * @param estimate the estimate of the setting
+     * @return the setting with the suggested modifiers
+     */
+    public LevelConfig suggestModifiers(Estimate estimate) {
+        LevelConfig level = estimate.level;
+        if (Float.isNaN(targetScore) || estimate.medianCaptureScore <= 0) {
+            return level;
+        }
+        float scale = Math.max(0, (targetScore - estimate.medianTimeBonus) / estimate.medianCaptureScore);
+        return new LevelConfig(level.layoutPath, level.layout, level.compiledLayout, level.time, level.spawnInterval,
+                Math.round(level.scoreIncreaseModifier * scale * 100) / 100f,
+                Math.round(level.scoreDecreaseModifier * scale * 100) / 100f, level.balls,
+                level.scoreIncreaseFromHoleCapture, level.scoreDecreaseFromWrongHole);
+    }
+
+    /**
+     * Returns a copy of a level with another time and spawn interval, each at least 1 second.
+     *
+     * @param level         the level
+     * @param time          the countdown time
+     * @param spawnInterval the interval between spawns
+     * @return the copy
+     */
+    public static LevelConfig withTiming(LevelConfig level, int time, int spawnInterval) {
+        return new LevelConfig(level.layoutPath, level.layout, level.compiledLayout, Math.max(1, time),
+                Math.max(1, spawnInterval), level.scoreIncreaseModifier, level.scoreDecreaseModifier, level.balls,
+                level.scoreIncreaseFromHoleCapture, level.scoreDecreaseFromWrongHole);
+    }
+
+    /**
+     * Returns the key of the estimate of a time and spawn interval.
+     */
+    private static Long key(int time, int spawnInterval) {
+        return ((long) time << 32) | (spawnInterval & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Tunes a level and prints the suggested config values with the estimate behind them.
+     *
+     * @param args the options, such as {@code --config config.json --level 2 --min-clear 0.4 --max-clear 0.6}
+     */
+    public static void main(String[] args) {
+        LevelTuner tuner;
+        try {
+            tuner = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        try {
+            LevelConfig level = tuner.simulator.loadLevel();
+            long start = System.nanoTime();
+            Estimate best = tuner.search(level);
+            LevelConfig suggested = tuner.suggestModifiers(best);
+            double[] interval = best.interval();
+            int runs = 0;
+            for (Estimate estimate : tuner.estimates.values()) {
+                runs += estimate.runs;
+            }
+
+            System.out.printf("Tried %d settings in %d runs in %d s%n", tuner.estimates.size(), runs,
+                    (System.nanoTime() - start) / 1_000_000_000);
+            System.out.printf("Clear rate %.2f (95%% CI %.2f-%.2f over %d runs), median score %.0f, target band %.2f-%.2f%n",
+                    best.clearRate(), interval[0], interval[1], best.runs, best.medianScore,
+                    tuner.minClearRate, tuner.maxClearRate);
+            System.out.println("Suggested values for level " + tuner.simulator.levelIndex + ":");
+            System.out.println("\"time\": " + suggested.time + ",");
+            System.out.println("\"spawn_interval\": " + suggested.spawnInterval + ",");
+            System.out.println("\"score_increase_from_hole_capture_modifier\": " + suggested.scoreIncreaseModifier + ",");
+            System.out.println("\"score_decrease_from_wrong_hole_modifier\": " + suggested.scoreDecreaseModifier);
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -1,5 +1,4 @@
 package inkball;
-import processing.core.PApplet;
 import java.util.*;
 
 /**
@@ -9,6 +8,7 @@ import java.util.*;
  */
 
 public class PlayerLine {
+    public static final float WEIGHT = 10; // Thickness the ink is drawn with
     public ArrayList<float[]> points; // List of points player adds
     public ArrayList<HitBox> hitBoxes; // List of hit boxes of a line
 
@@ -52,6 +52,17 @@ public class PlayerLine {
             }
         }
 
+        appendPoint(x, y);
+    }
+
+    /**
+     * Adds a point to the line without checking it against the balls or the top bar, as when
+     * a saved line is restored, and updates the hitboxes.
+     *
+     * @param x the x-coordinate of the new point
+     * @param y the y-coordinate of the new point
+     */
+    public void appendPoint(float x, float y) {
         if (points.size() > 3) {
             float[] prePoint = points.get(points.size() - 3);
             hitBoxes.add(new HitBox(prePoint[0], prePoint[1], x, y));
@@ -62,13 +73,11 @@ public class PlayerLine {
     /**
      * Displays the line by drawing each segment between consecutive points.
      *
-     * @param p the PApplet instance used for rendering
+     * @param renderer the renderer to draw through
      */
-    public void display(PApplet p) {
-        p.stroke(0);
-        p.strokeWeight(10);
+    public void display(Renderer renderer) {
         for (int i = 0; i < points.size() - 1; i++) {
-            p.line(points.get(i)[0], points.get(i)[1], points.get(i+1)[0], points.get(i+1)[1]);
+            renderer.line(points.get(i)[0], points.get(i)[1], points.get(i+1)[0], points.get(i+1)[1], WEIGHT);
         }
 
     }
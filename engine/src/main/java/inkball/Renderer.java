@@ -0,0 +1,54 @@
+package inkball;
+
+/**
+ * The {@code Renderer} interface is what the engine draws through. Levels, balls and lines say
+ * what is drawn where, naming sprites by file name as an {@link AssetSource} does; a front end
+ * implements the few calls below with the graphics library it uses. A headless {@link Engine}
+ * never draws, so it needs no renderer at all.
+ */
+
+public interface Renderer {
+
+    /**
+     * Draws a sprite scaled to the given size.
+     *
+     * @param name   the file name of the sprite, such as {@code ball0.png}
+     * @param x      the x-coordinate of the top-left corner
+     * @param y      the y-coordinate of the top-left corner
+     * @param width  the width to draw the sprite at
+     * @param height the height to draw the sprite at
+     */
+    void sprite(String name, float x, float y, float width, float height);
+
+    /**
+     * Draws a black line.
+     *
+     * @param x1     the x-coordinate the line starts at
+     * @param y1     the y-coordinate the line starts at
+     * @param x2     the x-coordinate the line ends at
+     * @param y2     the y-coordinate the line ends at
+     * @param weight the thickness of the line
+     */
+    void line(float x1, float y1, float x2, float y2, float weight);
+
+    /**
+     * Fills a rectangle with a shade of grey, without an outline.
+     *
+     * @param grey   the shade, from 0 for black to 255 for white
+     * @param x      the x-coordinate of the top-left corner
+     * @param y      the y-coordinate of the top-left corner
+     * @param width  the width of the rectangle
+     * @param height the height of the rectangle
+     */
+    void rect(int grey, float x, float y, float width, float height);
+
+    /**
+     * Writes black text.
+     *
+     * @param text the text
+     * @param x    the x-coordinate of the start of the baseline
+     * @param y    the y-coordinate of the baseline
+     * @param size the height of the text
+     */
+    void text(String text, float x, float y, float size);
+}
@@ -0,0 +1,325 @@
+package inkball;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code RolloutPlayer} class plays a level by itself, drawing ink where a short look ahead
+ * says it helps most. Every so often it lists candidate strokes: for each ball heading somewhere,
+ * one just ahead of it turning it back horizontally, one turning it back vertically and one across
+ * its path sending it back the way it came, as well as the choice of drawing nothing. Each candidate
+ * is tried on a fork of the level: the level is saved with {@link SaveState}, restored onto a spare
+ * headless {@link Engine}, the stroke is drawn and the engine is stepped a few seconds ahead with no
+ * more ink. The stroke whose fork ends best, counting the points scored, a cleared board or a level
+ * run out of time, and how far the balls are left from their holes, is drawn on the real level.
+ *
+ * <p>Rollouts of one decision run side by side on a fork-join pool, and once the decision's time
+ * budget is spent no more are started and the best stroke found so far is drawn. The engine is
+ * deterministic, so the value of each rollout is kept in a table keyed by a hash of the state it
+ * started from; a level restarted or reloaded from a quick save then plays from the table rather
+ * than rolling out again. A state does not say which level or settings it was saved under, so the
+ * table is emptied whenever the player is asked about another level configuration.</p>
+ *
+ * <p>In the window, with {@code --bot}, the front end asks for each stroke with {@link #decide} and
+ * draws it through mouse inputs, so it is recorded and played back like a player's. Headless, with
+ * {@code inkball simulate --bot}, the strokes are drawn straight onto the engine's level by {@link #act}.</p>
+ */
+
+public class RolloutPlayer {
+
+    public static final int DECISION_TICKS = InkPolicy.INTERVAL_TICKS; // Ticks between decisions
+    public static final int HORIZON_TICKS = 3 * Engine.FPS; // Ticks each rollout looks ahead
+    public static final int MAX_BALLS = 5; // Most balls strokes are tried for in one decision
+    public static final long DEFAULT_BUDGET_MILLIS = 10; // Time each decision may take in the window
+    public static final float CLEAR_BONUS = 100; // Value of a rollout that clears the board
+    public static final float FAIL_PENALTY = 100; // Value lost by a rollout that runs out of time
+    public static final float DISTANCE_WEIGHT = 0.5f; // Value lost per cell between a ball and its hole when a rollout ends
+    public static final float MIN_GAIN = 1; // How much better than drawing nothing a stroke must do to be drawn
+    public static final int MAX_CACHED = 1 << 16; // Most rollout values kept before the table is cleared
+    public static final int BUDGET_CHECK_TICKS = 16; // Ticks between checks of the time budget during a rollout
+
+    public final int threads; // Number of threads rolling out the candidates of a decision
+    public final long budgetNanos; // Time each decision may take, or 0 for no limit
+    public final InkPolicy ink = new InkPolicy(); // Finds the holes of balls and draws strokes
+    public final ConcurrentHashMap<Long, Float> cache = new ConcurrentHashMap<>(); // Value of each rollout on the current level, by hash of the state it started from
+    public final LongAdder decisions = new LongAdder(); // Number of decisions made
+    public final LongAdder rollouts = new LongAdder(); // Number of rollouts stepped
+    public final LongAdder cacheHits = new LongAdder(); // Number of rollouts taken from the table instead
+    private final ForkJoinPool pool; // Rolls out candidates side by side, or null to roll them out one by one
+    private final ConcurrentLinkedQueue<Engine> spares = new ConcurrentLinkedQueue<>(); // Engines free to roll out on
+    private volatile LevelConfig spareLevel; // The level the spare engines play and the table was filled on
+
+    /**
+     * The {@code Stroke} class is a straight stroke between two whole-pixel points on the board.
+     */
+    public static final class Stroke {
+        public final float x1; // X-coordinate the stroke starts at
+        public final float y1; // Y-coordinate the stroke starts at
+        public final float x2; // X-coordinate the stroke ends at
+        public final float y2; // Y-coordinate the stroke ends at
+
+        /**
+         * Constructs a new {@code Stroke}, rounding its ends to whole pixels as a mouse would report them.
+         *
+         * @param x1 the x-coordinate the stroke starts at
+         * @param y1 the y-coordinate the stroke starts at
+         * @param x2 the x-coordinate the stroke ends at
+         * @param y2 the y-coordinate the stroke ends at
+         */
+        public Stroke(float x1, float y1, float x2, float y2) {
+            this.x1 = Math.round(x1);
+            this.y1 = Math.round(y1);
+            this.x2 = Math.round(x2);
+            this.y2 = Math.round(y2);
+        }
+    }
+
+    /**
+     * Constructs a new {@code RolloutPlayer}.
+     *
+     * @param threads     the number of threads rolling out the candidates of a decision; with 1 they
+     *                    are rolled out on the thread deciding
+     * @param budgetNanos the time each decision may take, or 0 for no limit
+     */
+    public RolloutPlayer(int threads, long budgetNanos) {
+        this.threads = Math.max(1, threads);
+        this.budgetNanos = budgetNanos;
+        this.pool = this.threads > 1 ? new ForkJoinPool(this.threads) : null;
+    }
+
+    /**
+     * Draws a stroke onto the level of a headless engine on every {@link #DECISION_TICKS}th tick,
+     * if one is found that helps.
+     *
+     * @param engine the engine playing the level
+     */
+    public void act(Engine engine) {
+        if (engine.ticks % DECISION_TICKS != 0) {
+            return;
+        }
+        Stroke stroke = decide(engine.level, engine.config.realTopBarBalls, engine.levelConfig);
+        if (stroke != null) {
+            ink.addStroke(engine.level, stroke.x1, stroke.y1, stroke.x2, stroke.y2);
+        }
+    }
+
+    /**
+     * Chooses the stroke to draw by rolling out every candidate from the current state of a level,
+     * within the time budget.
+     *
+     * @param level       the level being played
+     * @param queue       the queued balls of the level
+     * @param levelConfig the configuration the level was loaded from
+     * @return the stroke, or {@code null} to draw nothing
+     * @throws UncheckedIOException if the layout of the level cannot be read
+     */
+    public Stroke decide(Level level, BallQueue queue, LevelConfig levelConfig) {
+        if (level.template == null || level.isLevelComplete || level.islevelFailed
+                || level.playerLines.size() >= InkPolicy.MAX_LINES) {
+            return null;
+        }
+        List<Stroke> candidates = candidates(level);
+        if (candidates.size() == 1) {
+            return null;
+        }
+        decisions.increment();
+        if (spareLevel != levelConfig) {
+            spares.clear();
+            cache.clear();
+            spareLevel = levelConfig;
+        }
+
+        byte[] state = SaveState.saveLevel(level, queue);
+        long deadline = budgetNanos > 0 ? System.nanoTime() + budgetNanos : Long.MAX_VALUE;
+        float[] values = new float[candidates.size()];
+        Arrays.fill(values, Float.NaN);
+        if (pool == null) {
+            for (int c = 0; c < values.length; c++) {
+                values[c] = evaluate(levelConfig, state, candidates.get(c), deadline);
+            }
+        } else {
+            try {
+                pool.submit(() -> IntStream.range(0, values.length).parallel()
+                        .forEach(c -> values[c] = evaluate(levelConfig, state, candidates.get(c), deadline))).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw (UncheckedIOException) e.getCause();
+                }
+                throw new IllegalStateException("Rollout failed", e.getCause());
+            }
+        }
+
+        if (Float.isNaN(values[0])) {
+            return null;
+        }
+        Stroke best = null;
+        float bestValue = values[0] + MIN_GAIN;
+        for (int c = 1; c < values.length; c++) {
+            if (values[c] > bestValue) {
+                best = candidates.get(c);
+                bestValue = values[c];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Lists the strokes worth trying: drawing nothing first, then three strokes just ahead of each
+     * ball that is still free to move and has a hole it may go into.
+     *
+     * @param level the level being played
+     * @return the candidates, with {@code null} for drawing nothing
+     */
+    public List<Stroke> candidates(Level level) {
+        ArrayList<Stroke> candidates = new ArrayList<>();
+        candidates.add(null);
+        float half = InkPolicy.STROKE_LENGTH / 2;
+        float lead = InkPolicy.LEAD;
+        int tried = 0;
+        for (int b = 0; b < level.balls.size() && tried < MAX_BALLS; b++) {
+            Ball ball = level.balls.get(b);
+            if (ball.isCaptured || ball.isAttracted || ink.targetHole(level, ball) == null) {
+                continue;
+            }
+            tried++;
+            float cx = ball.x + ball.diameter / 2;
+            float cy = ball.y + ball.diameter / 2;
+            float si = Math.signum(ball.i);
+            float sj = Math.signum(ball.j);
+
+            // Upright, turning the ball back horizontally
+            float x = cx + si * lead;
+            candidates.add(new Stroke(x, cy - half, x, cy + half));
+            // Level, turning it back vertically
+            float y = cy + sj * lead;
+            candidates.add(new Stroke(cx - half, y, cx + half, y));
+            // Across its path, sending it back the way it came
+            float mx = cx + si * lead;
+            float my = cy + sj * lead;
+            float h = half / (float) Math.sqrt(2);
+            candidates.add(new Stroke(mx + sj * h, my - si * h, mx - sj * h, my + si * h));
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns how well a rollout ended: the points scored since it started, with a bonus for
+     * clearing the board, a penalty for running out of time, and a penalty for every cell between
+     * each ball left and its hole.
+     *
+     * @param level      the level at the end of the rollout
+     * @param startScore the score of the level when the rollout started
+     * @return the value of the rollout
+     */
+    public float value(Level level, float startScore) {
+        float value = level.score - startScore;
+        if (level.isLevelComplete) {
+            value += CLEAR_BONUS;
+        } else if (level.islevelFailed) {
+            value -= FAIL_PENALTY;
+        }
+        for (Ball ball : level.balls) {
+            Tile hole = ball.isCaptured ? null : ink.targetHole(level, ball);
+            if (hole != null) {
+                float dx = hole.x + hole.size / 2f - (ball.x + ball.diameter / 2);
+                float dy = hole.y + hole.size / 2f - (ball.y + ball.diameter / 2);
+                value -= DISTANCE_WEIGHT * (float) Math.sqrt(dx * dx + dy * dy) / level.cellsize;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Shuts down the threads rolling out candidates.
+     */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Rolls out one candidate on a spare engine, or takes its value from the table.
+     *
+     * @return the value, or {@code NaN} if the stroke could not be drawn or the budget ran out
+     */
+    private float evaluate(LevelConfig levelConfig, byte[] state, Stroke stroke, long deadline) {
+        if (System.nanoTime() > deadline) {
+            return Float.NaN;
+        }
+        Engine engine = spares.poll();
+        try {
+            if (engine == null || engine.levelConfig != levelConfig) {
+                engine = new Engine(levelConfig, 0);
+            }
+            BallQueue queue = engine.config.realTopBarBalls;
+            SaveState.restoreLevel(engine.level, queue, state);
+            if (stroke != null && !ink.addStroke(engine.level, stroke.x1, stroke.y1, stroke.x2, stroke.y2)) {
+                return Float.NaN;
+            }
+            long key = hash(stroke == null ? state : SaveState.saveLevel(engine.level, queue));
+            Float cached = cache.get(key);
+            if (cached != null) {
+                cacheHits.increment();
+                return cached;
+            }
+            float value = rollout(engine, deadline);
+            if (!Float.isNaN(value)) {
+                if (cache.size() >= MAX_CACHED) {
+                    cache.clear();
+                }
+                cache.put(key, value);
+            }
+            return value;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (engine != null && engine.levelConfig == spareLevel) {
+                spares.offer(engine);
+            }
+        }
+    }
+
+    /**
+     * Steps an engine restored to the state a candidate leads to until the horizon or the end of the level.
+     *
+     * @return the value of where it ended, or {@code NaN} if the budget ran out first
+     */
+    private float rollout(Engine engine, long deadline) {
+        rollouts.increment();
+        float startScore = engine.level.score;
+        engine.ticks = 0;
+        engine.clearedAt = -1;
+        engine.completed = false;
+        engine.failed = false;
+        for (int tick = 0; tick < HORIZON_TICKS && engine.step(); tick++) {
+            if (tick % BUDGET_CHECK_TICKS == 0 && System.nanoTime() > deadline) {
+                return Float.NaN;
+            }
+        }
+        return value(engine.level, startScore);
+    }
+
+    /**
+     * Returns a 64-bit FNV-1a hash of a state, keying the table of rollout values.
+     */
+    private static long hash(byte[] state) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : state) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
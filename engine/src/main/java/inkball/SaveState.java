@@ -0,0 +1,410 @@
+package inkball;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code SaveState} class writes the whole state of a game in play to a compact binary form
+ * and puts it back: the score and flags of the game, the counters, timers and randomness of the
+ * level, the tiles damaged so far, the balls on the board, the ink and the queued balls. Only
+ * primitives are written, big-endian and in a fixed order behind a magic number and a version,
+ * so a state is a few kilobytes and takes well under a millisecond to write or read.
+ *
+ * <p>The fixed part of a level is not written; a state is restored onto the same level, loaded
+ * from its layout. Generators cannot be read back, so each one is written as its seed and the
+ * number of draws made from it, and replayed on restore. A game restored from a state then plays
+ * on exactly as the saved game would have.</p>
+ *
+ * <p>States of headless engines and of levels alone are written here. The front end writes the
+ * state of a game played in a window the same way, with the level written by {@link #writeLevel}.</p>
+ */
+
+public class SaveState {
+
+    public static final int MAGIC = 0x494B5356; // "IKSV", the first bytes of every state
+    public static final int VERSION = 3; // Version of the format written
+    public static final byte KIND_GAME = 0; // State of a game played in a window, written by the front end around a level state
+    public static final byte KIND_ENGINE = 1; // State of a headless engine
+    public static final byte KIND_LEVEL = 2; // State of a level and its queued balls alone
+
+    /**
+     * Writes the state of a headless engine.
+     *
+     * @param engine the engine
+     * @return the state
+     * @throws IllegalStateException if the level has been edited since it was loaded
+     */
+    public static byte[] save(Engine engine) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+            DataOutputStream out = new DataOutputStream(bytes);
+            writeHeader(out, KIND_ENGINE);
+            out.writeLong(engine.ticks);
+            out.writeLong(engine.clearedAt);
+            out.writeByte(flags(engine.completed, engine.failed, false));
+            out.writeFloat(engine.scoreboard.total);
+            writeLevel(out, engine.level, engine.config.realTopBarBalls);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write to memory", e);
+        }
+    }
+
+    /**
+     * Puts a headless engine back to a saved state. The engine must play the level the state was saved from.
+     *
+     * @param engine the engine
+     * @param state  the state written by {@link #save(Engine)}
+     * @throws IOException if the state is not an engine state of this version or does not fit the level
+     */
+    public static void restore(Engine engine, byte[] state) throws IOException {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(state);
+            readHeader(in, KIND_ENGINE);
+            long ticks = in.getLong();
+            long clearedAt = in.getLong();
+            byte flags = in.get();
+            float total = in.getFloat();
+
+            engine.level.reset();
+            readLevel(in, engine.level, engine.config.realTopBarBalls);
+            engine.ticks = ticks;
+            engine.clearedAt = clearedAt;
+            engine.completed = (flags & 1) != 0;
+            engine.failed = (flags & 2) != 0;
+            engine.scoreboard.total = total;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Save state is truncated", e);
+        }
+    }
+
+    /**
+     * Writes the state of a level and its queued balls alone, without the game or engine playing them.
+     * A level in a window or on an engine can be forked this way onto another engine playing the same level.
+     *
+     * @param level the level
+     * @param queue the queued balls of the level
+     * @return the state
+     * @throws IllegalStateException if the level has been edited since it was loaded
+     */
+    public static byte[] saveLevel(Level level, BallQueue queue) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+            DataOutputStream out = new DataOutputStream(bytes);
+            writeHeader(out, KIND_LEVEL);
+            writeLevel(out, level, queue);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write to memory", e);
+        }
+    }
+
+    /**
+     * Puts a level and its queued balls back to a saved state. The level must be loaded from the
+     * layout the state was saved from.
+     *
+     * @param level the level
+     * @param queue the queued balls of the level
+     * @param state the state written by {@link #saveLevel(Level, BallQueue)}
+     * @throws IOException if the state is not a level state of this version or does not fit the level
+     */
+    public static void restoreLevel(Level level, BallQueue queue, byte[] state) throws IOException {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(state);
+            readHeader(in, KIND_LEVEL);
+            level.reset();
+            readLevel(in, level, queue);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Save state is truncated", e);
+        }
+    }
+
+    /**
+     * Writes the magic number, the version and the kind of state.
+     *
+     * @param out  the stream to write to
+     * @param kind the kind of state, such as {@link #KIND_GAME}
+     * @throws IOException if the stream cannot be written
+     */
+    public static void writeHeader(DataOutputStream out, byte kind) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeByte(kind);
+    }
+
+    /**
+     * Checks the magic number, the version and the kind of state.
+     *
+     * @param in   the state, positioned at its start
+     * @param kind the kind of state expected
+     * @throws IOException if the state is not of this version and kind
+     */
+    public static void readHeader(ByteBuffer in, byte kind) throws IOException {
+        if (in.getInt() != MAGIC) {
+            throw new IOException("Not a save state");
+        }
+        int version = in.getShort();
+        if (version != VERSION) {
+            throw new IOException("Save state version " + version + ", expected " + VERSION);
+        }
+        if (in.get() != kind) {
+            throw new IOException("Save state of another kind");
+        }
+    }
+
+    /**
+     * Packs up to three flags into the low bits of a byte.
+     *
+     * @param first  the flag of the lowest bit
+     * @param second the flag of the second bit
+     * @param third  the flag of the third bit
+     * @return the packed flags
+     */
+    public static int flags(boolean first, boolean second, boolean third) {
+        return (first ? 1 : 0) | (second ? 2 : 0) | (third ? 4 : 0);
+    }
+
+    /**
+     * Returns the ticks a timer has left, or -1 if it is not scheduled.
+     */
+    private static long remaining(TimingWheel.Timer timer) {
+        return timer != null && timer.isActive() ? timer.remaining() : -1;
+    }
+
+    /**
+     * Writes the state of a level and its queued balls.
+     *
+     * @param out   the stream to write to
+     * @param level the level
+     * @param queue the queued balls of the level
+     * @throws IOException if the stream cannot be written
+     * @throws IllegalStateException if the level has been edited since it was loaded
+     */
+    public static void writeLevel(DataOutputStream out, Level level, BallQueue queue) throws IOException {
+        if (level.template == null) {
+            throw new IllegalStateException("The level does not match a loaded layout");
+        }
+        out.writeLong(level.seed);
+        out.writeInt(level.spawnDraws);
+        out.writeInt(level.ballSeedDraws);
+        out.writeFloat(level.score);
+        for (int capture : level.captures) {
+            out.writeInt(capture);
+        }
+        out.writeInt(level.wrongHoleCaptures);
+        out.writeByte(flags(level.isLevelComplete, level.islevelFailed, level.timersStarted));
+        out.writeInt(level.yellowTileMoveCounter);
+        out.writeInt(level.yellowTileTopLeftX);
+        out.writeInt(level.yellowTileTopLeftY);
+        out.writeInt(level.yellowTileTopLeftDirection);
+        out.writeInt(level.yellowTileBottomRightX);
+        out.writeInt(level.yellowTileBottomRightY);
+        out.writeInt(level.yellowTileBottomRightDirection);
+        out.writeInt(level.scoreAdditionCounter);
+        out.writeInt(level.levelTime);
+        out.writeInt(level.spawnInterval);
+        out.writeLong(level.clockTicks);
+        out.writeLong(remaining(level.spawnTimer));
+        out.writeLong(remaining(level.timeoutTimer));
+        out.writeLong(remaining(level.yellowTileTimer));
+        out.writeLong(remaining(level.scoreTimer));
+        out.writeFloat(level.camera.x);
+        out.writeFloat(level.camera.y);
+
+        // Only the tiles changed since loading
+        ArrayList<Tile> tiles = level.tiles;
+        List<LevelTemplate.Cell> cells = level.template.tiles;
+        int changed = 0;
+        for (int i = 0; i < tiles.size(); i++) {
+            if (isChanged(tiles.get(i), cells.get(i))) {
+                changed++;
+            }
+        }
+        out.writeInt(tiles.size());
+        out.writeInt(changed);
+        for (int i = 0; i < tiles.size(); i++) {
+            Tile tile = tiles.get(i);
+            if (isChanged(tile, cells.get(i))) {
+                out.writeInt(i);
+                out.writeByte(tile.type.ordinal());
+                out.writeShort(tile.hitCount);
+            }
+        }
+
+        out.writeInt(level.balls.size());
+        for (Ball ball : level.balls) {
+            out.writeFloat(ball.x);
+            out.writeFloat(ball.y);
+            out.writeFloat(ball.i);
+            out.writeFloat(ball.j);
+            out.writeFloat(ball.diameter);
+            out.writeByte(ball.colorIndex);
+            out.writeByte(flags(ball.isCaptured, ball.isAttracted, ball.isColliding)
+                    | (ball.isLaunched ? 8 : 0) | (ball.prevCollideState ? 16 : 0));
+            out.writeShort(level.holes.indexOf(ball.attractedHole));
+            out.writeLong(ball.randomSeed);
+            out.writeInt(ball.directionDraws);
+        }
+
+        out.writeInt(level.playerLines.size());
+        for (PlayerLine line : level.playerLines) {
+            out.writeInt(line.points.size());
+            for (float[] point : line.points) {
+                out.writeFloat(point[0]);
+                out.writeFloat(point[1]);
+            }
+        }
+
+        out.writeInt(queue.size());
+        for (int i = 0; i < queue.size(); i++) {
+            out.writeByte(queue.colourAt(i));
+        }
+        for (int slot = 0; slot < Math.min(queue.size(), BallQueue.VISIBLE_SLOTS); slot++) {
+            Ball sprite = queue.get(slot);
+            out.writeFloat(sprite.x);
+            out.writeBoolean(sprite.isLaunched);
+        }
+    }
+
+    /**
+     * Brings a level that has just been reset, and its queued balls, to a saved state.
+     *
+     * @param in    the state, positioned at the start of the level
+     * @param level the level
+     * @param queue the queued balls of the level
+     * @throws IOException if the state does not fit the level
+     */
+    public static void readLevel(ByteBuffer in, Level level, BallQueue queue) throws IOException {
+        long seed = in.getLong();
+        int spawnDraws = in.getInt();
+        int ballSeedDraws = in.getInt();
+        if (spawnDraws < 0 || ballSeedDraws < 0) {
+            throw new IOException("Negative number of draws");
+        }
+        level.restoreRandom(seed, spawnDraws, ballSeedDraws);
+        level.score = in.getFloat();
+        for (int colour = 0; colour < level.captures.length; colour++) {
+            level.captures[colour] = in.getInt();
+        }
+        level.wrongHoleCaptures = in.getInt();
+        byte flags = in.get();
+        level.isLevelComplete = (flags & 1) != 0;
+        level.islevelFailed = (flags & 2) != 0;
+        level.yellowTileMoveCounter = in.getInt();
+        level.yellowTileTopLeftX = in.getInt();
+        level.yellowTileTopLeftY = in.getInt();
+        level.yellowTileTopLeftDirection = in.getInt();
+        level.yellowTileBottomRightX = in.getInt();
+        level.yellowTileBottomRightY = in.getInt();
+        level.yellowTileBottomRightDirection = in.getInt();
+        level.scoreAdditionCounter = in.getInt();
+        int time = in.getInt();
+        int spawnInterval = in.getInt();
+        long clockTicks = in.getLong();
+        long spawnTicksLeft = in.getLong();
+        long timeoutTicksLeft = in.getLong();
+        long yellowTicksLeft = in.getLong();
+        long scoreTicksLeft = in.getLong();
+        level.camera.x = in.getFloat();
+        level.camera.y = in.getFloat();
+
+        int tileCount = in.getInt();
+        if (tileCount != level.tiles.size()) {
+            throw new IOException("Save state of a level with " + tileCount + " tiles, not " + level.tiles.size());
+        }
+        int changed = in.getInt();
+        Tile.TileType[] types = Tile.TileType.values();
+        for (int n = 0; n < changed; n++) {
+            int index = in.getInt();
+            int type = in.get();
+            if (index < 0 || index >= tileCount || type < 0 || type >= types.length) {
+                throw new IOException("Bad tile " + index + " of type " + type);
+            }
+            Tile tile = level.tiles.get(index);
+            tile.restore(types[type]);
+            tile.hitCount = in.getShort();
+        }
+
+        level.balls.clear();
+        int ballCount = in.getInt();
+        for (int n = 0; n < ballCount; n++) {
+            float x = in.getFloat();
+            float y = in.getFloat();
+            float i = in.getFloat();
+            float j = in.getFloat();
+            float diameter = in.getFloat();
+            int colour = in.get();
+            byte ballFlags = in.get();
+            int hole = in.getShort();
+            long randomSeed = in.getLong();
+            int directionDraws = in.getInt();
+            if (colour < 0 || colour >= level.captures.length || hole >= level.holes.size() || directionDraws < 0) {
+                throw new IOException("Bad ball of colour " + colour);
+            }
+            Ball ball = new Ball(x, y, colour, randomSeed);
+            ball.restoreRandom(randomSeed, directionDraws);
+            ball.i = i;
+            ball.j = j;
+            ball.diameter = diameter;
+            ball.isCaptured = (ballFlags & 1) != 0;
+            ball.isAttracted = (ballFlags & 2) != 0;
+            ball.isColliding = (ballFlags & 4) != 0;
+            ball.isLaunched = (ballFlags & 8) != 0;
+            ball.prevCollideState = (ballFlags & 16) != 0;
+            ball.attractedHole = hole < 0 ? null : level.holes.get(hole);
+            level.fitBallToBoard(ball);
+            level.balls.add(ball);
+        }
+
+        level.playerLines.clear();
+        int lineCount = in.getInt();
+        for (int n = 0; n < lineCount; n++) {
+            PlayerLine line = new PlayerLine();
+            int pointCount = in.getInt();
+            if (pointCount < 0 || pointCount > in.remaining() / 8) {
+                throw new IOException("Bad line of " + pointCount + " points");
+            }
+            for (int point = 0; point < pointCount; point++) {
+                line.appendPoint(in.getFloat(), in.getFloat());
+            }
+            level.playerLines.add(line);
+        }
+
+        queue.clear();
+        int queued = in.getInt();
+        if (queued < 0 || queued > in.remaining()) {
+            throw new IOException("Bad queue of " + queued + " balls");
+        }
+        for (int n = 0; n < queued; n++) {
+            queue.add(in.get(), BallQueue.START_X + n * BallQueue.SLOT_SPACING);
+        }
+        for (int slot = 0; slot < Math.min(queued, BallQueue.VISIBLE_SLOTS); slot++) {
+            Ball sprite = queue.get(slot);
+            sprite.x = in.getFloat();
+            sprite.isLaunched = in.get() != 0;
+        }
+
+        if ((flags & 4) != 0) {
+            level.resumeTimers(time, spawnInterval, queue, clockTicks, spawnTicksLeft, timeoutTicksLeft,
+                    yellowTicksLeft, scoreTicksLeft);
+        } else {
+            level.stopTimers();
+        }
+        if (in.hasRemaining()) {
+            throw new IOException(in.remaining() + " bytes left over in save state");
+        }
+    }
+
+    /**
+     * Returns whether a tile has been damaged or destroyed since it was loaded from its template cell.
+     */
+    private static boolean isChanged(Tile tile, LevelTemplate.Cell cell) {
+        return tile.type != cell.type || tile.hitCount != 0;
+    }
+}
@@ -0,0 +1,12 @@
+package inkball;
+
+/**
+ * The {@code Scoreboard} class holds the score of one game across its levels. The levels of a
+ * game share its scoreboard, and every game or headless {@link Engine} has its own, so several
+ * games can be played in one JVM.
+ */
+
+public class Scoreboard {
+
+    public float total = 0; // Score of the game so far
+}
@@ -0,0 +1,171 @@
+package inkball;
+import java.util.ArrayList;
+
+
+/**
+ * The {@code Tile} class represents a tile on the game board.
+ * A tile can be of different types such as walls, holes, or entry points,
+ * and it manages its hitboxes, visual representation, and behavior when hit by balls.
+ */
+
+public class Tile {
+
+    public static final String[] WALL_SPRITES = {"wall0.png", "wall1.png", "wall2.png", "wall3.png", "wall4.png"}; // File names of the wall sprites, by color index
+    public static final String[] DAMAGED_WALL_SPRITES = {"damagedwall0.png", "damagedwall1.png", "damagedwall2.png",
+            "damagedwall3.png", "damagedwall4.png"}; // File names of the sprites of walls that have been hit, by color index
+    public static final String[] HOLE_SPRITES = {"hole0.png", "hole1.png", "hole2.png", "hole3.png", "hole4.png"}; // File names of the hole sprites, by color index
+    public static final String ENTRYPOINT_SPRITE = "entrypoint.png"; // File name of the spawner sprite
+    public static final String BLANK_SPRITE = "tile.png"; // File name of the sprite of blank tiles and destroyed walls
+
+    public int x; // The x-coordinate of the tile
+    public int y; // The y-coordinate of the tile
+    public int size; // The size of the tile (width and height in pixels)
+    public TileType type; // The type of the tile (WALL, TILE, HOLE, or ENTRYPOINT)
+    public int colorIndex; // The color index of the tile
+    public ArrayList<HitBox> hitBoxes; // List of hit boxes associated with the tile
+    public int hitCount = 0; // Number of times the tile has been hit
+    public int MAX_HIT_COUNT = 3; // Maximum number of hits before the tile is destroyed
+    public int index = -1; // Position of the tile in its level's list of tiles, or -1 if it is not in one
+
+
+    /**
+     * Enum representing the different types of tiles.
+     */
+    public enum TileType {
+        WALL,
+        TILE,
+        HOLE,
+        ENTRYPOINT;
+    }
+
+    /**
+     * Constructs a new {@code Tile} with the specified properties.
+     *
+     * @param x          the x-coordinate of the tile
+     * @param y          the y-coordinate of the tile
+     * @param size       the size of the tile (width and height in pixels)
+     * @param type       the type of the tile (e.g., WALL, TILE)
+     * @param colorIndex the color index of the tile (used for walls)
+     */
+    public Tile(int x, int y, int size, TileType type, int colorIndex) {
+        this.x = x;
+        this.y = y;
+        this.size = size;
+        this.type = type;
+        this.colorIndex = colorIndex;
+        this.hitBoxes = new ArrayList<>();
+        if (this.type == TileType.WALL) {
+            createHitBoxes();
+        }
+    }
+
+    /**
+     * Constructs a new {@code Tile} around hit boxes built beforehand, which may be shared
+     * with tiles at the same place in other copies of a level.
+     *
+     * @param x          the x-coordinate of the tile
+     * @param y          the y-coordinate of the tile
+     * @param size       the size of the tile (width and height in pixels)
+     * @param type       the type of the tile (e.g., WALL, TILE)
+     * @param colorIndex the color index of the tile (used for walls)
+     * @param hitBoxes   the hit boxes of the tile, never changed afterwards
+     */
+    public Tile(int x, int y, int size, TileType type, int colorIndex, ArrayList<HitBox> hitBoxes) {
+        this.x = x;
+        this.y = y;
+        this.size = size;
+        this.type = type;
+        this.colorIndex = colorIndex;
+        this.hitBoxes = hitBoxes;
+    }
+
+    /**
+     * Displays the tile through the specified renderer.
+     * If the tile is a wall, it changes its appearance based on the number of hits it has taken.
+     *
+     * @param renderer the renderer to draw through
+     */
+    public void display(Renderer renderer) {
+        renderer.sprite(getCurrentSprite(), x, y, size, size);
+    }
+
+    /**
+     * Returns the file name of the sprite the tile is currently drawn with.
+     * Walls that have been hit but not yet destroyed use their damaged sprite, and destroyed walls are drawn blank.
+     *
+     * @return the sprite for the tile's current state
+     */
+    public String getCurrentSprite() {
+        switch (type) {
+            case WALL:
+                return hitCount == 1 || hitCount == 2 ? DAMAGED_WALL_SPRITES[colorIndex] : WALL_SPRITES[colorIndex];
+            case HOLE:
+                return HOLE_SPRITES[colorIndex];
+            case ENTRYPOINT:
+                return ENTRYPOINT_SPRITE;
+            default:
+                return BLANK_SPRITE;
+        }
+    }
+
+    /**
+     * Handles the behavior when the tile is hit by a ball.
+     * If the ball's color matches the tile's color or the tile's color is neutral, the hit count is incremented.
+     * When the hit count reaches the maximum, the tile is converted to a blank tile.
+     *
+     * @param ballColorIndex the color index of the ball that hit the tile
+     */
+    public void hit (int ballColorIndex) {
+
+        if (this.colorIndex == ballColorIndex || this.colorIndex == 0) {
+            hitCount++;
+        }
+        if (hitCount == 3) {
+            this.type = TileType.TILE;
+        }
+    }
+
+
+    /**
+     * Creates the hitboxes for the tile. A hitbox is created for each edge of the tile.
+     */
+    public void createHitBoxes() {
+        hitBoxes.addAll(edgeHitBoxes(x, y, size));
+    }
+
+    /**
+     * Builds one hitbox for each edge of a square.
+     *
+     * @param x    the x-coordinate of the square
+     * @param y    the y-coordinate of the square
+     * @param size the width and height of the square
+     * @return the top, bottom, right and left edges
+     */
+    public static ArrayList<HitBox> edgeHitBoxes(int x, int y, int size) {
+        ArrayList<HitBox> edges = new ArrayList<>(4);
+        edges.add(new HitBox(x, y, x + size, y));
+        edges.add(new HitBox(x, y + size, x + size, y + size));
+        edges.add(new HitBox(x + size, y, x + size, y + size));
+        edges.add(new HitBox(x, y, x, y + size));
+        return edges;
+    }
+
+    /**
+     * Undoes any damage, turning a destroyed wall back into a wall.
+     *
+     * @param type the type the tile started as
+     */
+    public void restore(TileType type) {
+        this.type = type;
+        this.hitCount = 0;
+    }
+
+    /**
+     * Returns the list of hitboxes associated with this tile.
+     *
+     * @return the list of hitboxes
+     */
+    public ArrayList<HitBox> getHitBoxes() {
+        return hitBoxes;
+    }
+}
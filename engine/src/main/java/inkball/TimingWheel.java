@@ -0,0 +1,183 @@
+package inkball;
+
+/**
+ * The {@code TimingWheel} class runs actions after a number of ticks, such as spawns, animations
+ * and the level timeout. Timers sit in the slot of a ring of wheels matching the tick they are due,
+ * and longer delays sit in coarser wheels that are moved into finer ones as their tick comes close.
+ * A tick only looks at one slot, so its cost does not grow with the number of timers.
+ * Nothing runs unless the wheel is advanced, so a paused game simply stops advancing it.
+ */
+
+public class TimingWheel {
+
+    public static final int SLOT_BITS = 8; // Each wheel has 2^SLOT_BITS slots
+    public static final int SLOTS = 1 << SLOT_BITS; // Number of slots of each wheel
+    public static final int SLOT_MASK = SLOTS - 1;
+    public static final int WHEELS = 4; // Number of wheels, together covering 2^32 ticks
+
+    public long now = 0; // Number of ticks the wheel has been advanced
+    public int activeTimers = 0; // Number of timers scheduled and not yet run or cancelled
+    public Timer[][] slots = new Timer[WHEELS][SLOTS]; // First timer of each slot, linked through Timer.next
+
+    /**
+     * The {@code Timer} class is an action scheduled on a wheel, run once or every few ticks.
+     */
+    public static final class Timer {
+        public final TimingWheel wheel; // The wheel the timer is scheduled on
+        public final Runnable action; // What the timer runs
+        public final int period; // Ticks between runs of a repeating timer, or 0 for a one-off timer
+        public long due; // The tick the timer runs next
+        public boolean cancelled = false; // Whether the timer was cancelled or a one-off timer has run
+        Timer next; // The next timer in the same slot
+
+        private Timer(TimingWheel wheel, Runnable action, int period, long due) {
+            this.wheel = wheel;
+            this.action = action;
+            this.period = period;
+            this.due = due;
+        }
+
+        /**
+         * Stops the timer from running again. It is dropped when the wheel reaches its slot.
+         */
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                wheel.activeTimers--;
+            }
+        }
+
+        /**
+         * Returns whether the timer will still run.
+         *
+         * @return {@code true} if the timer is scheduled
+         */
+        public boolean isActive() {
+            return !cancelled;
+        }
+
+        /**
+         * Returns the number of ticks left before the timer runs.
+         *
+         * @return the ticks left, at least 1 while the timer is scheduled
+         */
+        public long remaining() {
+            return due - wheel.now;
+        }
+    }
+
+    /**
+     * Schedules an action to run once.
+     *
+     * @param delay  the number of ticks before it runs; at least one tick is waited
+     * @param action the action to run
+     * @return the timer, which may be cancelled
+     */
+    public Timer schedule(long delay, Runnable action) {
+        return schedule(delay, 0, action);
+    }
+
+    /**
+     * Schedules an action to run repeatedly, first after a delay and then every period.
+     *
+     * @param delay  the number of ticks before it first runs; at least one tick is waited
+     * @param period the number of ticks between runs, or 0 to run once
+     * @param action the action to run
+     * @return the timer, which may be cancelled
+     * @throws IllegalArgumentException if the period is negative
+     */
+    public Timer schedule(long delay, int period, Runnable action) {
+        if (period < 0) {
+            throw new IllegalArgumentException("Negative period " + period);
+        }
+        Timer timer = new Timer(this, action, period, now + Math.max(1, delay));
+        insert(timer);
+        activeTimers++;
+        return timer;
+    }
+
+    /**
+     * Advances the wheel by one tick and runs the timers due on it. Timers scheduled by those
+     * actions run on later ticks.
+     */
+    public void advance() {
+        now++;
+        if ((now & SLOT_MASK) == 0) {
+            for (int wheel = 1; wheel < WHEELS; wheel++) {
+                int slot = (int) ((now >>> (wheel * SLOT_BITS)) & SLOT_MASK);
+                cascade(wheel, slot);
+                if (slot != 0) {
+                    break;
+                }
+            }
+        }
+
+        int slot = (int) (now & SLOT_MASK);
+        Timer timer = slots[0][slot];
+        slots[0][slot] = null;
+        while (timer != null) {
+            Timer next = timer.next;
+            timer.next = null;
+            if (timer.cancelled) {
+                // Dropped
+            } else if (timer.due != now) {
+                insert(timer);
+            } else {
+                timer.action.run();
+                if (timer.period > 0 && !timer.cancelled) {
+                    timer.due = now + timer.period;
+                    insert(timer);
+                } else if (!timer.cancelled) {
+                    timer.cancelled = true;
+                    activeTimers--;
+                }
+            }
+            timer = next;
+        }
+    }
+
+    /**
+     * Cancels every timer. The tick count is kept.
+     */
+    public void clear() {
+        for (Timer[] wheel : slots) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                for (Timer timer = wheel[slot]; timer != null; timer = timer.next) {
+                    timer.cancelled = true;
+                }
+                wheel[slot] = null;
+            }
+        }
+        activeTimers = 0;
+    }
+
+    /**
+     * Moves the timers of a slot of a coarser wheel into the finer wheels.
+     */
+    private void cascade(int wheel, int slot) {
+        Timer timer = slots[wheel][slot];
+        slots[wheel][slot] = null;
+        while (timer != null) {
+            Timer next = timer.next;
+            timer.next = null;
+            if (!timer.cancelled) {
+                insert(timer);
+            }
+            timer = next;
+        }
+    }
+
+    /**
+     * Puts a timer in the slot of the finest wheel that reaches its tick.
+     */
+    private void insert(Timer timer) {
+        long delay = timer.due - now;
+        int wheel = 0;
+        while (wheel < WHEELS - 1 && delay >= 1L << ((wheel + 1) * SLOT_BITS)) {
+            wheel++;
+        }
+        int slot = (int) ((timer.due >>> (wheel * SLOT_BITS)) & SLOT_MASK);
+        timer.next = slots[wheel][slot];
+        slots[wheel][slot] = timer;
+    }
+}
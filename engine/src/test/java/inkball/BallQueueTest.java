@@ -0,0 +1,72 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BallQueueTest {
+
+    /**
+     * Test for balls leaving the queue in the order they were added.
+     */
+    @Test
+    public void testOrder() {
+        BallQueue queue = new BallQueue();
+        for (int i = 0; i < 40; i++) {
+            queue.add(i % 5, 20 + i * 32);
+        }
+        assertEquals(40, queue.size());
+        assertEquals(3, queue.colourAt(3));
+
+        for (int i = 0; i < 40; i++) {
+            assertEquals(i % 5, queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+        assertThrows(NoSuchElementException.class, queue::poll);
+    }
+
+    /**
+     * Test for sprites being kept only for the visible slots, and moving up as balls leave.
+     */
+    @Test
+    public void testVisibleSlots() {
+        BallQueue queue = new BallQueue();
+        for (int i = 0; i < 7; i++) {
+            queue.add(i % 5, 20 + i * 32);
+        }
+        assertEquals(20 + 4 * 32, queue.get(4).x);
+        assertThrows(IndexOutOfBoundsException.class, () -> queue.get(5));
+
+        Ball second = queue.get(1);
+        queue.poll();
+        assertSame(second, queue.get(0));
+        assertEquals(0, queue.get(4).colorIndex);
+        assertEquals(20 + 5 * 32, queue.get(4).x);
+        assertFalse(queue.get(4).isLaunched);
+    }
+
+    /**
+     * Test for a long queue wrapping around its buffer without keeping a ball for every entry.
+     */
+    @Test
+    public void testLongQueue() {
+        BallQueue queue = new BallQueue();
+        for (int i = 0; i < 50_000; i++) {
+            queue.add(i % 5, 20 + i * 32);
+        }
+        for (int i = 0; i < 49_990; i++) {
+            queue.poll();
+            queue.add(i % 5, 0);
+        }
+        assertEquals(50_000, queue.size());
+        assertEquals(65_536, queue.colours.length);
+        assertEquals(49_990 % 5, queue.colourAt(0));
+        assertEquals(BallQueue.VISIBLE_SLOTS, queue.sprites.length);
+
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        queue.add(2, 20);
+        assertEquals(2, queue.get(0).colorIndex);
+    }
+}
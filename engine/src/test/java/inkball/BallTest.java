@@ -1,7 +1,5 @@
 package inkball;
 import org.junit.jupiter.api.Test;
-import processing.core.PApplet;
-import processing.core.PImage;
 
 import java.util.ArrayList;
 
@@ -9,27 +7,26 @@ import java.util.ArrayList;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class BallTest {
-    PApplet p = new PApplet();
 
     /**
      * Basic test for ball class.
      */
     @Test
     public void basicTest() {
-        Ball ball = new Ball(p, 64, 128, new PImage[]{null, null}, 0);
+        Ball ball = new Ball(64, 128, 0);
         assertEquals(2, Math.abs(ball.i), 1e-6);
         assertEquals(2, Math.abs(ball.j), 1e-6);
         assertEquals(64, ball.x, 1e-6);
         assertEquals(128, ball.y, 1e-6);
         assertEquals(0, ball.colorIndex);
 
-        Tile tile = new Tile(88, 152, App.CELLSIZE, Tile.TileType.WALL, null, 1);
-        ball.changeColor(1, tile, new PImage[]{null, null});
+        Tile tile = new Tile(88, 152, Engine.CELLSIZE, Tile.TileType.WALL, 1);
+        ball.changeColor(1, tile);
         assertEquals(1, ball.colorIndex);
 
         float mx = ball.x + ball.i;
         float my = ball.y + ball.j;
-        ball.update(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new PImage[]{}, new PImage[]{null, null});
+        ball.update(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
         assertEquals(mx, ball.x, 1e-6);
         assertEquals(my, ball.y, 1e-6);
     }
@@ -39,11 +36,10 @@ public class BallTest {
      */
     @Test
     public void testCheckCollisions() {
-        App.random.setSeed(0);
-        Ball ball = new Ball(p, 565, 629, new PImage[]{}, 0);
+        Ball ball = new Ball(565, 629, 0);
         float vx = ball.i;
         float vy = ball.j;
-        ball.update(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new PImage[]{}, new PImage[]{});
+        ball.update(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
         assertEquals(-vx, ball.i, 1e-6);
         assertEquals(-vy, ball.j, 1e-6);
         vx = ball.i;
@@ -51,8 +47,8 @@ public class BallTest {
 
         // Collides with walls
         ArrayList<Tile> tiles = new ArrayList<>();
-        tiles.add(new Tile(562, 625, App.CELLSIZE, Tile.TileType.WALL, null, 1));
-        ball.update(tiles, new ArrayList<>(), new ArrayList<>(), new PImage[]{}, new PImage[]{});
+        tiles.add(new Tile(562, 625, Engine.CELLSIZE, Tile.TileType.WALL, 1));
+        ball.update(tiles, new ArrayList<>(), new ArrayList<>());
         assertTrue(vx != ball.i || vy != ball.j);
         vx = ball.i;
         vy = ball.j;
@@ -67,7 +63,7 @@ public class BallTest {
         line.addPoint(562, 630, new ArrayList<>());
         line.addPoint(550, 640, new ArrayList<>());
         playerLines.add(line);
-        ball.update(new ArrayList<>(), playerLines, new ArrayList<>(), new PImage[]{}, new PImage[]{});
+        ball.update(new ArrayList<>(), playerLines, new ArrayList<>());
         assertTrue(vx != ball.i || vy != ball.j);
     }
 
@@ -76,13 +72,12 @@ public class BallTest {
      */
     @Test
     public void testCheckHoleAttraction() {
-        App.random.setSeed(0);
-        Ball ball = new Ball(p, 120, 120, new PImage[]{}, 0);
+        Ball ball = new Ball(120, 120, 0);
         ArrayList<Tile> tiles = new ArrayList<>();
-        tiles.add(new Tile(128, 128, 64, Tile.TileType.HOLE, null, 0));
+        tiles.add(new Tile(128, 128, 64, Tile.TileType.HOLE, 0));
         assertFalse(ball.isCaptured);
         for (int i = 0; i < 7000; i++) {
-            ball.update(tiles, new ArrayList<>(), new ArrayList<>(), new PImage[]{}, new PImage[]{});
+            ball.update(tiles, new ArrayList<>(), new ArrayList<>());
         }
         assertTrue(ball.isCaptured);
     }
@@ -92,17 +87,17 @@ public class BallTest {
      */
     @Test
     public void testGetColorName() {
-        Ball ball1 = new Ball(p, 0, 0, new PImage[]{}, 0);
+        Ball ball1 = new Ball(0, 0, 0);
         assertEquals("grey", ball1.getColorName());
-        Ball ball2 = new Ball(p, 0, 0, new PImage[]{}, 1);
+        Ball ball2 = new Ball(0, 0, 1);
         assertEquals("orange", ball2.getColorName());
-        Ball ball3 = new Ball(p, 0, 0, new PImage[]{}, 2);
+        Ball ball3 = new Ball(0, 0, 2);
         assertEquals("blue", ball3.getColorName());
-        Ball ball4 = new Ball(p, 0, 0, new PImage[]{}, 3);
+        Ball ball4 = new Ball(0, 0, 3);
         assertEquals("green", ball4.getColorName());
-        Ball ball5 = new Ball(p, 0, 0, new PImage[]{}, 4);
+        Ball ball5 = new Ball(0, 0, 4);
         assertEquals("yellow", ball5.getColorName());
-        Ball ball6 = new Ball(p, 0, 0, new PImage[]{}, 5);
+        Ball ball6 = new Ball(0, 0, 5);
         assertEquals("unknown", ball6.getColorName());
     }
 
@@ -111,7 +106,7 @@ public class BallTest {
      */
     @Test
     public void testReset() {
-        Ball ball = new Ball(p, 0, 0, new PImage[]{}, 0);
+        Ball ball = new Ball(0, 0, 0);
         ball.reset(new ArrayList<>());
         assertEquals(15, ball.x);
         assertEquals(20, ball.y);
@@ -0,0 +1,117 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchSimulatorTest {
+
+    /**
+     * Creates the configuration of a walled level with two spawners, a hole of each colour and queued balls.
+     */
+    private LevelConfig createConfig() {
+        ArrayList<String> layout = new ArrayList<>();
+        layout.add("XXXXXXXXXXXXXXXXXX");
+        layout.add("X S           S  X");
+        layout.add("X                X");
+        layout.add("X  H0  H1  H2    X");
+        layout.add("X                X");
+        for (int row = 5; row < 12; row++) {
+            layout.add("X                X");
+        }
+        layout.add("X     H3  H4     X");
+        for (int row = 13; row < 17; row++) {
+            layout.add("X                X");
+        }
+        layout.add("XXXXXXXXXXXXXXXXXX");
+        HashMap<String, Integer> scores = new HashMap<>();
+        for (String colour : BatchSimulator.COLOURS) {
+            scores.put(colour, 10);
+        }
+        return new LevelConfig("batch.txt", layout, null, 20, 2, 1, 1,
+                Arrays.asList("blue", "green", "orange", "yellow"), scores, scores);
+    }
+
+    /**
+     * Test for parsing the options, with defaults for those not given.
+     */
+    @Test
+    public void testParse() {
+        BatchSimulator defaults = BatchSimulator.parse(new String[]{});
+        assertEquals("config.json", defaults.configPath);
+        assertEquals(BatchSimulator.DEFAULT_RUNS, defaults.runs);
+
+        BatchSimulator simulator = BatchSimulator.parse(new String[]{"--config", "other.json", "--level", "2",
+                "--runs", "500", "--threads", "3", "--seed", "9", "--max-seconds", "10", "--unknown"});
+        assertEquals("other.json", simulator.configPath);
+        assertEquals(2, simulator.levelIndex);
+        assertEquals(500, simulator.runs);
+        assertEquals(3, simulator.threads);
+        assertEquals(9, simulator.seed);
+        assertEquals(10L * Engine.FPS, simulator.maxTicks);
+        assertFalse(simulator.bot);
+
+        BatchSimulator bot = BatchSimulator.parse(new String[]{"--bot", "--budget-ms", "5"});
+        assertTrue(bot.bot);
+        assertEquals(5, bot.budgetMillis);
+        assertSame(bot.player(), bot.player());
+        assertEquals(5_000_000, bot.player().budgetNanos);
+    }
+
+    /**
+     * Test for rejecting a numeric option given something that is not a number.
+     */
+    @Test
+    public void testParseBadNumber() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> BatchSimulator.parse(new String[]{"--runs", "many"}));
+        assertEquals("--runs expects a whole number, not many", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> BatchSimulator.parse(new String[]{"--level", "2.5"}));
+        assertThrows(IllegalArgumentException.class, () -> BatchSimulator.parse(new String[]{"--threads", ""}));
+        assertThrows(IllegalArgumentException.class, () -> BatchSimulator.parse(new String[]{"--seed", "0x10"}));
+    }
+
+    /**
+     * Test for a batch giving the same results on any number of threads, with every run finished.
+     */
+    @Test
+    public void testSimulate() throws IOException {
+        LevelConfig level = createConfig();
+        BatchSimulator simulator = new BatchSimulator();
+        simulator.runs = 24;
+        simulator.seed = 3;
+        simulator.threads = 1;
+        List<BatchSimulator.Run> single = simulator.simulate(level);
+        simulator.threads = 4;
+        List<BatchSimulator.Run> parallel = simulator.simulate(level);
+
+        assertEquals(24, single.size());
+        for (int i = 0; i < single.size(); i++) {
+            BatchSimulator.Run run = single.get(i);
+            assertEquals(run.score, parallel.get(i).score);
+            assertEquals(run.ticks, parallel.get(i).ticks);
+            assertArrayEquals(run.captures, parallel.get(i).captures);
+            assertTrue(run.timedOut || run.clearedAt > 0);
+            assertTrue(run.ticks <= simulator.maxTicks);
+        }
+
+        String report = BatchSimulator.report(single);
+        assertTrue(report.contains("score"));
+        assertTrue(report.contains("yellow captures"));
+        assertTrue(report.contains("of 24 runs"));
+    }
+
+    /**
+     * Test for percentiles taking the nearest value at or above them.
+     */
+    @Test
+    public void testPercentile() {
+        float[] sorted = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        assertEquals(5, BatchSimulator.percentile(sorted, 0.5));
+        assertEquals(10, BatchSimulator.percentile(sorted, 0.99));
+        assertEquals(1, BatchSimulator.percentile(sorted, 0));
+        assertTrue(Float.isNaN(BatchSimulator.percentile(new float[0], 0.5)));
+    }
+}
@@ -0,0 +1,52 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CameraTest {
+
+    /**
+     * Test for boards no larger than the viewport never scrolling.
+     */
+    @Test
+    public void testSmallBoard() {
+        Camera camera = new Camera(576, 576);
+        camera.setWorld(128, 96);
+        camera.scroll(100, 100);
+        assertEquals(0, camera.x);
+        assertEquals(0, camera.y);
+    }
+
+    /**
+     * Test for scrolling stopping at the edges of a large board.
+     */
+    @Test
+    public void testScroll() {
+        Camera camera = new Camera(576, 576);
+        camera.setWorld(3200, 1000);
+        camera.scroll(64, 64);
+        assertEquals(64, camera.x);
+        assertEquals(64, camera.y);
+
+        camera.scroll(10000, 10000);
+        assertEquals(3200 - 576, camera.x);
+        assertEquals(1000 - 576, camera.y);
+
+        camera.scroll(-10000, 0);
+        assertEquals(0, camera.x);
+    }
+
+    /**
+     * Test for visibility of rectangles on the board.
+     */
+    @Test
+    public void testIsVisible() {
+        Camera camera = new Camera(100, 100);
+        camera.setWorld(1000, 1000);
+        camera.scroll(200, 200);
+        assertTrue(camera.isVisible(250, 250, 10, 10));
+        assertTrue(camera.isVisible(190, 190, 20, 20));
+        assertFalse(camera.isVisible(100, 250, 50, 10));
+        assertFalse(camera.isVisible(250, 300, 10, 10));
+    }
+}
@@ -0,0 +1,71 @@
+package inkball;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkedBoardTest {
+    private ChunkedBoard board;
+
+    /**
+     * Set up before testing.
+     */
+    @BeforeEach
+    public void setup() {
+        board = new ChunkedBoard();
+    }
+
+    /**
+     * Test for chunks only being allocated when a tile is placed in them.
+     */
+    @Test
+    public void testLazyChunks() {
+        assertNull(board.get(5000, 5000));
+        assertEquals(0, board.chunkCount());
+
+        Tile tile = new Tile(0, 0, 32, Tile.TileType.WALL, 0);
+        board.set(5000, 5000, tile);
+        assertSame(tile, board.get(5000, 5000));
+        assertNull(board.get(5001, 5000));
+        assertEquals(1, board.chunkCount());
+
+        board.set(3, 3, null);
+        assertNull(board.get(-1, 3));
+        assertEquals(1, board.chunkCount());
+    }
+
+    /**
+     * Test for marking cells covered by holes.
+     */
+    @Test
+    public void testCoveredByHole() {
+        board.setCoveredByHole(16, 0, true);
+        assertTrue(board.isCoveredByHole(16, 0));
+        assertFalse(board.isCoveredByHole(15, 0));
+        board.setCoveredByHole(16, 0, false);
+        assertFalse(board.isCoveredByHole(16, 0));
+    }
+
+    /**
+     * Test for collecting tiles row by row across chunk borders.
+     */
+    @Test
+    public void testCollectTiles() {
+        Tile a = new Tile(0, 0, 32, Tile.TileType.WALL, 0);
+        Tile b = new Tile(0, 0, 32, Tile.TileType.WALL, 0);
+        Tile c = new Tile(0, 0, 32, Tile.TileType.WALL, 0);
+        board.set(17, 14, c);
+        board.set(15, 14, b);
+        board.set(14, 13, a);
+        board.set(40, 40, new Tile(0, 0, 32, Tile.TileType.WALL, 0));
+
+        ArrayList<Tile> found = new ArrayList<>();
+        board.collectTiles(13, 13, 18, 15, found);
+        assertEquals(3, found.size());
+        assertSame(a, found.get(0));
+        assertSame(b, found.get(1));
+        assertSame(c, found.get(2));
+    }
+}
@@ -0,0 +1,116 @@
+package inkball;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigRepositoryTest {
+
+    @TempDir
+    File directory;
+
+    private File configFile;
+    private File layoutFile;
+
+    /**
+     * Writes a config file for a level with the given time.
+     */
+    private void writeConfig(int time) throws IOException {
+        String json = "{\"levels\": [{\"layout\": \"" + layoutFile.getPath().replace("\\", "\\\\") + "\", \"time\": " + time
+                + ", \"spawn_interval\": 5, \"score_increase_from_hole_capture_modifier\": 1.5,"
+                + " \"score_decrease_from_wrong_hole_modifier\": 0.5, \"balls\": [\"blue\", \"red\", \"grey\"]}],"
+                + " \"score_increase_from_hole_capture\": {\"grey\": 70, \"blue\": 50},"
+                + " \"score_decrease_from_wrong_hole\": {\"grey\": 0, \"blue\": 25}}";
+        Files.write(configFile.toPath(), json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Set up before testing.
+     */
+    @BeforeEach
+    public void setup() throws IOException {
+        configFile = new File(directory, "config.json");
+        layoutFile = new File(directory, "level.txt");
+        Files.write(layoutFile.toPath(), "X  X\nS  H0\n".getBytes(StandardCharsets.UTF_8));
+        writeConfig(120);
+    }
+
+    /**
+     * Test for parsing levels into immutable objects.
+     */
+    @Test
+    public void testLoad() throws IOException {
+        ConfigRepository repository = new ConfigRepository(configFile.getPath());
+        assertEquals(1, repository.levelCount());
+        assertEquals(1, repository.version);
+
+        LevelConfig level = repository.level(0);
+        assertEquals(120, level.time);
+        assertEquals(5, level.spawnInterval);
+        assertEquals(1.5f, level.scoreIncreaseModifier, 1e-6);
+        assertEquals(2, level.layout.size());
+        assertEquals("S  H0", level.layout.get(1));
+        assertEquals(50, level.scoreIncreaseFromHoleCapture.get("blue"));
+        assertThrows(UnsupportedOperationException.class, () -> level.balls.add("green"));
+    }
+
+    /**
+     * Test for loading a parsed level into a {@code GetConfig} without reading files.
+     */
+    @Test
+    public void testLoadIntoGetConfig() throws IOException {
+        LevelConfig level = new ConfigRepository(configFile.getPath()).level(0);
+        GetConfig config = new GetConfig("missing.json");
+        config.loadConfig(level);
+
+        assertEquals(120, config.time);
+        assertArrayEquals(new String[]{"X  X", "S  H0"}, config.layoutLevelFile);
+        assertEquals(2, config.realTopBarBalls.size());
+        assertEquals(20 + 2 * 32, config.realTopBarBalls.get(1).x);
+        assertEquals(25, config.scoreDecreaseFromWrongHole.get("blue"));
+    }
+
+    /**
+     * Test for a broken config file leaving the previous levels in place.
+     */
+    @Test
+    public void testReload() throws IOException {
+        ConfigRepository repository = new ConfigRepository(configFile.getPath());
+        LevelConfig first = repository.level(0);
+
+        writeConfig(60);
+        repository.reload();
+        assertEquals(60, repository.level(0).time);
+        assertEquals(120, first.time);
+
+        Files.write(configFile.toPath(), "{\"levels\": [".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, repository::reload);
+        assertEquals(60, repository.level(0).time);
+        assertEquals(2, repository.version);
+    }
+
+    /**
+     * Test for edits being picked up by the watcher.
+     */
+    @Test
+    public void testWatch() throws Exception {
+        ConfigRepository repository = new ConfigRepository(configFile.getPath());
+        repository.startWatching();
+        try {
+            Files.write(layoutFile.toPath(), "XXXX\n".getBytes(StandardCharsets.UTF_8));
+            long deadline = System.currentTimeMillis() + 10000;
+            while (repository.level(0).layout.size() != 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals("XXXX", repository.level(0).layout.get(0));
+        } finally {
+            repository.stopWatching();
+        }
+    }
+}
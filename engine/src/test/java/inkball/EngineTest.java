@@ -0,0 +1,121 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EngineTest {
+
+    /**
+     * Creates the configuration of an empty walled level with the given queued balls.
+     */
+    private LevelConfig createConfig(int time, List<String> balls) {
+        ArrayList<String> layout = new ArrayList<>();
+        layout.add("XXXXXXXXXXXXXXXXXX");
+        layout.add("X S              X");
+        layout.add("X          S     X");
+        for (int row = 3; row < 17; row++) {
+            layout.add("X                X");
+        }
+        layout.add("XXXXXXXXXXXXXXXXXX");
+        HashMap<String, Integer> scores = new HashMap<>();
+        for (String colour : new String[]{"grey", "orange", "blue", "green", "yellow"}) {
+            scores.put(colour, 10);
+        }
+        return new LevelConfig("test.txt", layout, null, time, 5, 1, 1, balls, scores, scores);
+    }
+
+    /**
+     * Test for a level with nothing to play completing at once, with the time left added to its own scoreboard.
+     */
+    @Test
+    public void testComplete() throws IOException {
+        Engine engine = new Engine(createConfig(10, Collections.emptyList()), 0);
+        assertEquals(Engine.BOARD_WIDTH, engine.level.boardWidth);
+        long ticks = engine.run(10_000);
+
+        assertTrue(engine.completed);
+        assertFalse(engine.failed);
+        assertTrue(ticks < 10 * Engine.FPS);
+        assertEquals(ticks, engine.ticks);
+        assertTrue(engine.scoreboard.total > 0);
+        assertEquals(engine.level.score, engine.scoreboard.total);
+        assertFalse(engine.step());
+    }
+
+    /**
+     * Test for a level failing when its time runs out with balls still queued.
+     */
+    @Test
+    public void testTimeOut() throws IOException {
+        Engine engine = new Engine(createConfig(1, Arrays.asList("blue", "green")), 0);
+        assertEquals(Engine.FPS, engine.run(10_000));
+        assertTrue(engine.failed);
+        assertFalse(engine.completed);
+        assertEquals(0, engine.scoreboard.total);
+    }
+
+    /**
+     * Test for the same seed playing a level the same way, and for a reset level starting its randomness over.
+     */
+    @Test
+    public void testSeed() throws IOException {
+        List<String> balls = Arrays.asList("blue", "green", "orange", "yellow", "grey", "blue");
+        Engine first = new Engine(createConfig(60, balls), 7);
+        Engine second = new Engine(createConfig(60, balls), 7);
+        first.run(20 * Engine.FPS);
+        second.run(20 * Engine.FPS);
+        assertEquals(first.level.balls.size(), second.level.balls.size());
+        assertTrue(first.level.balls.size() > 2);
+        for (int i = 0; i < first.level.balls.size(); i++) {
+            assertEquals(first.level.balls.get(i).x, second.level.balls.get(i).x);
+            assertEquals(first.level.balls.get(i).y, second.level.balls.get(i).y);
+        }
+
+        Engine other = new Engine(createConfig(60, balls), 8);
+        other.run(20 * Engine.FPS);
+        boolean differs = false;
+        for (int i = 0; i < other.level.balls.size(); i++) {
+            differs |= other.level.balls.get(i).x != first.level.balls.get(i).x
+                    || other.level.balls.get(i).y != first.level.balls.get(i).y;
+        }
+        assertTrue(differs);
+
+        first.level.reset();
+        assertEquals(7, first.level.seed);
+        assertEquals(new Engine(createConfig(60, balls), 7).level.spawnRandom.nextLong(),
+                first.level.spawnRandom.nextLong());
+    }
+
+    /**
+     * Test for engines running on several threads at once, each keeping its own score.
+     */
+    @Test
+    public void testManyEngines() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            ArrayList<Future<Engine>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                LevelConfig config = i % 2 == 0 ? createConfig(10, Collections.emptyList())
+                        : createConfig(1, Collections.singletonList("orange"));
+                results.add(pool.submit(() -> {
+                    Engine engine = new Engine(config, 0);
+                    engine.run(10_000);
+                    return engine;
+                }));
+            }
+            float completedScore = results.get(0).get().scoreboard.total;
+            for (int i = 0; i < results.size(); i++) {
+                Engine engine = results.get(i).get();
+                assertTrue(engine.isOver());
+                assertEquals(i % 2 == 0, engine.completed);
+                assertEquals(i % 2 == 0 ? completedScore : 0, engine.scoreboard.total);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
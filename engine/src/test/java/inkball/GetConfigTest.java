@@ -1,7 +1,6 @@
 package inkball;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
-import processing.core.PApplet;
 
 import java.util.HashMap;
 
@@ -15,11 +14,7 @@ public class GetConfigTest {
      */
     @BeforeAll
     public static void setup() {
-        App app = new App();
-        PApplet.runSketch(new String[]{"App"}, app);
-        app.setup();
-        app.stop();
-        newConfig = app.config;
+        newConfig = new GetConfig("config.json");
     }
 
     /**
@@ -32,8 +27,11 @@ public class GetConfigTest {
         assertEquals(10, newConfig.spawnInterval);
         assertEquals(1.0, newConfig.scoreIncreaseModifier, 1e-6);
         assertEquals(1.0, newConfig.scoreDecreaseModifier, 1e-6);
-        assertEquals(6, newConfig.topBarBalls.size());
         assertEquals(6, newConfig.realTopBarBalls.size());
+        int first = newConfig.realTopBarBalls.poll();
+        newConfig.resetTopBar();
+        assertEquals(6, newConfig.realTopBarBalls.size());
+        assertEquals(first, newConfig.realTopBarBalls.get(0).colorIndex);
 
         HashMap<String, Integer> scoreIncreaseFromHoleCapture = newConfig.scoreIncreaseFromHoleCapture;
         assertEquals(5, scoreIncreaseFromHoleCapture.size());
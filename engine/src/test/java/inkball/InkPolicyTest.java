@@ -0,0 +1,63 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InkPolicyTest {
+
+    /**
+     * Creates a level with a blue hole on the left and an orange hole on the right.
+     */
+    private Level createLevel() {
+        Level level = new Level(12, 8, 32, 64);
+        level.load(LevelTemplate.fromLayout(Arrays.asList(
+                "            ",
+                "            ",
+                " H2      H1 ",
+                "            ",
+                "            ",
+                "            "), 32, 64));
+        return level;
+    }
+
+    /**
+     * Test for the hole a ball is steered to being the nearest one it scores in.
+     */
+    @Test
+    public void testTargetHole() {
+        Level level = createLevel();
+        InkPolicy policy = new InkPolicy();
+        assertEquals(2, policy.targetHole(level, new Ball(300, 200, 2)).colorIndex);
+        assertEquals(1, policy.targetHole(level, new Ball(32, 200, 1)).colorIndex);
+        assertEquals(1, policy.targetHole(level, new Ball(300, 200, 0)).colorIndex);
+        assertNull(policy.targetHole(level, new Ball(300, 200, 3)));
+    }
+
+    /**
+     * Test for a stroke being drawn ahead of a ball heading away from its hole, and only on the policy's ticks.
+     */
+    @Test
+    public void testApply() {
+        Level level = createLevel();
+        InkPolicy policy = new InkPolicy();
+        Ball ball = new Ball(200, 200, 2);
+        ball.i = 2;
+        ball.j = 2;
+        level.balls.add(ball);
+
+        policy.apply(level, 1);
+        assertTrue(level.playerLines.isEmpty());
+        policy.apply(level, InkPolicy.INTERVAL_TICKS);
+        assertEquals(1, level.playerLines.size());
+        float[] first = level.playerLines.get(0).points.get(0);
+        assertEquals(ball.x + ball.diameter / 2 + InkPolicy.LEAD, first[0], 1e-3);
+
+        for (int i = 0; i < 30; i++) {
+            level.updateBalls(new HashMap<>(), new HashMap<>(), 1, 1, new BallQueue());
+        }
+        assertTrue(ball.i < 0);
+        assertTrue(level.playerLines.isEmpty());
+    }
+}
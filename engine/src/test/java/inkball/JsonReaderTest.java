@@ -0,0 +1,62 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonReaderTest {
+
+    /**
+     * Test for parsing an object into maps, lists and doubles in the order it is written.
+     */
+    @Test
+    public void testParseObject() {
+        Map<String, Object> object = JsonReader.parseObject(
+                "{\"layout\": \"level1.txt\", \"time\": 120, \"modifier\": -1.5e0,"
+                        + " \"balls\": [\"blue\", \"red\"], \"scores\": {\"grey\": 70}, \"on\": true, \"none\": null}");
+        assertEquals(Arrays.asList("layout", "time", "modifier", "balls", "scores", "on", "none"),
+                Arrays.asList(object.keySet().toArray()));
+        assertEquals("level1.txt", object.get("layout"));
+        assertEquals(120.0, object.get("time"));
+        assertEquals(-1.5, object.get("modifier"));
+        assertEquals(Arrays.asList("blue", "red"), object.get("balls"));
+        assertEquals(70.0, ((Map<?, ?>) object.get("scores")).get("grey"));
+        assertEquals(Boolean.TRUE, object.get("on"));
+        assertTrue(object.containsKey("none"));
+        assertNull(object.get("none"));
+    }
+
+    /**
+     * Test for resolving escapes in strings.
+     */
+    @Test
+    public void testEscapes() {
+        assertEquals("a\"b\\c/d\neA", JsonReader.parse("\"a\\\"b\\\\c\\/d\\ne\\u0041\""));
+    }
+
+    /**
+     * Test for empty objects and arrays.
+     */
+    @Test
+    public void testEmpty() {
+        assertTrue(JsonReader.parseObject(" { } ").isEmpty());
+        assertTrue(((List<?>) JsonReader.parse("[ ]")).isEmpty());
+    }
+
+    /**
+     * Test for rejecting text that is not valid JSON.
+     */
+    @Test
+    public void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> JsonReader.parse("{\"a\": 1"));
+        assertThrows(IllegalArgumentException.class, () -> JsonReader.parse("{\"a\" 1}"));
+        assertThrows(IllegalArgumentException.class, () -> JsonReader.parse("[1, 2,]"));
+        assertThrows(IllegalArgumentException.class, () -> JsonReader.parse("\"unterminated"));
+        assertThrows(IllegalArgumentException.class, () -> JsonReader.parse("1 2"));
+        assertThrows(IllegalArgumentException.class, () -> JsonReader.parse("tru"));
+        assertThrows(IllegalArgumentException.class, () -> JsonReader.parseObject("[1]"));
+    }
+}
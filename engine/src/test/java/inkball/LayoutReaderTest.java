@@ -0,0 +1,88 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LayoutReaderTest {
+
+    /**
+     * Creates a level of four by four cells.
+     */
+    private Level createLevel() {
+        return new Level(4, 4, 32, 64);
+    }
+
+    /**
+     * Test for reading a layout row by row.
+     */
+    @Test
+    public void testNextRow() throws IOException {
+        LayoutReader reader = new LayoutReader(new StringReader("X  \n  X1\n"));
+        assertEquals("X  ", reader.nextRow());
+        assertEquals("  X1", reader.nextRow());
+        assertNull(reader.nextRow());
+        assertEquals(2, reader.rowsRead);
+        assertEquals(4, reader.maxRowLength);
+    }
+
+    /**
+     * Test for streamed layouts storing only non-blank cells and drawing blanks on the fly.
+     */
+    @Test
+    public void testStreamedLevel() throws IOException {
+        StringBuilder layout = new StringBuilder();
+        for (int row = 0; row < 200; row++) {
+            StringBuilder line = new StringBuilder();
+            for (int column = 0; column < 200; column++) {
+                line.append(row == 150 && column == 150 ? 'X' : ' ');
+            }
+            layout.append(line).append('\n');
+        }
+        Level level = createLevel();
+        level.getLevel(new LayoutReader(new StringReader(layout.toString())));
+
+        assertTrue(level.isLevelInitialized);
+        assertEquals(200, level.columns);
+        assertEquals(200, level.rows);
+        assertEquals(1, level.tiles.size());
+        assertEquals(1, level.board.chunkCount());
+        assertEquals(200 * 32, level.camera.worldWidth);
+
+        ArrayList<Tile> visible = level.collectVisibleTiles();
+        assertTrue(visible.size() < 50);
+        assertTrue(visible.stream().allMatch(tile -> tile.type == Tile.TileType.TILE));
+
+        level.camera.scroll(150 * 32 - 32, 150 * 32 - 32);
+        assertTrue(level.collectVisibleTiles().contains(level.tiles.get(0)));
+    }
+
+    /**
+     * Test for collision queries only returning tiles around a ball, followed by the holes in reach of a ball.
+     */
+    @Test
+    public void testCollectNearbyTiles() {
+        Level level = createLevel();
+        level.getLevel(new String[]{"X         X", "   H0      ", "           "});
+        Ball ball = new Ball(0, 64 + 64, 0);
+        ball.i = 0;
+        ball.j = 0;
+
+        ArrayList<Tile> nearby = level.collectNearbyTiles(ball);
+        assertTrue(nearby.contains(level.tiles.get(0)));
+        assertFalse(nearby.contains(level.tiles.get(10)));
+        assertEquals(0, nearby.stream().filter(tile -> tile.type == Tile.TileType.HOLE).count());
+
+        Ball other = new Ball(96 + 20, 64 + 32 + 20, 0);
+        level.balls.add(other);
+        nearby = level.collectNearbyTiles(ball);
+        assertSame(level.holes.get(0), nearby.get(nearby.size() - 1));
+        assertEquals(1, nearby.stream().filter(tile -> tile.type == Tile.TileType.HOLE).count());
+
+        nearby = level.collectNearbyTiles(other);
+        assertEquals(1, nearby.stream().filter(tile -> tile.type == Tile.TileType.HOLE).count());
+    }
+}
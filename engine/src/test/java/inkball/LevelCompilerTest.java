@@ -0,0 +1,123 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevelCompilerTest {
+
+    @TempDir
+    File directory;
+
+    private final List<String> layout = Arrays.asList(
+            "X1 S",
+            "H2 B3",
+            "  4 ");
+
+    /**
+     * Creates a level of five by five cells.
+     */
+    private Level createLevel() {
+        return new Level(5, 5, 32, 64);
+    }
+
+    /**
+     * Test for the compiled cell grid and tables.
+     */
+    @Test
+    public void testCompile() throws IOException {
+        CompiledLevel compiled = new CompiledLevel(LevelCompiler.compile(layout, "test"));
+        assertEquals(5, compiled.columns);
+        assertEquals(3, compiled.rows);
+        assertEquals(CompiledLevel.WALL, compiled.cellType(1, 0));
+        assertEquals(1, compiled.cellColour(1, 0));
+        assertEquals(CompiledLevel.HOLE, compiled.cellType(0, 1));
+        assertEquals(CompiledLevel.COVERED, compiled.cellType(1, 2));
+        assertEquals(CompiledLevel.BALL, compiled.cellType(3, 1));
+        assertEquals(CompiledLevel.EMPTY, compiled.cellType(4, 0));
+
+        assertEquals(1, compiled.holeCount);
+        assertEquals(2, compiled.holeColour(0));
+        assertEquals(1, compiled.spawnerCount);
+        assertEquals(3, compiled.spawnerColumn(0));
+        assertEquals(1, compiled.ballCount);
+        assertEquals(1, compiled.ballRow(0));
+        assertEquals(3, compiled.ballColour(0));
+    }
+
+    /**
+     * Test for malformed layouts being rejected with their position.
+     */
+    @Test
+    public void testValidation() {
+        IOException lastColumn = assertThrows(IOException.class, () -> LevelCompiler.compile(Arrays.asList("X  H"), "bad.txt"));
+        assertTrue(lastColumn.getMessage().startsWith("bad.txt:1:4:"));
+        assertThrows(IOException.class, () -> LevelCompiler.compile(Arrays.asList("  B"), "bad.txt"));
+        assertThrows(IOException.class, () -> LevelCompiler.compile(Arrays.asList("B7  "), "bad.txt"));
+        assertThrows(IOException.class, () -> LevelCompiler.compile(Arrays.asList("X?X"), "bad.txt"));
+        assertThrows(IOException.class, () -> LevelCompiler.compile(Arrays.asList("H0  ", " H1 "), "bad.txt"));
+    }
+
+    /**
+     * Test for a mapped compiled level building the same board as its text layout.
+     */
+    @Test
+    public void testLoadMapped() throws IOException {
+        File source = new File(directory, "level.txt");
+        Files.write(source.toPath(), String.join("\n", layout).getBytes(StandardCharsets.UTF_8));
+        File target = LevelCompiler.compile(source);
+        assertEquals("level.ikl", target.getName());
+
+        Level text = createLevel();
+        text.getLevel(layout.toArray(new String[0]));
+        Level mapped = createLevel();
+        mapped.getLevel(CompiledLevel.map(target));
+
+        assertTrue(mapped.isLevelInitialized);
+        assertEquals(text.columns, mapped.columns);
+        assertEquals(text.rows, mapped.rows);
+        assertEquals(text.holes.size(), mapped.holes.size());
+        assertEquals(text.spawner.size(), mapped.spawner.size());
+        assertEquals(text.balls.get(0).y, mapped.balls.get(0).y);
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < 5; column++) {
+                Tile expected = text.board.get(column, row);
+                Tile actual = mapped.board.get(column, row);
+                if (expected == null || expected.type == Tile.TileType.TILE) {
+                    assertNull(actual);
+                } else {
+                    assertEquals(expected.type, actual.type);
+                    assertEquals(expected.colorIndex, actual.colorIndex);
+                }
+                assertEquals(text.board.isCoveredByHole(column, row), mapped.board.isCoveredByHole(column, row));
+            }
+        }
+    }
+
+    /**
+     * Test for corrupt files being refused.
+     */
+    @Test
+    public void testCorrupt() throws IOException {
+        File file = new File(directory, "corrupt.ikl");
+        Files.write(file.toPath(), new byte[]{1, 2, 3, 4});
+        assertThrows(IOException.class, () -> CompiledLevel.map(file));
+    }
+
+    /**
+     * Test for the text loader skipping a ball in the last column instead of reading past the row.
+     */
+    @Test
+    public void testTextLoaderLastColumn() {
+        Level level = createLevel();
+        level.getLevel(new String[]{"X  B"});
+        assertTrue(level.balls.isEmpty());
+    }
+}
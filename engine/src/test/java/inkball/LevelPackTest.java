@@ -0,0 +1,120 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevelPackTest {
+
+    @TempDir
+    File directory;
+
+    /**
+     * Creates a level whose time identifies it.
+     */
+    private LevelConfig createLevel(int time) {
+        HashMap<String, Integer> increases = new HashMap<>();
+        increases.put("grey", 70);
+        increases.put("blue", 50);
+        HashMap<String, Integer> decreases = new HashMap<>();
+        decreases.put("grey", 0);
+        return new LevelConfig("level" + time + ".txt", Arrays.asList("X S", "H1 B2"), null, time, 5,
+                1.5f, 0.5f, Arrays.asList("blue", "grey"), increases, decreases);
+    }
+
+    /**
+     * Writes a pack of the given number of levels.
+     */
+    private File writePack(int count) throws IOException {
+        ArrayList<LevelConfig> levels = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            levels.add(createLevel(i));
+        }
+        File file = new File(directory, "levels" + LevelPack.EXTENSION);
+        LevelPack.write(file, levels);
+        return file;
+    }
+
+    /**
+     * Test for levels read back from a pack.
+     */
+    @Test
+    public void testWriteAndRead() throws IOException {
+        LevelPack pack = LevelPack.open(writePack(3), 4);
+        assertEquals(3, pack.levelCount());
+
+        LevelConfig level = pack.level(2);
+        assertEquals("level2.txt", level.layoutPath);
+        assertNull(level.layout);
+        assertEquals(2, level.time);
+        assertEquals(5, level.spawnInterval);
+        assertEquals(1.5f, level.scoreIncreaseModifier);
+        assertEquals(0.5f, level.scoreDecreaseModifier);
+        assertEquals(Arrays.asList("blue", "grey"), level.balls);
+        assertEquals(50, level.scoreIncreaseFromHoleCapture.get("blue"));
+        assertEquals(0, level.scoreDecreaseFromWrongHole.get("grey"));
+
+        CompiledLevel compiled = level.compiledLayout;
+        assertEquals(5, compiled.columns);
+        assertEquals(2, compiled.rows);
+        assertEquals(1, compiled.holeCount);
+        assertEquals(2, compiled.ballColour(0));
+    }
+
+    /**
+     * Test for levels being parsed once and evicted least recently used first.
+     */
+    @Test
+    public void testCache() throws IOException {
+        LevelPack pack = LevelPack.open(writePack(10), 2);
+
+        LevelConfig first = pack.level(0);
+        assertSame(first, pack.level(0));
+        assertEquals(1, pack.levelsParsed);
+
+        pack.level(1);
+        pack.level(0);
+        pack.level(2);
+        assertEquals(3, pack.levelsParsed);
+        assertEquals(2, pack.cachedLevels.size());
+        assertTrue(pack.cachedLevels.containsKey(0));
+        assertFalse(pack.cachedLevels.containsKey(1));
+
+        pack.level(1);
+        assertEquals(4, pack.levelsParsed);
+    }
+
+    /**
+     * Test for reading a level from a large pack parsing only that level.
+     */
+    @Test
+    public void testLargePack() throws IOException {
+        LevelPack pack = LevelPack.open(writePack(30000), LevelPack.DEFAULT_CACHED_LEVELS);
+        assertEquals(30000, pack.levelCount());
+        assertEquals(29999, pack.level(29999).time);
+        assertEquals(1, pack.levelsParsed);
+    }
+
+    /**
+     * Test for damaged packs being rejected.
+     */
+    @Test
+    public void testCorruptPack() throws IOException {
+        byte[] bytes = Files.readAllBytes(writePack(2).toPath());
+
+        assertThrows(IOException.class, () -> new LevelPack(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}), 1));
+        assertThrows(IOException.class, () -> new LevelPack(ByteBuffer.wrap(Arrays.copyOf(bytes, LevelPack.HEADER_BYTES)), 1));
+
+        LevelPack truncated = new LevelPack(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 10)), 1);
+        assertEquals(0, truncated.level(0).time);
+        assertThrows(UncheckedIOException.class, () -> truncated.level(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> truncated.level(2));
+    }
+}
@@ -0,0 +1,128 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevelTemplateTest {
+
+    private final List<String> layout = Arrays.asList(
+            "X1 S",
+            "H2 B3",
+            "  4 ");
+
+    /**
+     * Creates a level of five by five cells.
+     */
+    private Level createLevel() {
+        return new Level(5, 5, 32, 64);
+    }
+
+    /**
+     * Creates a level configuration around the test layout.
+     */
+    private LevelConfig createConfig() {
+        return new LevelConfig("test.txt", layout, null, 100, 5, 1, 1,
+                new ArrayList<>(), new HashMap<>(), new HashMap<>());
+    }
+
+    /**
+     * Test for the cells read from a text layout.
+     */
+    @Test
+    public void testFromLayout() {
+        LevelTemplate template = LevelTemplate.fromLayout(layout, 32, 64);
+        assertEquals(5, template.columns);
+        assertEquals(3, template.rows);
+        assertFalse(template.implicitBlankTiles);
+
+        assertEquals(1, template.holes.size());
+        assertEquals(2, template.holes.get(0).colorIndex);
+        assertEquals(64, template.holes.get(0).size);
+        assertEquals(1, template.spawners.size());
+        assertEquals(96, template.spawners.get(0).x);
+        assertEquals(1, template.balls.size());
+        assertEquals(3, template.balls.get(0).colorIndex);
+        assertEquals(96, template.balls.get(0).y);
+
+        LevelTemplate.Cell wall = template.tiles.get(1);
+        assertEquals(Tile.TileType.WALL, wall.type);
+        assertEquals(4, wall.hitBoxes.size());
+    }
+
+    /**
+     * Test for compiled layouts giving the same cells, without blank tiles.
+     */
+    @Test
+    public void testFromCompiled() throws IOException {
+        LevelTemplate text = LevelTemplate.fromLayout(layout, 32, 64);
+        LevelTemplate compiled = LevelTemplate.fromCompiled(new CompiledLevel(LevelCompiler.compile(layout, "test")), 32, 64);
+        assertTrue(compiled.implicitBlankTiles);
+        assertEquals(text.columns, compiled.columns);
+        assertEquals(text.rows, compiled.rows);
+        assertEquals(text.holes.get(0).x, compiled.holes.get(0).x);
+        assertEquals(text.spawners.get(0).y, compiled.spawners.get(0).y);
+        assertEquals(text.balls.get(0).x, compiled.balls.get(0).x);
+        for (LevelTemplate.Cell cell : compiled.tiles) {
+            assertNotEquals(Tile.TileType.TILE, cell.type);
+        }
+    }
+
+    /**
+     * Test for one template being shared by every level of the same configuration.
+     */
+    @Test
+    public void testShared() throws IOException {
+        LevelConfig config = createConfig();
+        LevelTemplate template = LevelTemplate.of(config, 32, 64);
+        assertSame(template, LevelTemplate.of(config, 32, 64));
+        assertNotSame(template, LevelTemplate.of(createConfig(), 32, 64));
+
+        Level first = createLevel();
+        Level second = createLevel();
+        first.load(template);
+        second.load(template);
+        assertNotSame(first.tiles.get(0), second.tiles.get(0));
+        assertSame(first.tiles.get(0).hitBoxes, second.tiles.get(0).hitBoxes);
+        assertThrows(IllegalArgumentException.class, () -> createLevel().load(LevelTemplate.fromLayout(layout, 16, 64)));
+    }
+
+    /**
+     * Test for a level being reset in place to its template.
+     */
+    @Test
+    public void testReset() {
+        Level level = createLevel();
+        level.load(LevelTemplate.fromLayout(layout, 32, 64));
+        Tile wall = level.tiles.get(0);
+        Ball ball = level.balls.get(0);
+
+        wall.hit(0);
+        wall.hit(0);
+        wall.hit(0);
+        assertEquals(Tile.TileType.TILE, wall.type);
+        ball.x = 200;
+        ball.colorIndex = 1;
+        level.balls.clear();
+        level.playerLines.add(new PlayerLine());
+        level.score = 50;
+        level.islevelFailed = true;
+        level.camera.x = 10;
+
+        level.reset();
+        assertSame(wall, level.tiles.get(0));
+        assertEquals(Tile.TileType.WALL, wall.type);
+        assertEquals(0, wall.hitCount);
+        assertEquals(1, level.balls.size());
+        assertSame(ball, level.balls.get(0));
+        assertEquals(96, ball.x);
+        assertEquals(3, ball.colorIndex);
+        assertTrue(level.playerLines.isEmpty());
+        assertEquals(0, level.score);
+        assertFalse(level.islevelFailed);
+        assertEquals(0, level.camera.x);
+        assertThrows(IllegalStateException.class, () -> createLevel().reset());
+    }
+}
@@ -0,0 +1,97 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevelTunerTest {
+
+    /**
+     * Creates the configuration of a walled level with a spawner, a grey hole and the given queued balls.
+     */
+    private LevelConfig createConfig(int time, List<String> balls) {
+        ArrayList<String> layout = new ArrayList<>();
+        layout.add("XXXXXXXXXXXXXXXXXX");
+        layout.add("X S              X");
+        for (int row = 2; row < 8; row++) {
+            layout.add("X                X");
+        }
+        layout.add("X       H0       X");
+        for (int row = 9; row < 17; row++) {
+            layout.add("X                X");
+        }
+        layout.add("XXXXXXXXXXXXXXXXXX");
+        HashMap<String, Integer> scores = new HashMap<>();
+        for (String colour : BatchSimulator.COLOURS) {
+            scores.put(colour, 10);
+        }
+        return new LevelConfig("tune.txt", layout, null, time, 2, 1, 1, balls, scores, scores);
+    }
+
+    /**
+     * Test for parsing the tuning options along with those of the simulator, which plays with ink.
+     */
+    @Test
+    public void testParse() {
+        LevelTuner tuner = LevelTuner.parse(new String[]{"--level", "1", "--min-clear", "0.2", "--max-clear", "0.3",
+                "--precision", "0.1", "--max-runs", "100", "--target-score", "250"});
+        assertEquals(1, tuner.simulator.levelIndex);
+        assertTrue(tuner.simulator.ink);
+        assertEquals(0.2, tuner.minClearRate);
+        assertEquals(0.3, tuner.maxClearRate);
+        assertEquals(0.1, tuner.precision);
+        assertEquals(100, tuner.maxRuns);
+        assertEquals(250, tuner.targetScore);
+        assertThrows(IllegalArgumentException.class, () -> LevelTuner.parse(new String[]{"--min-clear", "half"}));
+        assertThrows(IllegalArgumentException.class, () -> LevelTuner.parse(new String[]{"--runs", "x"}));
+    }
+
+    /**
+     * Test for the confidence interval of the clear rate, and for stopping early once a setting is clearly too easy.
+     */
+    @Test
+    public void testEstimate() throws IOException {
+        LevelTuner tuner = new LevelTuner(new BatchSimulator());
+        tuner.batchRuns = 16;
+        LevelTuner.Estimate easy = tuner.estimate(createConfig(10, Collections.emptyList()));
+        assertEquals(16, easy.runs);
+        assertEquals(1.0, easy.clearRate());
+        double[] interval = easy.interval();
+        assertTrue(interval[0] > tuner.maxClearRate);
+        assertEquals(1.0, interval[1], 1e-9);
+        assertSame(easy, tuner.estimate(createConfig(10, Collections.emptyList())));
+
+        LevelTuner.Estimate none = new LevelTuner.Estimate(easy.level, Collections.emptyList());
+        assertEquals(0, none.runs);
+        assertArrayEquals(new double[]{0, 1}, none.interval());
+    }
+
+    /**
+     * Test for the search ending on a setting at least as close to the band as the level's own,
+     * and for scaling the score modifiers towards a target score.
+     */
+    @Test
+    public void testSearch() throws IOException {
+        BatchSimulator simulator = new BatchSimulator();
+        simulator.maxTicks = 40L * Engine.FPS;
+        LevelTuner tuner = new LevelTuner(simulator);
+        tuner.batchRuns = 8;
+        tuner.maxRuns = 8;
+        LevelConfig level = createConfig(8, Arrays.asList("blue", "green", "orange"));
+
+        LevelTuner.Estimate best = tuner.search(level);
+        assertTrue(tuner.error(best) <= tuner.error(tuner.estimate(level)));
+        assertTrue(best.level.time >= 1 && best.level.spawnInterval >= 1);
+        assertEquals(level.balls, best.level.balls);
+
+        assertSame(best.level, tuner.suggestModifiers(best));
+        tuner.targetScore = 1000;
+        if (best.medianCaptureScore > 0) {
+            assertTrue(tuner.suggestModifiers(best).scoreIncreaseModifier > level.scoreIncreaseModifier);
+        }
+        assertEquals(5, LevelTuner.withTiming(level, 5, 0).time);
+        assertEquals(1, LevelTuner.withTiming(level, 5, 0).spawnInterval);
+    }
+}
@@ -1,6 +1,5 @@
 package inkball;
 import org.junit.jupiter.api.Test;
-import processing.core.PApplet;
 
 import java.util.ArrayList;
 
@@ -8,15 +7,13 @@ import static org.junit.jupiter.api.Assertions.*;
 
 public class PlayerLineTest {
 
-    PApplet p = new PApplet();
-
     /**
      * Test for adding points to the line.
      */
     @Test
     public void testAddPoint() {
         ArrayList<Ball> balls = new ArrayList<>();
-        balls.add(new Ball(p,52, 116, null, 0));
+        balls.add(new Ball(52, 116, 0));
         PlayerLine line = new PlayerLine();
 
         // Add invalid points
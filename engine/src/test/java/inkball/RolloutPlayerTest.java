@@ -0,0 +1,124 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RolloutPlayerTest {
+
+    /**
+     * Creates the configuration of a walled level with spawners, holes, a starting ball and the given queued balls.
+     */
+    private LevelConfig createConfig(int time, List<String> balls) {
+        ArrayList<String> layout = new ArrayList<>();
+        layout.add("XXXXXXXXXXXXXXXXXX");
+        layout.add("X S           S  X");
+        layout.add("X     B2         X");
+        for (int row = 3; row < 8; row++) {
+            layout.add("X       11       X");
+        }
+        layout.add("X H1         H2  X");
+        for (int row = 9; row < 17; row++) {
+            layout.add("X                X");
+        }
+        layout.add("XXXXXXXXXXXXXXXXXX");
+        HashMap<String, Integer> scores = new HashMap<>();
+        for (String colour : BatchSimulator.COLOURS) {
+            scores.put(colour, 10);
+        }
+        return new LevelConfig("bot.txt", layout, null, time, 2, 1, 1, balls, scores, scores);
+    }
+
+    /**
+     * Test for the candidates being drawing nothing followed by three strokes ahead of each ball.
+     */
+    @Test
+    public void testCandidates() throws IOException {
+        Engine engine = new Engine(createConfig(60, Collections.emptyList()), 1);
+        RolloutPlayer player = new RolloutPlayer(1, 0);
+        List<RolloutPlayer.Stroke> candidates = player.candidates(engine.level);
+        assertEquals(1 + 3 * engine.level.balls.size(), candidates.size());
+        assertNull(candidates.get(0));
+        for (RolloutPlayer.Stroke stroke : candidates.subList(1, candidates.size())) {
+            assertEquals(Math.round(stroke.x1), stroke.x1);
+            float length = (float) Math.hypot(stroke.x2 - stroke.x1, stroke.y2 - stroke.y1);
+            assertEquals(InkPolicy.STROKE_LENGTH, length, 2);
+        }
+    }
+
+    /**
+     * Test for a decision rolling out forks of the level without touching it, and the same decision
+     * made again being taken from the table.
+     */
+    @Test
+    public void testDecideFromTable() throws IOException {
+        Engine engine = new Engine(createConfig(60, Arrays.asList("orange", "blue")), 4);
+        engine.run(3 * Engine.FPS);
+        byte[] before = SaveState.save(engine);
+        RolloutPlayer player = new RolloutPlayer(2, 0);
+        try {
+            RolloutPlayer.Stroke first = player.decide(engine.level, engine.config.realTopBarBalls, engine.levelConfig);
+            assertArrayEquals(before, SaveState.save(engine));
+            long rollouts = player.rollouts.sum();
+            assertTrue(rollouts > 1);
+            assertEquals(0, player.cacheHits.sum());
+
+            RolloutPlayer.Stroke second = player.decide(engine.level, engine.config.realTopBarBalls, engine.levelConfig);
+            assertEquals(rollouts, player.rollouts.sum());
+            assertEquals(rollouts, player.cacheHits.sum());
+            assertEquals(first == null, second == null);
+            if (first != null) {
+                assertEquals(first.x1, second.x1);
+                assertEquals(first.y2, second.y2);
+            }
+        } finally {
+            player.shutdown();
+        }
+    }
+
+    /**
+     * Test for the table being emptied when the player moves to another configuration of the same layout,
+     * such as a level reloaded with a new time, so values from the old settings are not reused.
+     */
+    @Test
+    public void testTableClearedForNewConfig() throws IOException {
+        Engine engine = new Engine(createConfig(60, Arrays.asList("orange", "blue")), 4);
+        engine.run(3 * Engine.FPS);
+        RolloutPlayer player = new RolloutPlayer(1, 0);
+        player.decide(engine.level, engine.config.realTopBarBalls, engine.levelConfig);
+        long rollouts = player.rollouts.sum();
+        assertFalse(player.cache.isEmpty());
+
+        LevelConfig reloaded = createConfig(5, Arrays.asList("orange", "blue"));
+        player.decide(engine.level, engine.config.realTopBarBalls, reloaded);
+        assertEquals(0, player.cacheHits.sum());
+        assertEquals(2 * rollouts, player.rollouts.sum());
+    }
+
+    /**
+     * Test for a decision whose time budget is spent before any rollout finishes drawing nothing.
+     */
+    @Test
+    public void testBudgetSpent() throws IOException {
+        Engine engine = new Engine(createConfig(60, Collections.emptyList()), 1);
+        RolloutPlayer player = new RolloutPlayer(1, 1);
+        assertNull(player.decide(engine.level, engine.config.realTopBarBalls, engine.levelConfig));
+        assertEquals(1, player.decisions.sum());
+        assertTrue(player.cache.isEmpty());
+    }
+
+    /**
+     * Test for the player clearing a level headless without sending a ball into the wrong hole.
+     */
+    @Test
+    public void testPlaysLevel() throws IOException {
+        Engine engine = new Engine(createConfig(60, Arrays.asList("orange", "blue", "grey", "orange")), 5);
+        engine.player = new RolloutPlayer(1, 0);
+        engine.run(60 * Engine.FPS);
+        assertTrue(engine.completed);
+        assertEquals(0, engine.level.wrongHoleCaptures);
+        assertTrue(engine.player.decisions.sum() > 0);
+    }
+}
@@ -0,0 +1,133 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaveStateTest {
+
+    /**
+     * Creates the configuration of a walled level with spawners, holes, a starting ball and the given queued balls.
+     */
+    private LevelConfig createConfig(int time, List<String> balls) {
+        ArrayList<String> layout = new ArrayList<>();
+        layout.add("XXXXXXXXXXXXXXXXXX");
+        layout.add("X S           S  X");
+        layout.add("X     B2         X");
+        for (int row = 3; row < 8; row++) {
+            layout.add("X       11       X");
+        }
+        layout.add("X H1         H2  X");
+        for (int row = 9; row < 17; row++) {
+            layout.add("X                X");
+        }
+        layout.add("XXXXXXXXXXXXXXXXXX");
+        HashMap<String, Integer> scores = new HashMap<>();
+        for (String colour : BatchSimulator.COLOURS) {
+            scores.put(colour, 10);
+        }
+        return new LevelConfig("save.txt", layout, null, time, 2, 1, 1, balls, scores, scores);
+    }
+
+    /**
+     * Creates an engine drawing ink with the built-in policy.
+     */
+    private Engine createEngine(long seed) throws IOException {
+        Engine engine = new Engine(createConfig(60, Arrays.asList("blue", "orange", "grey", "orange", "blue",
+                "blue", "orange", "grey")), seed);
+        engine.ink = new InkPolicy();
+        return engine;
+    }
+
+    /**
+     * Test for an engine restored from a state playing on exactly as the engine it was saved from.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        Engine original = createEngine(3);
+        original.run(10 * Engine.FPS);
+        byte[] state = SaveState.save(original);
+        assertTrue(state.length < 4096);
+
+        Engine restored = createEngine(99);
+        restored.run(3 * Engine.FPS);
+        SaveState.restore(restored, state);
+        assertArrayEquals(state, SaveState.save(restored));
+        assertEquals(original.level.playerLines.size(), restored.level.playerLines.size());
+
+        for (int step = 0; step < 20; step++) {
+            original.run(Engine.FPS);
+            restored.run(Engine.FPS);
+            assertArrayEquals(SaveState.save(original), SaveState.save(restored));
+        }
+        assertEquals(original.ticks, restored.ticks);
+        assertEquals(original.scoreboard.total, restored.scoreboard.total);
+        assertEquals(original.level.balls.size(), restored.level.balls.size());
+    }
+
+    /**
+     * Test for a state saved once the level is complete bringing back the yellow tiles and the points for time left.
+     */
+    @Test
+    public void testCompletedLevel() throws IOException {
+        Engine original = new Engine(createConfig(60, Collections.emptyList()), 0);
+        while (!original.level.isLevelComplete || original.level.yellowTileMoveCounter < 3) {
+            original.step();
+        }
+        byte[] state = SaveState.save(original);
+
+        Engine restored = new Engine(createConfig(60, Collections.emptyList()), 0);
+        SaveState.restore(restored, state);
+        assertTrue(restored.level.isLevelComplete);
+        assertEquals(original.level.yellowTileTopLeftX, restored.level.yellowTileTopLeftX);
+        original.run(10_000);
+        restored.run(10_000);
+        assertTrue(restored.completed);
+        assertEquals(original.ticks, restored.ticks);
+        assertEquals(original.scoreboard.total, restored.scoreboard.total);
+        assertEquals(original.level.yellowTileMoveCounter, restored.level.yellowTileMoveCounter);
+    }
+
+    /**
+     * Test for the state of a level alone forking it onto another engine, which then plays on as the level would.
+     */
+    @Test
+    public void testLevelFork() throws IOException {
+        Engine original = createEngine(8);
+        original.run(12 * Engine.FPS);
+        byte[] state = SaveState.saveLevel(original.level, original.config.realTopBarBalls);
+        assertThrows(IOException.class, () -> SaveState.restore(original, state));
+
+        Engine fork = new Engine(original.levelConfig, 0);
+        SaveState.restoreLevel(fork.level, fork.config.realTopBarBalls, state);
+        assertArrayEquals(state, SaveState.saveLevel(fork.level, fork.config.realTopBarBalls));
+        original.ink = null;
+        original.run(5 * Engine.FPS);
+        fork.run(5 * Engine.FPS);
+        assertEquals(original.level.score, fork.level.score);
+        assertArrayEquals(SaveState.saveLevel(original.level, original.config.realTopBarBalls),
+                SaveState.saveLevel(fork.level, fork.config.realTopBarBalls));
+    }
+
+    /**
+     * Test for states that are not engine states of this version, or are cut short, being rejected.
+     */
+    @Test
+    public void testBadState() throws IOException {
+        Engine engine = createEngine(0);
+        byte[] state = SaveState.save(engine);
+
+        byte[] badMagic = state.clone();
+        badMagic[0] = 0;
+        assertThrows(IOException.class, () -> SaveState.restore(engine, badMagic));
+        byte[] badVersion = state.clone();
+        badVersion[5] = (byte) (SaveState.VERSION + 1);
+        assertThrows(IOException.class, () -> SaveState.restore(engine, badVersion));
+        byte[] badKind = state.clone();
+        badKind[6] = SaveState.KIND_GAME;
+        assertThrows(IOException.class, () -> SaveState.restore(engine, badKind));
+        assertThrows(IOException.class, () -> SaveState.restore(engine, Arrays.copyOf(state, state.length - 3)));
+    }
+}
@@ -11,7 +11,7 @@ public class TileTest {
      */
     @Test
     public void testWall() {
-        Tile wall = new Tile(32, 64, App.CELLSIZE, Tile.TileType.WALL, null, 0);
+        Tile wall = new Tile(32, 64, Engine.CELLSIZE, Tile.TileType.WALL, 0);
         assertEquals(4, wall.getHitBoxes().size());
         assertEquals(Tile.TileType.WALL, wall.type);
         assertEquals(32, wall.size);
@@ -27,7 +27,7 @@ public class TileTest {
      */
     @Test
     public void testHole() {
-        Tile hole = new Tile(32, 32, App.CELLSIZE * 2, Tile.TileType.HOLE, null, 1);
+        Tile hole = new Tile(32, 32, Engine.CELLSIZE * 2, Tile.TileType.HOLE, 1);
         assertEquals(0, hole.getHitBoxes().size());
         assertEquals(Tile.TileType.HOLE, hole.type);
         assertEquals(64, hole.size);
@@ -41,15 +41,15 @@ public class TileTest {
      */
     @Test
     public void testHit() {
-        tile = new Tile(0, 0, 32, Tile.TileType.WALL, null, 1);
+        tile = new Tile(0, 0, 32, Tile.TileType.WALL, 1);
         assertEquals(0, tile.hitCount);
-        tile.hit(null, 1);
+        tile.hit(1);
         assertEquals(1, tile.hitCount);
-        tile.hit(null, 1);
+        tile.hit(1);
         assertEquals(2, tile.hitCount);
-        tile.hit(null, 2);
+        tile.hit(2);
         assertEquals(2, tile.hitCount);
-        tile.hit(null, 1);
+        tile.hit(1);
         assertEquals(3, tile.hitCount);
         assertSame(tile.type, Tile.TileType.TILE);
     }
@@ -59,13 +59,29 @@ public class TileTest {
      */
     @Test
     public void testForZeroColorIndex() {
-        tile = new Tile(0, 0, 32, Tile.TileType.WALL, null, 1);
+        tile = new Tile(0, 0, 32, Tile.TileType.WALL, 1);
         tile.colorIndex = 0;
-        tile.hit(null, 1);
+        tile.hit(1);
         assertEquals(1, tile.hitCount);
-        tile.hit(null, 2);
+        tile.hit(2);
         assertEquals(2, tile.hitCount);
-        tile.hit(null, 3);
+        tile.hit(3);
         assertEquals(3, tile.hitCount);
     }
+
+    /**
+     * Test for naming the sprite a tile is drawn with as it is damaged.
+     */
+    @Test
+    public void testCurrentSprite() {
+        tile = new Tile(0, 0, 32, Tile.TileType.WALL, 2);
+        assertEquals(Tile.WALL_SPRITES[2], tile.getCurrentSprite());
+        tile.hit(2);
+        tile.hit(2);
+        assertEquals(Tile.DAMAGED_WALL_SPRITES[2], tile.getCurrentSprite());
+        tile.hit(2);
+        assertEquals(Tile.BLANK_SPRITE, tile.getCurrentSprite());
+        assertEquals(Tile.HOLE_SPRITES[1], new Tile(0, 0, 64, Tile.TileType.HOLE, 1).getCurrentSprite());
+        assertEquals(Tile.ENTRYPOINT_SPRITE, new Tile(0, 0, 32, Tile.TileType.ENTRYPOINT, 0).getCurrentSprite());
+    }
 }
@@ -0,0 +1,111 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelTest {
+
+    /**
+     * Test for one-off timers running on the tick they are due, including delays spanning several wheels.
+     */
+    @Test
+    public void testOneOff() {
+        TimingWheel wheel = new TimingWheel();
+        ArrayList<Long> ran = new ArrayList<>();
+        long[] delays = {0, 1, 255, 256, 257, 65_535, 65_536, 70_000, 200_000};
+        for (long delay : delays) {
+            wheel.schedule(delay, () -> ran.add(wheel.now));
+        }
+        assertEquals(delays.length, wheel.activeTimers);
+
+        for (int i = 0; i < 200_000; i++) {
+            wheel.advance();
+        }
+        assertEquals(Arrays.asList(1L, 1L, 255L, 256L, 257L, 65_535L, 65_536L, 70_000L, 200_000L), ran);
+        assertEquals(0, wheel.activeTimers);
+    }
+
+    /**
+     * Test for repeating timers, and for cancelled timers never running.
+     */
+    @Test
+    public void testRepeatingAndCancel() {
+        TimingWheel wheel = new TimingWheel();
+        int[] runs = {0, 0};
+        TimingWheel.Timer repeating = wheel.schedule(10, 10, () -> runs[0]++);
+        TimingWheel.Timer cancelled = wheel.schedule(5, () -> runs[1]++);
+        cancelled.cancel();
+        assertFalse(cancelled.isActive());
+
+        for (int i = 0; i < 1000; i++) {
+            wheel.advance();
+        }
+        assertEquals(100, runs[0]);
+        assertEquals(0, runs[1]);
+        assertEquals(10, repeating.remaining());
+
+        repeating.cancel();
+        wheel.advance();
+        assertEquals(0, wheel.activeTimers);
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(1, -1, () -> { }));
+    }
+
+    /**
+     * Test for the cost of a tick not depending on how many timers wait on other ticks.
+     */
+    @Test
+    public void testManyTimers() {
+        TimingWheel wheel = new TimingWheel();
+        int[] runs = {0};
+        for (int i = 0; i < 100_000; i++) {
+            wheel.schedule(1_000 + i, () -> runs[0]++);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            wheel.advance();
+        }
+        assertEquals(1, runs[0]);
+
+        wheel.clear();
+        for (int i = 0; i < 200_000; i++) {
+            wheel.advance();
+        }
+        assertEquals(1, runs[0]);
+        assertEquals(0, wheel.activeTimers);
+    }
+
+    /**
+     * Test for the level spawning on its spawn timer, failing on its timeout and freezing while not ticked.
+     */
+    @Test
+    public void testLevelTimers() {
+        Level level = new Level(5, 5, 32, 64);
+        level.load(LevelTemplate.fromLayout(Arrays.asList("S    ", "     "), 32, 64));
+        BallQueue queue = new BallQueue();
+        queue.add(1, 20);
+        queue.add(2, 52);
+
+        level.startTimers(3, 1, queue);
+        assertEquals(3, level.countdownTime);
+        assertEquals(1.0f, level.spawnCountdown, 0.001f);
+        for (int i = 0; i < Engine.FPS - 1; i++) {
+            level.tick();
+        }
+        assertTrue(level.balls.isEmpty());
+        level.tick();
+        assertEquals(1, level.balls.size());
+        assertEquals(1, level.balls.get(0).colorIndex);
+        assertEquals(2, level.countdownTime);
+
+        for (int i = 0; i < 2 * Engine.FPS; i++) {
+            level.tick();
+        }
+        assertTrue(level.islevelFailed);
+        assertEquals(0, level.countdownTime);
+
+        level.reset();
+        assertFalse(level.timersStarted);
+        assertEquals(0, level.timers.activeTimers);
+    }
+}